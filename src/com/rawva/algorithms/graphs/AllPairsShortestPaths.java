@@ -0,0 +1,422 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.Graph;
+import com.rawva.structures.graphs.WeightedGraph;
+
+/**
+ * This class computes the distance between every pair of elements (vertices)
+ * of a weighted graph, where the length of each edge is a weight function
+ * applied to its weight. Lengths may be negative, as long as the graph has no
+ * cycle of negative total length. <br/>
+ * <br/>
+ * The distances are kept in one flat row-major matrix of doubles, indexed
+ * like the vertices of a CsrGraph snapshot of the graph, so a graph of n
+ * vertices takes 8n<sup>2</sup> bytes. They are computed in parallel on a
+ * ForkJoinPool with one of two algorithms:
+ * <ul>
+ * <li>Floyd-Warshall, tiled into square blocks that fit in cache. Each of the
+ * n / 64 phases updates the diagonal block, then the blocks in its row and
+ * column in parallel, then all other blocks in parallel. The work is
+ * proportional to n<sup>3</sup> whatever the number of edges.</li>
+ * <li>Johnson's algorithm, which makes every length non-negative with
+ * potentials computed by Bellman-Ford (skipped if no length is negative) and
+ * then runs Dijkstra's algorithm from every source in parallel. The work is
+ * proportional to n times m log n for m edges.</li>
+ * </ul>
+ * By default, Johnson's algorithm is used when fewer than a sixteenth of all
+ * possible edges are present, and Floyd-Warshall otherwise.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ * @param <W>
+ *            the type of edge weights in the graph
+ */
+public class AllPairsShortestPaths<V, W> {
+
+	private static final int BLOCK_SIZE = 64;
+	private static final int SOURCES_PER_TASK = 16;
+	private static final int MAXIMUM_VERTICES = 46340;
+
+	private final CsrGraph<V, W> graph;
+	private final Algorithm algorithm;
+	private final double[] distances;
+
+	/**
+	 * The algorithms with which all distances can be computed.
+	 */
+	public enum Algorithm {
+
+		/**
+		 * A tiled Floyd-Warshall over the distance matrix, which suits dense
+		 * graphs.
+		 */
+		FLOYD_WARSHALL,
+
+		/**
+		 * Johnson's algorithm, one Dijkstra search per source, which suits
+		 * sparse graphs.
+		 */
+		JOHNSON
+
+	}
+
+	/**
+	 * Computes all distances in the specified graph with the algorithm that
+	 * suits its density, using the common ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph whose distances we want
+	 * @param weightFunction
+	 *            the function converting an edge weight to a length
+	 * @throws NullPointerException
+	 *             if the specified graph or weight function is null
+	 * @throws IllegalArgumentException
+	 *             if the graph has more than 46340 vertices or a cycle of
+	 *             negative length, or the length of some edge is NaN
+	 */
+	public AllPairsShortestPaths(WeightedGraph<V, W> graph, ToDoubleFunction<? super W> weightFunction) {
+		this(graph, weightFunction, chooseAlgorithm(graph), ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes all distances in the specified graph with the specified
+	 * algorithm, using the common ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph whose distances we want
+	 * @param weightFunction
+	 *            the function converting an edge weight to a length
+	 * @param algorithm
+	 *            the algorithm with which to compute the distances
+	 * @throws NullPointerException
+	 *             if the specified graph, weight function or algorithm is null
+	 * @throws IllegalArgumentException
+	 *             if the graph has more than 46340 vertices or a cycle of
+	 *             negative length, or the length of some edge is NaN
+	 */
+	public AllPairsShortestPaths(WeightedGraph<V, W> graph, ToDoubleFunction<? super W> weightFunction,
+			Algorithm algorithm) {
+		this(graph, weightFunction, algorithm, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes all distances in the specified graph with the specified
+	 * algorithm, using the specified ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph whose distances we want
+	 * @param weightFunction
+	 *            the function converting an edge weight to a length
+	 * @param algorithm
+	 *            the algorithm with which to compute the distances
+	 * @param pool
+	 *            the pool in which to compute the distances
+	 * @throws NullPointerException
+	 *             if the specified graph, weight function, algorithm or pool
+	 *             is null
+	 * @throws IllegalArgumentException
+	 *             if the graph has more than 46340 vertices or a cycle of
+	 *             negative length, or the length of some edge is NaN
+	 */
+	public AllPairsShortestPaths(WeightedGraph<V, W> graph, ToDoubleFunction<? super W> weightFunction,
+			Algorithm algorithm, ForkJoinPool pool) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (weightFunction == null) {
+			throw new NullPointerException("Weight function cannot be null");
+		}
+		if (algorithm == null) {
+			throw new NullPointerException("Algorithm cannot be null");
+		}
+		if (pool == null) {
+			throw new NullPointerException("Pool cannot be null");
+		}
+		if (graph.getNumberOfVertices() > MAXIMUM_VERTICES) {
+			throw new IllegalArgumentException(
+					"Too many vertices for a distance matrix: " + graph.getNumberOfVertices());
+		}
+
+		this.graph = graph instanceof CsrGraph ? (CsrGraph<V, W>) graph : new CsrGraph<>(graph);
+		this.algorithm = algorithm;
+		int n = this.graph.getNumberOfVertices();
+		double[] lengths = new double[this.graph.getNumberOfStoredEdges()];
+		for (int position = 0; position < lengths.length; position++) {
+			lengths[position] = weightFunction.applyAsDouble(this.graph.getWeightAt(position));
+			if (Double.isNaN(lengths[position])) {
+				throw new IllegalArgumentException("Edge lengths cannot be NaN");
+			}
+		}
+		CsrArrays edges = new CsrArrays(this.graph);
+		this.distances = new double[n * n];
+		if (algorithm == Algorithm.FLOYD_WARSHALL) {
+			floydWarshall(edges, lengths, n, distances, pool);
+		} else {
+			johnson(edges, lengths, n, distances, pool);
+		}
+	}
+
+	/**
+	 * Returns the algorithm that the two-argument constructor uses for the
+	 * specified graph: Johnson's algorithm if fewer than a sixteenth of all
+	 * possible edges are present, else Floyd-Warshall.
+	 * 
+	 * @param graph
+	 *            the graph whose distances we want
+	 * @return the algorithm that suits the density of the graph
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 */
+	public static Algorithm chooseAlgorithm(Graph<?> graph) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+
+		long n = graph.getNumberOfVertices();
+		long storedEdges = graph.isDirected() ? graph.getNumberOfEdges() : 2L * graph.getNumberOfEdges();
+		return storedEdges * 16 < n * n ? Algorithm.JOHNSON : Algorithm.FLOYD_WARSHALL;
+	}
+
+	/**
+	 * Returns the algorithm with which the distances were computed.
+	 * 
+	 * @return the algorithm with which the distances were computed
+	 */
+	public Algorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * Returns the length of a shortest path from the source element to the
+	 * target element, or positive infinity if the target cannot be reached
+	 * from the source.
+	 * 
+	 * @param source
+	 *            the element at which the path starts
+	 * @param target
+	 *            the element at which the path ends
+	 * @return the distance from source to target
+	 * @throws IllegalArgumentException
+	 *             if the source or target element is not in the graph
+	 */
+	public double getDistance(V source, V target) {
+		int sourceIndex = graph.getVertexIndex(source);
+		if (sourceIndex < 0) {
+			throw new IllegalArgumentException("Source element is not in the graph");
+		}
+		int targetIndex = graph.getVertexIndex(target);
+		if (targetIndex < 0) {
+			throw new IllegalArgumentException("Target element is not in the graph");
+		}
+		return distances[sourceIndex * graph.getNumberOfVertices() + targetIndex];
+	}
+
+	/**
+	 * Returns the distance from the vertex with the specified source index to
+	 * the vertex with the specified target index in the graph returned by
+	 * getGraph().
+	 * 
+	 * @param sourceIndex
+	 *            the index of the source
+	 * @param targetIndex
+	 *            the index of the target
+	 * @return the distance from source to target
+	 * @throws IndexOutOfBoundsException
+	 *             if either index is out of range
+	 */
+	public double getDistanceAt(int sourceIndex, int targetIndex) {
+		int n = graph.getNumberOfVertices();
+		if (sourceIndex < 0 || sourceIndex >= n || targetIndex < 0 || targetIndex >= n) {
+			throw new IndexOutOfBoundsException("Index out of range: " + sourceIndex + ", " + targetIndex);
+		}
+		return distances[sourceIndex * n + targetIndex];
+	}
+
+	/**
+	 * Returns the distance matrix in row-major order: the distance from the
+	 * vertex with index i to the vertex with index j in the graph returned by
+	 * getGraph() is at position i * n + j. The array is not copied.
+	 * 
+	 * @return the distance matrix
+	 */
+	public double[] getDistances() {
+		return distances;
+	}
+
+	/**
+	 * Returns the snapshot of the graph whose distances were computed. Its
+	 * vertex indices are the row and column indices of the distance matrix.
+	 * 
+	 * @return the snapshot of the graph whose distances were computed
+	 */
+	public CsrGraph<V, W> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Fills the distance matrix with a tiled Floyd-Warshall. The phase of
+	 * block k first updates the diagonal block (k, k) through itself, then
+	 * the blocks of row k and column k through the diagonal block, and
+	 * finally every other block (i, j) through blocks (i, k) and (k, j). The
+	 * blocks updated within each step do not depend on one another.
+	 */
+	private static void floydWarshall(CsrArrays edges, double[] lengths, int n, double[] distances,
+			ForkJoinPool pool) {
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		for (int i = 0; i < n; i++) {
+			distances[i * n + i] = 0;
+			for (int position = edges.offsets[i]; position < edges.offsets[i + 1]; position++) {
+				int cell = i * n + edges.heads[position];
+				distances[cell] = Math.min(distances[cell], lengths[position]);
+			}
+		}
+
+		int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		for (int k = 0; k < blocks; k++) {
+			int pivot = k;
+			relaxBlock(distances, n, pivot, pivot, pivot);
+			ParallelRanges.forEach(pool, blocks, 1, (from, to) -> {
+				for (int block = from; block < to; block++) {
+					if (block != pivot) {
+						relaxBlock(distances, n, pivot, block, pivot);
+						relaxBlock(distances, n, block, pivot, pivot);
+					}
+				}
+			});
+			ParallelRanges.forEach(pool, blocks * blocks, 1, (from, to) -> {
+				for (int block = from; block < to; block++) {
+					int row = block / blocks;
+					int column = block % blocks;
+					if (row != pivot && column != pivot) {
+						relaxBlock(distances, n, row, column, pivot);
+					}
+				}
+			});
+		}
+
+		for (int i = 0; i < n; i++) {
+			if (distances[i * n + i] < 0) {
+				throw new IllegalArgumentException("Graph has a cycle of negative length");
+			}
+		}
+	}
+
+	/**
+	 * Lowers every distance in block (row, column) to the length of the path
+	 * through any vertex of block pivot, taking the intermediate vertices in
+	 * order so that a block can be relaxed through itself.
+	 */
+	private static void relaxBlock(double[] distances, int n, int row, int column, int pivot) {
+		int rowEnd = Math.min(n, (row + 1) * BLOCK_SIZE);
+		int columnStart = column * BLOCK_SIZE;
+		int columnEnd = Math.min(n, columnStart + BLOCK_SIZE);
+		int pivotEnd = Math.min(n, (pivot + 1) * BLOCK_SIZE);
+		for (int k = pivot * BLOCK_SIZE; k < pivotEnd; k++) {
+			int kRow = k * n;
+			for (int i = row * BLOCK_SIZE; i < rowEnd; i++) {
+				int iRow = i * n;
+				double throughK = distances[iRow + k];
+				if (throughK == Double.POSITIVE_INFINITY) {
+					continue;
+				}
+				for (int j = columnStart; j < columnEnd; j++) {
+					double distance = throughK + distances[kRow + j];
+					if (distance < distances[iRow + j]) {
+						distances[iRow + j] = distance;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fills the distance matrix with Johnson's algorithm. Every row is written
+	 * by the one worker that runs the search from its source.
+	 */
+	private static void johnson(CsrArrays edges, double[] lengths, int n, double[] distances, ForkJoinPool pool) {
+		double[] potentials = potentials(edges, lengths, n);
+		double[] reduced = new double[lengths.length];
+		for (int tail = 0; tail < n; tail++) {
+			for (int position = edges.offsets[tail]; position < edges.offsets[tail + 1]; position++) {
+				// Rounding can leave a reduced length just below zero
+				double length = lengths[position] + potentials[tail] - potentials[edges.heads[position]];
+				reduced[position] = Math.max(0, length);
+			}
+		}
+
+		ParallelRanges.forEach(pool, n, SOURCES_PER_TASK, (from, to) -> {
+			IndexedDoubleHeap heap = new IndexedDoubleHeap(n);
+			for (int source = from; source < to; source++) {
+				int row = source * n;
+				Arrays.fill(distances, row, row + n, Double.POSITIVE_INFINITY);
+				distances[row + source] = 0;
+				heap.offer(source, 0);
+				while (!heap.isEmpty()) {
+					int tail = heap.poll();
+					double tailDistance = distances[row + tail];
+					for (int position = edges.offsets[tail]; position < edges.offsets[tail + 1]; position++) {
+						int head = edges.heads[position];
+						double distance = tailDistance + reduced[position];
+						if (distance < distances[row + head]) {
+							distances[row + head] = distance;
+							heap.offer(head, distance);
+						}
+					}
+				}
+				for (int target = 0; target < n; target++) {
+					distances[row + target] += potentials[target] - potentials[source];
+				}
+			}
+		});
+	}
+
+	/**
+	 * Returns potentials under which every edge has a non-negative reduced
+	 * length, found with Bellman-Ford from a virtual source joined to every
+	 * vertex by an edge of length 0. If no length is negative, all potentials
+	 * are 0.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the graph has a cycle of negative length
+	 */
+	private static double[] potentials(CsrArrays edges, double[] lengths, int n) {
+		double[] potentials = new double[n];
+		boolean hasNegativeLength = false;
+		for (double length : lengths) {
+			hasNegativeLength |= length < 0;
+		}
+		if (!hasNegativeLength) {
+			return potentials;
+		}
+
+		// Without a negative cycle, a shortest path from the virtual source
+		// has at most n edges, the first of which is already accounted for
+		for (int round = 0;; round++) {
+			boolean changed = false;
+			for (int tail = 0; tail < n; tail++) {
+				for (int position = edges.offsets[tail]; position < edges.offsets[tail + 1]; position++) {
+					int head = edges.heads[position];
+					double potential = potentials[tail] + lengths[position];
+					if (potential < potentials[head]) {
+						potentials[head] = potential;
+						changed = true;
+					}
+				}
+			}
+			if (!changed) {
+				return potentials;
+			}
+			if (round >= n) {
+				throw new IllegalArgumentException("Graph has a cycle of negative length");
+			}
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.rawva.structures.graphs.Graph;
+
+/**
+ * An iterator over the elements (vertices) of a graph that are reachable from
+ * a start element, in breadth-first order. The start element is returned
+ * first, followed by its neighbors, then their neighbors, and so on. Each
+ * element is returned once. <br/>
+ * <br/>
+ * The traversal is lazy: the neighbors of an element are only looked up when
+ * that element is returned, so stopping early avoids the rest of the work. The
+ * graph must not be modified while it is being iterated over.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ */
+public class BreadthFirstIterator<V> implements Iterator<V> {
+
+	private static final Object NULL = new Object();
+
+	private final Graph<V> graph;
+	private final Set<V> visited;
+	private final Deque<Object> queue;
+
+	/**
+	 * Constructs an iterator over the elements of the specified graph that are
+	 * reachable from the specified start element.
+	 * 
+	 * @param graph
+	 *            the graph to traverse
+	 * @param start
+	 *            the element at which to start
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 * @throws IllegalArgumentException
+	 *             if the start element is not in the graph
+	 */
+	public BreadthFirstIterator(Graph<V> graph, V start) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (!graph.containsVertex(start)) {
+			throw new IllegalArgumentException("Start element is not in the graph");
+		}
+
+		this.graph = graph;
+		this.visited = new HashSet<>();
+		this.queue = new ArrayDeque<>();
+		visited.add(start);
+		queue.add(mask(start));
+	}
+
+	/**
+	 * Returns the object under which the specified element is queued. An
+	 * ArrayDeque cannot hold null, so a null element is replaced with a
+	 * placeholder.
+	 * 
+	 * @param elem
+	 *            the element to queue
+	 * @return the object to queue for the element
+	 */
+	private static Object mask(Object elem) {
+		return elem == null ? NULL : elem;
+	}
+
+	/**
+	 * Returns true if there are more elements to visit.
+	 * 
+	 * @return true if there are more elements to visit, else false
+	 */
+	@Override
+	public boolean hasNext() {
+		return !queue.isEmpty();
+	}
+
+	/**
+	 * Returns the next element in breadth-first order.
+	 * 
+	 * @return the next element in breadth-first order
+	 * @throws NoSuchElementException
+	 *             if there are no more elements to visit
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V next() {
+		if (queue.isEmpty()) {
+			throw new NoSuchElementException();
+		}
+		Object queued = queue.poll();
+		V elem = queued == NULL ? null : (V) queued;
+		for (V neighbor : graph.getAdjacentElements(elem)) {
+			if (visited.add(neighbor)) {
+				queue.add(mask(neighbor));
+			}
+		}
+		return elem;
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.rawva.structures.graphs.CsrGraph;
+
+/**
+ * The result of a breadth-first search: the distance (number of edges) of
+ * every element (vertex) from the source, and its parent in a breadth-first
+ * tree rooted at the source. <br/>
+ * <br/>
+ * Results are kept in arrays indexed like the vertices of the CsrGraph that
+ * was searched, so that large searches can be read without boxing.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ */
+public final class BreadthFirstTree<V> {
+
+	private final CsrGraph<V, ?> graph;
+	private final int source;
+	private final int[] distances;
+	private final int[] parents;
+	private final int numberOfReachedVertices;
+
+	/**
+	 * Constructs a tree from the results of a search. The arrays are not
+	 * copied.
+	 * 
+	 * @param graph
+	 *            the graph that was searched
+	 * @param source
+	 *            the index of the source
+	 * @param distances
+	 *            the distance of each vertex, or -1 if it was not reached
+	 * @param parents
+	 *            the parent index of each vertex, or -1 if it has none
+	 * @param numberOfReachedVertices
+	 *            the number of vertices that were reached
+	 */
+	BreadthFirstTree(CsrGraph<V, ?> graph, int source, int[] distances, int[] parents, int numberOfReachedVertices) {
+		this.graph = graph;
+		this.source = source;
+		this.distances = distances;
+		this.parents = parents;
+		this.numberOfReachedVertices = numberOfReachedVertices;
+	}
+
+	/**
+	 * Returns the distance of the specified element from the source, or -1 if
+	 * it cannot be reached from the source or is not in the graph.
+	 * 
+	 * @param elem
+	 *            the element whose distance we want
+	 * @return the distance of the element, or -1 if it was not reached
+	 */
+	public int getDistance(V elem) {
+		int index = graph.getVertexIndex(elem);
+		return index < 0 ? -1 : distances[index];
+	}
+
+	/**
+	 * Returns the distances of all elements from the source, indexed like the
+	 * vertices of the graph returned by getGraph(). Elements that cannot be
+	 * reached have a distance of -1. The array is not copied.
+	 * 
+	 * @return the distances of all elements from the source
+	 */
+	public int[] getDistances() {
+		return distances;
+	}
+
+	/**
+	 * Returns the snapshot of the graph that was searched. Its vertex indices
+	 * are the indices of the arrays returned by getDistances() and
+	 * getParentIndices().
+	 * 
+	 * @return the snapshot of the graph that was searched
+	 */
+	public CsrGraph<V, ?> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the number of elements that can be reached from the source,
+	 * including the source itself.
+	 * 
+	 * @return the number of elements that can be reached from the source
+	 */
+	public int getNumberOfReachedVertices() {
+		return numberOfReachedVertices;
+	}
+
+	/**
+	 * Returns the parent of the specified element in the tree, or null if the
+	 * element is the source, cannot be reached, or is not in the graph.
+	 * 
+	 * @param elem
+	 *            the element whose parent we want
+	 * @return the parent of the element, or null if it has none
+	 */
+	public V getParent(V elem) {
+		int index = graph.getVertexIndex(elem);
+		return index < 0 || parents[index] < 0 ? null : graph.getVertexAt(parents[index]);
+	}
+
+	/**
+	 * Returns the index of the parent of every element, indexed like the
+	 * vertices of the graph returned by getGraph(). The source and the
+	 * elements that cannot be reached have a parent index of -1. The array is
+	 * not copied.
+	 * 
+	 * @return the parent indices of all elements
+	 */
+	public int[] getParentIndices() {
+		return parents;
+	}
+
+	/**
+	 * Returns the path from the source to the specified element along the
+	 * tree, or null if the element cannot be reached or is not in the graph.
+	 * 
+	 * @param elem
+	 *            the element at which the path ends
+	 * @return the elements along the path from the source, or null
+	 */
+	public List<V> getPathTo(V elem) {
+		int index = graph.getVertexIndex(elem);
+		if (index < 0 || distances[index] < 0) {
+			return null;
+		}
+		List<V> path = new ArrayList<>(distances[index] + 1);
+		for (int i = index; i >= 0; i = parents[i]) {
+			path.add(graph.getVertexAt(i));
+		}
+		Collections.reverse(path);
+		return path;
+	}
+
+	/**
+	 * Returns the element at which the search started.
+	 * 
+	 * @return the source of the search
+	 */
+	public V getSource() {
+		return graph.getVertexAt(source);
+	}
+
+}
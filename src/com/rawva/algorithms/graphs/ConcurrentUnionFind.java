@@ -0,0 +1,120 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A lock-free union-find (disjoint set) structure over the integers from 0 to
+ * size - 1, which many threads may update at once. <br/>
+ * <br/>
+ * Every set is a tree whose root is its representative. A root is only ever
+ * linked below a root with a smaller index, with a compare-and-set that fails
+ * if the root gained a parent in the meantime, so the trees never form cycles.
+ * Finds shorten the paths they walk (path halving), also with compare-and-set,
+ * so concurrent finds and unions never undo each other's work.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+final class ConcurrentUnionFind {
+
+	private final AtomicIntegerArray parents;
+
+	/**
+	 * Constructs a structure in which every integer from 0 to size - 1 is in a
+	 * set of its own.
+	 * 
+	 * @param size
+	 *            the number of integers
+	 */
+	ConcurrentUnionFind(int size) {
+		this.parents = new AtomicIntegerArray(size);
+		for (int i = 0; i < size; i++) {
+			parents.lazySet(i, i);
+		}
+	}
+
+	/**
+	 * Returns the representative of the set containing the specified integer.
+	 * If no union is running at the same time, it is the smallest integer in
+	 * the set.
+	 * 
+	 * @param x
+	 *            the integer whose set we want
+	 * @return the representative of the set containing the integer
+	 */
+	int find(int x) {
+		while (true) {
+			int parent = parents.get(x);
+			if (parent == x) {
+				return x;
+			}
+			int grandparent = parents.get(parent);
+			if (grandparent != parent) {
+				parents.compareAndSet(x, parent, grandparent);
+			}
+			x = grandparent;
+		}
+	}
+
+	/**
+	 * Returns true if the specified integers are in the same set.
+	 * 
+	 * @param x
+	 *            one of the integers
+	 * @param y
+	 *            the other integer
+	 * @return true if the integers are in the same set, else false
+	 */
+	boolean sameSet(int x, int y) {
+		while (true) {
+			x = find(x);
+			y = find(y);
+			if (x == y) {
+				return true;
+			}
+			// If x is still a root, the sets really were different when y was
+			// found
+			if (parents.get(x) == x) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of integers in this structure.
+	 * 
+	 * @return the number of integers
+	 */
+	int size() {
+		return parents.length();
+	}
+
+	/**
+	 * Merges the sets containing the specified integers. Returns true if they
+	 * were in different sets.
+	 * 
+	 * @param x
+	 *            one of the integers
+	 * @param y
+	 *            the other integer
+	 * @return true if two sets were merged, else false
+	 */
+	boolean union(int x, int y) {
+		while (true) {
+			x = find(x);
+			y = find(y);
+			if (x == y) {
+				return false;
+			}
+			if (x < y) {
+				int temp = x;
+				x = y;
+				y = temp;
+			}
+			if (parents.compareAndSet(x, x, y)) {
+				return true;
+			}
+		}
+	}
+
+}
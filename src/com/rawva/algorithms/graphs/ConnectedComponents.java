@@ -0,0 +1,407 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.Graph;
+
+/**
+ * This class finds the connected components of a graph and keeps them up to
+ * date as elements (vertices) and edges are added. In a directed graph, the
+ * direction of edges is ignored, so the components are the weakly connected
+ * components. <br/>
+ * <br/>
+ * Every component has a label from 0 to getNumberOfComponents() - 1. When the
+ * components are first computed, they are labeled in the order of their first
+ * elements in the graph. Adding an edge that joins two components merges them
+ * under the smaller of their labels, and the component with the largest label
+ * takes over the label that was freed, so labels stay compact. <br/>
+ * <br/>
+ * The initial computation is split across the workers of a ForkJoinPool,
+ * using either a lock-free union-find over the edges or label propagation.
+ * Later updates and queries are not thread-safe: if several threads use this
+ * object at once and at least one of them adds an element or an edge, they
+ * must be synchronized externally.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ */
+public class ConnectedComponents<V> {
+
+	private static final int VERTICES_PER_TASK = 1024;
+
+	private final Map<V, Integer> vertexIndices;
+	private Object[] vertices;
+	private int[] parents;
+	private int[] sizes;
+	private int[] labels;
+	private int[] roots;
+	private int numberOfVertices;
+	private int numberOfComponents;
+
+	/**
+	 * The ways in which the components can be computed in parallel.
+	 */
+	public enum Algorithm {
+
+		/**
+		 * Every worker merges the endpoints of a range of edges in a shared
+		 * lock-free union-find. The work is proportional to the number of
+		 * edges, independent of the shape of the graph.
+		 */
+		UNION_FIND,
+
+		/**
+		 * Every element repeatedly takes the smallest label among itself and
+		 * its neighbors until no label changes. The number of rounds grows
+		 * with the diameter of the graph, so this suits graphs with a small
+		 * diameter.
+		 */
+		LABEL_PROPAGATION
+
+	}
+
+	/**
+	 * Computes the connected components of the specified graph with a
+	 * concurrent union-find, using the common ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph whose components we want
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 */
+	public ConnectedComponents(Graph<V> graph) {
+		this(graph, Algorithm.UNION_FIND, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the connected components of the specified graph with the
+	 * specified algorithm, using the common ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph whose components we want
+	 * @param algorithm
+	 *            the algorithm with which to compute the components
+	 * @throws NullPointerException
+	 *             if the specified graph or algorithm is null
+	 */
+	public ConnectedComponents(Graph<V> graph, Algorithm algorithm) {
+		this(graph, algorithm, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the connected components of the specified graph with the
+	 * specified algorithm, using the specified ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph whose components we want
+	 * @param algorithm
+	 *            the algorithm with which to compute the components
+	 * @param pool
+	 *            the pool in which to compute the components
+	 * @throws NullPointerException
+	 *             if the specified graph, algorithm or pool is null
+	 */
+	public ConnectedComponents(Graph<V> graph, Algorithm algorithm, ForkJoinPool pool) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (algorithm == null) {
+			throw new NullPointerException("Algorithm cannot be null");
+		}
+		if (pool == null) {
+			throw new NullPointerException("Pool cannot be null");
+		}
+
+		CsrGraph<V, ?> snapshot = graph instanceof CsrGraph ? (CsrGraph<V, ?>) graph : new CsrGraph<>(graph);
+		int n = snapshot.getNumberOfVertices();
+		int[] minima = algorithm == Algorithm.UNION_FIND ? unionFind(snapshot, pool)
+				: propagateLabels(snapshot, pool);
+
+		this.vertexIndices = new HashMap<>((int) (n / 0.75f) + 1);
+		this.vertices = new Object[Math.max(n, 1)];
+		this.parents = new int[vertices.length];
+		this.sizes = new int[vertices.length];
+		this.labels = new int[vertices.length];
+		this.roots = new int[vertices.length];
+		for (int i = 0; i < n; i++) {
+			V vertex = snapshot.getVertexAt(i);
+			vertices[i] = vertex;
+			vertexIndices.put(vertex, i);
+			int root = minima[i];
+			parents[i] = root;
+			sizes[root]++;
+			if (root == i) {
+				labels[i] = numberOfComponents;
+				roots[numberOfComponents++] = i;
+			}
+		}
+		this.numberOfVertices = n;
+	}
+
+	/**
+	 * Returns the smallest index in the component of every vertex, computed
+	 * with a concurrent union-find over the edges.
+	 */
+	private static int[] unionFind(CsrGraph<?, ?> graph, ForkJoinPool pool) {
+		int n = graph.getNumberOfVertices();
+		ConcurrentUnionFind unionFind = new ConcurrentUnionFind(n);
+		boolean isDirected = graph.isDirected();
+		ParallelRanges.forEach(pool, n, VERTICES_PER_TASK, (from, to) -> {
+			for (int tail = from; tail < to; tail++) {
+				for (int position = graph.getEdgeStart(tail); position < graph.getEdgeEnd(tail); position++) {
+					int head = graph.getHeadIndexAt(position);
+					// An undirected edge is stored under both of its ends
+					if (isDirected || head > tail) {
+						unionFind.union(tail, head);
+					}
+				}
+			}
+		});
+
+		// Roots are only ever linked below smaller roots, so every root is the
+		// smallest index in its set
+		int[] minima = new int[n];
+		ParallelRanges.forEach(pool, n, VERTICES_PER_TASK, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				minima[i] = unionFind.find(i);
+			}
+		});
+		return minima;
+	}
+
+	/**
+	 * Returns the smallest index in the component of every vertex, computed
+	 * by propagating the smallest label to neighbors until nothing changes.
+	 */
+	private static int[] propagateLabels(CsrGraph<?, ?> graph, ForkJoinPool pool) {
+		int n = graph.getNumberOfVertices();
+		CsrGraph<?, ?> transpose = graph.transpose();
+		int[] minima = new int[n];
+		for (int i = 0; i < n; i++) {
+			minima[i] = i;
+		}
+
+		// A vertex is only written by the worker that owns it. Labels only
+		// decrease and always name a vertex of the same component, so reading
+		// a neighbor's label while it is being written is harmless; a round in
+		// which nothing changes proves that every label is final.
+		boolean[] changed = new boolean[1];
+		do {
+			changed[0] = false;
+			ParallelRanges.forEach(pool, n, VERTICES_PER_TASK, (from, to) -> {
+				boolean rangeChanged = false;
+				for (int v = from; v < to; v++) {
+					int label = minima[v];
+					label = Math.min(label, smallestLabel(graph, v, minima));
+					if (transpose != graph) {
+						label = Math.min(label, smallestLabel(transpose, v, minima));
+					}
+					while (minima[label] < label) {
+						label = minima[label];
+					}
+					if (label < minima[v]) {
+						minima[v] = label;
+						rangeChanged = true;
+					}
+				}
+				if (rangeChanged) {
+					changed[0] = true;
+				}
+			});
+		} while (changed[0]);
+		return minima;
+	}
+
+	/**
+	 * Returns the smallest label among the heads of the edges leaving the
+	 * specified vertex, or Integer.MAX_VALUE if it has none.
+	 */
+	private static int smallestLabel(CsrGraph<?, ?> graph, int vertex, int[] minima) {
+		int label = Integer.MAX_VALUE;
+		for (int position = graph.getEdgeStart(vertex); position < graph.getEdgeEnd(vertex); position++) {
+			label = Math.min(label, minima[graph.getHeadIndexAt(position)]);
+		}
+		return label;
+	}
+
+	/**
+	 * Records an edge between the specified elements, merging their components
+	 * if they are different. Elements that are not yet known are added first.
+	 * Returns true if two components were merged. <br/>
+	 * <br/>
+	 * This should be called whenever an edge is added to the graph whose
+	 * components this object tracks. Edges cannot be removed.
+	 * 
+	 * @param tail
+	 *            one end of the edge
+	 * @param head
+	 *            the other end of the edge
+	 * @return true if two components were merged, else false
+	 */
+	public boolean addEdge(V tail, V head) {
+		addVertex(tail);
+		addVertex(head);
+		return union(vertexIndices.get(tail), vertexIndices.get(head));
+	}
+
+	/**
+	 * Records a new element, which forms a component of its own. Returns true
+	 * if the element was not known before.
+	 * 
+	 * @param elem
+	 *            the element to add
+	 * @return true if the element was added, else false
+	 */
+	public boolean addVertex(V elem) {
+		if (vertexIndices.containsKey(elem)) {
+			return false;
+		}
+
+		if (numberOfVertices == vertices.length) {
+			int capacity = vertices.length + (vertices.length >> 1) + 1;
+			vertices = Arrays.copyOf(vertices, capacity);
+			parents = Arrays.copyOf(parents, capacity);
+			sizes = Arrays.copyOf(sizes, capacity);
+			labels = Arrays.copyOf(labels, capacity);
+			roots = Arrays.copyOf(roots, capacity);
+		}
+		int index = numberOfVertices++;
+		vertices[index] = elem;
+		vertexIndices.put(elem, index);
+		parents[index] = index;
+		sizes[index] = 1;
+		labels[index] = numberOfComponents;
+		roots[numberOfComponents++] = index;
+		return true;
+	}
+
+	/**
+	 * Returns the label of the component containing the specified element, or
+	 * -1 if the element is not known.
+	 * 
+	 * @param elem
+	 *            the element whose component we want
+	 * @return the label of the component containing the element, or -1
+	 */
+	public int getComponent(V elem) {
+		Integer index = vertexIndices.get(elem);
+		return index == null ? -1 : labels[find(index)];
+	}
+
+	/**
+	 * Returns the components as a list of sets of elements, where the set at
+	 * position i holds the elements of the component labeled i.
+	 * 
+	 * @return the elements of every component
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Set<V>> getComponents() {
+		List<Set<V>> components = new ArrayList<>(numberOfComponents);
+		for (int label = 0; label < numberOfComponents; label++) {
+			components.add(new HashSet<>((int) (sizes[roots[label]] / 0.75f) + 1));
+		}
+		for (int i = 0; i < numberOfVertices; i++) {
+			components.get(labels[find(i)]).add((V) vertices[i]);
+		}
+		return components;
+	}
+
+	/**
+	 * Returns the number of elements in the component with the specified
+	 * label.
+	 * 
+	 * @param label
+	 *            the label of the component
+	 * @return the number of elements in the component
+	 * @throws IndexOutOfBoundsException
+	 *             if the label is out of range (label < 0 || label >=
+	 *             getNumberOfComponents())
+	 */
+	public int getComponentSize(int label) {
+		if (label < 0 || label >= numberOfComponents) {
+			throw new IndexOutOfBoundsException("Component label out of range: " + label);
+		}
+		return sizes[roots[label]];
+	}
+
+	/**
+	 * Returns the number of connected components.
+	 * 
+	 * @return the number of connected components
+	 */
+	public int getNumberOfComponents() {
+		return numberOfComponents;
+	}
+
+	/**
+	 * Returns true if the specified elements are in the same component.
+	 * Returns false if either element is not known.
+	 * 
+	 * @param elem1
+	 *            one of the elements
+	 * @param elem2
+	 *            the other element
+	 * @return true if the elements are in the same component, else false
+	 */
+	public boolean isConnected(V elem1, V elem2) {
+		Integer index1 = vertexIndices.get(elem1);
+		Integer index2 = vertexIndices.get(elem2);
+		return index1 != null && index2 != null && find(index1) == find(index2);
+	}
+
+	/**
+	 * Returns the root of the tree containing the specified index, halving
+	 * the path to it on the way.
+	 */
+	private int find(int index) {
+		while (parents[index] != index) {
+			parents[index] = parents[parents[index]];
+			index = parents[index];
+		}
+		return index;
+	}
+
+	/**
+	 * Merges the components containing the specified indices, keeping labels
+	 * compact. Returns true if they were different.
+	 */
+	private boolean union(int index1, int index2) {
+		int root1 = find(index1);
+		int root2 = find(index2);
+		if (root1 == root2) {
+			return false;
+		}
+
+		// Link the smaller tree below the larger one
+		if (sizes[root1] < sizes[root2]) {
+			int temp = root1;
+			root1 = root2;
+			root2 = temp;
+		}
+		int keptLabel = Math.min(labels[root1], labels[root2]);
+		int freedLabel = Math.max(labels[root1], labels[root2]);
+		parents[root2] = root1;
+		sizes[root1] += sizes[root2];
+		labels[root1] = keptLabel;
+		roots[keptLabel] = root1;
+
+		int lastLabel = --numberOfComponents;
+		if (freedLabel != lastLabel) {
+			int movedRoot = roots[lastLabel];
+			labels[movedRoot] = freedLabel;
+			roots[freedLabel] = movedRoot;
+		}
+		return true;
+	}
+
+}
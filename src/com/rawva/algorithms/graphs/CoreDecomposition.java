@@ -0,0 +1,390 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.Graph;
+
+/**
+ * This class computes the k-core decomposition of an undirected graph. The
+ * k-core is the largest subgraph in which every element (vertex) has at least
+ * k neighbors, and the core number of an element is the largest k for which
+ * it belongs to the k-core. Loops are ignored. <br/>
+ * <br/>
+ * Cores are found by peeling: elements are removed in order of their
+ * remaining degree, and an element gets the largest degree seen at the time
+ * of any removal up to its own. The order of removal is a degeneracy
+ * ordering, in which every element has at most as many later neighbors as
+ * its core number; algorithms such as clique enumeration and greedy coloring
+ * process elements in this order. Two algorithms are available:
+ * <ul>
+ * <li>Batagelj and Zaversnik's algorithm, which keeps the elements sorted by
+ * remaining degree in one array with a bucket boundary per degree, so that
+ * every decrement moves an element to the next bucket in constant time. It
+ * runs in O(n + m) time on one thread.</li>
+ * <li>Parallel peeling, which removes every element of degree at most k at
+ * once, decrementing the degrees of their neighbors on the workers of a
+ * ForkJoinPool, and collects the neighbors that drop to k into the next
+ * round. When no element of degree at most k is left, k moves to the smallest
+ * remaining degree.</li>
+ * </ul>
+ * Both algorithms compute the same core numbers. Their degeneracy orderings
+ * may differ, since elements removed in the same round are ordered
+ * arbitrarily.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ */
+public class CoreDecomposition<V> {
+
+	private static final int VERTICES_PER_TASK = 1024;
+
+	private final Algorithm algorithm;
+	private final CsrGraph<V, ?> graph;
+	private final int[] coreNumbers;
+	private final int[] ordering;
+	private final int degeneracy;
+
+	/**
+	 * The algorithms with which cores can be computed.
+	 */
+	public enum Algorithm {
+
+		/**
+		 * Batagelj and Zaversnik's bucket algorithm, in linear time on one
+		 * thread.
+		 */
+		BUCKET,
+
+		/**
+		 * Peeling in rounds, with the elements of each round processed in
+		 * parallel.
+		 */
+		PARALLEL_PEELING
+
+	}
+
+	/**
+	 * Computes the cores of the specified undirected graph with the bucket
+	 * algorithm.
+	 * 
+	 * @param graph
+	 *            the graph whose cores we want
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is directed
+	 */
+	public CoreDecomposition(Graph<V> graph) {
+		this(graph, Algorithm.BUCKET, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the cores of the specified undirected graph with the specified
+	 * algorithm, using the common ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph whose cores we want
+	 * @param algorithm
+	 *            the algorithm with which to compute the cores
+	 * @throws NullPointerException
+	 *             if the specified graph or algorithm is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is directed
+	 */
+	public CoreDecomposition(Graph<V> graph, Algorithm algorithm) {
+		this(graph, algorithm, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the cores of the specified undirected graph with the specified
+	 * algorithm, using the specified ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph whose cores we want
+	 * @param algorithm
+	 *            the algorithm with which to compute the cores
+	 * @param pool
+	 *            the pool in which to compute the cores
+	 * @throws NullPointerException
+	 *             if the specified graph, algorithm or pool is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is directed
+	 */
+	public CoreDecomposition(Graph<V> graph, Algorithm algorithm, ForkJoinPool pool) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (algorithm == null) {
+			throw new NullPointerException("Algorithm cannot be null");
+		}
+		if (pool == null) {
+			throw new NullPointerException("Pool cannot be null");
+		}
+		if (graph.isDirected()) {
+			throw new IllegalArgumentException("Input graph must be undirected");
+		}
+
+		this.algorithm = algorithm;
+		this.graph = graph instanceof CsrGraph ? (CsrGraph<V, ?>) graph : new CsrGraph<>(graph);
+		int n = this.graph.getNumberOfVertices();
+		CsrArrays edges = new CsrArrays(this.graph);
+		this.coreNumbers = new int[n];
+		for (int i = 0; i < n; i++) {
+			for (int position = edges.offsets[i]; position < edges.offsets[i + 1]; position++) {
+				if (edges.heads[position] != i) {
+					coreNumbers[i]++;
+				}
+			}
+		}
+		this.ordering = new int[n];
+		if (algorithm == Algorithm.BUCKET) {
+			bucket(edges, coreNumbers, ordering);
+		} else {
+			peel(edges, coreNumbers, ordering, pool);
+		}
+
+		int max = 0;
+		for (int core : coreNumbers) {
+			max = Math.max(max, core);
+		}
+		this.degeneracy = max;
+	}
+
+	/**
+	 * Returns the algorithm with which the cores were computed.
+	 * 
+	 * @return the algorithm with which the cores were computed
+	 */
+	public Algorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * Returns an unmodifiable set of the elements of the k-core: those whose
+	 * core number is at least k, in the order of their indices in the graph
+	 * returned by getGraph().
+	 * 
+	 * @param k
+	 *            the smallest core number of the elements to return
+	 * @return the elements of the k-core
+	 */
+	public Set<V> getCore(int k) {
+		Set<V> elements = new LinkedHashSet<>();
+		for (int i = 0; i < coreNumbers.length; i++) {
+			if (coreNumbers[i] >= k) {
+				elements.add(graph.getVertexAt(i));
+			}
+		}
+		return Collections.unmodifiableSet(elements);
+	}
+
+	/**
+	 * Returns the core number of the specified element.
+	 * 
+	 * @param elem
+	 *            the element whose core number we want
+	 * @return the core number of the element
+	 * @throws IllegalArgumentException
+	 *             if the element is not in the graph
+	 */
+	public int getCoreNumber(V elem) {
+		int index = graph.getVertexIndex(elem);
+		if (index < 0) {
+			throw new IllegalArgumentException("Element is not in the graph");
+		}
+		return coreNumbers[index];
+	}
+
+	/**
+	 * Returns the core numbers of all elements, indexed like the vertices of
+	 * the graph returned by getGraph(). The array is not copied.
+	 * 
+	 * @return the core numbers of all elements
+	 */
+	public int[] getCoreNumbers() {
+		return coreNumbers;
+	}
+
+	/**
+	 * Returns the degeneracy of the graph, which is the largest core number of
+	 * any element, or 0 if the graph is empty.
+	 * 
+	 * @return the degeneracy of the graph
+	 */
+	public int getDegeneracy() {
+		return degeneracy;
+	}
+
+	/**
+	 * Returns the indices of all elements in a degeneracy ordering, in which
+	 * every element has at most as many neighbors after it as its core
+	 * number. Indices refer to the vertices of the graph returned by
+	 * getGraph(). The array is not copied.
+	 * 
+	 * @return the indices of the elements in a degeneracy ordering
+	 */
+	public int[] getDegeneracyOrdering() {
+		return ordering;
+	}
+
+	/**
+	 * Returns the snapshot of the graph whose cores were computed. Its vertex
+	 * indices are the values and indices of the arrays returned by
+	 * getDegeneracyOrdering() and getCoreNumbers().
+	 * 
+	 * @return the snapshot of the graph whose cores were computed
+	 */
+	public CsrGraph<V, ?> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Replaces the degrees with core numbers using Batagelj and Zaversnik's
+	 * algorithm. The elements are sorted by degree into the ordering array,
+	 * with starts[d] the position of the first element of degree d and
+	 * positions[v] the position of element v. Taking the elements in order,
+	 * every neighbor of higher degree is swapped to the front of its bucket
+	 * and the bucket boundary moves past it, which lowers its degree by one
+	 * and keeps the array sorted.
+	 */
+	private static void bucket(CsrArrays edges, int[] degrees, int[] ordering) {
+		int n = degrees.length;
+		int maxDegree = 0;
+		for (int degree : degrees) {
+			maxDegree = Math.max(maxDegree, degree);
+		}
+		int[] starts = new int[maxDegree + 2];
+		for (int degree : degrees) {
+			starts[degree + 1]++;
+		}
+		for (int degree = 0; degree <= maxDegree; degree++) {
+			starts[degree + 1] += starts[degree];
+		}
+		int[] positions = new int[n];
+		int[] next = starts.clone();
+		for (int v = 0; v < n; v++) {
+			positions[v] = next[degrees[v]]++;
+			ordering[positions[v]] = v;
+		}
+
+		for (int i = 0; i < n; i++) {
+			int v = ordering[i];
+			for (int position = edges.offsets[v]; position < edges.offsets[v + 1]; position++) {
+				int u = edges.heads[position];
+				int degree = degrees[u];
+				if (degree > degrees[v]) {
+					int first = starts[degree];
+					int w = ordering[first];
+					if (w != u) {
+						ordering[positions[u]] = w;
+						positions[w] = positions[u];
+						ordering[first] = u;
+						positions[u] = first;
+					}
+					starts[degree]++;
+					degrees[u]--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Replaces the degrees with core numbers by peeling in parallel rounds.
+	 * Within a round, removal flags are only written before the degrees are
+	 * decremented, and an element joins the next round exactly when its
+	 * degree drops to k, which happens on one worker only.
+	 */
+	private static void peel(CsrArrays edges, int[] degrees, int[] ordering, ForkJoinPool pool) {
+		int n = degrees.length;
+		AtomicIntegerArray remainingDegrees = new AtomicIntegerArray(degrees);
+		boolean[] removed = new boolean[n];
+		int[] remaining = new int[n];
+		for (int v = 0; v < n; v++) {
+			remaining[v] = v;
+		}
+		int[] frontier = new int[n];
+		int[] next = new int[n];
+		AtomicInteger size = new AtomicInteger();
+		AtomicInteger minimum = new AtomicInteger();
+		int numberOfRemaining = n;
+		int numberOfRemoved = 0;
+		int k = 0;
+
+		while (numberOfRemoved < n) {
+			// Drop the removed elements from the list once they make up half
+			// of it, so that scans cost as much as what is left
+			if (2 * (n - numberOfRemoved) < numberOfRemaining) {
+				int kept = 0;
+				for (int i = 0; i < numberOfRemaining; i++) {
+					if (!removed[remaining[i]]) {
+						remaining[kept++] = remaining[i];
+					}
+				}
+				numberOfRemaining = kept;
+			}
+
+			int level = k;
+			int[] scanned = remaining;
+			size.set(0);
+			minimum.set(Integer.MAX_VALUE);
+			ParallelRanges.forEach(pool, numberOfRemaining, VERTICES_PER_TASK, (from, to) -> {
+				int lowest = Integer.MAX_VALUE;
+				for (int i = from; i < to; i++) {
+					int v = scanned[i];
+					if (!removed[v]) {
+						int degree = remainingDegrees.get(v);
+						if (degree <= level) {
+							frontier[size.getAndIncrement()] = v;
+						}
+						lowest = Math.min(lowest, degree);
+					}
+				}
+				minimum.accumulateAndGet(lowest, Math::min);
+			});
+			if (size.get() == 0) {
+				k = minimum.get();
+				continue;
+			}
+
+			int[] current = frontier;
+			int[] upcoming = next;
+			int frontierSize = size.get();
+			while (frontierSize > 0) {
+				int[] round = current;
+				for (int i = 0; i < frontierSize; i++) {
+					int v = round[i];
+					removed[v] = true;
+					degrees[v] = level;
+					ordering[numberOfRemoved++] = v;
+				}
+
+				int[] joined = upcoming;
+				size.set(0);
+				ParallelRanges.forEach(pool, frontierSize, VERTICES_PER_TASK / 8, (from, to) -> {
+					for (int i = from; i < to; i++) {
+						int v = round[i];
+						for (int position = edges.offsets[v]; position < edges.offsets[v + 1]; position++) {
+							int u = edges.heads[position];
+							if (!removed[u] && remainingDegrees.decrementAndGet(u) == level) {
+								joined[size.getAndIncrement()] = u;
+							}
+						}
+					}
+				});
+				frontierSize = size.get();
+				upcoming = current;
+				current = joined;
+			}
+			k++;
+		}
+	}
+
+}
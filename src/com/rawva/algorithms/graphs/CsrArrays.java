@@ -0,0 +1,48 @@
+package com.rawva.algorithms.graphs;
+
+import com.rawva.structures.graphs.CsrGraph;
+
+/**
+ * The edge offsets and head indices of a CsrGraph, copied into plain arrays
+ * so that inner loops can walk them without method calls or range checks. The
+ * edges leaving vertex i are at positions offsets[i] (inclusive) to
+ * offsets[i + 1] (exclusive) of heads.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+final class CsrArrays {
+
+	final int[] offsets;
+	final int[] heads;
+
+	/**
+	 * Copies the edges of the specified graph.
+	 * 
+	 * @param graph
+	 *            the graph whose edges to copy
+	 */
+	CsrArrays(CsrGraph<?, ?> graph) {
+		int numberOfVertices = graph.getNumberOfVertices();
+		this.offsets = new int[numberOfVertices + 1];
+		for (int i = 0; i < numberOfVertices; i++) {
+			offsets[i + 1] = graph.getEdgeEnd(i);
+		}
+		this.heads = new int[graph.getNumberOfStoredEdges()];
+		for (int position = 0; position < heads.length; position++) {
+			heads[position] = graph.getHeadIndexAt(position);
+		}
+	}
+
+	/**
+	 * Returns the number of edges leaving the vertex with the specified index.
+	 * 
+	 * @param index
+	 *            the index of the vertex
+	 * @return the out-degree of the vertex
+	 */
+	int degree(int index) {
+		return offsets[index + 1] - offsets[index];
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.rawva.structures.graphs.Graph;
+
+/**
+ * An iterator over the elements (vertices) of a graph that are reachable from
+ * a start element, in depth-first order. The start element is returned first,
+ * and every element is followed by the elements that are first reached through
+ * it, before any of its siblings. Each element is returned once. <br/>
+ * <br/>
+ * The traversal keeps an explicit stack instead of recursing, so it can
+ * traverse arbitrarily deep graphs. It is also lazy: it only advances as far as
+ * needed to return the next element. The graph must not be modified while it
+ * is being iterated over.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ */
+public class DepthFirstIterator<V> implements Iterator<V> {
+
+	private final Graph<V> graph;
+	private final Set<V> visited;
+	private final Deque<Iterator<V>> stack;
+	private V next;
+	private boolean hasNext;
+
+	/**
+	 * Constructs an iterator over the elements of the specified graph that are
+	 * reachable from the specified start element.
+	 * 
+	 * @param graph
+	 *            the graph to traverse
+	 * @param start
+	 *            the element at which to start
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 * @throws IllegalArgumentException
+	 *             if the start element is not in the graph
+	 */
+	public DepthFirstIterator(Graph<V> graph, V start) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (!graph.containsVertex(start)) {
+			throw new IllegalArgumentException("Start element is not in the graph");
+		}
+
+		this.graph = graph;
+		this.visited = new HashSet<>();
+		this.stack = new ArrayDeque<>();
+		visited.add(start);
+		this.next = start;
+		this.hasNext = true;
+	}
+
+	/**
+	 * Returns true if there are more elements to visit.
+	 * 
+	 * @return true if there are more elements to visit, else false
+	 */
+	@Override
+	public boolean hasNext() {
+		return hasNext;
+	}
+
+	/**
+	 * Returns the next element in depth-first order.
+	 * 
+	 * @return the next element in depth-first order
+	 * @throws NoSuchElementException
+	 *             if there are no more elements to visit
+	 */
+	@Override
+	public V next() {
+		if (!hasNext) {
+			throw new NoSuchElementException();
+		}
+		V elem = next;
+		stack.push(graph.getAdjacentElements(elem).iterator());
+		advance();
+		return elem;
+	}
+
+	/**
+	 * Finds the next unvisited element by following the neighbor iterators on
+	 * the stack, discarding those that are exhausted.
+	 */
+	private void advance() {
+		while (!stack.isEmpty()) {
+			Iterator<V> neighbors = stack.peek();
+			while (neighbors.hasNext()) {
+				V neighbor = neighbors.next();
+				if (visited.add(neighbor)) {
+					next = neighbor;
+					return;
+				}
+			}
+			stack.pop();
+		}
+		next = null;
+		hasNext = false;
+	}
+
+}
@@ -0,0 +1,440 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.rawva.structures.graphs.Graph;
+import com.rawva.structures.graphs.IntWeightedGraph;
+
+/**
+ * This class provides breadth-first and depth-first traversals of graphs. <br/>
+ * <br/>
+ * All traversals are iterative, so they do not overflow the stack on deep
+ * graphs, and lazy, so stopping early avoids the rest of the work. They work
+ * on any graph through its adjacent elements; graphs that number their
+ * vertices (CsrGraph and IntWeightedGraph) are traversed by index with
+ * primitive arrays instead of hash sets.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+public class GraphTraversals {
+
+	/**
+	 * Returns an iterator over the elements of the specified graph that are
+	 * reachable from the specified start element, in breadth-first order.
+	 * 
+	 * @param graph
+	 *            the graph to traverse
+	 * @param start
+	 *            the element at which to start
+	 * @return an iterator over the reachable elements in breadth-first order
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 * @throws IllegalArgumentException
+	 *             if the start element is not in the graph
+	 */
+	public static <V> Iterator<V> breadthFirst(Graph<V> graph, V start) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+
+		IndexedAdjacency<V> adjacency = IndexedAdjacency.of(graph);
+		if (adjacency == null) {
+			return new BreadthFirstIterator<>(graph, start);
+		}
+		return new IndexedBreadthFirstIterator<>(adjacency, startIndex(adjacency, start));
+	}
+
+	/**
+	 * Visits the elements of the specified graph that are reachable from the
+	 * specified start element in breadth-first order, until the visitor
+	 * returns false.
+	 * 
+	 * @param graph
+	 *            the graph to traverse
+	 * @param start
+	 *            the element at which to start
+	 * @param visitor
+	 *            the function to call on each element; returning false stops
+	 *            the traversal
+	 * @return true if every reachable element was visited, or false if the
+	 *         visitor stopped the traversal
+	 * @throws NullPointerException
+	 *             if the specified graph or visitor is null
+	 * @throws IllegalArgumentException
+	 *             if the start element is not in the graph
+	 */
+	public static <V> boolean breadthFirstSearch(Graph<V> graph, V start, Predicate<? super V> visitor) {
+		if (visitor == null) {
+			throw new NullPointerException("Visitor cannot be null");
+		}
+
+		return visitAll(breadthFirst(graph, start), visitor);
+	}
+
+	/**
+	 * Visits the elements of the specified graph that are reachable from the
+	 * specified start element in breadth-first order, until the visitor
+	 * returns false. Elements are passed to the visitor as primitives.
+	 * 
+	 * @param graph
+	 *            the graph to traverse
+	 * @param start
+	 *            the element at which to start
+	 * @param visitor
+	 *            the function to call on each element; returning false stops
+	 *            the traversal
+	 * @return true if every reachable element was visited, or false if the
+	 *         visitor stopped the traversal
+	 * @throws NullPointerException
+	 *             if the specified graph or visitor is null
+	 * @throws IllegalArgumentException
+	 *             if the start element is not in the graph
+	 */
+	public static boolean breadthFirstSearch(IntWeightedGraph graph, int start, IntPredicate visitor) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (visitor == null) {
+			throw new NullPointerException("Visitor cannot be null");
+		}
+		int startIndex = graph.getVertexIndex(start);
+		if (startIndex < 0) {
+			throw new IllegalArgumentException("Start element is not in the graph");
+		}
+
+		int[] queue = new int[graph.getNumberOfVertices()];
+		boolean[] visited = new boolean[queue.length];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = startIndex;
+		visited[startIndex] = true;
+		while (head < tail) {
+			int index = queue[head++];
+			if (!visitor.test(graph.getVertexAt(index))) {
+				return false;
+			}
+			for (int i = 0, degree = graph.getOutDegreeAt(index); i < degree; i++) {
+				int neighbor = graph.getNeighborIndexAt(index, i);
+				if (!visited[neighbor]) {
+					visited[neighbor] = true;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a sequential stream of the elements of the specified graph that
+	 * are reachable from the specified start element, in breadth-first order.
+	 * 
+	 * @param graph
+	 *            the graph to traverse
+	 * @param start
+	 *            the element at which to start
+	 * @return a stream of the reachable elements in breadth-first order
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 * @throws IllegalArgumentException
+	 *             if the start element is not in the graph
+	 */
+	public static <V> Stream<V> breadthFirstStream(Graph<V> graph, V start) {
+		return stream(breadthFirst(graph, start));
+	}
+
+	/**
+	 * Returns an iterator over the elements of the specified graph that are
+	 * reachable from the specified start element, in depth-first preorder.
+	 * 
+	 * @param graph
+	 *            the graph to traverse
+	 * @param start
+	 *            the element at which to start
+	 * @return an iterator over the reachable elements in depth-first order
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 * @throws IllegalArgumentException
+	 *             if the start element is not in the graph
+	 */
+	public static <V> Iterator<V> depthFirst(Graph<V> graph, V start) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+
+		IndexedAdjacency<V> adjacency = IndexedAdjacency.of(graph);
+		if (adjacency == null) {
+			return new DepthFirstIterator<>(graph, start);
+		}
+		return new IndexedDepthFirstIterator<>(adjacency, startIndex(adjacency, start));
+	}
+
+	/**
+	 * Visits the elements of the specified graph that are reachable from the
+	 * specified start element in depth-first preorder, until the visitor
+	 * returns false.
+	 * 
+	 * @param graph
+	 *            the graph to traverse
+	 * @param start
+	 *            the element at which to start
+	 * @param visitor
+	 *            the function to call on each element; returning false stops
+	 *            the traversal
+	 * @return true if every reachable element was visited, or false if the
+	 *         visitor stopped the traversal
+	 * @throws NullPointerException
+	 *             if the specified graph or visitor is null
+	 * @throws IllegalArgumentException
+	 *             if the start element is not in the graph
+	 */
+	public static <V> boolean depthFirstSearch(Graph<V> graph, V start, Predicate<? super V> visitor) {
+		if (visitor == null) {
+			throw new NullPointerException("Visitor cannot be null");
+		}
+
+		return visitAll(depthFirst(graph, start), visitor);
+	}
+
+	/**
+	 * Visits the elements of the specified graph that are reachable from the
+	 * specified start element in depth-first preorder, until the visitor
+	 * returns false. Elements are passed to the visitor as primitives.
+	 * 
+	 * @param graph
+	 *            the graph to traverse
+	 * @param start
+	 *            the element at which to start
+	 * @param visitor
+	 *            the function to call on each element; returning false stops
+	 *            the traversal
+	 * @return true if every reachable element was visited, or false if the
+	 *         visitor stopped the traversal
+	 * @throws NullPointerException
+	 *             if the specified graph or visitor is null
+	 * @throws IllegalArgumentException
+	 *             if the start element is not in the graph
+	 */
+	public static boolean depthFirstSearch(IntWeightedGraph graph, int start, IntPredicate visitor) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (visitor == null) {
+			throw new NullPointerException("Visitor cannot be null");
+		}
+		int startIndex = graph.getVertexIndex(start);
+		if (startIndex < 0) {
+			throw new IllegalArgumentException("Start element is not in the graph");
+		}
+
+		int n = graph.getNumberOfVertices();
+		int[] stack = new int[n];
+		int[] positions = new int[n];
+		boolean[] visited = new boolean[n];
+		int top = 0;
+		stack[top++] = startIndex;
+		visited[startIndex] = true;
+		if (!visitor.test(start)) {
+			return false;
+		}
+		while (top > 0) {
+			int index = stack[top - 1];
+			if (positions[index] == graph.getOutDegreeAt(index)) {
+				top--;
+				continue;
+			}
+			int neighbor = graph.getNeighborIndexAt(index, positions[index]++);
+			if (!visited[neighbor]) {
+				visited[neighbor] = true;
+				if (!visitor.test(graph.getVertexAt(neighbor))) {
+					return false;
+				}
+				stack[top++] = neighbor;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a sequential stream of the elements of the specified graph that
+	 * are reachable from the specified start element, in depth-first preorder.
+	 * 
+	 * @param graph
+	 *            the graph to traverse
+	 * @param start
+	 *            the element at which to start
+	 * @return a stream of the reachable elements in depth-first order
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 * @throws IllegalArgumentException
+	 *             if the start element is not in the graph
+	 */
+	public static <V> Stream<V> depthFirstStream(Graph<V> graph, V start) {
+		return stream(depthFirst(graph, start));
+	}
+
+	/**
+	 * Returns the index of the specified start element.
+	 * 
+	 * @param adjacency
+	 *            the indexed view of the graph
+	 * @param start
+	 *            the element at which to start
+	 * @return the index of the start element
+	 * @throws IllegalArgumentException
+	 *             if the start element is not in the graph
+	 */
+	private static <V> int startIndex(IndexedAdjacency<V> adjacency, V start) {
+		int index = adjacency.indexOf(start);
+		if (index < 0) {
+			throw new IllegalArgumentException("Start element is not in the graph");
+		}
+		return index;
+	}
+
+	/**
+	 * Returns a sequential stream over the elements of the specified iterator.
+	 * The elements are distinct and ordered.
+	 * 
+	 * @param iterator
+	 *            the iterator supplying the elements
+	 * @return a stream over the elements of the iterator
+	 */
+	private static <V> Stream<V> stream(Iterator<V> iterator) {
+		Spliterator<V> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+				Spliterator.DISTINCT | Spliterator.ORDERED);
+		return StreamSupport.stream(spliterator, false);
+	}
+
+	/**
+	 * Passes the elements of the specified iterator to the visitor until the
+	 * visitor returns false.
+	 * 
+	 * @param elems
+	 *            the elements to visit
+	 * @param visitor
+	 *            the function to call on each element
+	 * @return true if every element was visited, else false
+	 */
+	private static <V> boolean visitAll(Iterator<V> elems, Predicate<? super V> visitor) {
+		while (elems.hasNext()) {
+			if (!visitor.test(elems.next())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A breadth-first iterator over a graph that numbers its vertices, using a
+	 * primitive queue and visited array.
+	 */
+	private static final class IndexedBreadthFirstIterator<V> implements Iterator<V> {
+
+		private final IndexedAdjacency<V> adjacency;
+		private final int[] queue;
+		private final boolean[] visited;
+		private int head;
+		private int tail;
+
+		private IndexedBreadthFirstIterator(IndexedAdjacency<V> adjacency, int start) {
+			this.adjacency = adjacency;
+			this.queue = new int[adjacency.size()];
+			this.visited = new boolean[queue.length];
+			queue[tail++] = start;
+			visited[start] = true;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return head < tail;
+		}
+
+		@Override
+		public V next() {
+			if (head == tail) {
+				throw new NoSuchElementException();
+			}
+			int index = queue[head++];
+			for (int i = 0, degree = adjacency.degree(index); i < degree; i++) {
+				int neighbor = adjacency.neighbor(index, i);
+				if (!visited[neighbor]) {
+					visited[neighbor] = true;
+					queue[tail++] = neighbor;
+				}
+			}
+			return adjacency.vertexAt(index);
+		}
+
+	}
+
+	/**
+	 * A depth-first iterator over a graph that numbers its vertices, using a
+	 * primitive stack of vertices and their next neighbor positions.
+	 */
+	private static final class IndexedDepthFirstIterator<V> implements Iterator<V> {
+
+		private final IndexedAdjacency<V> adjacency;
+		private final int[] stack;
+		private final int[] positions;
+		private final boolean[] visited;
+		private int top;
+		private int next;
+
+		private IndexedDepthFirstIterator(IndexedAdjacency<V> adjacency, int start) {
+			this.adjacency = adjacency;
+			int n = adjacency.size();
+			this.stack = new int[n];
+			this.positions = new int[n];
+			this.visited = new boolean[n];
+			visited[start] = true;
+			this.next = start;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next >= 0;
+		}
+
+		@Override
+		public V next() {
+			if (next < 0) {
+				throw new NoSuchElementException();
+			}
+			int index = next;
+			stack[top++] = index;
+			advance();
+			return adjacency.vertexAt(index);
+		}
+
+		/**
+		 * Finds the next unvisited vertex by resuming the scans of the vertices
+		 * on the stack, popping those whose neighbors are exhausted.
+		 */
+		private void advance() {
+			while (top > 0) {
+				int index = stack[top - 1];
+				int degree = adjacency.degree(index);
+				while (positions[index] < degree) {
+					int neighbor = adjacency.neighbor(index, positions[index]++);
+					if (!visited[neighbor]) {
+						visited[neighbor] = true;
+						next = neighbor;
+						return;
+					}
+				}
+				top--;
+			}
+			next = -1;
+		}
+
+	}
+
+}
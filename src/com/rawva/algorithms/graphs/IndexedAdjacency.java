@@ -0,0 +1,142 @@
+package com.rawva.algorithms.graphs;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.Graph;
+import com.rawva.structures.graphs.IntWeightedGraph;
+
+/**
+ * A read-only view of the adjacency of a graph whose vertices are numbered
+ * from 0 to n - 1, where n is the number of vertices. It lets algorithms walk
+ * the graphs that already store their vertices by index without hashing or
+ * boxing.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ */
+abstract class IndexedAdjacency<V> {
+
+	/**
+	 * Returns an indexed view of the specified graph, or null if the graph
+	 * does not store its vertices by index.
+	 * 
+	 * @param graph
+	 *            the graph to view
+	 * @return an indexed view of the graph, or null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	static <V> IndexedAdjacency<V> of(Graph<V> graph) {
+		if (graph instanceof CsrGraph) {
+			return new CsrAdjacency<>((CsrGraph<V, ?>) graph);
+		}
+		if (graph instanceof IntWeightedGraph) {
+			return (IndexedAdjacency<V>) new IntAdjacency((IntWeightedGraph) graph);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of vertices.
+	 */
+	abstract int size();
+
+	/**
+	 * Returns the number of edges leaving the vertex with the specified index.
+	 */
+	abstract int degree(int index);
+
+	/**
+	 * Returns the index of the head of the edge at the specified position
+	 * among the edges leaving the vertex with the specified index.
+	 */
+	abstract int neighbor(int index, int position);
+
+	/**
+	 * Returns the index of the specified element, or -1 if it is not in the
+	 * graph.
+	 */
+	abstract int indexOf(V elem);
+
+	/**
+	 * Returns the element with the specified index.
+	 */
+	abstract V vertexAt(int index);
+
+	/**
+	 * The indexed view of a CsrGraph.
+	 */
+	private static final class CsrAdjacency<V> extends IndexedAdjacency<V> {
+
+		private final CsrGraph<V, ?> graph;
+
+		private CsrAdjacency(CsrGraph<V, ?> graph) {
+			this.graph = graph;
+		}
+
+		@Override
+		int size() {
+			return graph.getNumberOfVertices();
+		}
+
+		@Override
+		int degree(int index) {
+			return graph.getEdgeEnd(index) - graph.getEdgeStart(index);
+		}
+
+		@Override
+		int neighbor(int index, int position) {
+			return graph.getHeadIndexAt(graph.getEdgeStart(index) + position);
+		}
+
+		@Override
+		int indexOf(V elem) {
+			return graph.getVertexIndex(elem);
+		}
+
+		@Override
+		V vertexAt(int index) {
+			return graph.getVertexAt(index);
+		}
+
+	}
+
+	/**
+	 * The indexed view of an IntWeightedGraph.
+	 */
+	private static final class IntAdjacency extends IndexedAdjacency<Integer> {
+
+		private final IntWeightedGraph graph;
+
+		private IntAdjacency(IntWeightedGraph graph) {
+			this.graph = graph;
+		}
+
+		@Override
+		int size() {
+			return graph.getNumberOfVertices();
+		}
+
+		@Override
+		int degree(int index) {
+			return graph.getOutDegreeAt(index);
+		}
+
+		@Override
+		int neighbor(int index, int position) {
+			return graph.getNeighborIndexAt(index, position);
+		}
+
+		@Override
+		int indexOf(Integer elem) {
+			return elem == null ? -1 : graph.getVertexIndex(elem);
+		}
+
+		@Override
+		Integer vertexAt(int index) {
+			return graph.getVertexAt(index);
+		}
+
+	}
+
+}
@@ -0,0 +1,180 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of the integers from 0 to capacity - 1, each with a double
+ * key. It remembers where every item is, so the key of an item already in the
+ * heap can be decreased in O(log n) instead of adding it a second time. <br/>
+ * <br/>
+ * Clearing the heap only costs as much as the number of items left in it, so
+ * one heap can be reused by many searches that each touch a small part of a
+ * large graph.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+final class IndexedDoubleHeap {
+
+	private final int[] items;
+	private final int[] positions;
+	private final double[] keys;
+	private int size;
+
+	/**
+	 * Constructs an empty heap for the items from 0 to capacity - 1.
+	 * 
+	 * @param capacity
+	 *            the number of distinct items
+	 */
+	IndexedDoubleHeap(int capacity) {
+		this.items = new int[capacity];
+		this.positions = new int[capacity];
+		this.keys = new double[capacity];
+		Arrays.fill(positions, -1);
+	}
+
+	/**
+	 * Removes all items from this heap.
+	 */
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[items[i]] = -1;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Returns true if the specified item is in this heap.
+	 * 
+	 * @param item
+	 *            the item whose presence is to be tested
+	 * @return true if the item is in this heap, else false
+	 */
+	boolean contains(int item) {
+		return positions[item] >= 0;
+	}
+
+	/**
+	 * Returns true if this heap contains no items.
+	 * 
+	 * @return true if this heap is empty, else false
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Adds the specified item with the specified key, or lowers the key of the
+	 * item if it is already in this heap with a greater key. Returns true if
+	 * the heap changed.
+	 * 
+	 * @param item
+	 *            the item to add
+	 * @param key
+	 *            the key of the item
+	 * @return true if the item was added or its key was lowered, else false
+	 */
+	boolean offer(int item, double key) {
+		int position = positions[item];
+		if (position < 0) {
+			position = size++;
+		} else if (key >= keys[item]) {
+			return false;
+		}
+		keys[item] = key;
+		siftUp(item, position);
+		return true;
+	}
+
+	/**
+	 * Returns the smallest key in this heap.
+	 * 
+	 * @return the smallest key in this heap
+	 * @throws NoSuchElementException
+	 *             if this heap is empty
+	 */
+	double peekKey() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return keys[items[0]];
+	}
+
+	/**
+	 * Removes and returns the item with the smallest key.
+	 * 
+	 * @return the item with the smallest key
+	 * @throws NoSuchElementException
+	 *             if this heap is empty
+	 */
+	int poll() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		int first = items[0];
+		positions[first] = -1;
+		int last = items[--size];
+		if (size > 0) {
+			siftDown(last, 0);
+		}
+		return first;
+	}
+
+	/**
+	 * Returns the number of items in this heap.
+	 * 
+	 * @return the number of items in this heap
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Places the specified item at the specified position or above it, moving
+	 * down the items with greater keys that are in the way.
+	 */
+	private void siftUp(int item, int position) {
+		double key = keys[item];
+		while (position > 0) {
+			int parentPosition = (position - 1) >>> 1;
+			int parent = items[parentPosition];
+			if (keys[parent] <= key) {
+				break;
+			}
+			items[position] = parent;
+			positions[parent] = position;
+			position = parentPosition;
+		}
+		items[position] = item;
+		positions[item] = position;
+	}
+
+	/**
+	 * Places the specified item at the specified position or below it, moving
+	 * up the items with smaller keys that are in the way.
+	 */
+	private void siftDown(int item, int position) {
+		double key = keys[item];
+		int half = size >>> 1;
+		while (position < half) {
+			int childPosition = 2 * position + 1;
+			int child = items[childPosition];
+			int rightPosition = childPosition + 1;
+			if (rightPosition < size && keys[items[rightPosition]] < keys[child]) {
+				childPosition = rightPosition;
+				child = items[childPosition];
+			}
+			if (key <= keys[child]) {
+				break;
+			}
+			items[position] = child;
+			positions[child] = position;
+			position = childPosition;
+		}
+		items[position] = item;
+		positions[item] = position;
+	}
+
+}
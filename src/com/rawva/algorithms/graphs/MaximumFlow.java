@@ -0,0 +1,687 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.DirectedEdge;
+import com.rawva.structures.graphs.Graph;
+import com.rawva.structures.graphs.UndirectedEdge;
+import com.rawva.structures.graphs.WeightedGraph;
+
+/**
+ * This class finds a maximum flow from a source element (vertex) to a sink
+ * element of a weighted graph, where the capacity of each edge is a capacity
+ * function applied to its weight, and the minimum cut that proves it. An edge
+ * of an undirected graph can carry flow in either direction, up to its
+ * capacity. <br/>
+ * <br/>
+ * The graph is copied into a residual graph over int indices, in which every
+ * edge is an arc paired with a reverse arc, laid out in CSR form. The flow is
+ * then found with one of two algorithms:
+ * <ul>
+ * <li>Dinic's algorithm, which repeatedly builds the levels of a
+ * breadth-first search from the source and saturates every shortest
+ * augmenting path at once with a depth-first search that never retries an
+ * arc.</li>
+ * <li>Push-relabel, which floods the network from the source and pushes
+ * excess flow downhill, always discharging the highest active element. A
+ * global relabel periodically sets every height to the exact residual
+ * distance to the sink (or to the source plus n), and the gap heuristic lifts
+ * every element above an empty height out of reach of the sink at once.
+ * This is usually the faster of the two on large graphs.</li>
+ * </ul>
+ * Both algorithms compute the same flow value and the same minimum cut: the
+ * source side holds the elements that can still be reached from the source
+ * in the residual graph of the maximum flow.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ * @param <W>
+ *            the type of edge weights in the graph
+ */
+public class MaximumFlow<V, W> {
+
+	private final CsrGraph<V, W> graph;
+	private final Algorithm algorithm;
+	private final Residual residual;
+	private final double flowValue;
+	private final boolean[] sourceSide;
+
+	/**
+	 * The algorithms with which a maximum flow can be found.
+	 */
+	public enum Algorithm {
+
+		/**
+		 * Dinic's algorithm, with blocking flows along level graphs.
+		 */
+		DINIC,
+
+		/**
+		 * Highest-label push-relabel, with global relabeling and the gap
+		 * heuristic.
+		 */
+		PUSH_RELABEL
+
+	}
+
+	/**
+	 * Finds a maximum flow from the source element to the sink element of the
+	 * specified graph with push-relabel.
+	 * 
+	 * @param graph
+	 *            the graph in which to find a flow
+	 * @param capacityFunction
+	 *            the function converting an edge weight to a capacity
+	 * @param source
+	 *            the element at which flow starts
+	 * @param sink
+	 *            the element at which flow ends
+	 * @throws NullPointerException
+	 *             if the specified graph or capacity function is null
+	 * @throws IllegalArgumentException
+	 *             if the source or sink is not in the graph, they are the same
+	 *             element, or the capacity of some edge is negative, infinite
+	 *             or NaN
+	 */
+	public MaximumFlow(WeightedGraph<V, W> graph, ToDoubleFunction<? super W> capacityFunction, V source, V sink) {
+		this(graph, capacityFunction, source, sink, Algorithm.PUSH_RELABEL);
+	}
+
+	/**
+	 * Finds a maximum flow from the source element to the sink element of the
+	 * specified graph with the specified algorithm.
+	 * 
+	 * @param graph
+	 *            the graph in which to find a flow
+	 * @param capacityFunction
+	 *            the function converting an edge weight to a capacity
+	 * @param source
+	 *            the element at which flow starts
+	 * @param sink
+	 *            the element at which flow ends
+	 * @param algorithm
+	 *            the algorithm with which to find the flow
+	 * @throws NullPointerException
+	 *             if the specified graph, capacity function or algorithm is
+	 *             null
+	 * @throws IllegalArgumentException
+	 *             if the source or sink is not in the graph, they are the same
+	 *             element, or the capacity of some edge is negative, infinite
+	 *             or NaN
+	 */
+	public MaximumFlow(WeightedGraph<V, W> graph, ToDoubleFunction<? super W> capacityFunction, V source, V sink,
+			Algorithm algorithm) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (capacityFunction == null) {
+			throw new NullPointerException("Capacity function cannot be null");
+		}
+		if (algorithm == null) {
+			throw new NullPointerException("Algorithm cannot be null");
+		}
+
+		this.graph = graph instanceof CsrGraph ? (CsrGraph<V, W>) graph : new CsrGraph<>(graph);
+		this.algorithm = algorithm;
+		int sourceIndex = this.graph.getVertexIndex(source);
+		if (sourceIndex < 0) {
+			throw new IllegalArgumentException("Source element is not in the graph");
+		}
+		int sinkIndex = this.graph.getVertexIndex(sink);
+		if (sinkIndex < 0) {
+			throw new IllegalArgumentException("Sink element is not in the graph");
+		}
+		if (sourceIndex == sinkIndex) {
+			throw new IllegalArgumentException("Source and sink must be different elements");
+		}
+
+		this.residual = new Residual(this.graph, capacityFunction);
+		this.flowValue = algorithm == Algorithm.DINIC ? dinic(residual, sourceIndex, sinkIndex)
+				: new PushRelabel(residual, sourceIndex, sinkIndex).run();
+
+		// Everything still reachable from the source is on its side of the cut
+		int n = residual.numberOfVertices;
+		this.sourceSide = new boolean[n];
+		int[] queue = new int[n];
+		int size = 0;
+		sourceSide[sourceIndex] = true;
+		queue[size++] = sourceIndex;
+		for (int i = 0; i < size; i++) {
+			int tail = queue[i];
+			for (int arc = residual.offsets[tail]; arc < residual.offsets[tail + 1]; arc++) {
+				int head = residual.heads[arc];
+				if (residual.residuals[arc] > 0 && !sourceSide[head]) {
+					sourceSide[head] = true;
+					queue[size++] = head;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the algorithm with which the flow was found.
+	 * 
+	 * @return the algorithm with which the flow was found
+	 */
+	public Algorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * Returns the edges of a minimum cut: the edges from an element on the
+	 * source side to an element on the sink side. Their capacities add up to
+	 * the flow value.
+	 * 
+	 * @return the edges of a minimum cut
+	 */
+	public List<Graph.Edge<V>> getCutEdges() {
+		List<Graph.Edge<V>> edges = new ArrayList<>();
+		for (int tail = 0; tail < residual.numberOfVertices; tail++) {
+			if (!sourceSide[tail]) {
+				continue;
+			}
+			for (int arc = residual.offsets[tail]; arc < residual.offsets[tail + 1]; arc++) {
+				int head = residual.heads[arc];
+				if (residual.isForward[arc] && !sourceSide[head]) {
+					V tailVertex = graph.getVertexAt(tail);
+					V headVertex = graph.getVertexAt(head);
+					edges.add(graph.isDirected() ? new DirectedEdge<>(tailVertex, headVertex)
+							: new UndirectedEdge<>(tailVertex, headVertex));
+				}
+			}
+		}
+		return edges;
+	}
+
+	/**
+	 * Returns the flow along the edge from tail to head, or 0 if there is no
+	 * such edge. In an undirected graph, this is the flow from tail to head,
+	 * which is 0 if the edge carries flow from head to tail.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return the flow along the edge
+	 */
+	public double getFlow(V tail, V head) {
+		int tailIndex = graph.getVertexIndex(tail);
+		int headIndex = graph.getVertexIndex(head);
+		if (tailIndex < 0 || headIndex < 0) {
+			return 0;
+		}
+		for (int arc = residual.offsets[tailIndex]; arc < residual.offsets[tailIndex + 1]; arc++) {
+			if (residual.heads[arc] == headIndex && residual.isForward[arc]) {
+				return Math.max(0, residual.capacities[arc] - residual.residuals[arc]);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the value of the maximum flow, which is the total flow into the
+	 * sink and the total capacity of a minimum cut.
+	 * 
+	 * @return the value of the maximum flow
+	 */
+	public double getFlowValue() {
+		return flowValue;
+	}
+
+	/**
+	 * Returns the snapshot of the graph in which the flow was found.
+	 * 
+	 * @return the snapshot of the graph in which the flow was found
+	 */
+	public CsrGraph<V, W> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns an unmodifiable set of the elements on the source side of a
+	 * minimum cut, in the order of their indices in the graph returned by
+	 * getGraph().
+	 * 
+	 * @return the elements on the source side of a minimum cut
+	 */
+	public Set<V> getSourceSide() {
+		Set<V> elements = new LinkedHashSet<>();
+		for (int i = 0; i < sourceSide.length; i++) {
+			if (sourceSide[i]) {
+				elements.add(graph.getVertexAt(i));
+			}
+		}
+		return Collections.unmodifiableSet(elements);
+	}
+
+	/**
+	 * Returns true if the specified element is on the source side of a
+	 * minimum cut.
+	 * 
+	 * @param elem
+	 *            the element whose side we want
+	 * @return true if the element is on the source side, else false
+	 * @throws IllegalArgumentException
+	 *             if the element is not in the graph
+	 */
+	public boolean isOnSourceSide(V elem) {
+		int index = graph.getVertexIndex(elem);
+		if (index < 0) {
+			throw new IllegalArgumentException("Element is not in the graph");
+		}
+		return sourceSide[index];
+	}
+
+	/**
+	 * Saturates the residual graph with Dinic's algorithm and returns the
+	 * value of the flow. Each phase labels the elements with their residual
+	 * distance from the source and then finds augmenting paths that only step
+	 * from one level to the next, with an explicit stack so that long paths do
+	 * not overflow the call stack. The current arc of every element only moves
+	 * forward within a phase, because an arc that led nowhere once will lead
+	 * nowhere again.
+	 */
+	private static double dinic(Residual residual, int source, int sink) {
+		int n = residual.numberOfVertices;
+		int[] offsets = residual.offsets;
+		int[] heads = residual.heads;
+		int[] reverse = residual.reverse;
+		double[] residuals = residual.residuals;
+		int[] levels = new int[n];
+		int[] queue = new int[n];
+		int[] current = new int[n];
+		int[] path = new int[n];
+
+		double flow = 0;
+		while (computeLevels(residual, source, sink, levels, queue)) {
+			System.arraycopy(offsets, 0, current, 0, n);
+			int depth = 0;
+			int tail = source;
+			while (true) {
+				if (tail == sink) {
+					double bottleneck = Double.POSITIVE_INFINITY;
+					for (int i = 0; i < depth; i++) {
+						bottleneck = Math.min(bottleneck, residuals[path[i]]);
+					}
+					int saturated = -1;
+					for (int i = 0; i < depth; i++) {
+						int arc = path[i];
+						residuals[arc] -= bottleneck;
+						residuals[reverse[arc]] += bottleneck;
+						if (saturated < 0 && residuals[arc] <= 0) {
+							saturated = i;
+						}
+					}
+					flow += bottleneck;
+
+					// Resume from the tail of the first arc that is now full
+					depth = saturated;
+					tail = depth == 0 ? source : heads[path[depth - 1]];
+					continue;
+				}
+
+				boolean advanced = false;
+				for (int end = offsets[tail + 1]; current[tail] < end; current[tail]++) {
+					int arc = current[tail];
+					int head = heads[arc];
+					if (residuals[arc] > 0 && levels[head] == levels[tail] + 1) {
+						path[depth++] = arc;
+						tail = head;
+						advanced = true;
+						break;
+					}
+				}
+				if (!advanced) {
+					if (depth == 0) {
+						break;
+					}
+					int arc = path[--depth];
+					tail = heads[reverse[arc]];
+					current[tail]++;
+				}
+			}
+		}
+		return flow;
+	}
+
+	/**
+	 * Sets the level of every element to its residual distance from the
+	 * source, or -1 if it cannot be reached, and returns true if the sink can
+	 * be reached. Elements beyond the level of the sink are left unlabeled,
+	 * since no shortest augmenting path goes through them.
+	 */
+	private static boolean computeLevels(Residual residual, int source, int sink, int[] levels, int[] queue) {
+		Arrays.fill(levels, -1);
+		levels[source] = 0;
+		queue[0] = source;
+		int size = 1;
+		for (int i = 0; i < size; i++) {
+			int tail = queue[i];
+			if (levels[sink] >= 0 && levels[tail] >= levels[sink]) {
+				break;
+			}
+			for (int arc = residual.offsets[tail]; arc < residual.offsets[tail + 1]; arc++) {
+				int head = residual.heads[arc];
+				if (residual.residuals[arc] > 0 && levels[head] < 0) {
+					levels[head] = levels[tail] + 1;
+					queue[size++] = head;
+				}
+			}
+		}
+		return levels[sink] >= 0;
+	}
+
+	/**
+	 * The residual graph of a flow network. The arcs leaving element i are at
+	 * positions offsets[i] (inclusive) to offsets[i + 1] (exclusive), and the
+	 * arc paired with arc a is at reverse[a]. A directed edge of capacity c
+	 * becomes an arc of capacity c paired with a reverse arc of capacity 0,
+	 * while an undirected edge becomes two arcs of capacity c paired with
+	 * each other. Loops never carry useful flow and are left out.
+	 */
+	private static final class Residual {
+
+		private final int numberOfVertices;
+		private final int[] offsets;
+		private final int[] heads;
+		private final int[] reverse;
+		private final double[] capacities;
+		private final double[] residuals;
+		private final boolean[] isForward;
+
+		private <V, W> Residual(CsrGraph<V, W> graph, ToDoubleFunction<? super W> capacityFunction) {
+			int n = graph.getNumberOfVertices();
+			boolean isDirected = graph.isDirected();
+			this.numberOfVertices = n;
+			this.offsets = new int[n + 1];
+			for (int tail = 0; tail < n; tail++) {
+				for (int position = graph.getEdgeStart(tail); position < graph.getEdgeEnd(tail); position++) {
+					int head = graph.getHeadIndexAt(position);
+					// An undirected edge is stored under both of its ends
+					if (head != tail && (isDirected || head > tail)) {
+						offsets[tail + 1]++;
+						offsets[head + 1]++;
+					}
+				}
+			}
+			for (int i = 0; i < n; i++) {
+				offsets[i + 1] += offsets[i];
+			}
+
+			int arcs = offsets[n];
+			this.heads = new int[arcs];
+			this.reverse = new int[arcs];
+			this.capacities = new double[arcs];
+			this.isForward = new boolean[arcs];
+			int[] next = Arrays.copyOf(offsets, n);
+			for (int tail = 0; tail < n; tail++) {
+				for (int position = graph.getEdgeStart(tail); position < graph.getEdgeEnd(tail); position++) {
+					int head = graph.getHeadIndexAt(position);
+					if (head == tail || (!isDirected && head < tail)) {
+						continue;
+					}
+					double capacity = capacityFunction.applyAsDouble(graph.getWeightAt(position));
+					if (!(capacity >= 0 && capacity < Double.POSITIVE_INFINITY)) {
+						throw new IllegalArgumentException("Capacities must be finite and non-negative: " + capacity);
+					}
+					int arc = next[tail]++;
+					int pair = next[head]++;
+					heads[arc] = head;
+					heads[pair] = tail;
+					reverse[arc] = pair;
+					reverse[pair] = arc;
+					capacities[arc] = capacity;
+					capacities[pair] = isDirected ? 0 : capacity;
+					isForward[arc] = true;
+					isForward[pair] = !isDirected;
+				}
+			}
+			this.residuals = capacities.clone();
+		}
+
+	}
+
+	/**
+	 * The state of a highest-label push-relabel run. Active elements (those
+	 * with excess flow) are kept in one stack per height, and the elements
+	 * below height n in one doubly linked list per height, so that the gap
+	 * heuristic can find every element above an empty height.
+	 */
+	private static final class PushRelabel {
+
+		private final Residual residual;
+		private final int n;
+		private final int source;
+		private final int sink;
+		private final int[] heights;
+		private final double[] excess;
+		private final int[] current;
+		private final int[] activeHeads;
+		private final int[] activeNext;
+		private final int[] layerHeads;
+		private final int[] layerNext;
+		private final int[] layerPrevious;
+		private final int[] queue;
+		private final long globalRelabelWork;
+		private int maxActive;
+		private int maxLayer;
+		private long work;
+
+		private PushRelabel(Residual residual, int source, int sink) {
+			this.residual = residual;
+			this.n = residual.numberOfVertices;
+			this.source = source;
+			this.sink = sink;
+			this.heights = new int[n];
+			this.excess = new double[n];
+			this.current = new int[n];
+			this.activeHeads = new int[2 * n + 1];
+			this.activeNext = new int[n];
+			this.layerHeads = new int[n];
+			this.layerNext = new int[n];
+			this.layerPrevious = new int[n];
+			this.queue = new int[n];
+			this.globalRelabelWork = 6L * n + residual.heads.length;
+		}
+
+		/**
+		 * Runs push-relabel until no element but the source and sink has
+		 * excess, and returns the flow into the sink.
+		 */
+		private double run() {
+			for (int arc = residual.offsets[source]; arc < residual.offsets[source + 1]; arc++) {
+				double delta = residual.residuals[arc];
+				if (delta > 0) {
+					residual.residuals[arc] = 0;
+					residual.residuals[residual.reverse[arc]] += delta;
+					excess[residual.heads[arc]] += delta;
+				}
+			}
+			globalRelabel();
+
+			while (maxActive >= 0) {
+				int elem = activeHeads[maxActive];
+				if (elem < 0) {
+					maxActive--;
+					continue;
+				}
+				activeHeads[maxActive] = activeNext[elem];
+				discharge(elem);
+				if (work > globalRelabelWork) {
+					globalRelabel();
+				}
+			}
+			return excess[sink];
+		}
+
+		/**
+		 * Pushes the excess of the specified element to its neighbors one
+		 * height below, relabeling it whenever it runs out of such arcs,
+		 * until it has no excess left.
+		 */
+		private void discharge(int elem) {
+			int end = residual.offsets[elem + 1];
+			while (excess[elem] > 0) {
+				int arc = current[elem];
+				if (arc == end) {
+					relabel(elem);
+					if (heights[elem] >= 2 * n) {
+						// Only possible if rounding stranded a speck of excess
+						break;
+					}
+					continue;
+				}
+				int head = residual.heads[arc];
+				if (residual.residuals[arc] > 0 && heights[elem] == heights[head] + 1) {
+					double delta = Math.min(excess[elem], residual.residuals[arc]);
+					if (excess[head] == 0) {
+						activate(head);
+					}
+					residual.residuals[arc] -= delta;
+					residual.residuals[residual.reverse[arc]] += delta;
+					excess[elem] -= delta;
+					excess[head] += delta;
+					if (residual.residuals[arc] > 0) {
+						// The element has no excess left, so keep the arc
+						continue;
+					}
+				}
+				current[elem]++;
+			}
+		}
+
+		/**
+		 * Raises the specified element to one above its lowest neighbor
+		 * across an arc with residual capacity. If that leaves its old height
+		 * empty, every element above the gap can no longer reach the sink and
+		 * is lifted to the height of the source at once.
+		 */
+		private void relabel(int elem) {
+			int start = residual.offsets[elem];
+			int end = residual.offsets[elem + 1];
+			work += 12 + end - start;
+			int lowest = 2 * n - 1;
+			for (int arc = start; arc < end; arc++) {
+				if (residual.residuals[arc] > 0) {
+					lowest = Math.min(lowest, heights[residual.heads[arc]]);
+				}
+			}
+			current[elem] = start;
+
+			int height = heights[elem];
+			int newHeight = lowest + 1;
+			if (height < n) {
+				removeFromLayer(elem, height);
+				if (layerHeads[height] < 0) {
+					for (int h = height + 1; h <= maxLayer; h++) {
+						for (int e = layerHeads[h]; e >= 0; e = layerNext[e]) {
+							heights[e] = n;
+						}
+						layerHeads[h] = -1;
+					}
+					maxLayer = height - 1;
+					newHeight = Math.max(newHeight, n);
+				}
+			}
+			heights[elem] = newHeight;
+			if (newHeight < n) {
+				addToLayer(elem, newHeight);
+			}
+		}
+
+		/**
+		 * Sets every height to the exact residual distance to the sink, or to
+		 * n plus the residual distance to the source for the elements that
+		 * cannot reach the sink, and rebuilds the stacks and lists.
+		 */
+		private void globalRelabel() {
+			work = 0;
+			Arrays.fill(heights, 2 * n);
+			Arrays.fill(activeHeads, -1);
+			Arrays.fill(layerHeads, -1);
+			maxActive = -1;
+			maxLayer = -1;
+			heights[sink] = 0;
+			heights[source] = n;
+			reverseSearch(sink);
+			reverseSearch(source);
+
+			for (int elem = 0; elem < n; elem++) {
+				current[elem] = residual.offsets[elem];
+				if (elem == source || elem == sink) {
+					continue;
+				}
+				if (heights[elem] < n) {
+					addToLayer(elem, heights[elem]);
+				}
+				if (excess[elem] > 0) {
+					activate(elem);
+				}
+			}
+		}
+
+		/**
+		 * Labels the elements that can reach the specified root in the
+		 * residual graph and have no height yet with their distance to the
+		 * root plus its height.
+		 */
+		private void reverseSearch(int root) {
+			queue[0] = root;
+			int size = 1;
+			for (int i = 0; i < size; i++) {
+				int head = queue[i];
+				for (int arc = residual.offsets[head]; arc < residual.offsets[head + 1]; arc++) {
+					int tail = residual.heads[arc];
+					if (heights[tail] == 2 * n && residual.residuals[residual.reverse[arc]] > 0) {
+						heights[tail] = heights[head] + 1;
+						queue[size++] = tail;
+					}
+				}
+			}
+		}
+
+		private void activate(int elem) {
+			int height = heights[elem];
+			if (elem != source && elem != sink && height < 2 * n) {
+				activeNext[elem] = activeHeads[height];
+				activeHeads[height] = elem;
+				maxActive = Math.max(maxActive, height);
+			}
+		}
+
+		private void addToLayer(int elem, int height) {
+			int first = layerHeads[height];
+			layerNext[elem] = first;
+			layerPrevious[elem] = -1;
+			if (first >= 0) {
+				layerPrevious[first] = elem;
+			}
+			layerHeads[height] = elem;
+			maxLayer = Math.max(maxLayer, height);
+		}
+
+		private void removeFromLayer(int elem, int height) {
+			int next = layerNext[elem];
+			int previous = layerPrevious[elem];
+			if (previous >= 0) {
+				layerNext[previous] = next;
+			} else {
+				layerHeads[height] = next;
+			}
+			if (next >= 0) {
+				layerPrevious[next] = previous;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,553 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.ToDoubleFunction;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.WeightedGraph;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+/**
+ * This class finds minimum spanning forests of undirected weighted graphs: for
+ * every connected component, a tree that connects all of its elements
+ * (vertices) using edges of the smallest possible total weight. <br/>
+ * <br/>
+ * Edge weights are compared either as the numbers a weight function maps them
+ * to, or with a comparator. All three algorithms return a forest of the same
+ * total weight, and the same forest when no two edges weigh the same:
+ * <ul>
+ * <li>Kruskal's algorithm sorts the edges in parallel and adds them in order
+ * unless they would close a cycle.</li>
+ * <li>Prim's algorithm grows one tree at a time from a start element with an
+ * indexed heap.</li>
+ * <li>Boruvka's algorithm lets every tree pick its cheapest outgoing edge at
+ * once, in parallel, halving the number of trees every round.</li>
+ * </ul>
+ * The returned forest is a new undirected graph that contains every element of
+ * the input graph and the chosen edges with their original weights. Loops are
+ * never part of a forest.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+public class MinimumSpanningForests {
+
+	private static final int EDGES_PER_TASK = 8192;
+	private static final int INSERTION_SORT_CUTOFF = 32;
+
+	/**
+	 * Returns a minimum spanning forest of the specified graph found with
+	 * Boruvka's algorithm, comparing edge weights with the specified
+	 * comparator.
+	 * 
+	 * @param graph
+	 *            the undirected graph whose forest we want
+	 * @param comparator
+	 *            the comparator that orders edge weights
+	 * @return a minimum spanning forest of the graph
+	 * @throws NullPointerException
+	 *             if the specified graph or comparator is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is directed
+	 */
+	public static <V, W> WeightedHashGraph<V, W> boruvka(WeightedGraph<V, W> graph,
+			Comparator<? super W> comparator) {
+		EdgeList<V, W> edges = new EdgeList<>(graph, comparator);
+		return edges.toForest(boruvka(edges));
+	}
+
+	/**
+	 * Returns a minimum spanning forest of the specified graph found with
+	 * Boruvka's algorithm, comparing edge weights by the numbers the weight
+	 * function maps them to.
+	 * 
+	 * @param graph
+	 *            the undirected graph whose forest we want
+	 * @param weightFunction
+	 *            the function converting an edge weight to a number
+	 * @return a minimum spanning forest of the graph
+	 * @throws NullPointerException
+	 *             if the specified graph or weight function is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is directed or some edge weight maps to NaN
+	 */
+	public static <V, W> WeightedHashGraph<V, W> boruvka(WeightedGraph<V, W> graph,
+			ToDoubleFunction<? super W> weightFunction) {
+		EdgeList<V, W> edges = new EdgeList<>(graph, weightFunction);
+		return edges.toForest(boruvka(edges));
+	}
+
+	/**
+	 * Returns a minimum spanning forest of the specified graph found with
+	 * Kruskal's algorithm, comparing edge weights with the specified
+	 * comparator.
+	 * 
+	 * @param graph
+	 *            the undirected graph whose forest we want
+	 * @param comparator
+	 *            the comparator that orders edge weights
+	 * @return a minimum spanning forest of the graph
+	 * @throws NullPointerException
+	 *             if the specified graph or comparator is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is directed
+	 */
+	public static <V, W> WeightedHashGraph<V, W> kruskal(WeightedGraph<V, W> graph,
+			Comparator<? super W> comparator) {
+		EdgeList<V, W> edges = new EdgeList<>(graph, comparator);
+		return edges.toForest(kruskal(edges));
+	}
+
+	/**
+	 * Returns a minimum spanning forest of the specified graph found with
+	 * Kruskal's algorithm, comparing edge weights by the numbers the weight
+	 * function maps them to.
+	 * 
+	 * @param graph
+	 *            the undirected graph whose forest we want
+	 * @param weightFunction
+	 *            the function converting an edge weight to a number
+	 * @return a minimum spanning forest of the graph
+	 * @throws NullPointerException
+	 *             if the specified graph or weight function is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is directed or some edge weight maps to NaN
+	 */
+	public static <V, W> WeightedHashGraph<V, W> kruskal(WeightedGraph<V, W> graph,
+			ToDoubleFunction<? super W> weightFunction) {
+		EdgeList<V, W> edges = new EdgeList<>(graph, weightFunction);
+		return edges.toForest(kruskal(edges));
+	}
+
+	/**
+	 * Returns a minimum spanning forest of the specified graph found with
+	 * Prim's algorithm, comparing edge weights with the specified comparator.
+	 * 
+	 * @param graph
+	 *            the undirected graph whose forest we want
+	 * @param comparator
+	 *            the comparator that orders edge weights
+	 * @return a minimum spanning forest of the graph
+	 * @throws NullPointerException
+	 *             if the specified graph or comparator is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is directed
+	 */
+	public static <V, W> WeightedHashGraph<V, W> prim(WeightedGraph<V, W> graph, Comparator<? super W> comparator) {
+		EdgeList<V, W> edges = new EdgeList<>(graph, comparator);
+		return edges.toForest(prim(edges));
+	}
+
+	/**
+	 * Returns a minimum spanning forest of the specified graph found with
+	 * Prim's algorithm, comparing edge weights by the numbers the weight
+	 * function maps them to.
+	 * 
+	 * @param graph
+	 *            the undirected graph whose forest we want
+	 * @param weightFunction
+	 *            the function converting an edge weight to a number
+	 * @return a minimum spanning forest of the graph
+	 * @throws NullPointerException
+	 *             if the specified graph or weight function is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is directed or some edge weight maps to NaN
+	 */
+	public static <V, W> WeightedHashGraph<V, W> prim(WeightedGraph<V, W> graph,
+			ToDoubleFunction<? super W> weightFunction) {
+		EdgeList<V, W> edges = new EdgeList<>(graph, weightFunction);
+		return edges.toForest(prim(edges));
+	}
+
+	/**
+	 * Returns the edges of a minimum spanning forest found with Boruvka's
+	 * algorithm. Every round, each tree atomically records its cheapest
+	 * outgoing edge, the recorded edges are merged into the union-find, and
+	 * the edges inside a tree are dropped. Ties are broken by edge number, so
+	 * the recorded edges never form a cycle.
+	 */
+	private static boolean[] boruvka(EdgeList<?, ?> edges) {
+		int n = edges.graph.getNumberOfVertices();
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		ConcurrentUnionFind trees = new ConcurrentUnionFind(n);
+		AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+		boolean[] inForest = new boolean[edges.size];
+		int[] active = new int[edges.size];
+		for (int i = 0; i < active.length; i++) {
+			active[i] = i;
+		}
+		for (int i = 0; i < n; i++) {
+			cheapest.set(i, -1);
+		}
+
+		int numberOfActive = active.length;
+		while (numberOfActive > 0) {
+			int[] current = active;
+			ParallelRanges.forEach(pool, numberOfActive, EDGES_PER_TASK, (from, to) -> {
+				for (int i = from; i < to; i++) {
+					int edge = current[i];
+					offerCheapest(edges, cheapest, trees.find(edges.tails[edge]), edge);
+					offerCheapest(edges, cheapest, trees.find(edges.heads[edge]), edge);
+				}
+			});
+			ParallelRanges.forEach(pool, n, EDGES_PER_TASK, (from, to) -> {
+				for (int root = from; root < to; root++) {
+					int edge = cheapest.get(root);
+					if (edge >= 0) {
+						// Both trees may have picked the same edge, but only
+						// one of them merges the trees
+						if (trees.union(edges.tails[edge], edges.heads[edge])) {
+							inForest[edge] = true;
+						}
+						cheapest.set(root, -1);
+					}
+				}
+			});
+			numberOfActive = removeInnerEdges(edges, trees, current, numberOfActive, pool);
+		}
+		return inForest;
+	}
+
+	/**
+	 * Records the specified edge as the cheapest edge leaving the specified
+	 * tree if it is cheaper than the one recorded so far.
+	 */
+	private static void offerCheapest(EdgeList<?, ?> edges, AtomicIntegerArray cheapest, int root, int edge) {
+		while (true) {
+			int current = cheapest.get(root);
+			if (current >= 0 && !isLighter(edges, edge, current)) {
+				return;
+			}
+			if (cheapest.compareAndSet(root, current, edge)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the first edge comes before the second, by weight and
+	 * then by edge number.
+	 */
+	private static boolean isLighter(EdgeList<?, ?> edges, int edge1, int edge2) {
+		int comparison = Double.compare(edges.weights[edge1], edges.weights[edge2]);
+		return comparison < 0 || (comparison == 0 && edge1 < edge2);
+	}
+
+	/**
+	 * Moves the edges whose ends are in different trees to the front of the
+	 * specified array, keeping their order, and returns how many there are.
+	 * The array is cut into fixed chunks that are counted and then copied in
+	 * parallel.
+	 */
+	private static int removeInnerEdges(EdgeList<?, ?> edges, ConcurrentUnionFind trees, int[] active, int size,
+			ForkJoinPool pool) {
+		int chunks = (size + EDGES_PER_TASK - 1) / EDGES_PER_TASK;
+		int[] kept = new int[size];
+		int[] counts = new int[chunks + 1];
+		ParallelRanges.forEach(pool, chunks, 1, (from, to) -> {
+			for (int chunk = from; chunk < to; chunk++) {
+				int count = 0;
+				int start = chunk * EDGES_PER_TASK;
+				for (int i = start, end = Math.min(size, start + EDGES_PER_TASK); i < end; i++) {
+					int edge = active[i];
+					if (!trees.sameSet(edges.tails[edge], edges.heads[edge])) {
+						kept[start + count++] = edge;
+					}
+				}
+				counts[chunk + 1] = count;
+			}
+		});
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			counts[chunk + 1] += counts[chunk];
+		}
+		ParallelRanges.forEach(pool, chunks, 1, (from, to) -> {
+			for (int chunk = from; chunk < to; chunk++) {
+				int count = counts[chunk + 1] - counts[chunk];
+				System.arraycopy(kept, chunk * EDGES_PER_TASK, active, counts[chunk], count);
+			}
+		});
+		return counts[chunks];
+	}
+
+	/**
+	 * Returns the edges of a minimum spanning forest found with Kruskal's
+	 * algorithm.
+	 */
+	private static boolean[] kruskal(EdgeList<?, ?> edges) {
+		int[] order = sortByWeight(edges.weights, edges.size);
+		ConcurrentUnionFind trees = new ConcurrentUnionFind(edges.graph.getNumberOfVertices());
+		boolean[] inForest = new boolean[edges.size];
+		int remaining = edges.graph.getNumberOfVertices() - 1;
+		for (int i = 0; i < order.length && remaining > 0; i++) {
+			int edge = order[i];
+			if (trees.union(edges.tails[edge], edges.heads[edge])) {
+				inForest[edge] = true;
+				remaining--;
+			}
+		}
+		return inForest;
+	}
+
+	/**
+	 * Returns the numbers of the edges in order of increasing weight. <br/>
+	 * <br/>
+	 * Every edge is packed into a long whose high half orders like its weight
+	 * rounded to a float and whose low half is its number, and the longs are
+	 * sorted with Arrays.parallelSort. Rounding never reverses the order of
+	 * two weights, so only runs of edges whose weights round to the same float
+	 * can be out of order, and those runs are then sorted exactly. Runs can be
+	 * long: near 1.7e12, one float step spans 131072, so they are merge sorted
+	 * in O(k log k).
+	 */
+	private static int[] sortByWeight(double[] weights, int size) {
+		long[] keys = new long[size];
+		for (int edge = 0; edge < size; edge++) {
+			int bits = Float.floatToIntBits((float) weights[edge]);
+			int sortable = bits ^ ((bits >> 31) & Integer.MAX_VALUE);
+			keys[edge] = ((long) sortable << 32) | edge;
+		}
+		Arrays.parallelSort(keys);
+
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = (int) keys[i];
+		}
+		int[] buffer = null;
+		int start = 0;
+		for (int i = 1; i <= size; i++) {
+			if (i == size || (keys[i] >> 32) != (keys[start] >> 32)) {
+				if (i - start > INSERTION_SORT_CUTOFF && buffer == null) {
+					buffer = new int[size];
+				}
+				if (i - start > 1) {
+					mergeSort(order, start, i, weights, buffer);
+				}
+				start = i;
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * Sorts a run of edge numbers by weight, keeping edges of equal weight in
+	 * their current order, which is by edge number. The halves are merged
+	 * through the same range of the buffer, and pieces no longer than
+	 * INSERTION_SORT_CUTOFF are sorted by insertion.
+	 */
+	private static void mergeSort(int[] order, int from, int to, double[] weights, int[] buffer) {
+		if (to - from <= INSERTION_SORT_CUTOFF) {
+			insertionSort(order, from, to, weights);
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(order, from, middle, weights, buffer);
+		mergeSort(order, middle, to, weights, buffer);
+		if (Double.compare(weights[order[middle - 1]], weights[order[middle]]) <= 0) {
+			return;
+		}
+		// The left half is copied out; the merge never overtakes the right half
+		System.arraycopy(order, from, buffer, from, middle - from);
+		int i = from;
+		int j = middle;
+		int k = from;
+		while (i < middle && j < to) {
+			order[k++] = Double.compare(weights[order[j]], weights[buffer[i]]) < 0 ? order[j++] : buffer[i++];
+		}
+		System.arraycopy(buffer, i, order, k, middle - i);
+	}
+
+	/**
+	 * Sorts a short run of edge numbers by weight, keeping edges of equal
+	 * weight in their current order.
+	 */
+	private static void insertionSort(int[] order, int from, int to, double[] weights) {
+		for (int i = from + 1; i < to; i++) {
+			int edge = order[i];
+			int j = i - 1;
+			while (j >= from && Double.compare(weights[order[j]], weights[edge]) > 0) {
+				order[j + 1] = order[j];
+				j--;
+			}
+			order[j + 1] = edge;
+		}
+	}
+
+	/**
+	 * Returns the edges of a minimum spanning forest found with Prim's
+	 * algorithm, growing a tree from every element not yet in one.
+	 */
+	private static boolean[] prim(EdgeList<?, ?> edges) {
+		CsrArrays csr = edges.csr;
+		int n = edges.graph.getNumberOfVertices();
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(n);
+		boolean[] inTree = new boolean[n];
+		int[] bestEdge = new int[n];
+		boolean[] inForest = new boolean[edges.size];
+		for (int root = 0; root < n; root++) {
+			if (inTree[root]) {
+				continue;
+			}
+			heap.offer(root, 0);
+			bestEdge[root] = -1;
+			while (!heap.isEmpty()) {
+				int vertex = heap.poll();
+				inTree[vertex] = true;
+				if (bestEdge[vertex] >= 0) {
+					inForest[bestEdge[vertex]] = true;
+				}
+				for (int position = csr.offsets[vertex]; position < csr.offsets[vertex + 1]; position++) {
+					int edge = edges.edgeAt[position];
+					int next = csr.heads[position];
+					if (edge >= 0 && !inTree[next]) {
+						double weight = edges.weights[edge];
+						if (!heap.contains(next) || weight < edges.weights[bestEdge[next]]) {
+							heap.offer(next, weight);
+							bestEdge[next] = edge;
+						}
+					}
+				}
+			}
+		}
+		return inForest;
+	}
+
+	/**
+	 * The edges of an undirected graph, each listed once, with their weights
+	 * converted to numbers.
+	 */
+	private static final class EdgeList<V, W> {
+
+		private final CsrGraph<V, W> graph;
+		private final CsrArrays csr;
+		private final int size;
+		private final int[] tails;
+		private final int[] heads;
+		private final int[] positions;
+		private final int[] edgeAt;
+		private double[] weights;
+
+		/**
+		 * Lists the edges of the specified graph, weighing them with the
+		 * specified weight function.
+		 */
+		private EdgeList(WeightedGraph<V, W> graph, ToDoubleFunction<? super W> weightFunction) {
+			this(graph);
+			if (weightFunction == null) {
+				throw new NullPointerException("Weight function cannot be null");
+			}
+
+			this.weights = new double[size];
+			for (int edge = 0; edge < size; edge++) {
+				weights[edge] = weightFunction.applyAsDouble(this.graph.getWeightAt(positions[edge]));
+				if (Double.isNaN(weights[edge])) {
+					throw new IllegalArgumentException("Edge weights cannot be NaN");
+				}
+			}
+		}
+
+		/**
+		 * Lists the edges of the specified graph, weighing each one by the
+		 * rank of its weight under the specified comparator.
+		 */
+		private EdgeList(WeightedGraph<V, W> graph, Comparator<? super W> comparator) {
+			this(graph);
+			if (comparator == null) {
+				throw new NullPointerException("Comparator cannot be null");
+			}
+
+			Integer[] order = new Integer[size];
+			for (int edge = 0; edge < size; edge++) {
+				order[edge] = edge;
+			}
+			Arrays.parallelSort(order, (edge1, edge2) -> comparator.compare(weightOf(edge1), weightOf(edge2)));
+			this.weights = new double[size];
+			int rank = 0;
+			for (int i = 0; i < size; i++) {
+				if (i > 0 && comparator.compare(weightOf(order[i - 1]), weightOf(order[i])) != 0) {
+					rank = i;
+				}
+				weights[order[i]] = rank;
+			}
+		}
+
+		/**
+		 * Lists the edges of the specified graph without weighing them.
+		 */
+		private EdgeList(WeightedGraph<V, W> graph) {
+			if (graph == null) {
+				throw new NullPointerException("Input graph cannot be null");
+			}
+			if (graph.isDirected()) {
+				throw new IllegalArgumentException("Graph must be undirected");
+			}
+
+			this.graph = graph instanceof CsrGraph ? (CsrGraph<V, W>) graph : new CsrGraph<>(graph);
+			this.csr = new CsrArrays(this.graph);
+			int n = this.graph.getNumberOfVertices();
+			int count = 0;
+			for (int tail = 0; tail < n; tail++) {
+				for (int position = csr.offsets[tail]; position < csr.offsets[tail + 1]; position++) {
+					if (csr.heads[position] > tail) {
+						count++;
+					}
+				}
+			}
+			this.size = count;
+			this.tails = new int[size];
+			this.heads = new int[size];
+			this.positions = new int[size];
+			this.edgeAt = new int[csr.heads.length];
+
+			// Every edge between distinct elements is stored under both ends;
+			// the copy under the smaller index gets the edge number, and the
+			// other copy finds it by searching the sorted heads of the smaller
+			int edge = 0;
+			for (int tail = 0; tail < n; tail++) {
+				for (int position = csr.offsets[tail]; position < csr.offsets[tail + 1]; position++) {
+					int head = csr.heads[position];
+					if (head > tail) {
+						tails[edge] = tail;
+						heads[edge] = head;
+						positions[edge] = position;
+						edgeAt[position] = edge++;
+					} else if (head < tail) {
+						edgeAt[position] = edgeAt[Arrays.binarySearch(csr.heads, csr.offsets[head],
+								csr.offsets[head + 1], tail)];
+					} else {
+						edgeAt[position] = -1;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Returns the original weight of the specified edge.
+		 */
+		private W weightOf(int edge) {
+			return graph.getWeightAt(positions[edge]);
+		}
+
+		/**
+		 * Returns a new undirected graph containing every element of the
+		 * graph and the edges marked as being in the forest.
+		 */
+		private WeightedHashGraph<V, W> toForest(boolean[] inForest) {
+			int n = graph.getNumberOfVertices();
+			WeightedHashGraph<V, W> forest = new WeightedHashGraph<>(false, n, Math.max(n - 1, 0));
+			for (int i = 0; i < n; i++) {
+				forest.addVertex(graph.getVertexAt(i));
+			}
+			for (int edge = 0; edge < size; edge++) {
+				if (inForest[edge]) {
+					forest.addEdge(graph.getVertexAt(tails[edge]), graph.getVertexAt(heads[edge]), weightOf(edge));
+				}
+			}
+			return forest;
+		}
+
+	}
+
+}
@@ -0,0 +1,317 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.Graph;
+
+/**
+ * This class runs breadth-first searches on large graphs using several
+ * threads. <br/>
+ * <br/>
+ * The search proceeds one level at a time. The current frontier and the set of
+ * visited elements are kept as bitsets, and each level is split by ranges of
+ * vertices among the workers of a ForkJoinPool. A level is expanded either top
+ * down, where every frontier element claims its unvisited neighbors, or bottom
+ * up, where every unvisited element looks for a neighbor in the frontier and
+ * stops at the first one. Top down is cheaper while the frontier is small;
+ * bottom up is cheaper once the frontier holds a large share of the remaining
+ * edges, because most of their heads are already visited. The search switches
+ * between the two using the heuristic of Beamer, Asanovic and Patterson. <br/>
+ * <br/>
+ * The graph is copied into CSR form when this object is constructed (unless
+ * it already is a CsrGraph), together with its transpose if it is directed, so
+ * later changes to the graph are not seen. Searches may run concurrently.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ */
+public class ParallelBreadthFirstSearch<V> {
+
+	private static final int ALPHA = 14;
+	private static final int BETA = 24;
+	private static final int WORDS_PER_TASK = 64;
+
+	private final CsrGraph<V, ?> graph;
+	private final int numberOfVertices;
+	private final int[] offsets;
+	private final int[] heads;
+	private final int[] inOffsets;
+	private final int[] inHeads;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Constructs an object for searching the specified graph using the common
+	 * ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph to search
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 */
+	public ParallelBreadthFirstSearch(Graph<V> graph) {
+		this(graph, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructs an object for searching the specified graph using the
+	 * specified ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph to search
+	 * @param pool
+	 *            the pool whose workers expand each level
+	 * @throws NullPointerException
+	 *             if the specified graph or pool is null
+	 */
+	public ParallelBreadthFirstSearch(Graph<V> graph, ForkJoinPool pool) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (pool == null) {
+			throw new NullPointerException("Pool cannot be null");
+		}
+
+		this.graph = graph instanceof CsrGraph ? (CsrGraph<V, ?>) graph : new CsrGraph<>(graph);
+		this.numberOfVertices = this.graph.getNumberOfVertices();
+		CsrArrays edges = new CsrArrays(this.graph);
+		this.offsets = edges.offsets;
+		this.heads = edges.heads;
+		if (this.graph.isDirected()) {
+			CsrArrays inEdges = new CsrArrays(this.graph.transpose());
+			this.inOffsets = inEdges.offsets;
+			this.inHeads = inEdges.heads;
+		} else {
+			this.inOffsets = offsets;
+			this.inHeads = heads;
+		}
+		this.pool = pool;
+	}
+
+	/**
+	 * Searches the graph breadth first from the specified source element and
+	 * returns the distance and parent of every element.
+	 * 
+	 * @param source
+	 *            the element at which to start
+	 * @return the distances and parents found by the search
+	 * @throws IllegalArgumentException
+	 *             if the source element is not in the graph
+	 */
+	public BreadthFirstTree<V> search(V source) {
+		int sourceIndex = graph.getVertexIndex(source);
+		if (sourceIndex < 0) {
+			throw new IllegalArgumentException("Source element is not in the graph");
+		}
+
+		Level level = new Level(sourceIndex);
+		boolean isTopDown = true;
+		long frontierSize = 1;
+		long previousSize = 0;
+		long frontierEdges = offsets[sourceIndex + 1] - offsets[sourceIndex];
+		long unexploredEdges = heads.length;
+		int reached = 1;
+		while (frontierSize > 0) {
+			// Go bottom up once the frontier holds a large share of the edges
+			// left to explore, and back top down once it is shrinking and small
+			if (isTopDown) {
+				isTopDown = frontierEdges <= unexploredEdges / ALPHA;
+			} else {
+				isTopDown = frontierSize < previousSize && frontierSize < numberOfVertices / BETA;
+			}
+
+			unexploredEdges -= frontierEdges;
+			pool.invoke(new StepTask(level, isTopDown, 0, level.visited.length()));
+			previousSize = frontierSize;
+			frontierSize = level.discovered.sum();
+			frontierEdges = level.discoveredEdges.sum();
+			reached += frontierSize;
+			level.advance();
+		}
+		return new BreadthFirstTree<>(graph, sourceIndex, level.distances, level.parents, reached);
+	}
+
+	/**
+	 * The state of a search between levels.
+	 */
+	private final class Level {
+
+		private final int[] distances;
+		private final int[] parents;
+		private final AtomicLongArray visited;
+		private AtomicLongArray frontier;
+		private AtomicLongArray next;
+		private int depth;
+		private final LongAdder discovered = new LongAdder();
+		private final LongAdder discoveredEdges = new LongAdder();
+
+		private Level(int source) {
+			int words = (numberOfVertices + 63) >>> 6;
+			this.distances = new int[numberOfVertices];
+			this.parents = new int[numberOfVertices];
+			Arrays.fill(distances, -1);
+			Arrays.fill(parents, -1);
+			this.visited = new AtomicLongArray(words);
+			this.frontier = new AtomicLongArray(words);
+			this.next = new AtomicLongArray(words);
+
+			// The bits past the last vertex count as visited so that bottom-up
+			// steps never look at them
+			if ((numberOfVertices & 63) != 0) {
+				visited.set(words - 1, -1L << (numberOfVertices & 63));
+			}
+			distances[source] = 0;
+			setBit(visited, source);
+			setBit(frontier, source);
+		}
+
+		/**
+		 * Makes the elements discovered in the last step the frontier.
+		 */
+		private void advance() {
+			frontier = next;
+			next = new AtomicLongArray(frontier.length());
+			depth++;
+			discovered.reset();
+			discoveredEdges.reset();
+		}
+
+		/**
+		 * Sets a bit of the specified bitset, which other threads may be
+		 * setting at the same time.
+		 */
+		private void setBit(AtomicLongArray bits, int index) {
+			int word = index >>> 6;
+			long mask = 1L << index;
+			long old;
+			do {
+				old = bits.get(word);
+			} while ((old & mask) == 0 && !bits.compareAndSet(word, old, old | mask));
+		}
+
+		/**
+		 * Atomically sets a bit of the specified bitset and returns true if it
+		 * was not already set.
+		 */
+		private boolean claimBit(AtomicLongArray bits, int index) {
+			int word = index >>> 6;
+			long mask = 1L << index;
+			long old;
+			do {
+				old = bits.get(word);
+				if ((old & mask) != 0) {
+					return false;
+				}
+			} while (!bits.compareAndSet(word, old, old | mask));
+			return true;
+		}
+
+	}
+
+	/**
+	 * Expands one level of the search over a range of words of the bitsets,
+	 * splitting the range among workers.
+	 */
+	private final class StepTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Level level;
+		private final boolean isTopDown;
+		private final int from;
+		private final int to;
+
+		private StepTask(Level level, boolean isTopDown, int from, int to) {
+			this.level = level;
+			this.isTopDown = isTopDown;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > WORDS_PER_TASK) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new StepTask(level, isTopDown, from, middle), new StepTask(level, isTopDown, middle, to));
+			} else if (isTopDown) {
+				topDown();
+			} else {
+				bottomUp();
+			}
+		}
+
+		/**
+		 * Lets every frontier element in the range claim its unvisited
+		 * neighbors, wherever they are.
+		 */
+		private void topDown() {
+			int depth = level.depth + 1;
+			long found = 0;
+			long foundEdges = 0;
+			for (int word = from; word < to; word++) {
+				long bits = level.frontier.get(word);
+				while (bits != 0) {
+					int tail = (word << 6) + Long.numberOfTrailingZeros(bits);
+					bits &= bits - 1;
+					for (int position = offsets[tail]; position < offsets[tail + 1]; position++) {
+						int head = heads[position];
+						if (level.claimBit(level.visited, head)) {
+							level.distances[head] = depth;
+							level.parents[head] = tail;
+							level.setBit(level.next, head);
+							found++;
+							foundEdges += offsets[head + 1] - offsets[head];
+						}
+					}
+				}
+			}
+			level.discovered.add(found);
+			level.discoveredEdges.add(foundEdges);
+		}
+
+		/**
+		 * Lets every unvisited element in the range look for a neighbor in
+		 * the frontier. Only this task writes the words of the range, so no
+		 * atomic updates are needed.
+		 */
+		private void bottomUp() {
+			int depth = level.depth + 1;
+			long found = 0;
+			long foundEdges = 0;
+			for (int word = from; word < to; word++) {
+				long visitedBits = level.visited.get(word);
+				long unvisited = ~visitedBits;
+				long newBits = 0;
+				while (unvisited != 0) {
+					int head = (word << 6) + Long.numberOfTrailingZeros(unvisited);
+					unvisited &= unvisited - 1;
+					for (int position = inOffsets[head]; position < inOffsets[head + 1]; position++) {
+						int tail = inHeads[position];
+						if ((level.frontier.get(tail >>> 6) & (1L << tail)) != 0) {
+							level.distances[head] = depth;
+							level.parents[head] = tail;
+							newBits |= 1L << head;
+							found++;
+							foundEdges += offsets[head + 1] - offsets[head];
+							break;
+						}
+					}
+				}
+				if (newBits != 0) {
+					level.visited.set(word, visitedBits | newBits);
+					level.next.set(word, newBits);
+				}
+			}
+			level.discovered.add(found);
+			level.discoveredEdges.add(foundEdges);
+		}
+
+	}
+
+}
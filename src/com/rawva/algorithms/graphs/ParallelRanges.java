@@ -0,0 +1,80 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class splits a range of indices into chunks and runs an action on the
+ * chunks in parallel on a ForkJoinPool.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+final class ParallelRanges {
+
+	/**
+	 * Runs the specified action on chunks of the range from 0 (inclusive) to
+	 * size (exclusive), each at most grain indices long, and waits for all of
+	 * them to finish.
+	 * 
+	 * @param pool
+	 *            the pool in which to run the chunks
+	 * @param size
+	 *            the end of the range
+	 * @param grain
+	 *            the largest chunk that is not split further
+	 * @param action
+	 *            the action to run on each chunk
+	 */
+	static void forEach(ForkJoinPool pool, int size, int grain, RangeAction action) {
+		if (size > 0) {
+			pool.invoke(new RangeTask(0, size, Math.max(1, grain), action));
+		}
+	}
+
+	/**
+	 * An action on a range of indices.
+	 */
+	@FunctionalInterface
+	interface RangeAction {
+
+		/**
+		 * Runs this action on the indices from (inclusive) to to (exclusive).
+		 */
+		void run(int from, int to);
+
+	}
+
+	/**
+	 * A task that runs an action on a range, splitting it in halves until
+	 * they are no longer than the grain.
+	 */
+	private static final class RangeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+		private final int grain;
+		private final RangeAction action;
+
+		private RangeTask(int from, int to, int grain, RangeAction action) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				action.run(from, to);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new RangeTask(from, middle, grain, action), new RangeTask(middle, to, grain, action));
+			}
+		}
+
+	}
+
+}
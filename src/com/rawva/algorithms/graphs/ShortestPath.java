@@ -0,0 +1,86 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A shortest path between two elements (vertices) of a graph, given as the
+ * elements along the path, from source to target, and the total weight of its
+ * edges.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ */
+public final class ShortestPath<V> {
+
+	private final List<V> vertices;
+	private final double distance;
+
+	/**
+	 * Constructs a path through the specified elements with the specified
+	 * total weight. The list is not copied.
+	 * 
+	 * @param vertices
+	 *            the elements along the path, from source to target
+	 * @param distance
+	 *            the total weight of the edges of the path
+	 */
+	ShortestPath(List<V> vertices, double distance) {
+		this.vertices = Collections.unmodifiableList(vertices);
+		this.distance = distance;
+	}
+
+	/**
+	 * Returns the total weight of the edges of this path.
+	 * 
+	 * @return the total weight of the edges of this path
+	 */
+	public double getDistance() {
+		return distance;
+	}
+
+	/**
+	 * Returns the number of edges in this path.
+	 * 
+	 * @return the number of edges in this path
+	 */
+	public int getNumberOfEdges() {
+		return vertices.size() - 1;
+	}
+
+	/**
+	 * Returns the element at which this path starts.
+	 * 
+	 * @return the source of this path
+	 */
+	public V getSource() {
+		return vertices.get(0);
+	}
+
+	/**
+	 * Returns the element at which this path ends.
+	 * 
+	 * @return the target of this path
+	 */
+	public V getTarget() {
+		return vertices.get(vertices.size() - 1);
+	}
+
+	/**
+	 * Returns an unmodifiable list of the elements along this path, from
+	 * source to target.
+	 * 
+	 * @return the elements along this path
+	 */
+	public List<V> getVertices() {
+		return vertices;
+	}
+
+	@Override
+	public String toString() {
+		return vertices + " (" + distance + ")";
+	}
+
+}
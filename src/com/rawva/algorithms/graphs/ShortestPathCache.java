@@ -0,0 +1,595 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+/**
+ * This class answers shortest-path queries on a graph that changes over time,
+ * remembering the shortest-path tree of each source it was asked about. <br/>
+ * <br/>
+ * Unlike a ShortestPathFinder, a cache does not take a snapshot of the graph.
+ * The first query from a source runs Dijkstra's algorithm over the live graph
+ * and keeps the resulting tree; later queries from the same source are
+ * answered from the tree without searching. At most a fixed number of trees
+ * are kept, and the least recently used tree is dropped to make room for a new
+ * one. <br/>
+ * <br/>
+ * Edges must be added, removed or reweighted through the cache, which updates
+ * the graph and repairs every cached tree instead of recomputing it:
+ * <ul>
+ * <li>A new edge, or an edge whose length decreases, can only shorten paths.
+ * The search is restarted from its head and only visits the elements whose
+ * distance actually improves.</li>
+ * <li>An edge that is removed or whose length increases only matters to the
+ * trees that use it. In those trees, the subtree below the edge is cut off,
+ * each of its elements is reconnected through its cheapest predecessor
+ * outside the subtree, and the search is finished over the subtree
+ * alone.</li>
+ * </ul>
+ * An edge of infinite length is kept in the graph but never used, so an
+ * element reached only through such edges has no path. <br/>
+ * <br/>
+ * Vertices may be added to the graph directly, since a new vertex cannot
+ * change any distance. Any other change made directly to the graph must be
+ * followed by a call to invalidate or invalidateAll. <br/>
+ * <br/>
+ * Because the vertices of the graph come and go, trees are kept in hash maps
+ * keyed by element rather than in arrays indexed like a CsrGraph. A cache is
+ * not safe for use by several threads; even queries reorder the trees.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ * @param <W>
+ *            the type of edge weights in the graph
+ */
+public class ShortestPathCache<V, W> {
+
+	private final WeightedHashGraph<V, W> graph;
+	private final ToDoubleFunction<? super W> weightFunction;
+	private final Map<V, Tree<V>> trees;
+
+	/**
+	 * Constructs a cache of shortest-path trees in the specified graph, where
+	 * the length of each edge is the weight function applied to its weight.
+	 * 
+	 * @param graph
+	 *            the graph in which to find paths
+	 * @param weightFunction
+	 *            the function converting an edge weight to a length
+	 * @param maximumSize
+	 *            the maximum number of trees to keep
+	 * @throws NullPointerException
+	 *             if the specified graph or weight function is null
+	 * @throws IllegalArgumentException
+	 *             if the maximum size is less than 1
+	 */
+	public ShortestPathCache(WeightedHashGraph<V, W> graph, ToDoubleFunction<? super W> weightFunction,
+			int maximumSize) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (weightFunction == null) {
+			throw new NullPointerException("Weight function cannot be null");
+		}
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+		}
+
+		this.graph = graph;
+		this.weightFunction = weightFunction;
+		this.trees = new LinkedHashMap<V, Tree<V>>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<V, Tree<V>> eldest) {
+				return size() > maximumSize;
+			}
+
+		};
+	}
+
+	/**
+	 * Adds an edge with the specified weight from tail to head to the graph,
+	 * as WeightedHashGraph.addEdge does, and shortens the cached paths that can
+	 * use it.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge
+	 * @return true if the edge was added to the graph, else false
+	 * @throws IllegalArgumentException
+	 *             if the length of the edge is negative or NaN
+	 */
+	public boolean addEdge(V tail, V head, W weight) {
+		double length = lengthOf(weight);
+		if (!graph.addEdge(tail, head, weight)) {
+			return false;
+		}
+		for (Tree<V> tree : trees.values()) {
+			shorten(tree, tail, head, length);
+			if (!graph.isDirected()) {
+				shorten(tree, head, tail, length);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a shortest path from the source element to the target element,
+	 * or null if the target cannot be reached from the source. The tree of the
+	 * source is computed if it is not cached.
+	 * 
+	 * @param source
+	 *            the element at which the path starts
+	 * @param target
+	 *            the element at which the path ends
+	 * @return a shortest path from source to target, or null if there is none
+	 * @throws IllegalArgumentException
+	 *             if the source or target element is not in the graph, or the
+	 *             length of some edge is negative or NaN
+	 */
+	public ShortestPath<V> findPath(V source, V target) {
+		Node<V> node = nodeOf(source, target);
+		if (node == null) {
+			return null;
+		}
+		List<V> vertices = new ArrayList<>();
+		for (Node<V> n = node; n != null; n = n.parent) {
+			vertices.add(n.vertex);
+		}
+		Collections.reverse(vertices);
+		return new ShortestPath<>(vertices, node.distance);
+	}
+
+	/**
+	 * Returns the length of a shortest path from the source element to the
+	 * target element, or positive infinity if the target cannot be reached
+	 * from the source. The tree of the source is computed if it is not cached.
+	 * 
+	 * @param source
+	 *            the element at which the path starts
+	 * @param target
+	 *            the element at which the path ends
+	 * @return the distance from source to target
+	 * @throws IllegalArgumentException
+	 *             if the source or target element is not in the graph, or the
+	 *             length of some edge is negative or NaN
+	 */
+	public double getDistance(V source, V target) {
+		Node<V> node = nodeOf(source, target);
+		return node == null ? Double.POSITIVE_INFINITY : node.distance;
+	}
+
+	/**
+	 * Returns the graph whose paths this cache holds.
+	 * 
+	 * @return the graph whose paths this cache holds
+	 */
+	public WeightedHashGraph<V, W> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Drops the cached tree of the specified source element, if there is one.
+	 * 
+	 * @param source
+	 *            the element whose tree to drop
+	 */
+	public void invalidate(V source) {
+		trees.remove(source);
+	}
+
+	/**
+	 * Drops all cached trees.
+	 */
+	public void invalidateAll() {
+		trees.clear();
+	}
+
+	/**
+	 * Returns true if the tree of the specified source element is cached. This
+	 * does not count as a use of the tree.
+	 * 
+	 * @param source
+	 *            the element whose tree we want
+	 * @return true if the tree of the source is cached, else false
+	 */
+	public boolean isCached(V source) {
+		return trees.containsKey(source);
+	}
+
+	/**
+	 * Removes the edge from tail to head from the graph, as
+	 * WeightedHashGraph.removeEdge does, and repairs the cached trees that
+	 * used it.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return true if the edge was removed from the graph, else false
+	 */
+	public boolean removeEdge(V tail, V head) {
+		if (!graph.containsEdge(tail, head)) {
+			return false;
+		}
+		List<Detached<V>> detached = detachEdge(tail, head);
+		graph.removeEdge(tail, head);
+		reattach(detached);
+		return true;
+	}
+
+	/**
+	 * Removes the specified element and its edges from the graph, as
+	 * WeightedHashGraph.removeVertex does. The tree of the element is dropped
+	 * and the other cached trees that reached it are repaired.
+	 * 
+	 * @param elem
+	 *            the element to remove
+	 * @return true if the element was removed from the graph, else false
+	 */
+	public boolean removeVertex(V elem) {
+		if (!graph.containsVertex(elem)) {
+			return false;
+		}
+		trees.remove(elem);
+		List<Detached<V>> detached = new ArrayList<>();
+		for (Tree<V> tree : trees.values()) {
+			if (tree.nodes.containsKey(elem)) {
+				List<V> subtree = detach(tree, elem);
+				// The element itself is gone for good
+				detached.add(new Detached<>(tree, subtree.subList(1, subtree.size())));
+			}
+		}
+		graph.removeVertex(elem);
+		reattach(detached);
+		return true;
+	}
+
+	/**
+	 * Sets the weight of the edge from tail to head in the graph, as
+	 * WeightedHashGraph.setWeight does, and repairs the cached trees whose
+	 * paths change: all of them if the edge becomes shorter, and only those
+	 * that use the edge if it becomes longer.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge to set
+	 * @return the previous weight of the edge
+	 * @throws IllegalArgumentException
+	 *             if the new length of the edge is negative or NaN
+	 */
+	public W setWeight(V tail, V head, W weight) {
+		double length = lengthOf(weight);
+		if (!graph.containsEdge(tail, head)) {
+			return null;
+		}
+		double previousLength = weightFunction.applyAsDouble(graph.getWeight(tail, head));
+		if (length > previousLength) {
+			List<Detached<V>> detached = detachEdge(tail, head);
+			W previous = graph.setWeight(tail, head, weight);
+			reattach(detached);
+			return previous;
+		}
+
+		W previous = graph.setWeight(tail, head, weight);
+		if (length < previousLength) {
+			for (Tree<V> tree : trees.values()) {
+				shorten(tree, tail, head, length);
+				if (!graph.isDirected()) {
+					shorten(tree, head, tail, length);
+				}
+			}
+		}
+		return previous;
+	}
+
+	/**
+	 * Returns the node of the target in the tree of the source, computing the
+	 * tree if it is not cached, or null if the target cannot be reached.
+	 * 
+	 * @param source
+	 *            the element at which the tree is rooted
+	 * @param target
+	 *            the element whose node we want
+	 * @return the node of the target, or null if it was not reached
+	 * @throws IllegalArgumentException
+	 *             if the source or target element is not in the graph
+	 */
+	private Node<V> nodeOf(V source, V target) {
+		if (!graph.containsVertex(source)) {
+			throw new IllegalArgumentException("Source element is not in the graph");
+		}
+		if (!graph.containsVertex(target)) {
+			throw new IllegalArgumentException("Target element is not in the graph");
+		}
+
+		Tree<V> tree = trees.get(source);
+		if (tree == null) {
+			tree = new Tree<>();
+			Node<V> root = new Node<>(source);
+			root.distance = 0;
+			tree.nodes.put(source, root);
+			PriorityQueue<Entry<V>> queue = new PriorityQueue<>(Entry.BY_DISTANCE);
+			queue.offer(new Entry<>(root));
+			search(tree, queue);
+			trees.put(source, tree);
+		}
+		return tree.nodes.get(target);
+	}
+
+	/**
+	 * Runs Dijkstra's algorithm from the nodes in the queue until it is empty.
+	 * Nodes already in the tree keep their distance unless a shorter path to
+	 * them is found, so the search only spreads as far as distances improve.
+	 * 
+	 * @param tree
+	 *            the tree to extend
+	 * @param queue
+	 *            the queue of nodes whose edges must be relaxed
+	 */
+	private void search(Tree<V> tree, PriorityQueue<Entry<V>> queue) {
+		while (!queue.isEmpty()) {
+			Entry<V> entry = queue.poll();
+			Node<V> tail = entry.node;
+			if (entry.distance > tail.distance) {
+				// A shorter path to the node was found after this entry
+				continue;
+			}
+			graph.forEachEdge(tail.vertex, (head, weight) -> {
+				double distance = tail.distance + lengthOf(weight);
+				Node<V> node = improve(tree, head, distance);
+				if (node != null) {
+					node.distance = distance;
+					node.parent = tail;
+					queue.offer(new Entry<>(node));
+				}
+			});
+		}
+	}
+
+	/**
+	 * Returns the node of the specified element if the specified distance is
+	 * shorter than its own, adding the node to the tree if the element was
+	 * not reached yet, or null otherwise. An element is never added at an
+	 * infinite distance, so every node in a tree has a path from the source.
+	 * 
+	 * @param tree
+	 *            the tree holding the node
+	 * @param elem
+	 *            the element whose node we want
+	 * @param distance
+	 *            the distance of a new path to the element
+	 * @return the node of the element, or null if the path is not shorter
+	 */
+	private static <V> Node<V> improve(Tree<V> tree, V elem, double distance) {
+		Node<V> node = tree.nodes.get(elem);
+		if (node == null) {
+			if (distance == Double.POSITIVE_INFINITY) {
+				return null;
+			}
+			node = new Node<>(elem);
+			tree.nodes.put(elem, node);
+		}
+		return distance < node.distance ? node : null;
+	}
+
+	/**
+	 * Updates the tree for an edge from tail to head of the specified length
+	 * that is new or has become shorter.
+	 * 
+	 * @param tree
+	 *            the tree to update
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param length
+	 *            the length of the edge
+	 */
+	private void shorten(Tree<V> tree, V tail, V head, double length) {
+		Node<V> tailNode = tree.nodes.get(tail);
+		if (tailNode == null) {
+			return;
+		}
+		double distance = tailNode.distance + length;
+		Node<V> node = improve(tree, head, distance);
+		if (node != null) {
+			node.distance = distance;
+			node.parent = tailNode;
+			PriorityQueue<Entry<V>> queue = new PriorityQueue<>(Entry.BY_DISTANCE);
+			queue.offer(new Entry<>(node));
+			search(tree, queue);
+		}
+	}
+
+	/**
+	 * Cuts the subtree below the edge from tail to head out of every tree
+	 * that uses the edge. In an undirected graph, a tree may use the edge in
+	 * either direction.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return the trees that were cut, with the elements cut from each
+	 */
+	private List<Detached<V>> detachEdge(V tail, V head) {
+		List<Detached<V>> detached = new ArrayList<>();
+		for (Tree<V> tree : trees.values()) {
+			if (isTreeEdge(tree, tail, head)) {
+				detached.add(new Detached<>(tree, detach(tree, head)));
+			} else if (!graph.isDirected() && isTreeEdge(tree, head, tail)) {
+				detached.add(new Detached<>(tree, detach(tree, tail)));
+			}
+		}
+		return detached;
+	}
+
+	/**
+	 * Returns true if the parent of head in the tree is tail.
+	 */
+	private static <V> boolean isTreeEdge(Tree<V> tree, V tail, V head) {
+		Node<V> node = tree.nodes.get(head);
+		return node != null && node.parent != null && node.parent == tree.nodes.get(tail);
+	}
+
+	/**
+	 * Removes the specified element and all of its descendants from the tree.
+	 * The children of an element are found among the heads of its edges.
+	 * 
+	 * @param tree
+	 *            the tree to cut
+	 * @param root
+	 *            the element at the root of the subtree
+	 * @return the elements of the subtree, starting with its root
+	 */
+	private List<V> detach(Tree<V> tree, V root) {
+		List<V> subtree = new ArrayList<>();
+		subtree.add(root);
+		for (int i = 0; i < subtree.size(); i++) {
+			Node<V> node = tree.nodes.get(subtree.get(i));
+			for (V head : graph.getAdjacentElements(node.vertex)) {
+				Node<V> child = tree.nodes.get(head);
+				if (child != null && child.parent == node) {
+					subtree.add(head);
+				}
+			}
+		}
+		for (V elem : subtree) {
+			tree.nodes.remove(elem);
+		}
+		return subtree;
+	}
+
+	/**
+	 * Puts the elements cut from each tree back, at their new distances. Every
+	 * element starts at the shortest distance through a predecessor that is
+	 * still in the tree, and the search then finishes over the cut elements;
+	 * the distances of the elements that were not cut cannot change.
+	 * 
+	 * @param detached
+	 *            the trees that were cut, with the elements cut from each
+	 */
+	private void reattach(List<Detached<V>> detached) {
+		for (Detached<V> cut : detached) {
+			Tree<V> tree = cut.tree;
+			PriorityQueue<Entry<V>> queue = new PriorityQueue<>(Entry.BY_DISTANCE);
+			for (V elem : cut.elements) {
+				Node<V> node = new Node<>(elem);
+				for (V tail : graph.getPredecessors(elem)) {
+					Node<V> tailNode = tree.nodes.get(tail);
+					if (tailNode != null) {
+						double distance = tailNode.distance + lengthOf(graph.getWeight(tail, elem));
+						if (distance < node.distance) {
+							node.distance = distance;
+							node.parent = tailNode;
+						}
+					}
+				}
+				if (node.parent != null) {
+					tree.nodes.put(elem, node);
+					queue.offer(new Entry<>(node));
+				}
+			}
+			search(tree, queue);
+		}
+	}
+
+	/**
+	 * Returns the length of an edge with the specified weight.
+	 * 
+	 * @param weight
+	 *            the weight of the edge
+	 * @return the length of the edge
+	 * @throws IllegalArgumentException
+	 *             if the length is negative or NaN
+	 */
+	private double lengthOf(W weight) {
+		double length = weightFunction.applyAsDouble(weight);
+		if (!(length >= 0)) {
+			throw new IllegalArgumentException("Edge lengths must be non-negative: " + length);
+		}
+		return length;
+	}
+
+	/**
+	 * The shortest-path tree of one source: a node for every element that can
+	 * be reached from it.
+	 */
+	private static final class Tree<V> {
+
+		private final Map<V, Node<V>> nodes = new HashMap<>();
+
+	}
+
+	/**
+	 * An element in a tree, with its distance from the source and its parent,
+	 * which is null for the source. An element that has not been reached yet
+	 * has an infinite distance.
+	 */
+	private static final class Node<V> {
+
+		private final V vertex;
+		private double distance = Double.POSITIVE_INFINITY;
+		private Node<V> parent;
+
+		private Node(V vertex) {
+			this.vertex = vertex;
+		}
+
+	}
+
+	/**
+	 * A node in the queue of a search, with the distance it had when it was
+	 * queued. Nodes are queued again instead of being moved when they get
+	 * closer, and entries whose distance is out of date are skipped.
+	 */
+	private static final class Entry<V> {
+
+		private static final Comparator<Entry<?>> BY_DISTANCE = Comparator.comparingDouble(e -> e.distance);
+
+		private final Node<V> node;
+		private final double distance;
+
+		private Entry(Node<V> node) {
+			this.node = node;
+			this.distance = node.distance;
+		}
+
+	}
+
+	/**
+	 * The elements cut from one tree, waiting to be put back.
+	 */
+	private static final class Detached<V> {
+
+		private final Tree<V> tree;
+		private final List<V> elements;
+
+		private Detached(Tree<V> tree, List<V> elements) {
+			this.tree = tree;
+			this.elements = elements;
+		}
+
+	}
+
+}
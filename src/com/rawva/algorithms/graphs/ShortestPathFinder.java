@@ -0,0 +1,456 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.WeightedGraph;
+
+/**
+ * This class finds shortest paths in a weighted graph whose edge weights can
+ * be converted to non-negative numbers. <br/>
+ * <br/>
+ * A finder takes a snapshot of the graph when it is constructed: the graph is
+ * copied into CSR form (unless it already is a CsrGraph) and every edge weight
+ * is converted to a double once, so later changes to the graph are not seen.
+ * Queries run Dijkstra's algorithm with an indexed heap that supports
+ * decrease-key, A* with a caller-supplied heuristic, or bidirectional
+ * Dijkstra. <br/>
+ * <br/>
+ * A finder may be shared between threads. Each thread reuses its own
+ * distance, parent and heap arrays across queries, and resetting them costs
+ * only as much as the previous query touched, so repeated queries do not
+ * allocate anything except their results.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ * @param <W>
+ *            the type of edge weights in the graph
+ */
+public class ShortestPathFinder<V, W> {
+
+	private final CsrGraph<V, W> graph;
+	private final ToDoubleFunction<? super W> weightFunction;
+	private final Adjacency forward;
+	private volatile Adjacency backward;
+	private final ThreadLocal<Workspace> workspaces;
+
+	/**
+	 * Constructs a finder for shortest paths in the specified graph, where the
+	 * length of each edge is the weight function applied to its weight.
+	 * 
+	 * @param graph
+	 *            the graph in which to find paths
+	 * @param weightFunction
+	 *            the function converting an edge weight to a length
+	 * @throws NullPointerException
+	 *             if the specified graph or weight function is null
+	 * @throws IllegalArgumentException
+	 *             if the length of some edge is negative or NaN
+	 */
+	public ShortestPathFinder(WeightedGraph<V, W> graph, ToDoubleFunction<? super W> weightFunction) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (weightFunction == null) {
+			throw new NullPointerException("Weight function cannot be null");
+		}
+
+		this.graph = graph instanceof CsrGraph ? (CsrGraph<V, W>) graph : new CsrGraph<>(graph);
+		this.weightFunction = weightFunction;
+		this.forward = new Adjacency(this.graph, weightFunction);
+		this.backward = this.graph.isDirected() ? null : forward;
+		int numberOfVertices = this.graph.getNumberOfVertices();
+		this.workspaces = ThreadLocal.withInitial(() -> new Workspace(numberOfVertices));
+	}
+
+	/**
+	 * Returns a shortest path from the source element to the target element,
+	 * found with Dijkstra's algorithm, or null if the target cannot be reached
+	 * from the source.
+	 * 
+	 * @param source
+	 *            the element at which the path starts
+	 * @param target
+	 *            the element at which the path ends
+	 * @return a shortest path from source to target, or null if there is none
+	 * @throws IllegalArgumentException
+	 *             if the source or target element is not in the graph
+	 */
+	public ShortestPath<V> findPath(V source, V target) {
+		return findPath(source, target, null);
+	}
+
+	/**
+	 * Returns a shortest path from the source element to the target element,
+	 * found with A*, or null if the target cannot be reached from the source.
+	 * <br/>
+	 * <br/>
+	 * The heuristic estimates the distance from an element to the target. It
+	 * must never overestimate that distance, or the returned path may not be
+	 * shortest. A heuristic that also never decreases by more than the length
+	 * of an edge along that edge (i.e., a consistent heuristic) lets every
+	 * element be expanded at most once. A null heuristic is the same as one
+	 * that always returns 0, which makes this Dijkstra's algorithm.
+	 * 
+	 * @param source
+	 *            the element at which the path starts
+	 * @param target
+	 *            the element at which the path ends
+	 * @param heuristic
+	 *            the estimate of the distance from an element to the target
+	 * @return a shortest path from source to target, or null if there is none
+	 * @throws IllegalArgumentException
+	 *             if the source or target element is not in the graph
+	 */
+	public ShortestPath<V> findPath(V source, V target, ToDoubleFunction<? super V> heuristic) {
+		int sourceIndex = indexOf(source, "Source");
+		int targetIndex = indexOf(target, "Target");
+
+		Search search = workspaces.get().forward;
+		if (!search(search, sourceIndex, targetIndex, heuristic)) {
+			return null;
+		}
+		List<V> vertices = new ArrayList<>();
+		addPath(search, targetIndex, vertices);
+		Collections.reverse(vertices);
+		return new ShortestPath<>(vertices, search.distance(targetIndex));
+	}
+
+	/**
+	 * Returns a shortest path from the source element to the target element,
+	 * found by running Dijkstra's algorithm forwards from the source and
+	 * backwards from the target at the same time, or null if the target cannot
+	 * be reached from the source. The two searches usually settle far fewer
+	 * elements between them than a single search does.
+	 * 
+	 * @param source
+	 *            the element at which the path starts
+	 * @param target
+	 *            the element at which the path ends
+	 * @return a shortest path from source to target, or null if there is none
+	 * @throws IllegalArgumentException
+	 *             if the source or target element is not in the graph
+	 */
+	public ShortestPath<V> findPathBidirectional(V source, V target) {
+		int sourceIndex = indexOf(source, "Source");
+		int targetIndex = indexOf(target, "Target");
+
+		Workspace workspace = workspaces.get();
+		Search forwardSearch = workspace.forward;
+		Search backwardSearch = workspace.backward();
+		Adjacency backwardAdjacency = backward();
+		forwardSearch.reset();
+		backwardSearch.reset();
+		forwardSearch.relax(sourceIndex, 0, -1);
+		forwardSearch.heap.offer(sourceIndex, 0);
+		backwardSearch.relax(targetIndex, 0, -1);
+		backwardSearch.heap.offer(targetIndex, 0);
+
+		double best = sourceIndex == targetIndex ? 0 : Double.POSITIVE_INFINITY;
+		int meeting = sourceIndex == targetIndex ? sourceIndex : -1;
+		while (!forwardSearch.heap.isEmpty() && !backwardSearch.heap.isEmpty()) {
+			if (forwardSearch.heap.peekKey() + backwardSearch.heap.peekKey() >= best) {
+				break;
+			}
+
+			// Expand the side with the smaller frontier
+			boolean isForward = forwardSearch.heap.size() <= backwardSearch.heap.size();
+			Search search = isForward ? forwardSearch : backwardSearch;
+			Search other = isForward ? backwardSearch : forwardSearch;
+			Adjacency adjacency = isForward ? forward : backwardAdjacency;
+			int tail = search.heap.poll();
+			double tailDistance = search.distance(tail);
+			for (int position = adjacency.offsets[tail]; position < adjacency.offsets[tail + 1]; position++) {
+				int head = adjacency.heads[position];
+				double distance = tailDistance + adjacency.weights[position];
+				if (search.relax(head, distance, tail)) {
+					search.heap.offer(head, distance);
+				}
+				double total = distance + other.distance(head);
+				if (total < best) {
+					best = total;
+					meeting = head;
+				}
+			}
+		}
+		if (meeting < 0) {
+			return null;
+		}
+
+		List<V> vertices = new ArrayList<>();
+		addPath(forwardSearch, meeting, vertices);
+		Collections.reverse(vertices);
+		vertices.remove(vertices.size() - 1);
+		addPath(backwardSearch, meeting, vertices);
+		return new ShortestPath<>(vertices, best);
+	}
+
+	/**
+	 * Returns the length of a shortest path from the source element to the
+	 * target element, or positive infinity if the target cannot be reached
+	 * from the source.
+	 * 
+	 * @param source
+	 *            the element at which the path starts
+	 * @param target
+	 *            the element at which the path ends
+	 * @return the distance from source to target
+	 * @throws IllegalArgumentException
+	 *             if the source or target element is not in the graph
+	 */
+	public double getDistance(V source, V target) {
+		int sourceIndex = indexOf(source, "Source");
+		int targetIndex = indexOf(target, "Target");
+
+		Search search = workspaces.get().forward;
+		search(search, sourceIndex, targetIndex, null);
+		return search.distance(targetIndex);
+	}
+
+	/**
+	 * Returns a map from every element that can be reached from the source
+	 * element to its distance from the source. The map iterates over the
+	 * elements in order of increasing distance, starting with the source.
+	 * 
+	 * @param source
+	 *            the element from which to measure distances
+	 * @return the distances of the elements that can be reached from the source
+	 * @throws IllegalArgumentException
+	 *             if the source element is not in the graph
+	 */
+	public Map<V, Double> getDistances(V source) {
+		int sourceIndex = indexOf(source, "Source");
+
+		Search search = workspaces.get().forward;
+		search.reset();
+		search.relax(sourceIndex, 0, -1);
+		search.heap.offer(sourceIndex, 0);
+		Map<V, Double> distances = new LinkedHashMap<>();
+		while (!search.heap.isEmpty()) {
+			int tail = search.heap.poll();
+			double tailDistance = search.distance(tail);
+			distances.put(graph.getVertexAt(tail), tailDistance);
+			for (int position = forward.offsets[tail]; position < forward.offsets[tail + 1]; position++) {
+				int head = forward.heads[position];
+				double distance = tailDistance + forward.weights[position];
+				if (search.relax(head, distance, tail)) {
+					search.heap.offer(head, distance);
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * Runs Dijkstra's algorithm, or A* if a heuristic is given, from the
+	 * source until the target is settled.
+	 * 
+	 * @param search
+	 *            the search state to use
+	 * @param source
+	 *            the index of the source
+	 * @param target
+	 *            the index of the target
+	 * @param heuristic
+	 *            the estimate of the distance to the target, or null
+	 * @return true if the target was reached, else false
+	 */
+	private boolean search(Search search, int source, int target, ToDoubleFunction<? super V> heuristic) {
+		search.reset();
+		search.relax(source, 0, -1);
+		search.heap.offer(source, heuristic == null ? 0 : heuristic.applyAsDouble(graph.getVertexAt(source)));
+		while (!search.heap.isEmpty()) {
+			int tail = search.heap.poll();
+			if (tail == target) {
+				return true;
+			}
+			double tailDistance = search.distance(tail);
+			for (int position = forward.offsets[tail]; position < forward.offsets[tail + 1]; position++) {
+				int head = forward.heads[position];
+				double distance = tailDistance + forward.weights[position];
+				if (search.relax(head, distance, tail)) {
+					// An element is reopened if a shorter path to it is found
+					// after it was expanded, which can only happen when the
+					// heuristic is not consistent
+					double estimate = heuristic == null ? 0 : heuristic.applyAsDouble(graph.getVertexAt(head));
+					search.heap.offer(head, distance + estimate);
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the elements along the path from the specified element back to the
+	 * root of the search, following parent links.
+	 * 
+	 * @param search
+	 *            the search whose parent links to follow
+	 * @param index
+	 *            the index of the element at which to start
+	 * @param vertices
+	 *            the list to which to add the elements
+	 */
+	private void addPath(Search search, int index, List<V> vertices) {
+		for (int i = index; i >= 0; i = search.parents[i]) {
+			vertices.add(graph.getVertexAt(i));
+		}
+	}
+
+	/**
+	 * Returns the reversed edges of the graph, building them on first use.
+	 * 
+	 * @return the reversed edges of the graph
+	 */
+	private Adjacency backward() {
+		Adjacency adjacency = backward;
+		if (adjacency == null) {
+			synchronized (this) {
+				adjacency = backward;
+				if (adjacency == null) {
+					adjacency = new Adjacency(graph.transpose(), weightFunction);
+					backward = adjacency;
+				}
+			}
+		}
+		return adjacency;
+	}
+
+	/**
+	 * Returns the index of the specified element.
+	 * 
+	 * @param elem
+	 *            the element whose index we want
+	 * @param role
+	 *            the role of the element, used in the exception message
+	 * @return the index of the element
+	 * @throws IllegalArgumentException
+	 *             if the element is not in the graph
+	 */
+	private int indexOf(V elem, String role) {
+		int index = graph.getVertexIndex(elem);
+		if (index < 0) {
+			throw new IllegalArgumentException(role + " element is not in the graph");
+		}
+		return index;
+	}
+
+	/**
+	 * The edges of a CsrGraph with their lengths, copied into flat arrays.
+	 */
+	private static final class Adjacency {
+
+		private final int[] offsets;
+		private final int[] heads;
+		private final double[] weights;
+
+		private <V, W> Adjacency(CsrGraph<V, W> graph, ToDoubleFunction<? super W> weightFunction) {
+			int numberOfVertices = graph.getNumberOfVertices();
+			this.offsets = new int[numberOfVertices + 1];
+			for (int i = 0; i < numberOfVertices; i++) {
+				offsets[i + 1] = graph.getEdgeEnd(i);
+			}
+			this.heads = new int[graph.getNumberOfStoredEdges()];
+			this.weights = new double[heads.length];
+			for (int position = 0; position < heads.length; position++) {
+				double weight = weightFunction.applyAsDouble(graph.getWeightAt(position));
+				if (!(weight >= 0)) {
+					throw new IllegalArgumentException("Edge lengths must be non-negative: " + weight);
+				}
+				heads[position] = graph.getHeadIndexAt(position);
+				weights[position] = weight;
+			}
+		}
+
+	}
+
+	/**
+	 * The state of one search: tentative distances, parent links and the heap
+	 * of elements still to be expanded. Entries are only valid if they were
+	 * written during the current search, which is tracked with a stamp per
+	 * element so that nothing needs to be cleared between searches.
+	 */
+	private static final class Search {
+
+		private final double[] distances;
+		private final int[] parents;
+		private final int[] stamps;
+		private final IndexedDoubleHeap heap;
+		private int stamp;
+
+		private Search(int numberOfVertices) {
+			this.distances = new double[numberOfVertices];
+			this.parents = new int[numberOfVertices];
+			this.stamps = new int[numberOfVertices];
+			this.heap = new IndexedDoubleHeap(numberOfVertices);
+		}
+
+		/**
+		 * Starts a new search, forgetting the previous one.
+		 */
+		private void reset() {
+			heap.clear();
+			if (++stamp == 0) {
+				Arrays.fill(stamps, 0);
+				stamp = 1;
+			}
+		}
+
+		/**
+		 * Returns the tentative distance of the element with the specified
+		 * index, or positive infinity if it has not been reached.
+		 */
+		private double distance(int index) {
+			return stamps[index] == stamp ? distances[index] : Double.POSITIVE_INFINITY;
+		}
+
+		/**
+		 * Records that the element with the specified index can be reached at
+		 * the specified distance through the specified parent, if that is
+		 * shorter than its tentative distance. Returns true if it was.
+		 */
+		private boolean relax(int index, double distance, int parent) {
+			if (stamps[index] == stamp && distances[index] <= distance) {
+				return false;
+			}
+			distances[index] = distance;
+			parents[index] = parent;
+			stamps[index] = stamp;
+			return true;
+		}
+
+	}
+
+	/**
+	 * The searches owned by one thread. The backward search is only created
+	 * once the thread runs a bidirectional query.
+	 */
+	private static final class Workspace {
+
+		private final int numberOfVertices;
+		private final Search forward;
+		private Search backward;
+
+		private Workspace(int numberOfVertices) {
+			this.numberOfVertices = numberOfVertices;
+			this.forward = new Search(numberOfVertices);
+		}
+
+		private Search backward() {
+			if (backward == null) {
+				backward = new Search(numberOfVertices);
+			}
+			return backward;
+		}
+
+	}
+
+}
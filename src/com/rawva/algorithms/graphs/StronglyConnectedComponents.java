@@ -0,0 +1,491 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.Graph;
+
+/**
+ * This class finds the strongly connected components of a directed graph: the
+ * maximal sets of elements (vertices) in which every element can reach every
+ * other. In an undirected graph, these are the connected components. <br/>
+ * <br/>
+ * Every component has a label from 0 to getNumberOfComponents() - 1. The
+ * graph is copied into CSR form (unless it already is a CsrGraph) and the
+ * components are computed once, when this object is constructed.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ */
+public class StronglyConnectedComponents<V> {
+
+	private static final int SEQUENTIAL_THRESHOLD = 4096;
+
+	private final CsrGraph<V, ?> graph;
+	private final int[] components;
+	private final int[] sizes;
+
+	/**
+	 * The ways in which the components can be computed.
+	 */
+	public enum Algorithm {
+
+		/**
+		 * Tarjan's algorithm, run with an explicit stack so that deep graphs
+		 * do not overflow the call stack. It takes linear time on one thread.
+		 * The components are labeled in topological order: every edge between
+		 * two components goes from the smaller label to the larger one.
+		 */
+		TARJAN,
+
+		/**
+		 * The forward-backward algorithm on a ForkJoinPool. The component of
+		 * a pivot element is the set of elements that it both reaches and is
+		 * reached by; every other component lies entirely in one of the three
+		 * remaining parts, which are then solved in parallel. Elements with
+		 * no incoming or no outgoing edges inside their part are trimmed off
+		 * first, and small parts are solved with Tarjan's algorithm. The
+		 * labels are in no particular order.
+		 */
+		FORWARD_BACKWARD
+
+	}
+
+	/**
+	 * Computes the strongly connected components of the specified graph with
+	 * Tarjan's algorithm.
+	 * 
+	 * @param graph
+	 *            the graph whose components we want
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 */
+	public StronglyConnectedComponents(Graph<V> graph) {
+		this(graph, Algorithm.TARJAN, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the strongly connected components of the specified graph with
+	 * the specified algorithm, using the common ForkJoinPool if it runs in
+	 * parallel.
+	 * 
+	 * @param graph
+	 *            the graph whose components we want
+	 * @param algorithm
+	 *            the algorithm with which to compute the components
+	 * @throws NullPointerException
+	 *             if the specified graph or algorithm is null
+	 */
+	public StronglyConnectedComponents(Graph<V> graph, Algorithm algorithm) {
+		this(graph, algorithm, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the strongly connected components of the specified graph with
+	 * the specified algorithm, using the specified ForkJoinPool if it runs in
+	 * parallel.
+	 * 
+	 * @param graph
+	 *            the graph whose components we want
+	 * @param algorithm
+	 *            the algorithm with which to compute the components
+	 * @param pool
+	 *            the pool in which to compute the components
+	 * @throws NullPointerException
+	 *             if the specified graph, algorithm or pool is null
+	 */
+	public StronglyConnectedComponents(Graph<V> graph, Algorithm algorithm, ForkJoinPool pool) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (algorithm == null) {
+			throw new NullPointerException("Algorithm cannot be null");
+		}
+		if (pool == null) {
+			throw new NullPointerException("Pool cannot be null");
+		}
+
+		this.graph = graph instanceof CsrGraph ? (CsrGraph<V, ?>) graph : new CsrGraph<>(graph);
+		int n = this.graph.getNumberOfVertices();
+		int[] all = new int[n];
+		for (int i = 0; i < n; i++) {
+			all[i] = i;
+		}
+
+		Decomposition decomposition;
+		if (algorithm == Algorithm.TARJAN) {
+			decomposition = new Decomposition(new CsrArrays(this.graph), null);
+			decomposition.tarjan(all, 0);
+
+			// Tarjan's algorithm finishes a component only after every
+			// component it reaches, so reversing the order is topological
+			int last = decomposition.nextComponent.get() - 1;
+			for (int i = 0; i < n; i++) {
+				decomposition.components[i] = last - decomposition.components[i];
+			}
+		} else {
+			decomposition = new Decomposition(new CsrArrays(this.graph), new CsrArrays(this.graph.transpose()));
+			pool.invoke(decomposition.new ForwardBackwardTask(all, 0));
+		}
+		this.components = decomposition.components;
+		this.sizes = new int[decomposition.nextComponent.get()];
+		for (int component : components) {
+			sizes[component]++;
+		}
+	}
+
+	/**
+	 * Returns the label of the component containing the specified element, or
+	 * -1 if the element is not in the graph.
+	 * 
+	 * @param elem
+	 *            the element whose component we want
+	 * @return the label of the component containing the element, or -1
+	 */
+	public int getComponent(V elem) {
+		int index = graph.getVertexIndex(elem);
+		return index < 0 ? -1 : components[index];
+	}
+
+	/**
+	 * Returns the components as a list of sets of elements, where the set at
+	 * position i holds the elements of the component labeled i.
+	 * 
+	 * @return the elements of every component
+	 */
+	public List<Set<V>> getComponents() {
+		List<Set<V>> sets = new ArrayList<>(sizes.length);
+		for (int size : sizes) {
+			sets.add(new HashSet<>((int) (size / 0.75f) + 1));
+		}
+		for (int i = 0; i < components.length; i++) {
+			sets.get(components[i]).add(graph.getVertexAt(i));
+		}
+		return sets;
+	}
+
+	/**
+	 * Returns the number of elements in the component with the specified
+	 * label.
+	 * 
+	 * @param label
+	 *            the label of the component
+	 * @return the number of elements in the component
+	 * @throws IndexOutOfBoundsException
+	 *             if the label is out of range (label < 0 || label >=
+	 *             getNumberOfComponents())
+	 */
+	public int getComponentSize(int label) {
+		if (label < 0 || label >= sizes.length) {
+			throw new IndexOutOfBoundsException("Component label out of range: " + label);
+		}
+		return sizes[label];
+	}
+
+	/**
+	 * Returns the number of strongly connected components.
+	 * 
+	 * @return the number of strongly connected components
+	 */
+	public int getNumberOfComponents() {
+		return sizes.length;
+	}
+
+	/**
+	 * Returns true if the specified elements are in the same component, i.e.,
+	 * each can reach the other. Returns false if either element is not in the
+	 * graph.
+	 * 
+	 * @param elem1
+	 *            one of the elements
+	 * @param elem2
+	 *            the other element
+	 * @return true if the elements are in the same component, else false
+	 */
+	public boolean isStronglyConnected(V elem1, V elem2) {
+		int component = getComponent(elem1);
+		return component >= 0 && component == getComponent(elem2);
+	}
+
+	/**
+	 * The working state of a decomposition. Every vertex has a color naming
+	 * the part of the graph it is in, or -1 once its component is known. The
+	 * parts are disjoint, so tasks working on different parts write disjoint
+	 * entries of the arrays; a task only reads the colors of other parts to
+	 * find out that they are not its own, and colors are never reused.
+	 */
+	private static final class Decomposition {
+
+		private final CsrArrays out;
+		private final CsrArrays in;
+		private final int[] colors;
+		private final int[] components;
+		private final int[] index;
+		private final int[] low;
+		private final int[] positions;
+		private final AtomicInteger nextComponent = new AtomicInteger();
+		private final AtomicInteger nextColor = new AtomicInteger(1);
+		private final int[] forwardMarks;
+		private final int[] backwardMarks;
+		private final int[] inDegrees;
+		private final int[] outDegrees;
+
+		private Decomposition(CsrArrays out, CsrArrays in) {
+			int n = out.offsets.length - 1;
+			this.out = out;
+			this.in = in;
+			this.colors = new int[n];
+			this.components = new int[n];
+			this.index = new int[n];
+			this.low = new int[n];
+			this.positions = new int[n];
+			Arrays.fill(index, -1);
+			if (in == null) {
+				this.forwardMarks = null;
+				this.backwardMarks = null;
+				this.inDegrees = null;
+				this.outDegrees = null;
+			} else {
+				this.forwardMarks = new int[n];
+				this.backwardMarks = new int[n];
+				this.inDegrees = new int[n];
+				this.outDegrees = new int[n];
+				Arrays.fill(forwardMarks, -1);
+				Arrays.fill(backwardMarks, -1);
+			}
+		}
+
+		/**
+		 * Runs Tarjan's algorithm on the specified vertices, all of which have
+		 * the specified color, ignoring edges that leave them.
+		 */
+		private void tarjan(int[] members, int color) {
+			int[] callStack = new int[members.length];
+			int[] componentStack = new int[members.length];
+			int callTop = 0;
+			int componentTop = 0;
+			int counter = 0;
+			for (int root : members) {
+				if (index[root] >= 0) {
+					continue;
+				}
+				index[root] = low[root] = counter++;
+				positions[root] = out.offsets[root];
+				componentStack[componentTop++] = root;
+				callStack[callTop++] = root;
+				while (callTop > 0) {
+					int vertex = callStack[callTop - 1];
+					if (positions[vertex] < out.offsets[vertex + 1]) {
+						int next = out.heads[positions[vertex]++];
+						// Vertices in other parts or in finished components
+						// no longer have this color
+						if (colors[next] != color) {
+							continue;
+						}
+						if (index[next] < 0) {
+							index[next] = low[next] = counter++;
+							positions[next] = out.offsets[next];
+							componentStack[componentTop++] = next;
+							callStack[callTop++] = next;
+						} else {
+							low[vertex] = Math.min(low[vertex], index[next]);
+						}
+						continue;
+					}
+
+					callTop--;
+					if (callTop > 0) {
+						int parent = callStack[callTop - 1];
+						low[parent] = Math.min(low[parent], low[vertex]);
+					}
+					if (low[vertex] == index[vertex]) {
+						int component = nextComponent.getAndIncrement();
+						int member;
+						do {
+							member = componentStack[--componentTop];
+							components[member] = component;
+							colors[member] = -1;
+						} while (member != vertex);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Repeatedly removes the vertices of the specified part that have no
+		 * incoming or no outgoing edges inside it, each of which is a
+		 * component of its own, and returns the vertices that remain.
+		 */
+		private int[] trim(int[] members, int color) {
+			int[] queue = new int[members.length];
+			int head = 0;
+			int tail = 0;
+			for (int vertex : members) {
+				outDegrees[vertex] = degreeInPart(out, vertex, color);
+				inDegrees[vertex] = degreeInPart(in, vertex, color);
+			}
+			for (int vertex : members) {
+				if (inDegrees[vertex] == 0 || outDegrees[vertex] == 0) {
+					queue[tail++] = vertex;
+					colors[vertex] = -1;
+				}
+			}
+			while (head < tail) {
+				int vertex = queue[head++];
+				components[vertex] = nextComponent.getAndIncrement();
+				for (int position = out.offsets[vertex]; position < out.offsets[vertex + 1]; position++) {
+					int next = out.heads[position];
+					if (colors[next] == color && --inDegrees[next] == 0) {
+						queue[tail++] = next;
+						colors[next] = -1;
+					}
+				}
+				for (int position = in.offsets[vertex]; position < in.offsets[vertex + 1]; position++) {
+					int previous = in.heads[position];
+					if (colors[previous] == color && --outDegrees[previous] == 0) {
+						queue[tail++] = previous;
+						colors[previous] = -1;
+					}
+				}
+			}
+			if (tail == 0) {
+				return members;
+			}
+
+			int[] remaining = new int[members.length - tail];
+			int count = 0;
+			for (int vertex : members) {
+				if (colors[vertex] == color) {
+					remaining[count++] = vertex;
+				}
+			}
+			return remaining;
+		}
+
+		/**
+		 * Returns the number of edges from the specified vertex to vertices of
+		 * the specified color.
+		 */
+		private int degreeInPart(CsrArrays edges, int vertex, int color) {
+			int degree = 0;
+			for (int position = edges.offsets[vertex]; position < edges.offsets[vertex + 1]; position++) {
+				if (colors[edges.heads[position]] == color) {
+					degree++;
+				}
+			}
+			return degree;
+		}
+
+		/**
+		 * Marks every vertex of the specified color that the specified pivot
+		 * reaches along the specified edges.
+		 */
+		private void reach(int pivot, CsrArrays edges, int[] marks, int color, int[] queue) {
+			int head = 0;
+			int tail = 0;
+			marks[pivot] = color;
+			queue[tail++] = pivot;
+			while (head < tail) {
+				int vertex = queue[head++];
+				for (int position = edges.offsets[vertex]; position < edges.offsets[vertex + 1]; position++) {
+					int next = edges.heads[position];
+					if (colors[next] == color && marks[next] != color) {
+						marks[next] = color;
+						queue[tail++] = next;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Finds the components of one part of the graph. The task keeps
+		 * working on the largest remaining subpart itself and forks the
+		 * others, which are at most half as large, so the nesting of tasks
+		 * stays logarithmic.
+		 */
+		private final class ForwardBackwardTask extends RecursiveAction {
+
+			private static final long serialVersionUID = 1L;
+
+			private final int[] members;
+			private final int color;
+
+			private ForwardBackwardTask(int[] members, int color) {
+				this.members = members;
+				this.color = color;
+			}
+
+			@Override
+			protected void compute() {
+				List<ForwardBackwardTask> forked = new ArrayList<>();
+				int[] part = members;
+				int partColor = color;
+				while (true) {
+					part = trim(part, partColor);
+					if (part.length <= SEQUENTIAL_THRESHOLD) {
+						tarjan(part, partColor);
+						break;
+					}
+
+					int[] queue = new int[part.length];
+					reach(part[0], out, forwardMarks, partColor, queue);
+					reach(part[0], in, backwardMarks, partColor, queue);
+					int component = nextComponent.getAndIncrement();
+					int firstColor = nextColor.getAndAdd(3);
+					int[] counts = new int[3];
+					for (int vertex : part) {
+						boolean isForward = forwardMarks[vertex] == partColor;
+						boolean isBackward = backwardMarks[vertex] == partColor;
+						if (isForward && isBackward) {
+							components[vertex] = component;
+							colors[vertex] = -1;
+						} else {
+							int subpart = isForward ? 0 : isBackward ? 1 : 2;
+							colors[vertex] = firstColor + subpart;
+							counts[subpart]++;
+						}
+					}
+
+					int[][] subparts = { new int[counts[0]], new int[counts[1]], new int[counts[2]] };
+					Arrays.fill(counts, 0);
+					for (int vertex : part) {
+						if (colors[vertex] >= firstColor) {
+							int subpart = colors[vertex] - firstColor;
+							subparts[subpart][counts[subpart]++] = vertex;
+						}
+					}
+					int largest = 0;
+					for (int i = 1; i < 3; i++) {
+						if (subparts[i].length > subparts[largest].length) {
+							largest = i;
+						}
+					}
+					for (int i = 0; i < 3; i++) {
+						if (i != largest && subparts[i].length > 0) {
+							ForwardBackwardTask task = new ForwardBackwardTask(subparts[i], firstColor + i);
+							task.fork();
+							forked.add(task);
+						}
+					}
+					part = subparts[largest];
+					partColor = firstColor + largest;
+				}
+				for (ForwardBackwardTask task : forked) {
+					task.join();
+				}
+			}
+
+		}
+
+	}
+
+}
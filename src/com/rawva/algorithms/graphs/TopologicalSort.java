@@ -0,0 +1,128 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.Graph;
+
+/**
+ * This class orders the elements (vertices) of directed acyclic graphs so
+ * that every edge goes from an earlier element to a later one. <br/>
+ * <br/>
+ * The order is found with Kahn's algorithm on an int-indexed copy of the
+ * graph: elements with no remaining incoming edges are repeatedly removed,
+ * which takes time linear in the size of the graph and no recursion.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+public class TopologicalSort {
+
+	/**
+	 * Returns true if the specified directed graph contains no cycles.
+	 * 
+	 * @param graph
+	 *            the graph to check
+	 * @return true if the graph is acyclic, else false
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is undirected
+	 */
+	public static <V> boolean isAcyclic(Graph<V> graph) {
+		CsrGraph<V, ?> snapshot = snapshotOf(graph);
+		return order(snapshot).length == snapshot.getNumberOfVertices();
+	}
+
+	/**
+	 * Returns the elements of the specified directed graph in an order in
+	 * which every edge goes from an earlier element to a later one. The
+	 * elements with no incoming edges are queued first, in the order of the
+	 * graph's vertex set; every other element is queued once its last
+	 * incoming edge is removed, so the order is not otherwise tied to the
+	 * vertex set.
+	 * 
+	 * @param graph
+	 *            the graph whose elements to order
+	 * @return the elements of the graph in topological order
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is undirected or contains a cycle
+	 */
+	public static <V> List<V> sort(Graph<V> graph) {
+		CsrGraph<V, ?> snapshot = snapshotOf(graph);
+		int[] order = order(snapshot);
+		if (order.length < snapshot.getNumberOfVertices()) {
+			throw new IllegalArgumentException("Graph contains a cycle");
+		}
+
+		List<V> elems = new ArrayList<>(order.length);
+		for (int index : order) {
+			elems.add(snapshot.getVertexAt(index));
+		}
+		return elems;
+	}
+
+	/**
+	 * Returns an int-indexed snapshot of the specified directed graph.
+	 * 
+	 * @param graph
+	 *            the graph to copy
+	 * @return the graph itself if it is a CsrGraph, else a copy of it
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is undirected
+	 */
+	private static <V> CsrGraph<V, ?> snapshotOf(Graph<V> graph) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (!graph.isDirected()) {
+			throw new IllegalArgumentException("Graph must be directed");
+		}
+
+		return graph instanceof CsrGraph ? (CsrGraph<V, ?>) graph : new CsrGraph<>(graph);
+	}
+
+	/**
+	 * Returns the indices of the vertices of the specified graph in
+	 * topological order. If the graph has a cycle, the vertices on or behind a
+	 * cycle are left out, so the returned array is shorter than the number of
+	 * vertices.
+	 * 
+	 * @param graph
+	 *            the graph whose vertices to order
+	 * @return the indices of the vertices in topological order
+	 */
+	private static int[] order(CsrGraph<?, ?> graph) {
+		int n = graph.getNumberOfVertices();
+		int[] inDegrees = new int[n];
+		for (int position = 0; position < graph.getNumberOfStoredEdges(); position++) {
+			inDegrees[graph.getHeadIndexAt(position)]++;
+		}
+
+		int[] queue = new int[n];
+		int head = 0;
+		int tail = 0;
+		for (int i = 0; i < n; i++) {
+			if (inDegrees[i] == 0) {
+				queue[tail++] = i;
+			}
+		}
+		while (head < tail) {
+			int vertex = queue[head++];
+			for (int position = graph.getEdgeStart(vertex); position < graph.getEdgeEnd(vertex); position++) {
+				int next = graph.getHeadIndexAt(position);
+				if (--inDegrees[next] == 0) {
+					queue[tail++] = next;
+				}
+			}
+		}
+		return tail == n ? queue : Arrays.copyOf(queue, tail);
+	}
+
+}
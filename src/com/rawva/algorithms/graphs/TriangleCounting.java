@@ -0,0 +1,367 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.Graph;
+
+/**
+ * This class counts the triangles of an undirected graph, both in total and
+ * through every element (vertex), and derives clustering coefficients from
+ * them. Loops are ignored. <br/>
+ * <br/>
+ * The elements are ranked by degree, ties broken by index, and every edge is
+ * oriented from its lower-ranked end to its higher-ranked end. Each triangle
+ * then appears exactly once, at its lowest-ranked element u with the other
+ * two elements v and w in the forward adjacency of u, and w also in the
+ * forward adjacency of v. Because no element has more than O(sqrt(m))
+ * higher-ranked neighbors, the work is O(m<sup>1.5</sup>) for m edges, even
+ * in graphs with hubs. <br/>
+ * <br/>
+ * Forward adjacencies are kept as sorted int arrays in CSR form, so that two
+ * of them are intersected with a linear merge whose cursors advance without
+ * branching, or, when one is far longer than the other, by searching the
+ * longer one for every element of the shorter one. The elements u are split
+ * across the workers of a ForkJoinPool.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ */
+public class TriangleCounting<V> {
+
+	private static final int VERTICES_PER_TASK = 256;
+	private static final int SEARCH_RATIO = 32;
+
+	private final CsrGraph<V, ?> graph;
+	private final int[] degrees;
+	private final long[] triangleCounts;
+	private final long numberOfTriangles;
+
+	/**
+	 * Counts the triangles of the specified undirected graph, using the common
+	 * ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph whose triangles we want
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is directed
+	 */
+	public TriangleCounting(Graph<V> graph) {
+		this(graph, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Counts the triangles of the specified undirected graph, using the
+	 * specified ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph whose triangles we want
+	 * @param pool
+	 *            the pool in which to count the triangles
+	 * @throws NullPointerException
+	 *             if the specified graph or pool is null
+	 * @throws IllegalArgumentException
+	 *             if the graph is directed
+	 */
+	public TriangleCounting(Graph<V> graph, ForkJoinPool pool) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (pool == null) {
+			throw new NullPointerException("Pool cannot be null");
+		}
+		if (graph.isDirected()) {
+			throw new IllegalArgumentException("Input graph must be undirected");
+		}
+
+		this.graph = graph instanceof CsrGraph ? (CsrGraph<V, ?>) graph : new CsrGraph<>(graph);
+		int n = this.graph.getNumberOfVertices();
+		CsrArrays edges = new CsrArrays(this.graph);
+		this.degrees = new int[n];
+		for (int i = 0; i < n; i++) {
+			for (int position = edges.offsets[i]; position < edges.offsets[i + 1]; position++) {
+				if (edges.heads[position] != i) {
+					degrees[i]++;
+				}
+			}
+		}
+
+		// Rank by degree, then by index
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = ((long) degrees[i] << 32) | i;
+		}
+		Arrays.sort(keys);
+		int[] ranks = new int[n];
+		for (int rank = 0; rank < n; rank++) {
+			ranks[(int) keys[rank]] = rank;
+		}
+
+		// Forward adjacency, indexed and sorted by rank
+		int[] offsets = new int[n + 1];
+		for (int i = 0; i < n; i++) {
+			for (int position = edges.offsets[i]; position < edges.offsets[i + 1]; position++) {
+				if (ranks[edges.heads[position]] > ranks[i]) {
+					offsets[ranks[i] + 1]++;
+				}
+			}
+		}
+		for (int rank = 0; rank < n; rank++) {
+			offsets[rank + 1] += offsets[rank];
+		}
+		int[] heads = new int[offsets[n]];
+		int[] next = Arrays.copyOf(offsets, n);
+		for (int i = 0; i < n; i++) {
+			for (int position = edges.offsets[i]; position < edges.offsets[i + 1]; position++) {
+				int head = ranks[edges.heads[position]];
+				if (head > ranks[i]) {
+					heads[next[ranks[i]]++] = head;
+				}
+			}
+		}
+		ParallelRanges.forEach(pool, n, VERTICES_PER_TASK, (from, to) -> {
+			for (int rank = from; rank < to; rank++) {
+				Arrays.sort(heads, offsets[rank], offsets[rank + 1]);
+			}
+		});
+
+		// A triangle u < v < w is found while scanning u. Its matches are
+		// added to u and v once per edge (u, v). Its match for w is counted
+		// on the edge (u, w), which only the task scanning u writes, and the
+		// edge counts are added to w once all tasks are done
+		AtomicLongArray counts = new AtomicLongArray(n);
+		int[] edgeCounts = new int[heads.length];
+		ParallelRanges.forEach(pool, n, VERTICES_PER_TASK, (from, to) -> {
+			for (int u = from; u < to; u++) {
+				long found = 0;
+				for (int position = offsets[u]; position < offsets[u + 1]; position++) {
+					int v = heads[position];
+					// Every w above v in the list of u comes after v
+					long common = intersect(heads, position + 1, offsets[u + 1], offsets[v], offsets[v + 1],
+							edgeCounts);
+					if (common > 0) {
+						counts.addAndGet(v, common);
+						found += common;
+					}
+				}
+				if (found > 0) {
+					counts.addAndGet(u, found);
+				}
+			}
+		});
+
+		long[] rankCounts = new long[n];
+		for (int rank = 0; rank < n; rank++) {
+			rankCounts[rank] = counts.get(rank);
+		}
+		for (int position = 0; position < heads.length; position++) {
+			rankCounts[heads[position]] += edgeCounts[position];
+		}
+		this.triangleCounts = new long[n];
+		long total = 0;
+		for (int i = 0; i < n; i++) {
+			triangleCounts[i] = rankCounts[ranks[i]];
+			total += triangleCounts[i];
+		}
+		this.numberOfTriangles = total / 3;
+	}
+
+	/**
+	 * Returns the average of the local clustering coefficients of all
+	 * elements, or 0 if the graph is empty.
+	 * 
+	 * @return the average local clustering coefficient
+	 */
+	public double getAverageClusteringCoefficient() {
+		double sum = 0;
+		for (int i = 0; i < degrees.length; i++) {
+			sum += clusteringCoefficient(i);
+		}
+		return degrees.length == 0 ? 0 : sum / degrees.length;
+	}
+
+	/**
+	 * Returns the local clustering coefficient of the specified element: the
+	 * fraction of pairs of its neighbors that are adjacent to each other, or 0
+	 * if it has fewer than two neighbors.
+	 * 
+	 * @param elem
+	 *            the element whose clustering coefficient we want
+	 * @return the local clustering coefficient of the element
+	 * @throws IllegalArgumentException
+	 *             if the element is not in the graph
+	 */
+	public double getClusteringCoefficient(V elem) {
+		return clusteringCoefficient(indexOf(elem));
+	}
+
+	/**
+	 * Returns the local clustering coefficients of all elements, indexed like
+	 * the vertices of the graph returned by getGraph().
+	 * 
+	 * @return the local clustering coefficients of all elements
+	 */
+	public double[] getClusteringCoefficients() {
+		double[] coefficients = new double[degrees.length];
+		for (int i = 0; i < coefficients.length; i++) {
+			coefficients[i] = clusteringCoefficient(i);
+		}
+		return coefficients;
+	}
+
+	/**
+	 * Returns the global clustering coefficient (transitivity) of the graph:
+	 * three times the number of triangles divided by the number of paths of
+	 * two edges, or 0 if there are no such paths.
+	 * 
+	 * @return the global clustering coefficient
+	 */
+	public double getGlobalClusteringCoefficient() {
+		long paths = 0;
+		for (int degree : degrees) {
+			paths += (long) degree * (degree - 1) / 2;
+		}
+		return paths == 0 ? 0 : 3.0 * numberOfTriangles / paths;
+	}
+
+	/**
+	 * Returns the snapshot of the graph whose triangles were counted. Its
+	 * vertex indices are the indices of the arrays returned by
+	 * getTriangleCounts() and getClusteringCoefficients().
+	 * 
+	 * @return the snapshot of the graph whose triangles were counted
+	 */
+	public CsrGraph<V, ?> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the number of triangles in the graph.
+	 * 
+	 * @return the number of triangles in the graph
+	 */
+	public long getNumberOfTriangles() {
+		return numberOfTriangles;
+	}
+
+	/**
+	 * Returns the number of triangles that the specified element is part of.
+	 * 
+	 * @param elem
+	 *            the element whose triangles we want
+	 * @return the number of triangles through the element
+	 * @throws IllegalArgumentException
+	 *             if the element is not in the graph
+	 */
+	public long getNumberOfTriangles(V elem) {
+		return triangleCounts[indexOf(elem)];
+	}
+
+	/**
+	 * Returns the number of triangles through every element, indexed like the
+	 * vertices of the graph returned by getGraph(). The array is not copied.
+	 * 
+	 * @return the number of triangles through every element
+	 */
+	public long[] getTriangleCounts() {
+		return triangleCounts;
+	}
+
+	/**
+	 * Returns the local clustering coefficient of the element with the
+	 * specified index.
+	 */
+	private double clusteringCoefficient(int index) {
+		long degree = degrees[index];
+		return degree < 2 ? 0 : 2.0 * triangleCounts[index] / (degree * (degree - 1));
+	}
+
+	/**
+	 * Returns the index of the specified element.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the element is not in the graph
+	 */
+	private int indexOf(V elem) {
+		int index = graph.getVertexIndex(elem);
+		if (index < 0) {
+			throw new IllegalArgumentException("Element is not in the graph");
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the number of values that the two sorted ranges of the array
+	 * have in common, and adds one to the count of every position of the first
+	 * range that holds one of them.
+	 * 
+	 * @param heads
+	 *            the array holding both ranges
+	 * @param i
+	 *            the start of the first range
+	 * @param iEnd
+	 *            the end of the first range
+	 * @param j
+	 *            the start of the second range
+	 * @param jEnd
+	 *            the end of the second range
+	 * @param counts
+	 *            the counts of the positions of the array
+	 * @return the number of common values
+	 */
+	private static long intersect(int[] heads, int i, int iEnd, int j, int jEnd, int[] counts) {
+		long found = 0;
+		int iLength = iEnd - i;
+		int jLength = jEnd - j;
+		if (iLength == 0 || jLength == 0) {
+			return 0;
+		}
+		if (jLength / iLength >= SEARCH_RATIO) {
+			for (; i < iEnd && j < jEnd; i++) {
+				int position = Arrays.binarySearch(heads, j, jEnd, heads[i]);
+				if (position >= 0) {
+					counts[i]++;
+					found++;
+					j = position + 1;
+				} else {
+					j = -position - 1;
+				}
+			}
+			return found;
+		}
+		if (iLength / jLength >= SEARCH_RATIO) {
+			for (; j < jEnd && i < iEnd; j++) {
+				int position = Arrays.binarySearch(heads, i, iEnd, heads[j]);
+				if (position >= 0) {
+					counts[position]++;
+					found++;
+					i = position + 1;
+				} else {
+					i = -position - 1;
+				}
+			}
+			return found;
+		}
+
+		while (i < iEnd && j < jEnd) {
+			int a = heads[i];
+			int b = heads[j];
+			if (a == b) {
+				counts[i]++;
+				found++;
+			}
+			// Both cursors move by a comparison result rather than through an
+			// if-else chain, which the JIT can compile without branches
+			i += a <= b ? 1 : 0;
+			j += a >= b ? 1 : 0;
+		}
+		return found;
+	}
+
+}
@@ -0,0 +1,317 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.Graph;
+
+/**
+ * This class runs vertex-centric computations (VertexPrograms) on graphs,
+ * such as PageRank, in parallel supersteps. <br/>
+ * <br/>
+ * The graph is copied into CSR form when this object is constructed (unless
+ * it already is a CsrGraph), together with its transpose if it is directed, so
+ * later changes to the graph are not seen. Every superstep, each vertex pulls
+ * the messages of its in-neighbors over the transpose, so no two threads write
+ * the same value and no locks or atomic updates are needed. Values live in two
+ * double arrays, one read and one written by each superstep, that swap roles
+ * between supersteps. A run stops when the values change by no more than a
+ * tolerance (the sum of the absolute changes) or after a maximum number of
+ * supersteps. <br/>
+ * <br/>
+ * Different programs may run concurrently on the same engine.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ */
+public class VertexCentricEngine<V> {
+
+	private static final int VERTICES_PER_TASK = 1024;
+
+	private final CsrGraph<V, ?> graph;
+	private final int numberOfVertices;
+	private final int[] outDegrees;
+	private final int[] inOffsets;
+	private final int[] inHeads;
+	private final int[] danglingVertices;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Constructs an engine for the specified graph using the common
+	 * ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph on which to run programs
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 */
+	public VertexCentricEngine(Graph<V> graph) {
+		this(graph, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructs an engine for the specified graph using the specified
+	 * ForkJoinPool.
+	 * 
+	 * @param graph
+	 *            the graph on which to run programs
+	 * @param pool
+	 *            the pool whose workers run each superstep
+	 * @throws NullPointerException
+	 *             if the specified graph or pool is null
+	 */
+	public VertexCentricEngine(Graph<V> graph, ForkJoinPool pool) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (pool == null) {
+			throw new NullPointerException("Pool cannot be null");
+		}
+
+		this.graph = graph instanceof CsrGraph ? (CsrGraph<V, ?>) graph : new CsrGraph<>(graph);
+		this.numberOfVertices = this.graph.getNumberOfVertices();
+		CsrArrays edges = new CsrArrays(this.graph);
+		this.outDegrees = new int[numberOfVertices];
+		int dangling = 0;
+		for (int i = 0; i < numberOfVertices; i++) {
+			outDegrees[i] = edges.degree(i);
+			if (outDegrees[i] == 0) {
+				dangling++;
+			}
+		}
+		this.danglingVertices = new int[dangling];
+		for (int i = 0, k = 0; i < numberOfVertices; i++) {
+			if (outDegrees[i] == 0) {
+				danglingVertices[k++] = i;
+			}
+		}
+		if (this.graph.isDirected()) {
+			CsrArrays inEdges = new CsrArrays(this.graph.transpose());
+			this.inOffsets = inEdges.offsets;
+			this.inHeads = inEdges.heads;
+		} else {
+			this.inOffsets = edges.offsets;
+			this.inHeads = edges.heads;
+		}
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the snapshot of the graph that programs run on. Its vertex
+	 * indices identify the vertices passed to VertexPrograms.
+	 * 
+	 * @return the snapshot of the graph
+	 */
+	public CsrGraph<V, ?> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns a program computing the PageRank of every element: the
+	 * probability of being at it after a long random walk that follows a
+	 * random outgoing edge with the probability of the damping factor, and
+	 * otherwise jumps to a random element. Walks at an element with no
+	 * outgoing edges always jump. The values of all elements add up to 1.
+	 * 
+	 * @param dampingFactor
+	 *            the probability of following an edge, usually 0.85
+	 * @return a PageRank program for this engine
+	 * @throws IllegalArgumentException
+	 *             if the damping factor is not between 0 and 1
+	 */
+	public VertexProgram pageRank(double dampingFactor) {
+		return new PageRank(dampingFactor, null);
+	}
+
+	/**
+	 * Returns a program computing the personalized PageRank of every element
+	 * with respect to the specified sources. It is the PageRank in which
+	 * random walks only ever jump to one of the sources, chosen at random, so
+	 * it measures how close elements are to them.
+	 * 
+	 * @param dampingFactor
+	 *            the probability of following an edge, usually 0.85
+	 * @param sources
+	 *            the elements to which walks jump
+	 * @return a personalized PageRank program for this engine
+	 * @throws NullPointerException
+	 *             if the specified collection is null
+	 * @throws IllegalArgumentException
+	 *             if the damping factor is not between 0 and 1, or if there
+	 *             are no sources or one of them is not in the graph
+	 */
+	public VertexProgram personalizedPageRank(double dampingFactor, Collection<? extends V> sources) {
+		if (sources == null) {
+			throw new NullPointerException("Sources cannot be null");
+		}
+		if (sources.isEmpty()) {
+			throw new IllegalArgumentException("Sources cannot be empty");
+		}
+
+		boolean[] isSource = new boolean[numberOfVertices];
+		for (V source : sources) {
+			int index = graph.getVertexIndex(source);
+			if (index < 0) {
+				throw new IllegalArgumentException("Source element is not in the graph");
+			}
+			isSource[index] = true;
+		}
+		return new PageRank(dampingFactor, isSource);
+	}
+
+	/**
+	 * Runs the specified program until the values change by no more than the
+	 * tolerance in a superstep, or until the maximum number of supersteps has
+	 * been run.
+	 * 
+	 * @param program
+	 *            the program to run
+	 * @param maxSupersteps
+	 *            the maximum number of supersteps to run
+	 * @param tolerance
+	 *            the largest sum of absolute changes of the values at which the
+	 *            values are considered to have converged
+	 * @return the final values of the elements
+	 * @throws NullPointerException
+	 *             if the specified program is null
+	 * @throws IllegalArgumentException
+	 *             if the maximum number of supersteps or the tolerance is
+	 *             negative
+	 */
+	public VertexValues<V> run(VertexProgram program, int maxSupersteps, double tolerance) {
+		if (program == null) {
+			throw new NullPointerException("Program cannot be null");
+		}
+		if (maxSupersteps < 0) {
+			throw new IllegalArgumentException("Maximum number of supersteps cannot be negative: " + maxSupersteps);
+		}
+		if (!(tolerance >= 0)) {
+			throw new IllegalArgumentException("Tolerance cannot be negative: " + tolerance);
+		}
+
+		double[] initialValues = new double[numberOfVertices];
+		ParallelRanges.forEach(pool, numberOfVertices, VERTICES_PER_TASK, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				initialValues[i] = program.getInitialValue(i);
+			}
+		});
+		double[] values = initialValues;
+		double[] nextValues = new double[numberOfVertices];
+		double[] messages = new double[numberOfVertices];
+
+		int superstep = 0;
+		boolean hasConverged = false;
+		DoubleAdder change = new DoubleAdder();
+		while (superstep < maxSupersteps && !hasConverged) {
+			program.beforeSuperstep(superstep, values);
+			double[] current = values;
+			double[] next = nextValues;
+			ParallelRanges.forEach(pool, numberOfVertices, VERTICES_PER_TASK, (from, to) -> {
+				for (int i = from; i < to; i++) {
+					messages[i] = program.gather(i, current[i], outDegrees[i]);
+				}
+			});
+			change.reset();
+			ParallelRanges.forEach(pool, numberOfVertices, VERTICES_PER_TASK, (from, to) -> {
+				double localChange = 0;
+				for (int i = from; i < to; i++) {
+					double gathered = program.getIdentity();
+					for (int position = inOffsets[i]; position < inOffsets[i + 1]; position++) {
+						gathered = program.combine(gathered, messages[inHeads[position]]);
+					}
+					next[i] = program.apply(i, gathered, current[i]);
+					// Unchanged infinite values would otherwise add NaN
+					if (next[i] != current[i]) {
+						localChange += Math.abs(next[i] - current[i]);
+					}
+				}
+				change.add(localChange);
+			});
+			values = next;
+			nextValues = current;
+			superstep++;
+			hasConverged = change.sum() <= tolerance;
+		}
+		return new VertexValues<>(graph, values, superstep, hasConverged);
+	}
+
+	/**
+	 * The PageRank program, jumping either to any vertex or to a set of
+	 * sources.
+	 */
+	private final class PageRank implements VertexProgram {
+
+		private final double dampingFactor;
+		private final boolean[] isSource;
+		private final double jumpProbability;
+		private double danglingValue;
+
+		/**
+		 * Constructs a PageRank program.
+		 * 
+		 * @param dampingFactor
+		 *            the probability of following an edge
+		 * @param isSource
+		 *            the vertices to which walks jump, or null if they jump to
+		 *            any vertex
+		 */
+		private PageRank(double dampingFactor, boolean[] isSource) {
+			if (!(dampingFactor >= 0 && dampingFactor <= 1)) {
+				throw new IllegalArgumentException("Damping factor must be between 0 and 1: " + dampingFactor);
+			}
+
+			this.dampingFactor = dampingFactor;
+			this.isSource = isSource;
+			int targets = numberOfVertices;
+			if (isSource != null) {
+				targets = 0;
+				for (boolean b : isSource) {
+					if (b) {
+						targets++;
+					}
+				}
+			}
+			this.jumpProbability = targets == 0 ? 0 : 1.0 / targets;
+		}
+
+		@Override
+		public double apply(int vertex, double gathered, double value) {
+			double jump = jumpProbabilityOf(vertex);
+			return (1 - dampingFactor) * jump + dampingFactor * (gathered + danglingValue * jump);
+		}
+
+		@Override
+		public void beforeSuperstep(int superstep, double[] values) {
+			// Walks at dangling vertices jump, so their value is spread like
+			// the jumps instead of along edges
+			double sum = 0;
+			for (int vertex : danglingVertices) {
+				sum += values[vertex];
+			}
+			danglingValue = sum;
+		}
+
+		@Override
+		public double gather(int vertex, double value, int outDegree) {
+			return outDegree == 0 ? 0 : value / outDegree;
+		}
+
+		@Override
+		public double getInitialValue(int vertex) {
+			return jumpProbabilityOf(vertex);
+		}
+
+		/**
+		 * Returns the probability that a jump lands on the specified vertex.
+		 */
+		private double jumpProbabilityOf(int vertex) {
+			return isSource == null || isSource[vertex] ? jumpProbability : 0;
+		}
+
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.rawva.algorithms.graphs;
+
+/**
+ * A computation run by a VertexCentricEngine, in which every element (vertex)
+ * of a graph holds a double value that is repeatedly recomputed from the
+ * values of the elements with edges into it. <br/>
+ * <br/>
+ * Each superstep, every vertex turns its value into a message with
+ * gather(...), the messages arriving at every vertex over its incoming edges
+ * are folded together with combine(...), starting from getIdentity(), and
+ * apply(...) computes the new value of the vertex from the result. All vertices
+ * read the values of the previous superstep. <br/>
+ * <br/>
+ * Vertices are identified by their index in the snapshot returned by
+ * VertexCentricEngine.getGraph(). The methods gather(...), combine(...) and
+ * apply(...) are called from several threads at once and must not change the
+ * state of the program; beforeSuperstep(...) is called from a single thread
+ * and may.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+public interface VertexProgram {
+
+	/**
+	 * Returns the new value of a vertex.
+	 * 
+	 * @param vertex
+	 *            the index of the vertex
+	 * @param gathered
+	 *            the combined messages sent to the vertex, or the identity if
+	 *            it has no incoming edges
+	 * @param value
+	 *            the value of the vertex in the previous superstep
+	 * @return the value of the vertex in this superstep
+	 */
+	double apply(int vertex, double gathered, double value);
+
+	/**
+	 * Called before every superstep, with the values the superstep will read.
+	 * Programs may use it to compute global quantities. The array must not be
+	 * modified. The default implementation does nothing.
+	 * 
+	 * @param superstep
+	 *            the number of the superstep, starting at 0
+	 * @param values
+	 *            the values of all vertices, indexed like the vertices of
+	 *            the snapshot
+	 */
+	default void beforeSuperstep(int superstep, double[] values) {
+	}
+
+	/**
+	 * Returns the combination of two messages. The operation must be
+	 * associative and commutative. The default implementation adds them.
+	 * 
+	 * @param message1
+	 *            the first message
+	 * @param message2
+	 *            the second message
+	 * @return the combined message
+	 */
+	default double combine(double message1, double message2) {
+		return message1 + message2;
+	}
+
+	/**
+	 * Returns the message a vertex sends along each of its outgoing edges.
+	 * 
+	 * @param vertex
+	 *            the index of the vertex
+	 * @param value
+	 *            the value of the vertex in the previous superstep
+	 * @param outDegree
+	 *            the number of edges leaving the vertex
+	 * @return the message sent to every out-neighbor
+	 */
+	double gather(int vertex, double value, int outDegree);
+
+	/**
+	 * Returns the identity of combine(...), which a vertex gathers when no
+	 * edges enter it. The default implementation returns 0.
+	 * 
+	 * @return the identity of combine(...)
+	 */
+	default double getIdentity() {
+		return 0;
+	}
+
+	/**
+	 * Returns the value of a vertex before the first superstep.
+	 * 
+	 * @param vertex
+	 *            the index of the vertex
+	 * @return the initial value of the vertex
+	 */
+	double getInitialValue(int vertex);
+
+}
@@ -0,0 +1,115 @@
+package com.rawva.algorithms.graphs;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.rawva.structures.graphs.CsrGraph;
+
+/**
+ * The result of running a VertexProgram: the final value of every element
+ * (vertex) and how the run ended. <br/>
+ * <br/>
+ * Values are kept in an array indexed like the vertices of the CsrGraph the
+ * program ran on, so that large results can be read without boxing.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graph
+ */
+public final class VertexValues<V> {
+
+	private final CsrGraph<V, ?> graph;
+	private final double[] values;
+	private final int numberOfSupersteps;
+	private final boolean hasConverged;
+
+	/**
+	 * Constructs a result from the final state of a run. The array is not
+	 * copied.
+	 * 
+	 * @param graph
+	 *            the graph the program ran on
+	 * @param values
+	 *            the value of each vertex
+	 * @param numberOfSupersteps
+	 *            the number of supersteps that were run
+	 * @param hasConverged
+	 *            value to specify if the run stopped because the values
+	 *            converged
+	 */
+	VertexValues(CsrGraph<V, ?> graph, double[] values, int numberOfSupersteps, boolean hasConverged) {
+		this.graph = graph;
+		this.values = values;
+		this.numberOfSupersteps = numberOfSupersteps;
+		this.hasConverged = hasConverged;
+	}
+
+	/**
+	 * Returns the snapshot of the graph the program ran on. Its vertex indices
+	 * are the indices of the array returned by getValueArray().
+	 * 
+	 * @return the snapshot of the graph
+	 */
+	public CsrGraph<V, ?> getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the number of supersteps that were run.
+	 * 
+	 * @return the number of supersteps
+	 */
+	public int getNumberOfSupersteps() {
+		return numberOfSupersteps;
+	}
+
+	/**
+	 * Returns the final value of the specified element, or NaN if it is not in
+	 * the graph.
+	 * 
+	 * @param elem
+	 *            the element whose value we want
+	 * @return the value of the element, or NaN if it is not in the graph
+	 */
+	public double getValue(V elem) {
+		int index = graph.getVertexIndex(elem);
+		return index < 0 ? Double.NaN : values[index];
+	}
+
+	/**
+	 * Returns the final values of all elements, indexed like the vertices of
+	 * the graph returned by getGraph(). The array is not copied.
+	 * 
+	 * @return the values of all elements
+	 */
+	public double[] getValueArray() {
+		return values;
+	}
+
+	/**
+	 * Returns a map from every element to its final value, in the order of the
+	 * vertices of the graph.
+	 * 
+	 * @return the values of all elements
+	 */
+	public Map<V, Double> getValues() {
+		Map<V, Double> map = new LinkedHashMap<>((int) (values.length / 0.75f) + 1);
+		for (int i = 0; i < values.length; i++) {
+			map.put(graph.getVertexAt(i), values[i]);
+		}
+		return map;
+	}
+
+	/**
+	 * Returns true if the run stopped because the values changed by no more
+	 * than the tolerance in the last superstep, and false if it stopped after
+	 * the maximum number of supersteps.
+	 * 
+	 * @return true if the values converged, else false
+	 */
+	public boolean hasConverged() {
+		return hasConverged;
+	}
+
+}
@@ -0,0 +1,531 @@
+package com.rawva.structures.graphs;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * This is a thread-safe implementation for a weighted graph that provides
+ * quick lookup time for both elements (vertices) and edges. <br/>
+ * <br/>
+ * Each vertex maps its neighbors to the weights of the edges leading to them
+ * in a ConcurrentHashMap, so lookups never block and threads adding edges to
+ * different vertices do not contend with each other. Changes to edges are
+ * guarded by a fixed set of striped locks, chosen by the endpoints of the edge,
+ * so that the two entries of an undirected edge are always updated together.
+ * <br/>
+ * <br/>
+ * Null elements are not permitted. Edge weights are allowed to be null.
+ * Duplicate elements cannot be added. Duplicate edges cannot be added. The sets
+ * returned by getAdjacentElements and getVertices are unmodifiable views whose
+ * iterators are weakly consistent: they never throw a
+ * ConcurrentModificationException and may or may not reflect changes made
+ * after they were created.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in this graph
+ * @param <W>
+ *            the type of edge weights in this graph
+ */
+public class ConcurrentWeightedHashGraph<V, W> implements WeightedGraph<V, W> {
+
+	private static final Object NULL_WEIGHT = new Object();
+
+	private final boolean isDirected;
+	private final ConcurrentMap<V, ConcurrentMap<V, Object>> vertexNeighbors;
+	private final LongAdder numberOfEdges;
+	private final ReentrantLock[] locks;
+
+	/**
+	 * Constructs an empty ConcurrentWeightedHashGraph.
+	 * 
+	 * @param isDirected
+	 *            value to specify if this graph is directed (true) or
+	 *            undirected (false)
+	 */
+	public ConcurrentWeightedHashGraph(boolean isDirected) {
+		this.isDirected = isDirected;
+		this.vertexNeighbors = new ConcurrentHashMap<>();
+		this.numberOfEdges = new LongAdder();
+		int numberOfLocks = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 8 - 1) << 1;
+		this.locks = new ReentrantLock[numberOfLocks];
+		for (int i = 0; i < locks.length; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Constructs an empty, directed ConcurrentWeightedHashGraph.
+	 */
+	public ConcurrentWeightedHashGraph() {
+		this(true);
+	}
+
+	/**
+	 * Returns the value under which the specified weight is stored. A
+	 * ConcurrentHashMap cannot hold null values, so null weights are replaced
+	 * with a placeholder.
+	 * 
+	 * @param weight
+	 *            the weight to store
+	 * @return the value to store for the weight
+	 */
+	private static Object mask(Object weight) {
+		return weight == null ? NULL_WEIGHT : weight;
+	}
+
+	/**
+	 * Returns the weight that the specified stored value stands for.
+	 * 
+	 * @param value
+	 *            the stored value
+	 * @return the weight that the value stands for
+	 */
+	@SuppressWarnings("unchecked")
+	private static <W> W unmask(Object value) {
+		return value == NULL_WEIGHT ? null : (W) value;
+	}
+
+	/**
+	 * Adds an edge from the specified tail element to the specified head
+	 * element if the edge does not already exist. Returns true if the edge was
+	 * added to this graph after this call. If the edge specified by the tail
+	 * and head elements already exists, then false is returned. <br/>
+	 * <br/>
+	 * In order to add an edge between two elements, it is required that the two
+	 * elements have already been added to this graph. If the specified elements
+	 * are not in this graph, then no edge is added and false is returned.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return true if the edge was added to this graph, else false
+	 * @throws NullPointerException
+	 *             if one or both of the specified elements are null
+	 */
+	@Override
+	public boolean addEdge(V tail, V head) {
+		return addEdge(tail, head, null);
+	}
+
+	/**
+	 * Adds an edge with the specified weight from the specified tail element to
+	 * the specified head element if the edge does not already exist. Returns
+	 * true if the edge was added to this graph after this call. If the edge
+	 * specified by the tail and head elements already exists, then false is
+	 * returned. <br/>
+	 * <br/>
+	 * In order to add an edge between two elements, it is required that the two
+	 * elements have already been added to this graph. If the specified elements
+	 * are not in this graph, then no edge is added and false is returned.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge
+	 * @return true if the edge was added to this graph, else false
+	 * @throws NullPointerException
+	 *             if one or both of the specified elements are null
+	 */
+	@Override
+	public boolean addEdge(V tail, V head, W weight) {
+		if (tail == null || head == null) {
+			throw new NullPointerException("Vertices cannot be null");
+		}
+
+		ConcurrentMap<V, Object> tailNeighbors = vertexNeighbors.get(tail);
+		ConcurrentMap<V, Object> headNeighbors = vertexNeighbors.get(head);
+		if (tailNeighbors == null || headNeighbors == null) {
+			return false;
+		}
+		ReentrantLock lock = lockFor(tail, head);
+		lock.lock();
+		try {
+			if (!isCurrent(tail, tailNeighbors) || !isCurrent(head, headNeighbors)) {
+				return false;
+			}
+			if (tailNeighbors.putIfAbsent(head, mask(weight)) != null) {
+				return false;
+			}
+			if (!isDirected) {
+				headNeighbors.put(tail, mask(weight));
+			}
+			numberOfEdges.increment();
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Adds the specified element to this graph as a vertex. Returns true if the
+	 * element was successfully added to this graph after this call. <br/>
+	 * <br/>
+	 * Duplicate elements cannot be inserted. If this call is made with an
+	 * element that is already present in this graph, false is returned.
+	 * 
+	 * @param elem
+	 *            the element to add
+	 * @return true if the element was added to this graph after this call, else
+	 *         false
+	 * @throws NullPointerException
+	 *             if the specified element is null
+	 */
+	@Override
+	public boolean addVertex(V elem) {
+		if (elem == null) {
+			throw new NullPointerException("Vertices cannot be null");
+		}
+
+		if (vertexNeighbors.containsKey(elem)) {
+			return false;
+		}
+		return vertexNeighbors.putIfAbsent(elem, new ConcurrentHashMap<>()) == null;
+	}
+
+	/**
+	 * Removes all of the elements from this graph. This graph will be empty
+	 * after this method returns, unless elements are added by other threads
+	 * while it runs.
+	 */
+	@Override
+	public void clear() {
+		for (ReentrantLock lock : locks) {
+			lock.lock();
+		}
+		try {
+			vertexNeighbors.clear();
+			numberOfEdges.reset();
+		} finally {
+			for (ReentrantLock lock : locks) {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Returns true if this graph contains an edge from tail to head. Returns
+	 * false otherwise. <br/>
+	 * <br/>
+	 * If this graph is undirected, the order of the arguments does not matter,
+	 * i.e, containsEdge(tail, head) == containsEdge(head, tail).
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @param head
+	 *            the head vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @return true if this graph contains an edge from tail to head, else false
+	 */
+	@Override
+	public boolean containsEdge(V tail, V head) {
+		ConcurrentMap<V, Object> tailNeighbors = tail == null ? null : vertexNeighbors.get(tail);
+		return tailNeighbors != null && head != null && tailNeighbors.containsKey(head);
+	}
+
+	/**
+	 * Returns true if this graph contains the specified element. Returns false
+	 * otherwise.
+	 * 
+	 * @param elem
+	 *            the element whose presence in this graph is to be tested
+	 * @return true if this graph contains the specified element, else false
+	 */
+	@Override
+	public boolean containsVertex(V elem) {
+		return elem != null && vertexNeighbors.containsKey(elem);
+	}
+
+	/**
+	 * Performs the specified action on the head and weight of every edge
+	 * leaving the specified tail element. Nothing is done if the element is not
+	 * in this graph. The action must not modify this graph. <br/>
+	 * <br/>
+	 * The traversal is weakly consistent: edges added or removed by other
+	 * threads while it runs may or may not be visited.
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edges to visit
+	 * @param action
+	 *            the action to perform on the head and weight of each edge
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	@Override
+	public void forEachEdge(V tail, BiConsumer<? super V, ? super W> action) {
+		if (action == null) {
+			throw new NullPointerException("Action cannot be null");
+		}
+
+		ConcurrentMap<V, Object> neighbors = tail == null ? null : vertexNeighbors.get(tail);
+		if (neighbors != null) {
+			neighbors.forEach((head, weight) -> action.accept(head, unmask(weight)));
+		}
+	}
+
+	/**
+	 * Returns an unmodifiable, weakly consistent view of the elements that are
+	 * adjacent to this element, or null if this element is not in this graph.
+	 * If this element does not have any outgoing edges, an empty set is
+	 * returned.
+	 * 
+	 * @param elem
+	 *            the element whose neighbors we want
+	 * @return a set of elements that are adjacent to this element
+	 */
+	@Override
+	public Set<V> getAdjacentElements(V elem) {
+		ConcurrentMap<V, Object> neighbors = elem == null ? null : vertexNeighbors.get(elem);
+		return neighbors == null ? null : Collections.unmodifiableSet(neighbors.keySet());
+	}
+
+	/**
+	 * Returns the number of edges in this graph. If edges are being added
+	 * concurrently, the returned count may or may not include them.
+	 * 
+	 * @return the number of edges in this graph
+	 */
+	@Override
+	public int getNumberOfEdges() {
+		return (int) numberOfEdges.sum();
+	}
+
+	/**
+	 * Returns the number of elements (vertices) in this graph.
+	 * 
+	 * @return the number of elements in this graph
+	 */
+	@Override
+	public int getNumberOfVertices() {
+		return vertexNeighbors.size();
+	}
+
+	/**
+	 * Returns an unmodifiable, weakly consistent view of the elements
+	 * (vertices) in this graph.
+	 * 
+	 * @return the set of elements (vertices) in this graph
+	 */
+	@Override
+	public Set<V> getVertices() {
+		return Collections.unmodifiableSet(vertexNeighbors.keySet());
+	}
+
+	/**
+	 * Returns the weight of the edge from tail to head if the edge exists and
+	 * has an associated weight, or null otherwise. A null return may also
+	 * indicate that the weight of the edge was set to null.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return the weight of the edge from tail to head
+	 */
+	@Override
+	public W getWeight(V tail, V head) {
+		ConcurrentMap<V, Object> tailNeighbors = tail == null ? null : vertexNeighbors.get(tail);
+		return tailNeighbors == null || head == null ? null : unmask(tailNeighbors.get(head));
+	}
+
+	/**
+	 * Returns true if this graph is directed, or false if it is undirected.
+	 * 
+	 * @return true if this graph is directed, else false
+	 */
+	@Override
+	public boolean isDirected() {
+		return isDirected;
+	}
+
+	/**
+	 * Returns true if this graph contains no elements (i.e., number of vertices
+	 * is 0).
+	 * 
+	 * @return true if this graph contains no elements, else false
+	 */
+	@Override
+	public boolean isEmpty() {
+		return vertexNeighbors.isEmpty();
+	}
+
+	/**
+	 * Returns true if the specified neighbor map is still the one this graph
+	 * holds for the specified element, i.e., the element has not been removed
+	 * since the map was looked up. Must be called while holding the lock for an
+	 * edge of the element.
+	 * 
+	 * @param elem
+	 *            the element
+	 * @param neighbors
+	 *            the neighbor map that was looked up for the element
+	 * @return true if the neighbor map is still current, else false
+	 */
+	private boolean isCurrent(V elem, ConcurrentMap<V, Object> neighbors) {
+		return vertexNeighbors.get(elem) == neighbors;
+	}
+
+	/**
+	 * Returns the lock that guards the edge between the specified elements. The
+	 * same lock is returned regardless of the order of the elements.
+	 * 
+	 * @param e1
+	 *            one of the endpoints of the edge
+	 * @param e2
+	 *            the other endpoint of the edge
+	 * @return the lock that guards the edge
+	 */
+	private ReentrantLock lockFor(V e1, V e2) {
+		int hash = (e1.hashCode() + e2.hashCode()) * 0x9E3779B9;
+		return locks[(hash ^ (hash >>> 16)) & (locks.length - 1)];
+	}
+
+	/**
+	 * Removes the edge from tail to head from this graph. Returns true if the
+	 * edge was in this graph before this call. The elements themselves are not
+	 * removed. <br/>
+	 * <br/>
+	 * If this graph is undirected, the order of the arguments does not matter.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return true if the edge was removed from this graph, else false
+	 */
+	@Override
+	public boolean removeEdge(V tail, V head) {
+		if (tail == null || head == null) {
+			return false;
+		}
+		ConcurrentMap<V, Object> tailNeighbors = vertexNeighbors.get(tail);
+		ConcurrentMap<V, Object> headNeighbors = vertexNeighbors.get(head);
+		if (tailNeighbors == null || headNeighbors == null) {
+			return false;
+		}
+		ReentrantLock lock = lockFor(tail, head);
+		lock.lock();
+		try {
+			if (!isCurrent(tail, tailNeighbors) || !isCurrent(head, headNeighbors)
+					|| tailNeighbors.remove(head) == null) {
+				return false;
+			}
+			if (!isDirected) {
+				headNeighbors.remove(tail);
+			}
+			numberOfEdges.decrement();
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the specified element from this graph, together with every edge
+	 * that starts or ends at it. Returns true if the element was in this graph
+	 * before this call. <br/>
+	 * <br/>
+	 * Like clear, this holds every lock while it runs, so it blocks all other
+	 * changes to this graph but never blocks readers. In an undirected graph it
+	 * takes time proportional to the degree of the element; in a directed
+	 * graph, which keeps no index of incoming edges, every other element is
+	 * checked for an edge to it.
+	 * 
+	 * @param elem
+	 *            the element to remove
+	 * @return true if the element was removed from this graph, else false
+	 */
+	@Override
+	public boolean removeVertex(V elem) {
+		if (elem == null || !vertexNeighbors.containsKey(elem)) {
+			return false;
+		}
+		for (ReentrantLock lock : locks) {
+			lock.lock();
+		}
+		try {
+			ConcurrentMap<V, Object> neighbors = vertexNeighbors.remove(elem);
+			if (neighbors == null) {
+				return false;
+			}
+			long removed = neighbors.size();
+			if (isDirected) {
+				for (ConcurrentMap<V, Object> tailNeighbors : vertexNeighbors.values()) {
+					if (tailNeighbors.remove(elem) != null) {
+						removed++;
+					}
+				}
+			} else {
+				for (V head : neighbors.keySet()) {
+					ConcurrentMap<V, Object> headNeighbors = vertexNeighbors.get(head);
+					if (headNeighbors != null) {
+						headNeighbors.remove(elem);
+					}
+				}
+			}
+			numberOfEdges.add(-removed);
+			return true;
+		} finally {
+			for (ReentrantLock lock : locks) {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Sets the weight of the edge from tail to head to the specified weight.
+	 * Returns the previous weight of the edge if the edge weight was previously
+	 * set, or null otherwise. A null return may also indicate that the weight
+	 * of the edge was set to null. <br/>
+	 * <br/>
+	 * If one or both of the specified elements are not in this graph or if an
+	 * edge from tail to head does not exist, then null is returned.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge to set
+	 * @return the previous weight of the edge
+	 */
+	@Override
+	public W setWeight(V tail, V head, W weight) {
+		if (tail == null || head == null) {
+			return null;
+		}
+		ConcurrentMap<V, Object> tailNeighbors = vertexNeighbors.get(tail);
+		ConcurrentMap<V, Object> headNeighbors = vertexNeighbors.get(head);
+		if (tailNeighbors == null || headNeighbors == null) {
+			return null;
+		}
+		ReentrantLock lock = lockFor(tail, head);
+		lock.lock();
+		try {
+			if (!isCurrent(tail, tailNeighbors) || !isCurrent(head, headNeighbors)) {
+				return null;
+			}
+			Object previous = tailNeighbors.replace(head, mask(weight));
+			if (previous == null) {
+				return null;
+			}
+			if (!isDirected) {
+				headNeighbors.put(tail, mask(weight));
+			}
+			return unmask(previous);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+}
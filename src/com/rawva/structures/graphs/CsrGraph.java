@@ -0,0 +1,704 @@
+package com.rawva.structures.graphs;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * This is an immutable implementation for a weighted graph that stores its
+ * edges in compressed sparse row (CSR) form. <br/>
+ * <br/>
+ * Every element (vertex) is assigned an index from 0 to n - 1, where n is the
+ * number of vertices. The edges leaving the vertex with index i occupy the
+ * positions getEdgeStart(i) (inclusive) to getEdgeEnd(i) (exclusive) of two
+ * flat arrays, one holding the index of the head of each edge and the other
+ * holding its weight. The edges of each vertex are sorted by the index of
+ * their heads. In an undirected graph, an edge between two distinct elements
+ * is stored once for each of them. <br/>
+ * <br/>
+ * Because it cannot change, a CsrGraph may be safely shared between threads.
+ * All methods that would modify it throw an UnsupportedOperationException.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in this graph
+ * @param <W>
+ *            the type of edge weights in this graph
+ */
+public class CsrGraph<V, W> implements WeightedGraph<V, W> {
+
+	private final boolean isDirected;
+	private final Object[] vertices;
+	private final Map<V, Integer> vertexIndices;
+	private final int[] edgeOffsets;
+	private final int[] heads;
+	private final Object[] weights;
+	private final int numberOfEdges;
+
+	/**
+	 * Constructs a CsrGraph containing the same elements and edges as the
+	 * specified graph. Every edge of the constructed graph has a null weight.
+	 * 
+	 * @param graph
+	 *            the graph to copy
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 */
+	public CsrGraph(Graph<V> graph) {
+		this(graph, false);
+	}
+
+	/**
+	 * Constructs a CsrGraph containing the same elements, edges and edge
+	 * weights as the specified graph.
+	 * 
+	 * @param graph
+	 *            the graph to copy
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 */
+	public CsrGraph(WeightedGraph<V, W> graph) {
+		this(graph, true);
+	}
+
+	/**
+	 * Constructs a CsrGraph containing the same elements and edges as the
+	 * specified graph, copying edge weights only if requested.
+	 * 
+	 * @param graph
+	 *            the graph to copy
+	 * @param copyWeights
+	 *            value to specify if the graph is a weighted graph whose
+	 *            weights should be copied
+	 * @throws NullPointerException
+	 *             if the specified graph is null
+	 */
+	@SuppressWarnings("unchecked")
+	private CsrGraph(Graph<V> graph, boolean copyWeights) {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+
+		int numberOfVertices = graph.getNumberOfVertices();
+		this.isDirected = graph.isDirected();
+		this.vertices = new Object[numberOfVertices];
+		this.vertexIndices = new HashMap<>((int) (numberOfVertices / 0.75f) + 1);
+		int index = 0;
+		for (V vertex : graph.getVertices()) {
+			vertices[index] = vertex;
+			vertexIndices.put(vertex, index);
+			index++;
+		}
+
+		this.edgeOffsets = new int[numberOfVertices + 1];
+		for (int i = 0; i < numberOfVertices; i++) {
+			edgeOffsets[i + 1] = edgeOffsets[i] + graph.getAdjacentElements((V) vertices[i]).size();
+		}
+
+		this.heads = new int[edgeOffsets[numberOfVertices]];
+		this.weights = new Object[heads.length];
+		if (copyWeights) {
+			// Edges are copied in the order the graph visits them, one vertex
+			// after another, which is the order of the offsets
+			int[] position = new int[1];
+			BiConsumer<V, W> copyEdge = (head, weight) -> {
+				heads[position[0]] = vertexIndices.get(head);
+				weights[position[0]++] = weight;
+			};
+			WeightedGraph<V, W> weightedGraph = (WeightedGraph<V, W>) graph;
+			for (int i = 0; i < numberOfVertices; i++) {
+				weightedGraph.forEachEdge((V) vertices[i], copyEdge);
+			}
+		} else {
+			for (int i = 0; i < numberOfVertices; i++) {
+				int position = edgeOffsets[i];
+				for (V head : graph.getAdjacentElements((V) vertices[i])) {
+					heads[position++] = vertexIndices.get(head);
+				}
+			}
+		}
+		sortEdges();
+
+		this.numberOfEdges = graph.getNumberOfEdges();
+	}
+
+	/**
+	 * Constructs a CsrGraph from arrays that are already in CSR form. The
+	 * arrays are not copied.
+	 */
+	private CsrGraph(boolean isDirected, Object[] vertices, Map<V, Integer> vertexIndices, int[] edgeOffsets,
+			int[] heads, Object[] weights, int numberOfEdges) {
+		this.isDirected = isDirected;
+		this.vertices = vertices;
+		this.vertexIndices = vertexIndices;
+		this.edgeOffsets = edgeOffsets;
+		this.heads = heads;
+		this.weights = weights;
+		this.numberOfEdges = numberOfEdges;
+	}
+
+	/**
+	 * Sorts the edges of every vertex by the index of their heads, keeping each
+	 * weight next to its edge.
+	 */
+	private void sortEdges() {
+		int maxDegree = 0;
+		for (int i = 0; i < vertices.length; i++) {
+			maxDegree = Math.max(maxDegree, edgeOffsets[i + 1] - edgeOffsets[i]);
+		}
+
+		long[] keys = new long[maxDegree];
+		Object[] sortedWeights = new Object[maxDegree];
+		for (int i = 0; i < vertices.length; i++) {
+			int start = edgeOffsets[i];
+			int degree = edgeOffsets[i + 1] - start;
+			for (int k = 0; k < degree; k++) {
+				keys[k] = ((long) heads[start + k] << 32) | k;
+			}
+			Arrays.sort(keys, 0, degree);
+			for (int k = 0; k < degree; k++) {
+				sortedWeights[k] = weights[start + (int) keys[k]];
+			}
+			for (int k = 0; k < degree; k++) {
+				heads[start + k] = (int) (keys[k] >>> 32);
+				weights[start + k] = sortedWeights[k];
+				sortedWeights[k] = null;
+			}
+		}
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a CsrGraph cannot
+	 * be modified.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return never returns normally
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public boolean addEdge(V tail, V head) {
+		throw new UnsupportedOperationException("CsrGraph cannot be modified");
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a CsrGraph cannot
+	 * be modified.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge
+	 * @return never returns normally
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public boolean addEdge(V tail, V head, W weight) {
+		throw new UnsupportedOperationException("CsrGraph cannot be modified");
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a CsrGraph cannot
+	 * be modified.
+	 * 
+	 * @param elem
+	 *            the element to add
+	 * @return never returns normally
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public boolean addVertex(V elem) {
+		throw new UnsupportedOperationException("CsrGraph cannot be modified");
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a CsrGraph cannot
+	 * be modified.
+	 * 
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("CsrGraph cannot be modified");
+	}
+
+	/**
+	 * Returns true if this graph contains an edge from tail to head. Returns
+	 * false otherwise. <br/>
+	 * <br/>
+	 * If this graph is undirected, the order of the arguments does not matter,
+	 * i.e, containsEdge(tail, head) == containsEdge(head, tail).
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @param head
+	 *            the head vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @return true if this graph contains an edge from tail to head, else false
+	 */
+	@Override
+	public boolean containsEdge(V tail, V head) {
+		return findEdge(tail, head) >= 0;
+	}
+
+	/**
+	 * Returns true if this graph contains the specified element. Returns false
+	 * otherwise.
+	 * 
+	 * @param elem
+	 *            the element whose presence in this graph is to be tested
+	 * @return true if this graph contains the specified element, else false
+	 */
+	@Override
+	public boolean containsVertex(V elem) {
+		return vertexIndices.containsKey(elem);
+	}
+
+	/**
+	 * Returns the position of the edge from tail to head in the edge arrays of
+	 * this graph, or a negative number if there is no such edge.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return the position of the edge from tail to head, or a negative number
+	 *         if this graph does not contain the edge
+	 */
+	private int findEdge(V tail, V head) {
+		int tailIndex = getVertexIndex(tail);
+		int headIndex = getVertexIndex(head);
+		if (tailIndex < 0 || headIndex < 0) {
+			return -1;
+		}
+		return Arrays.binarySearch(heads, edgeOffsets[tailIndex], edgeOffsets[tailIndex + 1], headIndex);
+	}
+
+	/**
+	 * Performs the specified action on the head and weight of every edge
+	 * leaving the specified tail element, in the order of their positions.
+	 * Nothing is done if the element is not in this graph.
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edges to visit
+	 * @param action
+	 *            the action to perform on the head and weight of each edge
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEachEdge(V tail, BiConsumer<? super V, ? super W> action) {
+		if (action == null) {
+			throw new NullPointerException("Action cannot be null");
+		}
+
+		int index = getVertexIndex(tail);
+		if (index < 0) {
+			return;
+		}
+		for (int position = edgeOffsets[index], end = edgeOffsets[index + 1]; position < end; position++) {
+			action.accept((V) vertices[heads[position]], (W) weights[position]);
+		}
+	}
+
+	/**
+	 * Returns an unmodifiable set containing all elements that are adjacent to
+	 * this element, or null if this element is not in this graph. If this
+	 * element does not have any outgoing edges, an empty set is returned.
+	 * 
+	 * @param elem
+	 *            the element whose neighbors we want
+	 * @return a set of elements that are adjacent to this element
+	 */
+	@Override
+	public Set<V> getAdjacentElements(V elem) {
+		int index = getVertexIndex(elem);
+		return index < 0 ? null : new NeighborSet(index);
+	}
+
+	/**
+	 * Returns the position just past the last edge leaving the vertex with the
+	 * specified index.
+	 * 
+	 * @param index
+	 *            the index of the tail vertex
+	 * @return the position just past the last edge leaving the vertex
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range (index < 0 || index >=
+	 *             getNumberOfVertices())
+	 */
+	public int getEdgeEnd(int index) {
+		checkVertexIndex(index);
+		return edgeOffsets[index + 1];
+	}
+
+	/**
+	 * Returns the position of the first edge leaving the vertex with the
+	 * specified index. If the vertex has no outgoing edges, this is equal to
+	 * getEdgeEnd(index).
+	 * 
+	 * @param index
+	 *            the index of the tail vertex
+	 * @return the position of the first edge leaving the vertex
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range (index < 0 || index >=
+	 *             getNumberOfVertices())
+	 */
+	public int getEdgeStart(int index) {
+		checkVertexIndex(index);
+		return edgeOffsets[index];
+	}
+
+	/**
+	 * Returns the index of the head of the edge at the specified position.
+	 * 
+	 * @param position
+	 *            the position of the edge
+	 * @return the index of the head of the edge
+	 * @throws IndexOutOfBoundsException
+	 *             if the position is out of range (position < 0 || position >=
+	 *             getNumberOfStoredEdges())
+	 */
+	public int getHeadIndexAt(int position) {
+		return heads[position];
+	}
+
+	/**
+	 * Returns the number of edges in this graph.
+	 * 
+	 * @return the number of edges in this graph
+	 */
+	@Override
+	public int getNumberOfEdges() {
+		return numberOfEdges;
+	}
+
+	/**
+	 * Returns the number of positions in the edge arrays of this graph. This is
+	 * equal to getNumberOfEdges() for a directed graph. For an undirected
+	 * graph, every edge that is not a loop is stored twice.
+	 * 
+	 * @return the number of positions in the edge arrays of this graph
+	 */
+	public int getNumberOfStoredEdges() {
+		return heads.length;
+	}
+
+	/**
+	 * Returns the number of elements (vertices) in this graph.
+	 * 
+	 * @return the number of elements in this graph
+	 */
+	@Override
+	public int getNumberOfVertices() {
+		return vertices.length;
+	}
+
+	/**
+	 * Returns the element with the specified index.
+	 * 
+	 * @param index
+	 *            the index of the element
+	 * @return the element with the specified index
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range (index < 0 || index >=
+	 *             getNumberOfVertices())
+	 */
+	@SuppressWarnings("unchecked")
+	public V getVertexAt(int index) {
+		return (V) vertices[index];
+	}
+
+	/**
+	 * Returns the index of the specified element, or -1 if the element is not
+	 * in this graph.
+	 * 
+	 * @param elem
+	 *            the element whose index we want
+	 * @return the index of the specified element, or -1 if it is not in this
+	 *         graph
+	 */
+	public int getVertexIndex(V elem) {
+		Integer index = vertexIndices.get(elem);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Returns an unmodifiable set of the elements (vertices) in this graph. The
+	 * elements are iterated over in order of their indices.
+	 * 
+	 * @return the set of elements (vertices) in this graph
+	 */
+	@Override
+	public Set<V> getVertices() {
+		return new VertexSet();
+	}
+
+	/**
+	 * Returns the weight of the edge from tail to head if the edge exists and
+	 * has an associated weight, or null otherwise. A null return may also
+	 * indicate that the weight of the edge was null.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return the weight of the edge from tail to head
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public W getWeight(V tail, V head) {
+		int position = findEdge(tail, head);
+		return position < 0 ? null : (W) weights[position];
+	}
+
+	/**
+	 * Returns the weight of the edge at the specified position.
+	 * 
+	 * @param position
+	 *            the position of the edge
+	 * @return the weight of the edge
+	 * @throws IndexOutOfBoundsException
+	 *             if the position is out of range (position < 0 || position >=
+	 *             getNumberOfStoredEdges())
+	 */
+	@SuppressWarnings("unchecked")
+	public W getWeightAt(int position) {
+		return (W) weights[position];
+	}
+
+	/**
+	 * Returns true if this graph is directed, or false if it is undirected.
+	 * 
+	 * @return true if this graph is directed, else false
+	 */
+	@Override
+	public boolean isDirected() {
+		return isDirected;
+	}
+
+	/**
+	 * Returns true if this graph contains no elements (i.e., number of vertices
+	 * is 0).
+	 * 
+	 * @return true if this graph contains no elements, else false
+	 */
+	@Override
+	public boolean isEmpty() {
+		return vertices.length == 0;
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a CsrGraph cannot
+	 * be modified.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return never returns normally
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public boolean removeEdge(V tail, V head) {
+		throw new UnsupportedOperationException("CsrGraph cannot be modified");
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a CsrGraph cannot
+	 * be modified.
+	 * 
+	 * @param elem
+	 *            the element to remove
+	 * @return never returns normally
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public boolean removeVertex(V elem) {
+		throw new UnsupportedOperationException("CsrGraph cannot be modified");
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a CsrGraph cannot
+	 * be modified.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge to set
+	 * @return never returns normally
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public W setWeight(V tail, V head, W weight) {
+		throw new UnsupportedOperationException("CsrGraph cannot be modified");
+	}
+
+	/**
+	 * Returns a graph with the same elements as this graph and every edge
+	 * reversed: for each edge from tail to head with some weight, the returned
+	 * graph has an edge from head to tail with the same weight. Elements keep
+	 * their indices. If this graph is undirected, it is its own transpose and
+	 * is returned. <br/>
+	 * <br/>
+	 * The edges leaving a vertex of the transpose are the edges entering it in
+	 * this graph, which is what algorithms that walk edges backwards (e.g., a
+	 * backward search from a target) need.
+	 * 
+	 * @return the transpose of this graph
+	 */
+	public CsrGraph<V, W> transpose() {
+		if (!isDirected) {
+			return this;
+		}
+
+		int numberOfVertices = vertices.length;
+		int[] reversedOffsets = new int[numberOfVertices + 1];
+		for (int head : heads) {
+			reversedOffsets[head + 1]++;
+		}
+		for (int i = 0; i < numberOfVertices; i++) {
+			reversedOffsets[i + 1] += reversedOffsets[i];
+		}
+
+		// Tails are visited in increasing order, so the reversed edges of each
+		// vertex come out sorted by the index of their heads
+		int[] next = Arrays.copyOf(reversedOffsets, numberOfVertices);
+		int[] reversedHeads = new int[heads.length];
+		Object[] reversedWeights = new Object[weights.length];
+		for (int tail = 0; tail < numberOfVertices; tail++) {
+			for (int position = edgeOffsets[tail]; position < edgeOffsets[tail + 1]; position++) {
+				int reversedPosition = next[heads[position]]++;
+				reversedHeads[reversedPosition] = tail;
+				reversedWeights[reversedPosition] = weights[position];
+			}
+		}
+		return new CsrGraph<>(true, vertices, vertexIndices, reversedOffsets, reversedHeads, reversedWeights,
+				numberOfEdges);
+	}
+
+	/**
+	 * Throws an IndexOutOfBoundsException if the specified vertex index is out
+	 * of range.
+	 * 
+	 * @param index
+	 *            the vertex index to check
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range (index < 0 || index >=
+	 *             getNumberOfVertices())
+	 */
+	private void checkVertexIndex(int index) {
+		if (index < 0 || index >= vertices.length) {
+			throw new IndexOutOfBoundsException("Vertex index out of range: " + index);
+		}
+	}
+
+	/**
+	 * An unmodifiable view of the neighbors of one vertex.
+	 */
+	private class NeighborSet extends AbstractSet<V> {
+
+		private final int start;
+		private final int end;
+
+		private NeighborSet(int index) {
+			this.start = edgeOffsets[index];
+			this.end = edgeOffsets[index + 1];
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			Integer index = vertexIndices.get(o);
+			return index != null && Arrays.binarySearch(heads, start, end, index) >= 0;
+		}
+
+		@Override
+		public Iterator<V> iterator() {
+			return new Iterator<V>() {
+
+				private int position = start;
+
+				@Override
+				public boolean hasNext() {
+					return position < end;
+				}
+
+				@Override
+				public V next() {
+					if (position >= end) {
+						throw new NoSuchElementException();
+					}
+					return getVertexAt(heads[position++]);
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			return end - start;
+		}
+
+	}
+
+	/**
+	 * An unmodifiable view of the vertices of this graph.
+	 */
+	private class VertexSet extends AbstractSet<V> {
+
+		@Override
+		public boolean contains(Object o) {
+			return vertexIndices.containsKey(o);
+		}
+
+		@Override
+		public Iterator<V> iterator() {
+			return new Iterator<V>() {
+
+				private int index = 0;
+
+				@Override
+				public boolean hasNext() {
+					return index < vertices.length;
+				}
+
+				@Override
+				public V next() {
+					if (index >= vertices.length) {
+						throw new NoSuchElementException();
+					}
+					return getVertexAt(index++);
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			return vertices.length;
+		}
+
+	}
+
+}
@@ -156,6 +156,15 @@ public interface Graph<V> {
 	 */
 	Set<V> getVertices();
 
+	/**
+	 * Returns true if the edges of this graph are directed. Returns false if
+	 * they are undirected, in which case an edge from o1 to o2 is also an edge
+	 * from o2 to o1.
+	 * 
+	 * @return true if this graph is directed, else false
+	 */
+	boolean isDirected();
+
 	/**
 	 * Returns true if this graph contains no elements (i.e., number of vertices
 	 * is 0).
@@ -164,4 +173,32 @@ public interface Graph<V> {
 	 */
 	boolean isEmpty();
 
+	/**
+	 * Removes the edge from tail to head from this graph. Returns true if the
+	 * edge was in this graph before this call. The elements themselves are not
+	 * removed.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return true if the edge was removed from this graph, else false
+	 * @throws UnsupportedOperationException
+	 *             if this graph cannot be modified
+	 */
+	boolean removeEdge(V tail, V head);
+
+	/**
+	 * Removes the specified element from this graph, together with every edge
+	 * that starts or ends at it. Returns true if the element was in this graph
+	 * before this call.
+	 * 
+	 * @param elem
+	 *            the element to remove
+	 * @return true if the element was removed from this graph, else false
+	 * @throws UnsupportedOperationException
+	 *             if this graph cannot be modified
+	 */
+	boolean removeVertex(V elem);
+
 }
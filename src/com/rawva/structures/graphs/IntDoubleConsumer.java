@@ -0,0 +1,24 @@
+package com.rawva.structures.graphs;
+
+/**
+ * Represents an operation that accepts an int and a double and returns no
+ * result. This is the primitive specialization of
+ * {@link java.util.function.BiConsumer} used to visit edges without boxing.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+@FunctionalInterface
+public interface IntDoubleConsumer {
+
+	/**
+	 * Performs this operation on the specified arguments.
+	 * 
+	 * @param value1
+	 *            the int argument
+	 * @param value2
+	 *            the double argument
+	 */
+	void accept(int value1, double value2);
+
+}
@@ -0,0 +1,937 @@
+package com.rawva.structures.graphs;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * This is an implementation for a weighted graph whose elements (vertices) are
+ * ints and whose edge weights are doubles. Vertices, edges and weights are
+ * kept in primitive arrays and open addressing hash tables, so the primitive
+ * methods of this class never box their arguments. <br/>
+ * <br/>
+ * Every vertex is assigned an index from 0 to n - 1 in the order it was added,
+ * where n is the number of vertices. Indices stay dense when vertices are
+ * removed: the vertex with the last index takes over the index of the removed
+ * one. Likewise, removing an edge moves the last edge of its tail into its
+ * place. After many removals, trimToSize() releases the memory they left
+ * unused. <br/>
+ * <br/>
+ * The methods inherited from {@link WeightedGraph} are also supported; they
+ * box their results and do not permit null vertices or null weights. An edge
+ * added without a weight is given the weight {@value #DEFAULT_WEIGHT}.
+ * Duplicate elements cannot be added. Duplicate edges cannot be added.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+public class IntWeightedGraph implements WeightedGraph<Integer, Double> {
+
+	/**
+	 * The weight given to an edge that is added without a weight.
+	 */
+	public static final double DEFAULT_WEIGHT = 1.0;
+
+	private static final int[] EMPTY_NEIGHBORS = new int[0];
+	private static final double[] EMPTY_WEIGHTS = new double[0];
+
+	private final boolean isDirected;
+	private final LongIntHashMap vertexIndices;
+	private final LongIntHashMap edgePositions;
+	private int[] vertices;
+	private int[][] neighbors;
+	private double[][] weights;
+	private int[] degrees;
+	private int numberOfVertices;
+	private int numberOfEdges;
+
+	/**
+	 * Constructs an empty IntWeightedGraph.
+	 * 
+	 * @param isDirected
+	 *            value to specify if this graph is directed (true) or
+	 *            undirected (false)
+	 */
+	public IntWeightedGraph(boolean isDirected) {
+		this.isDirected = isDirected;
+		this.vertexIndices = new LongIntHashMap();
+		this.edgePositions = new LongIntHashMap();
+		this.vertices = new int[0];
+		this.neighbors = new int[0][];
+		this.weights = new double[0][];
+		this.degrees = new int[0];
+	}
+
+	/**
+	 * Constructs an empty, directed IntWeightedGraph.
+	 */
+	public IntWeightedGraph() {
+		this(true);
+	}
+
+	/**
+	 * Returns the key under which the edge between the vertices with the
+	 * specified indices is stored in the edge table.
+	 * 
+	 * @param tailIndex
+	 *            the index of the tail vertex
+	 * @param headIndex
+	 *            the index of the head vertex
+	 * @return the edge table key of the edge
+	 */
+	private static long edgeKey(int tailIndex, int headIndex) {
+		return ((long) tailIndex << 32) | (headIndex & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Adds an edge from the specified tail element to the specified head
+	 * element with the weight {@value #DEFAULT_WEIGHT} if the edge does not
+	 * already exist. Returns true if the edge was added to this graph after
+	 * this call. <br/>
+	 * <br/>
+	 * In order to add an edge between two elements, it is required that the two
+	 * elements have already been added to this graph. If the specified elements
+	 * are not in this graph, then no edge is added and false is returned.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return true if the edge was added to this graph, else false
+	 */
+	public boolean addEdge(int tail, int head) {
+		return addEdge(tail, head, DEFAULT_WEIGHT);
+	}
+
+	/**
+	 * Adds an edge with the specified weight from the specified tail element to
+	 * the specified head element if the edge does not already exist. Returns
+	 * true if the edge was added to this graph after this call. <br/>
+	 * <br/>
+	 * In order to add an edge between two elements, it is required that the two
+	 * elements have already been added to this graph. If the specified elements
+	 * are not in this graph, then no edge is added and false is returned.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge
+	 * @return true if the edge was added to this graph, else false
+	 */
+	public boolean addEdge(int tail, int head, double weight) {
+		int tailIndex = vertexIndices.get(tail);
+		int headIndex = vertexIndices.get(head);
+		if (tailIndex < 0 || headIndex < 0) {
+			return false;
+		}
+		if (edgePositions.get(edgeKey(tailIndex, headIndex)) >= 0) {
+			return false;
+		}
+		appendEdge(tailIndex, headIndex, weight);
+		if (!isDirected && tailIndex != headIndex) {
+			appendEdge(headIndex, tailIndex, weight);
+		}
+		numberOfEdges++;
+		return true;
+	}
+
+	/**
+	 * Adds an edge from the specified tail element to the specified head
+	 * element with the weight {@value #DEFAULT_WEIGHT} if the edge does not
+	 * already exist. Returns true if the edge was added to this graph after
+	 * this call.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return true if the edge was added to this graph, else false
+	 * @throws NullPointerException
+	 *             if one or both of the specified elements are null
+	 */
+	@Override
+	public boolean addEdge(Integer tail, Integer head) {
+		return addEdge(tail.intValue(), head.intValue(), DEFAULT_WEIGHT);
+	}
+
+	/**
+	 * Adds an edge with the specified weight from the specified tail element to
+	 * the specified head element if the edge does not already exist. Returns
+	 * true if the edge was added to this graph after this call.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge
+	 * @return true if the edge was added to this graph, else false
+	 * @throws NullPointerException
+	 *             if one or more of the arguments are null
+	 */
+	@Override
+	public boolean addEdge(Integer tail, Integer head, Double weight) {
+		return addEdge(tail.intValue(), head.intValue(), weight.doubleValue());
+	}
+
+	/**
+	 * Adds the specified element to this graph as a vertex. Returns true if the
+	 * element was added to this graph after this call, or false if it was
+	 * already present.
+	 * 
+	 * @param elem
+	 *            the element to add
+	 * @return true if the element was added to this graph after this call, else
+	 *         false
+	 */
+	public boolean addVertex(int elem) {
+		if (vertexIndices.get(elem) >= 0) {
+			return false;
+		}
+		if (numberOfVertices == vertices.length) {
+			int capacity = Math.max(8, vertices.length + (vertices.length >> 1));
+			vertices = Arrays.copyOf(vertices, capacity);
+			neighbors = Arrays.copyOf(neighbors, capacity);
+			weights = Arrays.copyOf(weights, capacity);
+			degrees = Arrays.copyOf(degrees, capacity);
+		}
+		int index = numberOfVertices++;
+		vertices[index] = elem;
+		neighbors[index] = EMPTY_NEIGHBORS;
+		weights[index] = EMPTY_WEIGHTS;
+		degrees[index] = 0;
+		vertexIndices.put(elem, index);
+		return true;
+	}
+
+	/**
+	 * Adds the specified element to this graph as a vertex. Returns true if the
+	 * element was added to this graph after this call, or false if it was
+	 * already present.
+	 * 
+	 * @param elem
+	 *            the element to add
+	 * @return true if the element was added to this graph after this call, else
+	 *         false
+	 * @throws NullPointerException
+	 *             if the specified element is null
+	 */
+	@Override
+	public boolean addVertex(Integer elem) {
+		return addVertex(elem.intValue());
+	}
+
+	/**
+	 * Appends an edge to the adjacency arrays of the tail vertex and records
+	 * its position in the edge table.
+	 * 
+	 * @param tailIndex
+	 *            the index of the tail vertex
+	 * @param headIndex
+	 *            the index of the head vertex
+	 * @param weight
+	 *            the weight of the edge
+	 */
+	private void appendEdge(int tailIndex, int headIndex, double weight) {
+		int position = degrees[tailIndex];
+		if (position == neighbors[tailIndex].length) {
+			int capacity = Math.max(4, position << 1);
+			neighbors[tailIndex] = Arrays.copyOf(neighbors[tailIndex], capacity);
+			weights[tailIndex] = Arrays.copyOf(weights[tailIndex], capacity);
+		}
+		neighbors[tailIndex][position] = headIndex;
+		weights[tailIndex][position] = weight;
+		degrees[tailIndex] = position + 1;
+		edgePositions.put(edgeKey(tailIndex, headIndex), position);
+	}
+
+	/**
+	 * Removes all of the elements from this graph. This graph will be empty
+	 * after this method returns.
+	 */
+	@Override
+	public void clear() {
+		vertexIndices.clear();
+		edgePositions.clear();
+		Arrays.fill(neighbors, 0, numberOfVertices, null);
+		Arrays.fill(weights, 0, numberOfVertices, null);
+		numberOfVertices = 0;
+		numberOfEdges = 0;
+	}
+
+	/**
+	 * Returns true if this graph contains an edge from tail to head. Returns
+	 * false otherwise. <br/>
+	 * <br/>
+	 * If this graph is undirected, the order of the arguments does not matter,
+	 * i.e, containsEdge(tail, head) == containsEdge(head, tail).
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @param head
+	 *            the head vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @return true if this graph contains an edge from tail to head, else false
+	 */
+	public boolean containsEdge(int tail, int head) {
+		return findEdge(tail, head) >= 0;
+	}
+
+	/**
+	 * Returns true if this graph contains an edge from tail to head. Returns
+	 * false otherwise, including when one or both of the specified elements
+	 * are null.
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @param head
+	 *            the head vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @return true if this graph contains an edge from tail to head, else false
+	 */
+	@Override
+	public boolean containsEdge(Integer tail, Integer head) {
+		return tail != null && head != null && containsEdge(tail.intValue(), head.intValue());
+	}
+
+	/**
+	 * Returns true if this graph contains the specified element. Returns false
+	 * otherwise.
+	 * 
+	 * @param elem
+	 *            the element whose presence in this graph is to be tested
+	 * @return true if this graph contains the specified element, else false
+	 */
+	public boolean containsVertex(int elem) {
+		return vertexIndices.get(elem) >= 0;
+	}
+
+	/**
+	 * Returns true if this graph contains the specified element. Returns false
+	 * otherwise, including when the specified element is null.
+	 * 
+	 * @param elem
+	 *            the element whose presence in this graph is to be tested
+	 * @return true if this graph contains the specified element, else false
+	 */
+	@Override
+	public boolean containsVertex(Integer elem) {
+		return elem != null && containsVertex(elem.intValue());
+	}
+
+	/**
+	 * Returns the position of the edge from tail to head in the adjacency
+	 * arrays of the tail, or -1 if this graph does not contain the edge.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return the position of the edge in the adjacency arrays of the tail, or
+	 *         -1 if there is no such edge
+	 */
+	private int findEdge(int tail, int head) {
+		int tailIndex = vertexIndices.get(tail);
+		int headIndex = vertexIndices.get(head);
+		if (tailIndex < 0 || headIndex < 0) {
+			return -1;
+		}
+		return edgePositions.get(edgeKey(tailIndex, headIndex));
+	}
+
+	/**
+	 * Performs the specified action on the head and weight of every edge
+	 * leaving the specified element. Nothing is done if the element is not in
+	 * this graph. The action must not modify this graph. <br/>
+	 * <br/>
+	 * Heads and weights are boxed for the action; use
+	 * forEachNeighbor(int, IntDoubleConsumer) to visit them without boxing.
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edges to visit
+	 * @param action
+	 *            the action to perform on the head and weight of each edge
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	@Override
+	public void forEachEdge(Integer tail, BiConsumer<? super Integer, ? super Double> action) {
+		if (action == null) {
+			throw new NullPointerException("Action cannot be null");
+		}
+
+		if (tail != null) {
+			forEachNeighbor(tail, action::accept);
+		}
+	}
+
+	/**
+	 * Performs the specified action on the head and weight of every edge
+	 * leaving the specified element. Nothing is done if the element is not in
+	 * this graph. The action must not modify this graph.
+	 * 
+	 * @param elem
+	 *            the tail vertex of the edges to visit
+	 * @param action
+	 *            the action to perform on the head and weight of each edge
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	public void forEachNeighbor(int elem, IntDoubleConsumer action) {
+		if (action == null) {
+			throw new NullPointerException("Action cannot be null");
+		}
+
+		int index = vertexIndices.get(elem);
+		if (index < 0) {
+			return;
+		}
+		int[] indexNeighbors = neighbors[index];
+		double[] indexWeights = weights[index];
+		for (int i = 0, degree = degrees[index]; i < degree; i++) {
+			action.accept(vertices[indexNeighbors[i]], indexWeights[i]);
+		}
+	}
+
+	/**
+	 * Returns a set containing all elements that are adjacent to this element,
+	 * or null if this element is not in this graph. The returned set is an
+	 * unmodifiable view that reflects later changes to this graph, and is
+	 * empty while the element is not in this graph.
+	 * 
+	 * @param elem
+	 *            the element whose neighbors we want
+	 * @return a set of elements that are adjacent to this element
+	 */
+	@Override
+	public Set<Integer> getAdjacentElements(Integer elem) {
+		return elem == null || vertexIndices.get(elem) < 0 ? null : new NeighborSet(elem);
+	}
+
+	/**
+	 * Returns the index of the head of an edge leaving the vertex with the
+	 * specified index. The edges of a vertex occupy positions 0 to
+	 * getOutDegreeAt(index) - 1, in the order they were added unless some
+	 * have been removed.
+	 * 
+	 * @param index
+	 *            the index of the tail vertex
+	 * @param position
+	 *            the position of the edge among the edges of the tail vertex
+	 * @return the index of the head of the edge
+	 * @throws IndexOutOfBoundsException
+	 *             if the index or position is out of range
+	 */
+	public int getNeighborIndexAt(int index, int position) {
+		if (position < 0 || position >= getOutDegreeAt(index)) {
+			throw new IndexOutOfBoundsException("Edge position out of range: " + position);
+		}
+		return neighbors[index][position];
+	}
+
+	/**
+	 * Returns the number of edges in this graph.
+	 * 
+	 * @return the number of edges in this graph
+	 */
+	@Override
+	public int getNumberOfEdges() {
+		return numberOfEdges;
+	}
+
+	/**
+	 * Returns the number of elements (vertices) in this graph.
+	 * 
+	 * @return the number of elements in this graph
+	 */
+	@Override
+	public int getNumberOfVertices() {
+		return numberOfVertices;
+	}
+
+	/**
+	 * Returns the number of edges leaving the vertex with the specified index.
+	 * In an undirected graph, this is the number of edges that touch the
+	 * vertex.
+	 * 
+	 * @param index
+	 *            the index of the vertex
+	 * @return the number of edges leaving the vertex
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range (index < 0 || index >=
+	 *             getNumberOfVertices())
+	 */
+	public int getOutDegreeAt(int index) {
+		if (index < 0 || index >= numberOfVertices) {
+			throw new IndexOutOfBoundsException("Vertex index out of range: " + index);
+		}
+		return degrees[index];
+	}
+
+	/**
+	 * Returns the element with the specified index.
+	 * 
+	 * @param index
+	 *            the index of the element
+	 * @return the element with the specified index
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range (index < 0 || index >=
+	 *             getNumberOfVertices())
+	 */
+	public int getVertexAt(int index) {
+		if (index < 0 || index >= numberOfVertices) {
+			throw new IndexOutOfBoundsException("Vertex index out of range: " + index);
+		}
+		return vertices[index];
+	}
+
+	/**
+	 * Returns the index of the specified element, or -1 if the element is not
+	 * in this graph.
+	 * 
+	 * @param elem
+	 *            the element whose index we want
+	 * @return the index of the specified element, or -1 if it is not in this
+	 *         graph
+	 */
+	public int getVertexIndex(int elem) {
+		return vertexIndices.get(elem);
+	}
+
+	/**
+	 * Returns the set of elements (vertices) in this graph. The returned set is
+	 * an unmodifiable view that reflects later changes to this graph, and its
+	 * elements are iterated over in order of their indices.
+	 * 
+	 * @return the set of elements (vertices) in this graph
+	 */
+	@Override
+	public Set<Integer> getVertices() {
+		return new VertexSet();
+	}
+
+	/**
+	 * Returns the weight of the edge from tail to head, or NaN if this graph
+	 * does not contain the edge.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return the weight of the edge from tail to head, or NaN if there is no
+	 *         such edge
+	 */
+	public double getWeight(int tail, int head) {
+		int position = findEdge(tail, head);
+		return position < 0 ? Double.NaN : weights[vertexIndices.get(tail)][position];
+	}
+
+	/**
+	 * Returns the weight of the edge from tail to head, or null if this graph
+	 * does not contain the edge.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return the weight of the edge from tail to head, or null if there is no
+	 *         such edge
+	 */
+	@Override
+	public Double getWeight(Integer tail, Integer head) {
+		return containsEdge(tail, head) ? getWeight(tail.intValue(), head.intValue()) : null;
+	}
+
+	/**
+	 * Returns true if this graph is directed, or false if it is undirected.
+	 * 
+	 * @return true if this graph is directed, else false
+	 */
+	@Override
+	public boolean isDirected() {
+		return isDirected;
+	}
+
+	/**
+	 * Returns true if this graph contains no elements (i.e., number of vertices
+	 * is 0).
+	 * 
+	 * @return true if this graph contains no elements, else false
+	 */
+	@Override
+	public boolean isEmpty() {
+		return numberOfVertices == 0;
+	}
+
+	/**
+	 * Moves the vertex with the index from to the index to, which must be
+	 * free, and updates every edge that starts or ends at it. The edges ending
+	 * at a vertex of a directed graph are found by looking up an edge to it
+	 * from every other vertex.
+	 * 
+	 * @param from
+	 *            the current index of the vertex
+	 * @param to
+	 *            the new index of the vertex
+	 */
+	private void moveVertex(int from, int to) {
+		vertices[to] = vertices[from];
+		neighbors[to] = neighbors[from];
+		weights[to] = weights[from];
+		degrees[to] = degrees[from];
+		neighbors[from] = null;
+		weights[from] = null;
+		vertexIndices.put(vertices[to], to);
+
+		int[] toNeighbors = neighbors[to];
+		for (int position = 0; position < degrees[to]; position++) {
+			int headIndex = toNeighbors[position];
+			edgePositions.remove(edgeKey(from, headIndex));
+			if (headIndex == from) {
+				toNeighbors[position] = headIndex = to;
+			}
+			edgePositions.put(edgeKey(to, headIndex), position);
+		}
+		if (isDirected) {
+			for (int tailIndex = 0; tailIndex < numberOfVertices; tailIndex++) {
+				if (tailIndex != from && tailIndex != to) {
+					renameHead(tailIndex, from, to);
+				}
+			}
+		} else {
+			for (int position = 0; position < degrees[to]; position++) {
+				if (toNeighbors[position] != to) {
+					renameHead(toNeighbors[position], from, to);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the edge from tail to head from this graph. Returns true if the
+	 * edge was in this graph before this call. The elements themselves are not
+	 * removed. This takes constant time. <br/>
+	 * <br/>
+	 * If this graph is undirected, the order of the arguments does not matter.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return true if the edge was removed from this graph, else false
+	 */
+	public boolean removeEdge(int tail, int head) {
+		int tailIndex = vertexIndices.get(tail);
+		int headIndex = vertexIndices.get(head);
+		if (tailIndex < 0 || headIndex < 0 || !removeStoredEdge(tailIndex, headIndex)) {
+			return false;
+		}
+		if (!isDirected && tailIndex != headIndex) {
+			removeStoredEdge(headIndex, tailIndex);
+		}
+		numberOfEdges--;
+		return true;
+	}
+
+	/**
+	 * Removes the edge from tail to head from this graph. Returns true if the
+	 * edge was in this graph before this call, or false otherwise, including
+	 * when one or both of the specified elements are null.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return true if the edge was removed from this graph, else false
+	 */
+	@Override
+	public boolean removeEdge(Integer tail, Integer head) {
+		return tail != null && head != null && removeEdge(tail.intValue(), head.intValue());
+	}
+
+	/**
+	 * Removes the edge stored under the vertex with index tailIndex, if there
+	 * is one, by moving the last edge of that vertex into its position.
+	 * 
+	 * @param tailIndex
+	 *            the index of the tail vertex
+	 * @param headIndex
+	 *            the index of the head vertex
+	 * @return true if the edge was stored, else false
+	 */
+	private boolean removeStoredEdge(int tailIndex, int headIndex) {
+		int position = edgePositions.remove(edgeKey(tailIndex, headIndex));
+		if (position < 0) {
+			return false;
+		}
+		int last = --degrees[tailIndex];
+		if (position != last) {
+			int lastHead = neighbors[tailIndex][last];
+			neighbors[tailIndex][position] = lastHead;
+			weights[tailIndex][position] = weights[tailIndex][last];
+			edgePositions.put(edgeKey(tailIndex, lastHead), position);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the specified element from this graph, together with every edge
+	 * that starts or ends at it. Returns true if the element was in this graph
+	 * before this call. The vertex with the last index takes over the index of
+	 * the removed vertex. <br/>
+	 * <br/>
+	 * In an undirected graph this takes time proportional to the degrees of
+	 * the two vertices. A directed graph keeps no index of incoming edges, so
+	 * every other vertex is also checked for an edge to them, with one hash
+	 * lookup each.
+	 * 
+	 * @param elem
+	 *            the element to remove
+	 * @return true if the element was removed from this graph, else false
+	 */
+	public boolean removeVertex(int elem) {
+		int index = vertexIndices.get(elem);
+		if (index < 0) {
+			return false;
+		}
+		while (degrees[index] > 0) {
+			int headIndex = neighbors[index][degrees[index] - 1];
+			removeStoredEdge(index, headIndex);
+			if (!isDirected && headIndex != index) {
+				removeStoredEdge(headIndex, index);
+			}
+			numberOfEdges--;
+		}
+		if (isDirected) {
+			for (int tailIndex = 0; tailIndex < numberOfVertices; tailIndex++) {
+				if (removeStoredEdge(tailIndex, index)) {
+					numberOfEdges--;
+				}
+			}
+		}
+
+		vertexIndices.remove(elem);
+		int last = --numberOfVertices;
+		if (index != last) {
+			moveVertex(last, index);
+		} else {
+			neighbors[index] = null;
+			weights[index] = null;
+		}
+		return true;
+	}
+
+	/**
+	 * Removes the specified element from this graph, together with every edge
+	 * that starts or ends at it. Returns true if the element was in this graph
+	 * before this call, or false otherwise, including when the specified
+	 * element is null.
+	 * 
+	 * @param elem
+	 *            the element to remove
+	 * @return true if the element was removed from this graph, else false
+	 */
+	@Override
+	public boolean removeVertex(Integer elem) {
+		return elem != null && removeVertex(elem.intValue());
+	}
+
+	/**
+	 * Changes the head of the edge from the vertex with index tailIndex to the
+	 * vertex with index from, if there is one, to the vertex with index to.
+	 * 
+	 * @param tailIndex
+	 *            the index of the tail vertex
+	 * @param from
+	 *            the old index of the head vertex
+	 * @param to
+	 *            the new index of the head vertex
+	 */
+	private void renameHead(int tailIndex, int from, int to) {
+		int position = edgePositions.remove(edgeKey(tailIndex, from));
+		if (position >= 0) {
+			neighbors[tailIndex][position] = to;
+			edgePositions.put(edgeKey(tailIndex, to), position);
+		}
+	}
+
+	/**
+	 * Sets the weight of the edge from tail to head to the specified weight.
+	 * Returns the previous weight of the edge, or NaN if this graph does not
+	 * contain the edge, in which case nothing is changed.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge to set
+	 * @return the previous weight of the edge, or NaN if there is no such edge
+	 */
+	public double setWeight(int tail, int head, double weight) {
+		int tailIndex = vertexIndices.get(tail);
+		int headIndex = vertexIndices.get(head);
+		if (tailIndex < 0 || headIndex < 0) {
+			return Double.NaN;
+		}
+		int position = edgePositions.get(edgeKey(tailIndex, headIndex));
+		if (position < 0) {
+			return Double.NaN;
+		}
+		double previous = weights[tailIndex][position];
+		weights[tailIndex][position] = weight;
+		if (!isDirected) {
+			weights[headIndex][edgePositions.get(edgeKey(headIndex, tailIndex))] = weight;
+		}
+		return previous;
+	}
+
+	/**
+	 * Sets the weight of the edge from tail to head to the specified weight.
+	 * Returns the previous weight of the edge, or null if this graph does not
+	 * contain the edge, in which case nothing is changed.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge to set
+	 * @return the previous weight of the edge, or null if there is no such edge
+	 * @throws NullPointerException
+	 *             if the specified weight is null
+	 */
+	@Override
+	public Double setWeight(Integer tail, Integer head, Double weight) {
+		if (weight == null) {
+			throw new NullPointerException("Weight cannot be null");
+		}
+		return containsEdge(tail, head) ? setWeight(tail.intValue(), head.intValue(), weight.doubleValue()) : null;
+	}
+
+	/**
+	 * Shrinks the arrays and hash tables of this graph to the smallest size
+	 * that holds its current vertices and edges. This releases the memory left
+	 * unused by removed vertices and edges, and the room that was reserved for
+	 * growth.
+	 */
+	public void trimToSize() {
+		vertices = Arrays.copyOf(vertices, numberOfVertices);
+		neighbors = Arrays.copyOf(neighbors, numberOfVertices);
+		weights = Arrays.copyOf(weights, numberOfVertices);
+		degrees = Arrays.copyOf(degrees, numberOfVertices);
+		for (int i = 0; i < numberOfVertices; i++) {
+			if (degrees[i] == 0) {
+				neighbors[i] = EMPTY_NEIGHBORS;
+				weights[i] = EMPTY_WEIGHTS;
+			} else if (degrees[i] < neighbors[i].length) {
+				neighbors[i] = Arrays.copyOf(neighbors[i], degrees[i]);
+				weights[i] = Arrays.copyOf(weights[i], degrees[i]);
+			}
+		}
+		vertexIndices.trimToSize();
+		edgePositions.trimToSize();
+	}
+
+	/**
+	 * An unmodifiable view of the neighbors of one element. The view holds the
+	 * element rather than its index, since removing another vertex can move
+	 * the element to a new index, and it is empty while the element is not in
+	 * this graph.
+	 */
+	private class NeighborSet extends AbstractSet<Integer> {
+
+		private final int elem;
+
+		private NeighborSet(int elem) {
+			this.elem = elem;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof Integer)) {
+				return false;
+			}
+			int index = vertexIndices.get(elem);
+			int headIndex = vertexIndices.get((Integer) o);
+			return index >= 0 && headIndex >= 0 && edgePositions.get(edgeKey(index, headIndex)) >= 0;
+		}
+
+		@Override
+		public Iterator<Integer> iterator() {
+			int index = vertexIndices.get(elem);
+			return new Iterator<Integer>() {
+
+				private int position = 0;
+
+				@Override
+				public boolean hasNext() {
+					return index >= 0 && position < degrees[index];
+				}
+
+				@Override
+				public Integer next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return vertices[neighbors[index][position++]];
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			int index = vertexIndices.get(elem);
+			return index < 0 ? 0 : degrees[index];
+		}
+
+	}
+
+	/**
+	 * An unmodifiable view of the vertices of this graph.
+	 */
+	private class VertexSet extends AbstractSet<Integer> {
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof Integer && containsVertex(((Integer) o).intValue());
+		}
+
+		@Override
+		public Iterator<Integer> iterator() {
+			return new Iterator<Integer>() {
+
+				private int index = 0;
+
+				@Override
+				public boolean hasNext() {
+					return index < numberOfVertices;
+				}
+
+				@Override
+				public Integer next() {
+					if (index >= numberOfVertices) {
+						throw new NoSuchElementException();
+					}
+					return vertices[index++];
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			return numberOfVertices;
+		}
+
+	}
+
+}
@@ -0,0 +1,229 @@
+package com.rawva.structures.graphs;
+
+import java.util.Arrays;
+
+/**
+ * A map from long keys to non-negative int values that stores its entries in
+ * flat arrays using open addressing with linear probing, so that neither keys
+ * nor values are boxed. <br/>
+ * <br/>
+ * Negative values cannot be stored; -1 is returned by lookups to signify that
+ * a key is absent. Removal shifts later entries of the probe sequence back
+ * into the freed slot instead of leaving a marker, so lookups never slow down
+ * after many removals.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+class LongIntHashMap {
+
+	private static final int MIN_CAPACITY = 8;
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private long[] keys;
+	private int[] values;
+	private boolean[] used;
+	private int size;
+	private int mask;
+
+	/**
+	 * Constructs an empty map that can hold the specified number of entries
+	 * without resizing.
+	 * 
+	 * @param expectedSize
+	 *            the number of entries the map is expected to hold
+	 */
+	LongIntHashMap(int expectedSize) {
+		allocate(capacityFor(expectedSize));
+	}
+
+	/**
+	 * Constructs an empty map.
+	 */
+	LongIntHashMap() {
+		this(0);
+	}
+
+	/**
+	 * Returns the smallest power of two table length that can hold the
+	 * specified number of entries without exceeding the load factor.
+	 * 
+	 * @param expectedSize
+	 *            the number of entries the table must hold
+	 * @return a table length for the specified number of entries
+	 */
+	private static int capacityFor(int expectedSize) {
+		long required = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / LOAD_FACTOR));
+		if (required > (1 << 30)) {
+			throw new IllegalStateException("Map is too large: " + expectedSize + " entries");
+		}
+		return Integer.highestOneBit((int) required - 1) << 1;
+	}
+
+	/**
+	 * Returns the slot at which probing for the specified key starts.
+	 * 
+	 * @param key
+	 *            the key to hash
+	 * @return the first slot to probe for the key
+	 */
+	private int slotFor(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	/**
+	 * Replaces the tables of this map with empty tables of the specified
+	 * length.
+	 * 
+	 * @param capacity
+	 *            the new table length, a power of two
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		used = new boolean[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Removes all entries from this map.
+	 */
+	void clear() {
+		Arrays.fill(used, false);
+		size = 0;
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or -1 if this map
+	 * does not contain the key.
+	 * 
+	 * @param key
+	 *            the key whose value we want
+	 * @return the value associated with the key, or -1 if there is none
+	 */
+	int get(long key) {
+		for (int slot = slotFor(key); used[slot]; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				return values[slot];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Associates the specified value with the specified key. Returns the value
+	 * previously associated with the key, or -1 if there was none.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the non-negative value to associate with the key
+	 * @return the previous value associated with the key, or -1 if there was
+	 *         none
+	 */
+	int put(long key, int value) {
+		int slot = slotFor(key);
+		for (; used[slot]; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				int previous = values[slot];
+				values[slot] = value;
+				return previous;
+			}
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		used[slot] = true;
+		if (++size > keys.length * LOAD_FACTOR) {
+			resize(keys.length << 1);
+		}
+		return -1;
+	}
+
+	/**
+	 * Removes the entry for the specified key. Returns the value that was
+	 * associated with the key, or -1 if there was none.
+	 * 
+	 * @param key
+	 *            the key to remove
+	 * @return the previous value associated with the key, or -1 if there was
+	 *         none
+	 */
+	int remove(long key) {
+		for (int slot = slotFor(key); used[slot]; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				int previous = values[slot];
+				shiftBack(slot);
+				size--;
+				return previous;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Rebuilds the tables of this map with the specified length.
+	 * 
+	 * @param capacity
+	 *            the new table length, a power of two
+	 */
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldUsed[i]) {
+				int slot = slotFor(oldKeys[i]);
+				while (used[slot]) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+				used[slot] = true;
+			}
+		}
+	}
+
+	/**
+	 * Fills the specified emptied slot by moving back the entries after it
+	 * whose probe sequences pass through it, and then frees the last slot
+	 * that was moved from.
+	 * 
+	 * @param gap
+	 *            the slot whose entry was removed
+	 */
+	private void shiftBack(int gap) {
+		for (int slot = (gap + 1) & mask; used[slot]; slot = (slot + 1) & mask) {
+			// An entry may move back to the gap only if the gap does not come
+			// before its home slot in its probe sequence
+			if (((slot - slotFor(keys[slot])) & mask) >= ((slot - gap) & mask)) {
+				keys[gap] = keys[slot];
+				values[gap] = values[slot];
+				gap = slot;
+			}
+		}
+		used[gap] = false;
+	}
+
+	/**
+	 * Returns the number of entries in this map.
+	 * 
+	 * @return the number of entries in this map
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Shrinks the tables of this map to the smallest length that holds its
+	 * current entries.
+	 */
+	void trimToSize() {
+		int capacity = capacityFor(size);
+		if (capacity < keys.length) {
+			resize(capacity);
+		}
+	}
+
+}
@@ -0,0 +1,961 @@
+package com.rawva.structures.graphs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * This is an immutable implementation for a weighted graph whose elements
+ * (vertices) are ints and whose edge weights are doubles, read directly from a
+ * memory-mapped file in compressed sparse row (CSR) form. <br/>
+ * <br/>
+ * A graph is saved with write() and opened with open(). Opening a graph only
+ * maps its file, so it takes the same short time whatever the size of the
+ * graph, and the graph occupies no heap beyond a few objects. Its pages are
+ * loaded by the operating system as they are read and are shared by every
+ * process that maps the same file. Files larger than 2GB are mapped as
+ * several segments. <br/>
+ * <br/>
+ * Every vertex is assigned an index from 0 to n - 1 in increasing order of
+ * the vertices, where n is the number of vertices. As in a CsrGraph, the
+ * edges leaving the vertex with index i occupy the positions getEdgeStart(i)
+ * (inclusive) to getEdgeEnd(i) (exclusive), sorted by the index of their
+ * heads, and an undirected edge between two distinct elements is stored once
+ * for each of them. Positions are longs, so that a file may store more than
+ * Integer.MAX_VALUE edges. <br/>
+ * <br/>
+ * The file consists of the following little-endian sections, each starting
+ * at a multiple of 8 bytes: <br/>
+ * - a 40 byte header: a magic number, the format version, flags (bit 0 is
+ * set for directed graphs), the number of vertices as an int, the number of
+ * edges and the number of stored edges as longs, and 8 reserved bytes; <br/>
+ * - the vertices in increasing order, as ints; <br/>
+ * - the n + 1 edge offsets, as longs; <br/>
+ * - the index of the head of every stored edge, as ints; <br/>
+ * - the weight of every stored edge, as doubles. <br/>
+ * <br/>
+ * A MappedGraph may be safely shared between threads. All methods that would
+ * modify it throw an UnsupportedOperationException. The methods inherited from
+ * {@link WeightedGraph} box their arguments and results; the primitive
+ * methods of this class do not.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+public final class MappedGraph implements WeightedGraph<Integer, Double> {
+
+	private static final int MAGIC = 0x43535247;
+	private static final int VERSION = 1;
+	private static final int DIRECTED_FLAG = 1;
+	private static final int HEADER_SIZE = 40;
+	private static final int SEGMENT_BITS = 30;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final ByteBuffer[] segments;
+	private final int segmentBits;
+	private final long segmentMask;
+	private final boolean isDirected;
+	private final int numberOfVertices;
+	private final long numberOfEdges;
+	private final long numberOfStoredEdges;
+	private final long offsetsBase;
+	private final long headsBase;
+	private final long weightsBase;
+
+	/**
+	 * Constructs a graph over the specified mapped segments of a file, checking
+	 * that the file holds a graph.
+	 * 
+	 * @param path
+	 *            the path of the file, used in error messages
+	 * @param segments
+	 *            the mapped segments of the file, each but the last holding
+	 *            exactly 2^segmentBits bytes
+	 * @param segmentBits
+	 *            the base 2 logarithm of the segment size
+	 * @param size
+	 *            the size of the file in bytes
+	 * @throws IOException
+	 *             if the file does not hold a graph
+	 */
+	private MappedGraph(Path path, ByteBuffer[] segments, int segmentBits, long size) throws IOException {
+		this.segments = segments;
+		this.segmentBits = segmentBits;
+		this.segmentMask = (1L << segmentBits) - 1;
+		if (size < HEADER_SIZE || getIntAt(0) != MAGIC) {
+			throw new IOException("Not a graph file: " + path);
+		}
+		if (getIntAt(4) != VERSION) {
+			throw new IOException("Unsupported graph file version " + getIntAt(4) + ": " + path);
+		}
+
+		this.isDirected = (getIntAt(8) & DIRECTED_FLAG) != 0;
+		this.numberOfVertices = getIntAt(12);
+		this.numberOfEdges = getLongAt(16);
+		this.numberOfStoredEdges = getLongAt(24);
+		if (numberOfVertices < 0 || numberOfEdges < 0 || numberOfStoredEdges < 0) {
+			throw new IOException("Corrupt graph file: " + path);
+		}
+		this.offsetsBase = align(HEADER_SIZE + 4L * numberOfVertices);
+		this.headsBase = offsetsBase + 8L * (numberOfVertices + 1);
+		this.weightsBase = align(headsBase + 4L * numberOfStoredEdges);
+		if (size != weightsBase + 8L * numberOfStoredEdges) {
+			throw new IOException("Truncated graph file: " + path);
+		}
+	}
+
+	/**
+	 * Rounds the specified file position up to a multiple of 8.
+	 * 
+	 * @param position
+	 *            the position to round
+	 * @return the smallest multiple of 8 not less than the position
+	 */
+	private static long align(long position) {
+		return (position + 7) & ~7L;
+	}
+
+	/**
+	 * Opens the graph saved in the specified file by mapping the file into
+	 * memory. The file is not read until the graph is used, and must not be
+	 * changed while the graph is in use.
+	 * 
+	 * @param path
+	 *            the file to open
+	 * @return the graph saved in the file
+	 * @throws IOException
+	 *             if the file cannot be mapped or does not hold a graph
+	 * @throws NullPointerException
+	 *             if the specified path is null
+	 */
+	public static MappedGraph open(Path path) throws IOException {
+		return open(path, SEGMENT_BITS);
+	}
+
+	/**
+	 * Opens the graph saved in the specified file, mapping it in segments of
+	 * the specified size. Smaller segments let tests cover graphs that span
+	 * several segments without creating huge files.
+	 * 
+	 * @param path
+	 *            the file to open
+	 * @param segmentBits
+	 *            the base 2 logarithm of the segment size, from 3 to 30
+	 * @return the graph saved in the file
+	 * @throws IOException
+	 *             if the file cannot be mapped or does not hold a graph
+	 */
+	static MappedGraph open(Path path, int segmentBits) throws IOException {
+		if (path == null) {
+			throw new NullPointerException("Path cannot be null");
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			long segmentSize = 1L << segmentBits;
+			ByteBuffer[] segments = new ByteBuffer[(int) ((size + segmentSize - 1) >>> segmentBits)];
+			for (int i = 0; i < segments.length; i++) {
+				long start = (long) i << segmentBits;
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, size - start))
+						.order(ByteOrder.LITTLE_ENDIAN);
+			}
+			return new MappedGraph(path, segments, segmentBits, size);
+		}
+	}
+
+	/**
+	 * Saves the specified graph to the specified file in the format read by
+	 * open(), replacing the file if it exists. Each edge weight is converted to
+	 * a double by the specified function, which is also given the null weights
+	 * of edges that have none.
+	 * 
+	 * @param graph
+	 *            the graph to save
+	 * @param weightFunction
+	 *            the function that converts edge weights to doubles
+	 * @param path
+	 *            the file to write
+	 * @throws IOException
+	 *             if the file cannot be written
+	 * @throws NullPointerException
+	 *             if one or more of the arguments are null, or if the graph
+	 *             contains a null vertex
+	 * @throws ConcurrentModificationException
+	 *             if the graph is changed while it is saved
+	 */
+	public static <W> void write(WeightedGraph<Integer, W> graph, ToDoubleFunction<? super W> weightFunction,
+			Path path) throws IOException {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (weightFunction == null) {
+			throw new NullPointerException("Weight function cannot be null");
+		}
+		if (path == null) {
+			throw new NullPointerException("Path cannot be null");
+		}
+
+		int n = graph.getNumberOfVertices();
+		int[] vertices = new int[n];
+		int index = 0;
+		for (Integer vertex : graph.getVertices()) {
+			if (vertex == null) {
+				throw new NullPointerException("Vertices cannot be null");
+			}
+			vertices[index++] = vertex;
+		}
+		if (index != n) {
+			throw new ConcurrentModificationException();
+		}
+		Arrays.sort(vertices);
+
+		long[] offsets = new long[n + 1];
+		int maxDegree = 0;
+		for (int i = 0; i < n; i++) {
+			int degree = graph.getAdjacentElements(vertices[i]).size();
+			offsets[i + 1] = offsets[i] + degree;
+			maxDegree = Math.max(maxDegree, degree);
+		}
+		long numberOfStoredEdges = offsets[n];
+		long offsetsBase = align(HEADER_SIZE + 4L * n);
+		long headsBase = offsetsBase + 8L * (n + 1);
+		long weightsBase = align(headsBase + 4L * numberOfStoredEdges);
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			Output output = new Output(channel, 0);
+			output.putInt(MAGIC);
+			output.putInt(VERSION);
+			output.putInt(graph.isDirected() ? DIRECTED_FLAG : 0);
+			output.putInt(n);
+			output.putLong(graph.getNumberOfEdges());
+			output.putLong(numberOfStoredEdges);
+			output.putLong(0);
+			for (int vertex : vertices) {
+				output.putInt(vertex);
+			}
+			if (n % 2 == 1) {
+				output.putInt(0);
+			}
+			for (long offset : offsets) {
+				output.putLong(offset);
+			}
+			output.flush();
+
+			// The heads of each vertex are sorted by packing each head index
+			// with the slot of its weight
+			Output headOutput = new Output(channel, headsBase);
+			Output weightOutput = new Output(channel, weightsBase);
+			long[] keys = new long[maxDegree];
+			double[] weights = new double[maxDegree];
+			int[] count = new int[1];
+			BiConsumer<Integer, W> collectEdge = (head, weight) -> {
+				int headIndex = head == null ? -1 : Arrays.binarySearch(vertices, head);
+				if (headIndex < 0 || count[0] == keys.length) {
+					throw new ConcurrentModificationException();
+				}
+				keys[count[0]] = ((long) headIndex << 32) | count[0];
+				weights[count[0]++] = weightFunction.applyAsDouble(weight);
+			};
+			for (int i = 0; i < n; i++) {
+				count[0] = 0;
+				graph.forEachEdge(vertices[i], collectEdge);
+				if (count[0] != offsets[i + 1] - offsets[i]) {
+					throw new ConcurrentModificationException();
+				}
+				Arrays.sort(keys, 0, count[0]);
+				for (int j = 0; j < count[0]; j++) {
+					headOutput.putInt((int) (keys[j] >>> 32));
+					weightOutput.putDouble(weights[(int) keys[j]]);
+				}
+			}
+			headOutput.flush();
+			weightOutput.flush();
+		}
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a MappedGraph
+	 * cannot be modified.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return never returns normally
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public boolean addEdge(Integer tail, Integer head) {
+		throw new UnsupportedOperationException("MappedGraph cannot be modified");
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a MappedGraph
+	 * cannot be modified.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge
+	 * @return never returns normally
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public boolean addEdge(Integer tail, Integer head, Double weight) {
+		throw new UnsupportedOperationException("MappedGraph cannot be modified");
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a MappedGraph
+	 * cannot be modified.
+	 * 
+	 * @param elem
+	 *            the element to add
+	 * @return never returns normally
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public boolean addVertex(Integer elem) {
+		throw new UnsupportedOperationException("MappedGraph cannot be modified");
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a MappedGraph
+	 * cannot be modified.
+	 * 
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("MappedGraph cannot be modified");
+	}
+
+	/**
+	 * Returns true if this graph contains an edge from tail to head. Returns
+	 * false otherwise. <br/>
+	 * <br/>
+	 * If this graph is undirected, the order of the arguments does not matter,
+	 * i.e, containsEdge(tail, head) == containsEdge(head, tail).
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @param head
+	 *            the head vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @return true if this graph contains an edge from tail to head, else false
+	 */
+	public boolean containsEdge(int tail, int head) {
+		return findEdge(tail, head) >= 0;
+	}
+
+	/**
+	 * Returns true if this graph contains an edge from tail to head. Returns
+	 * false otherwise.
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @param head
+	 *            the head vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @return true if this graph contains an edge from tail to head, else false
+	 */
+	@Override
+	public boolean containsEdge(Integer tail, Integer head) {
+		return tail != null && head != null && containsEdge(tail.intValue(), head.intValue());
+	}
+
+	/**
+	 * Returns true if this graph contains the specified element. Returns false
+	 * otherwise.
+	 * 
+	 * @param elem
+	 *            the element whose presence in this graph is to be tested
+	 * @return true if this graph contains the specified element, else false
+	 */
+	public boolean containsVertex(int elem) {
+		return getVertexIndex(elem) >= 0;
+	}
+
+	/**
+	 * Returns true if this graph contains the specified element. Returns false
+	 * otherwise.
+	 * 
+	 * @param elem
+	 *            the element whose presence in this graph is to be tested
+	 * @return true if this graph contains the specified element, else false
+	 */
+	@Override
+	public boolean containsVertex(Integer elem) {
+		return elem != null && containsVertex(elem.intValue());
+	}
+
+	/**
+	 * Returns the position of the edge from tail to head, or -1 if there is no
+	 * such edge.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return the position of the edge, or -1 if there is none
+	 */
+	private long findEdge(int tail, int head) {
+		int tailIndex = getVertexIndex(tail);
+		int headIndex = getVertexIndex(head);
+		if (tailIndex < 0 || headIndex < 0) {
+			return -1;
+		}
+		return findHead(getEdgeStart(tailIndex), getEdgeEnd(tailIndex), headIndex);
+	}
+
+	/**
+	 * Returns the position of the edge with the specified head index among the
+	 * sorted edges from start (inclusive) to end (exclusive), or -1 if there
+	 * is no such edge.
+	 * 
+	 * @param start
+	 *            the position of the first edge to search
+	 * @param end
+	 *            the position after the last edge to search
+	 * @param headIndex
+	 *            the index of the head to search for
+	 * @return the position of the edge, or -1 if there is none
+	 */
+	private long findHead(long start, long end, int headIndex) {
+		long low = start;
+		long high = end - 1;
+		while (low <= high) {
+			long middle = (low + high) >>> 1;
+			int middleIndex = getHeadIndexAt(middle);
+			if (middleIndex < headIndex) {
+				low = middle + 1;
+			} else if (middleIndex > headIndex) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Performs the specified action on the head and weight of every edge
+	 * leaving the specified element, in the order of their positions. Nothing
+	 * is done if the element is not in this graph. <br/>
+	 * <br/>
+	 * Heads and weights are boxed for the action; use
+	 * forEachNeighbor(int, IntDoubleConsumer) to visit them without boxing.
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edges to visit
+	 * @param action
+	 *            the action to perform on the head and weight of each edge
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	@Override
+	public void forEachEdge(Integer tail, BiConsumer<? super Integer, ? super Double> action) {
+		if (action == null) {
+			throw new NullPointerException("Action cannot be null");
+		}
+
+		if (tail != null) {
+			forEachNeighbor(tail, action::accept);
+		}
+	}
+
+	/**
+	 * Performs the specified action on the head and weight of every edge
+	 * leaving the specified element, in the order of their positions. Nothing
+	 * is done if the element is not in this graph.
+	 * 
+	 * @param elem
+	 *            the tail vertex of the edges to visit
+	 * @param action
+	 *            the action to perform on the head and weight of each edge
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	public void forEachNeighbor(int elem, IntDoubleConsumer action) {
+		if (action == null) {
+			throw new NullPointerException("Action cannot be null");
+		}
+
+		int index = getVertexIndex(elem);
+		if (index < 0) {
+			return;
+		}
+		for (long position = getEdgeStart(index), end = getEdgeEnd(index); position < end; position++) {
+			action.accept(getVertexAt(getHeadIndexAt(position)), getWeightAt(position));
+		}
+	}
+
+	/**
+	 * Returns an unmodifiable set containing all elements that are adjacent to
+	 * this element, or null if this element is not in this graph. If this
+	 * element does not have any outgoing edges, an empty set is returned.
+	 * 
+	 * @param elem
+	 *            the element whose neighbors we want
+	 * @return a set of elements that are adjacent to this element
+	 */
+	@Override
+	public Set<Integer> getAdjacentElements(Integer elem) {
+		int index = elem == null ? -1 : getVertexIndex(elem);
+		return index < 0 ? null : new NeighborSet(index);
+	}
+
+	/**
+	 * Returns the double at the specified position of the file.
+	 */
+	private double getDoubleAt(long position) {
+		return segments[(int) (position >>> segmentBits)].getDouble((int) (position & segmentMask));
+	}
+
+	/**
+	 * Returns the position just past the last edge leaving the vertex with the
+	 * specified index.
+	 * 
+	 * @param index
+	 *            the index of the vertex
+	 * @return the position after the last edge of the vertex
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range (index < 0 || index >=
+	 *             getNumberOfVertices())
+	 */
+	public long getEdgeEnd(int index) {
+		checkVertexIndex(index);
+		return getLongAt(offsetsBase + 8L * (index + 1));
+	}
+
+	/**
+	 * Returns the position of the first edge leaving the vertex with the
+	 * specified index.
+	 * 
+	 * @param index
+	 *            the index of the vertex
+	 * @return the position of the first edge of the vertex
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range (index < 0 || index >=
+	 *             getNumberOfVertices())
+	 */
+	public long getEdgeStart(int index) {
+		checkVertexIndex(index);
+		return getLongAt(offsetsBase + 8L * index);
+	}
+
+	/**
+	 * Returns the index of the head of the edge at the specified position.
+	 * 
+	 * @param position
+	 *            the position of the edge
+	 * @return the index of the head of the edge
+	 * @throws IndexOutOfBoundsException
+	 *             if the position is out of range (position < 0 || position >=
+	 *             getNumberOfStoredEdges())
+	 */
+	public int getHeadIndexAt(long position) {
+		checkEdgePosition(position);
+		return getIntAt(headsBase + 4L * position);
+	}
+
+	/**
+	 * Returns the int at the specified position of the file.
+	 */
+	private int getIntAt(long position) {
+		return segments[(int) (position >>> segmentBits)].getInt((int) (position & segmentMask));
+	}
+
+	/**
+	 * Returns the long at the specified position of the file.
+	 */
+	private long getLongAt(long position) {
+		return segments[(int) (position >>> segmentBits)].getLong((int) (position & segmentMask));
+	}
+
+	/**
+	 * Returns the number of edges in this graph, or Integer.MAX_VALUE if there
+	 * are more.
+	 * 
+	 * @return the number of edges in this graph
+	 */
+	@Override
+	public int getNumberOfEdges() {
+		return (int) Math.min(Integer.MAX_VALUE, numberOfEdges);
+	}
+
+	/**
+	 * Returns the number of edges stored in the file of this graph. This is the
+	 * number of edges for a directed graph. For an undirected graph, edges
+	 * between distinct elements are counted twice.
+	 * 
+	 * @return the number of stored edges
+	 */
+	public long getNumberOfStoredEdges() {
+		return numberOfStoredEdges;
+	}
+
+	/**
+	 * Returns the number of elements (vertices) in this graph.
+	 * 
+	 * @return the number of elements in this graph
+	 */
+	@Override
+	public int getNumberOfVertices() {
+		return numberOfVertices;
+	}
+
+	/**
+	 * Returns the element (vertex) with the specified index.
+	 * 
+	 * @param index
+	 *            the index of the element
+	 * @return the element with the specified index
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range (index < 0 || index >=
+	 *             getNumberOfVertices())
+	 */
+	public int getVertexAt(int index) {
+		checkVertexIndex(index);
+		return getIntAt(HEADER_SIZE + 4L * index);
+	}
+
+	/**
+	 * Returns the index of the specified element, or -1 if it is not in this
+	 * graph. The vertices are sorted, so this is a binary search.
+	 * 
+	 * @param elem
+	 *            the element whose index we want
+	 * @return the index of the element, or -1 if it is not in this graph
+	 */
+	public int getVertexIndex(int elem) {
+		int low = 0;
+		int high = numberOfVertices - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int vertex = getIntAt(HEADER_SIZE + 4L * middle);
+			if (vertex < elem) {
+				low = middle + 1;
+			} else if (vertex > elem) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns an unmodifiable set of the elements (vertices) in this graph, in
+	 * increasing order.
+	 * 
+	 * @return the set of elements (vertices) in this graph
+	 */
+	@Override
+	public Set<Integer> getVertices() {
+		return new VertexSet();
+	}
+
+	/**
+	 * Returns the weight of the edge from tail to head, or NaN if there is no
+	 * such edge.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return the weight of the edge from tail to head, or NaN if there is none
+	 */
+	public double getWeight(int tail, int head) {
+		long position = findEdge(tail, head);
+		return position < 0 ? Double.NaN : getWeightAt(position);
+	}
+
+	/**
+	 * Returns the weight of the edge from tail to head if the edge exists, or
+	 * null otherwise.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return the weight of the edge from tail to head
+	 */
+	@Override
+	public Double getWeight(Integer tail, Integer head) {
+		long position = tail == null || head == null ? -1 : findEdge(tail, head);
+		return position < 0 ? null : getWeightAt(position);
+	}
+
+	/**
+	 * Returns the weight of the edge at the specified position.
+	 * 
+	 * @param position
+	 *            the position of the edge
+	 * @return the weight of the edge
+	 * @throws IndexOutOfBoundsException
+	 *             if the position is out of range (position < 0 || position >=
+	 *             getNumberOfStoredEdges())
+	 */
+	public double getWeightAt(long position) {
+		checkEdgePosition(position);
+		return getDoubleAt(weightsBase + 8L * position);
+	}
+
+	/**
+	 * Returns true if this graph is directed, or false if it is undirected.
+	 * 
+	 * @return true if this graph is directed, else false
+	 */
+	@Override
+	public boolean isDirected() {
+		return isDirected;
+	}
+
+	/**
+	 * Returns true if this graph contains no elements (vertices).
+	 * 
+	 * @return true if this graph contains no elements, else false
+	 */
+	@Override
+	public boolean isEmpty() {
+		return numberOfVertices == 0;
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a MappedGraph
+	 * cannot be modified.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return never returns normally
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public boolean removeEdge(Integer tail, Integer head) {
+		throw new UnsupportedOperationException("MappedGraph cannot be modified");
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a MappedGraph
+	 * cannot be modified.
+	 * 
+	 * @param elem
+	 *            the element to remove
+	 * @return never returns normally
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public boolean removeVertex(Integer elem) {
+		throw new UnsupportedOperationException("MappedGraph cannot be modified");
+	}
+
+	/**
+	 * Always throws an UnsupportedOperationException because a MappedGraph
+	 * cannot be modified.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge to set
+	 * @return never returns normally
+	 * @throws UnsupportedOperationException
+	 *             always
+	 */
+	@Override
+	public Double setWeight(Integer tail, Integer head, Double weight) {
+		throw new UnsupportedOperationException("MappedGraph cannot be modified");
+	}
+
+	/**
+	 * Throws an IndexOutOfBoundsException if the specified edge position is out
+	 * of range.
+	 * 
+	 * @param position
+	 *            the edge position to check
+	 * @throws IndexOutOfBoundsException
+	 *             if the position is out of range (position < 0 || position >=
+	 *             getNumberOfStoredEdges())
+	 */
+	private void checkEdgePosition(long position) {
+		if (position < 0 || position >= numberOfStoredEdges) {
+			throw new IndexOutOfBoundsException("Edge position out of range: " + position);
+		}
+	}
+
+	/**
+	 * Throws an IndexOutOfBoundsException if the specified vertex index is out
+	 * of range.
+	 * 
+	 * @param index
+	 *            the vertex index to check
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range (index < 0 || index >=
+	 *             getNumberOfVertices())
+	 */
+	private void checkVertexIndex(int index) {
+		if (index < 0 || index >= numberOfVertices) {
+			throw new IndexOutOfBoundsException("Vertex index out of range: " + index);
+		}
+	}
+
+	/**
+	 * A buffered writer of little-endian values to consecutive positions of a
+	 * file channel.
+	 */
+	private static final class Output {
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		private long position;
+
+		private Output(FileChannel channel, long position) {
+			this.channel = channel;
+			this.position = position;
+		}
+
+		private void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				position += channel.write(buffer, position);
+			}
+			buffer.clear();
+		}
+
+		private void putDouble(double value) throws IOException {
+			if (buffer.remaining() < 8) {
+				flush();
+			}
+			buffer.putDouble(value);
+		}
+
+		private void putInt(int value) throws IOException {
+			if (buffer.remaining() < 4) {
+				flush();
+			}
+			buffer.putInt(value);
+		}
+
+		private void putLong(long value) throws IOException {
+			if (buffer.remaining() < 8) {
+				flush();
+			}
+			buffer.putLong(value);
+		}
+
+	}
+
+	/**
+	 * An unmodifiable view of the neighbors of one vertex.
+	 */
+	private class NeighborSet extends AbstractSet<Integer> {
+
+		private final long start;
+		private final long end;
+
+		private NeighborSet(int index) {
+			this.start = getEdgeStart(index);
+			this.end = getEdgeEnd(index);
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			int index = o instanceof Integer ? getVertexIndex((Integer) o) : -1;
+			return index >= 0 && findHead(start, end, index) >= 0;
+		}
+
+		@Override
+		public Iterator<Integer> iterator() {
+			return new Iterator<Integer>() {
+
+				private long position = start;
+
+				@Override
+				public boolean hasNext() {
+					return position < end;
+				}
+
+				@Override
+				public Integer next() {
+					if (position >= end) {
+						throw new NoSuchElementException();
+					}
+					return getVertexAt(getHeadIndexAt(position++));
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			return (int) Math.min(Integer.MAX_VALUE, end - start);
+		}
+
+	}
+
+	/**
+	 * An unmodifiable view of the vertices of this graph.
+	 */
+	private class VertexSet extends AbstractSet<Integer> {
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof Integer && getVertexIndex((Integer) o) >= 0;
+		}
+
+		@Override
+		public Iterator<Integer> iterator() {
+			return new Iterator<Integer>() {
+
+				private int index = 0;
+
+				@Override
+				public boolean hasNext() {
+					return index < numberOfVertices;
+				}
+
+				@Override
+				public Integer next() {
+					if (index >= numberOfVertices) {
+						throw new NoSuchElementException();
+					}
+					return getVertexAt(index++);
+				}
+
+			};
+		}
+
+		@Override
+		public int size() {
+			return numberOfVertices;
+		}
+
+	}
+
+}
@@ -0,0 +1,525 @@
+package com.rawva.structures.graphs;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable map implemented as a hash array mapped trie. Adding or removing
+ * an entry returns a new map that shares all but O(log n) of its nodes with the
+ * old one, so old versions stay valid and cheap to keep. <br/>
+ * <br/>
+ * Null keys and null values are permitted.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <K>
+ *            the type of keys in this map
+ * @param <V>
+ *            the type of values in this map
+ */
+final class PersistentHashMap<K, V> {
+
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+
+	@SuppressWarnings("rawtypes")
+	private static final PersistentHashMap EMPTY = new PersistentHashMap<>(null, 0);
+
+	private final Node root;
+	private final int size;
+
+	private PersistentHashMap(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * Returns an empty map.
+	 * 
+	 * @return an empty map
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> PersistentHashMap<K, V> empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Returns the hash of the specified key, spreading its higher bits so that
+	 * they affect the top levels of the trie.
+	 * 
+	 * @param key
+	 *            the key to hash
+	 * @return the hash of the key
+	 */
+	private static int hash(Object key) {
+		int h = key == null ? 0 : key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Returns true if the specified keys are equal. Either key may be null.
+	 * 
+	 * @param k1
+	 *            one of the keys to be compared
+	 * @param k2
+	 *            the other key to be compared
+	 * @return true if the keys are equal, else false
+	 */
+	private static boolean equals(Object k1, Object k2) {
+		return (k1 == k2) || (k1 != null && k1.equals(k2));
+	}
+
+	/**
+	 * Returns true if this map contains the specified key.
+	 * 
+	 * @param key
+	 *            the key whose presence is to be tested
+	 * @return true if this map contains the key, else false
+	 */
+	boolean containsKey(Object key) {
+		return root != null && root.find(key, hash(key), 0) != null;
+	}
+
+	/**
+	 * Performs the specified action on every entry of this map, walking the
+	 * trie directly instead of allocating an iterator.
+	 * 
+	 * @param action
+	 *            the action to perform on each key and value
+	 */
+	void forEach(BiConsumer<? super K, ? super V> action) {
+		if (root != null) {
+			forEach(root, action);
+		}
+	}
+
+	/**
+	 * Performs the specified action on every entry in the subtrie rooted at
+	 * the specified node.
+	 * 
+	 * @param node
+	 *            the root of the subtrie
+	 * @param action
+	 *            the action to perform on each key and value
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K, V> void forEach(Node node, BiConsumer<? super K, ? super V> action) {
+		for (Object child : node.children()) {
+			if (child instanceof Node) {
+				forEach((Node) child, action);
+			} else {
+				Entry entry = (Entry) child;
+				action.accept((K) entry.key, (V) entry.value);
+			}
+		}
+	}
+
+	/**
+	 * Returns the value associated with the specified key, or null if this map
+	 * does not contain the key.
+	 * 
+	 * @param key
+	 *            the key whose value we want
+	 * @return the value associated with the key, or null if there is none
+	 */
+	@SuppressWarnings("unchecked")
+	V get(Object key) {
+		Entry entry = root == null ? null : root.find(key, hash(key), 0);
+		return entry == null ? null : (V) entry.value;
+	}
+
+	/**
+	 * Returns true if this map contains no entries.
+	 * 
+	 * @return true if this map is empty, else false
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns an iterator over the keys of this map.
+	 * 
+	 * @return an iterator over the keys of this map
+	 */
+	Iterator<K> keyIterator() {
+		return new KeyIterator<>(root);
+	}
+
+	/**
+	 * Returns a map that associates the specified value with the specified key
+	 * and otherwise contains the same entries as this map. This map is not
+	 * changed. If the key is already associated with the same value, this map
+	 * is returned.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value to associate with the key
+	 * @return a map that associates the value with the key
+	 */
+	PersistentHashMap<K, V> put(K key, V value) {
+		Entry entry = new Entry(hash(key), key, value);
+		if (root == null) {
+			return new PersistentHashMap<>(BitmapNode.of(entry, 0), 1);
+		}
+		boolean[] added = new boolean[1];
+		Node newRoot = root.put(entry, 0, added);
+		if (newRoot == root) {
+			return this;
+		}
+		return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+	}
+
+	/**
+	 * Returns a map that contains the same entries as this map except for the
+	 * specified key. This map is not changed. If this map does not contain the
+	 * key, this map is returned.
+	 * 
+	 * @param key
+	 *            the key to remove
+	 * @return a map without the key
+	 */
+	PersistentHashMap<K, V> remove(Object key) {
+		if (root == null) {
+			return this;
+		}
+		Object newRoot = root.remove(key, hash(key), 0);
+		if (newRoot == root) {
+			return this;
+		}
+		return newRoot == null ? empty() : new PersistentHashMap<>((Node) newRoot, size - 1);
+	}
+
+	/**
+	 * Returns the number of entries in this map.
+	 * 
+	 * @return the number of entries in this map
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * A key, its hash and its value.
+	 */
+	private static final class Entry {
+
+		private final int hash;
+		private final Object key;
+		private final Object value;
+
+		private Entry(int hash, Object key, Object value) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+		}
+
+	}
+
+	/**
+	 * A node of the trie. Its children are entries and other nodes.
+	 */
+	private abstract static class Node {
+
+		/**
+		 * Returns the entry for the specified key in the subtrie rooted at this
+		 * node, or null if there is none.
+		 */
+		abstract Entry find(Object key, int hash, int shift);
+
+		/**
+		 * Returns a node equal to this node with the specified entry added or
+		 * replaced. Returns this node if nothing changes. Sets added[0] if the
+		 * key was not previously present.
+		 */
+		abstract Node put(Entry entry, int shift, boolean[] added);
+
+		/**
+		 * Returns this node with the entry for the specified key removed: this
+		 * node if the key is absent, null if nothing is left, or the single
+		 * entry left below the root, which then replaces the node in its
+		 * parent.
+		 */
+		abstract Object remove(Object key, int hash, int shift);
+
+		/**
+		 * Returns the children (entries and nodes) of this node.
+		 */
+		abstract Object[] children();
+
+	}
+
+	/**
+	 * A node with up to 32 children, one for each value of the next five bits
+	 * of the hash. Only the children that exist are stored.
+	 */
+	private static final class BitmapNode extends Node {
+
+		private final int bitmap;
+		private final Object[] children;
+
+		private BitmapNode(int bitmap, Object[] children) {
+			this.bitmap = bitmap;
+			this.children = children;
+		}
+
+		private static BitmapNode of(Entry entry, int shift) {
+			return new BitmapNode(1 << ((entry.hash >>> shift) & MASK), new Object[] { entry });
+		}
+
+		/**
+		 * Returns a node containing the two specified entries, whose keys are
+		 * different.
+		 */
+		private static Node of(Entry e1, Entry e2, int shift) {
+			if (e1.hash == e2.hash) {
+				return new CollisionNode(e1.hash, new Entry[] { e1, e2 });
+			}
+			int fragment1 = (e1.hash >>> shift) & MASK;
+			int fragment2 = (e2.hash >>> shift) & MASK;
+			if (fragment1 == fragment2) {
+				return new BitmapNode(1 << fragment1, new Object[] { of(e1, e2, shift + BITS) });
+			}
+			Object[] children = fragment1 < fragment2 ? new Object[] { e1, e2 } : new Object[] { e2, e1 };
+			return new BitmapNode((1 << fragment1) | (1 << fragment2), children);
+		}
+
+		@Override
+		Entry find(Object key, int hash, int shift) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if ((bitmap & bit) == 0) {
+				return null;
+			}
+			Object child = children[Integer.bitCount(bitmap & (bit - 1))];
+			if (child instanceof Node) {
+				return ((Node) child).find(key, hash, shift + BITS);
+			}
+			Entry entry = (Entry) child;
+			return entry.hash == hash && PersistentHashMap.equals(entry.key, key) ? entry : null;
+		}
+
+		@Override
+		Node put(Entry entry, int shift, boolean[] added) {
+			int bit = 1 << ((entry.hash >>> shift) & MASK);
+			int index = Integer.bitCount(bitmap & (bit - 1));
+			if ((bitmap & bit) == 0) {
+				Object[] newChildren = new Object[children.length + 1];
+				System.arraycopy(children, 0, newChildren, 0, index);
+				newChildren[index] = entry;
+				System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+				added[0] = true;
+				return new BitmapNode(bitmap | bit, newChildren);
+			}
+
+			Object child = children[index];
+			Object newChild;
+			if (child instanceof Node) {
+				newChild = ((Node) child).put(entry, shift + BITS, added);
+			} else {
+				Entry existing = (Entry) child;
+				if (existing.hash == entry.hash && PersistentHashMap.equals(existing.key, entry.key)) {
+					newChild = existing.value == entry.value ? existing : entry;
+				} else {
+					newChild = of(existing, entry, shift + BITS);
+					added[0] = true;
+				}
+			}
+			if (newChild == child) {
+				return this;
+			}
+			Object[] newChildren = children.clone();
+			newChildren[index] = newChild;
+			return new BitmapNode(bitmap, newChildren);
+		}
+
+		@Override
+		Object remove(Object key, int hash, int shift) {
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if ((bitmap & bit) == 0) {
+				return this;
+			}
+			int index = Integer.bitCount(bitmap & (bit - 1));
+			Object child = children[index];
+			Object newChild;
+			if (child instanceof Node) {
+				newChild = ((Node) child).remove(key, hash, shift + BITS);
+				if (newChild == child) {
+					return this;
+				}
+			} else {
+				Entry entry = (Entry) child;
+				if (entry.hash != hash || !PersistentHashMap.equals(entry.key, key)) {
+					return this;
+				}
+				newChild = null;
+			}
+
+			if (newChild != null) {
+				if (children.length == 1 && shift > 0 && newChild instanceof Entry) {
+					return newChild;
+				}
+				Object[] newChildren = children.clone();
+				newChildren[index] = newChild;
+				return new BitmapNode(bitmap, newChildren);
+			}
+			if (children.length == 1) {
+				return null;
+			}
+			if (children.length == 2 && shift > 0 && children[1 - index] instanceof Entry) {
+				return children[1 - index];
+			}
+			Object[] newChildren = new Object[children.length - 1];
+			System.arraycopy(children, 0, newChildren, 0, index);
+			System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+			return new BitmapNode(bitmap & ~bit, newChildren);
+		}
+
+		@Override
+		Object[] children() {
+			return children;
+		}
+
+	}
+
+	/**
+	 * A node holding entries whose keys are different but whose hashes are
+	 * equal.
+	 */
+	private static final class CollisionNode extends Node {
+
+		private final int hash;
+		private final Entry[] entries;
+
+		private CollisionNode(int hash, Entry[] entries) {
+			this.hash = hash;
+			this.entries = entries;
+		}
+
+		@Override
+		Entry find(Object key, int hash, int shift) {
+			if (hash != this.hash) {
+				return null;
+			}
+			for (Entry entry : entries) {
+				if (PersistentHashMap.equals(entry.key, key)) {
+					return entry;
+				}
+			}
+			return null;
+		}
+
+		@Override
+		Node put(Entry entry, int shift, boolean[] added) {
+			if (entry.hash != hash) {
+				BitmapNode node = new BitmapNode(1 << ((hash >>> shift) & MASK), new Object[] { this });
+				return node.put(entry, shift, added);
+			}
+			for (int i = 0; i < entries.length; i++) {
+				if (PersistentHashMap.equals(entries[i].key, entry.key)) {
+					if (entries[i].value == entry.value) {
+						return this;
+					}
+					Entry[] newEntries = entries.clone();
+					newEntries[i] = entry;
+					return new CollisionNode(hash, newEntries);
+				}
+			}
+			Entry[] newEntries = new Entry[entries.length + 1];
+			System.arraycopy(entries, 0, newEntries, 0, entries.length);
+			newEntries[entries.length] = entry;
+			added[0] = true;
+			return new CollisionNode(hash, newEntries);
+		}
+
+		@Override
+		Object remove(Object key, int hash, int shift) {
+			if (hash != this.hash) {
+				return this;
+			}
+			for (int i = 0; i < entries.length; i++) {
+				if (PersistentHashMap.equals(entries[i].key, key)) {
+					if (entries.length == 2) {
+						return entries[1 - i];
+					}
+					Entry[] newEntries = new Entry[entries.length - 1];
+					System.arraycopy(entries, 0, newEntries, 0, i);
+					System.arraycopy(entries, i + 1, newEntries, i, entries.length - i - 1);
+					return new CollisionNode(hash, newEntries);
+				}
+			}
+			return this;
+		}
+
+		@Override
+		Object[] children() {
+			return entries;
+		}
+
+	}
+
+	/**
+	 * An iterator over the keys of a trie that walks it depth first with an
+	 * explicit stack.
+	 */
+	private static final class KeyIterator<K> implements Iterator<K> {
+
+		private final Deque<Object[]> nodes = new ArrayDeque<>();
+		private final Deque<Integer> positions = new ArrayDeque<>();
+		private Entry next;
+
+		private KeyIterator(Node root) {
+			if (root != null) {
+				nodes.push(root.children());
+				positions.push(0);
+			}
+			advance();
+		}
+
+		/**
+		 * Moves to the next entry of the trie, or sets next to null if there
+		 * are no more entries.
+		 */
+		private void advance() {
+			next = null;
+			while (!nodes.isEmpty()) {
+				Object[] children = nodes.peek();
+				int position = positions.pop();
+				if (position == children.length) {
+					nodes.pop();
+					continue;
+				}
+				positions.push(position + 1);
+				Object child = children[position];
+				if (child instanceof Node) {
+					nodes.push(((Node) child).children());
+					positions.push(0);
+				} else {
+					next = (Entry) child;
+					return;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public K next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			K key = (K) next.key;
+			advance();
+			return key;
+		}
+
+	}
+
+}
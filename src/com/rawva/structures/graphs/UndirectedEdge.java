@@ -1,8 +1,5 @@
 package com.rawva.structures.graphs;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * An undirected edge is an unordered pair of objects (o1, o2). An undirected
  * edge (o1, o2) is considered equal to (o2, o1).
@@ -37,12 +34,13 @@ public class UndirectedEdge<V> implements Graph.Edge<V> {
 	 */
 	@Override
 	public int hashCode() {
-		Set<V> elements = new HashSet<>();
-		elements.add(tail);
-		elements.add(head);
+		int elementsHashCode = hashCode(tail);
+		if (!equals(tail, head)) {
+			elementsHashCode += hashCode(head);
+		}
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((elements == null) ? 0 : elements.hashCode());
+		result = prime * result + elementsHashCode;
 		return result;
 	}
 
@@ -69,13 +67,8 @@ public class UndirectedEdge<V> implements Graph.Edge<V> {
 		}
 		@SuppressWarnings("unchecked")
 		UndirectedEdge<V> other = (UndirectedEdge<V>) obj;
-		Set<V> elements = new HashSet<>();
-		elements.add(tail);
-		elements.add(head);
-		Set<V> otherElements = new HashSet<>();
-		otherElements.add(other.tail);
-		otherElements.add(other.head);
-		return elements.equals(otherElements);
+		return (equals(tail, other.tail) && equals(head, other.head))
+				|| (equals(tail, other.head) && equals(head, other.tail));
 	}
 
 	/**
@@ -116,4 +109,33 @@ public class UndirectedEdge<V> implements Graph.Edge<V> {
 		return head;
 	}
 
+	/**
+	 * Returns true if the specified elements are equal. More formally, true is
+	 * returned if e1 == e2 or e1.equals(e2). <br/>
+	 * <br/>
+	 * The main advantage of calling this method over calling the equals method
+	 * on one of the elements is that e1 and e2 are both allowed to be null.
+	 * 
+	 * @param e1
+	 *            one of the elements to be compared
+	 * @param e2
+	 *            the other element to be compared
+	 * @return true if the specified elements are equal, else false
+	 */
+	private boolean equals(V e1, V e2) {
+		return (e1 == e2) || (e1 != null && e1.equals(e2));
+	}
+
+	/**
+	 * Returns the hash code of the specified element, or 0 if the element is
+	 * null.
+	 * 
+	 * @param elem
+	 *            the element whose hash code we want
+	 * @return the hash code of the specified element
+	 */
+	private int hashCode(V elem) {
+		return elem == null ? 0 : elem.hashCode();
+	}
+
 }
@@ -0,0 +1,540 @@
+package com.rawva.structures.graphs;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * This is an implementation for a weighted graph that can hand out immutable
+ * snapshots of itself in constant time. <br/>
+ * <br/>
+ * The state of the graph is held in persistent hash maps: every change builds
+ * a new version of the state that shares almost all of its structure with the
+ * previous one, and then publishes it atomically. A snapshot is simply the
+ * version that was current when snapshot() was called, so taking one copies
+ * nothing, and reading from it never locks and is never affected by later
+ * changes. Threads that change the graph are serialized with each other, but
+ * never wait for readers. <br/>
+ * <br/>
+ * Reading from the graph itself (rather than from a snapshot) is also
+ * lock-free and always sees the latest published version. The sets returned by
+ * getAdjacentElements and getVertices are unmodifiable and belong to the
+ * version that was current when they were returned. <br/>
+ * <br/>
+ * One null element is allowed to be placed in this graph as a vertex. Edge
+ * weights are allowed to be null. Duplicate elements cannot be added. Duplicate
+ * edges cannot be added.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in this graph
+ * @param <W>
+ *            the type of edge weights in this graph
+ */
+public class VersionedWeightedHashGraph<V, W> implements WeightedGraph<V, W> {
+
+	private final boolean isDirected;
+	private volatile Snapshot<V, W> current;
+
+	/**
+	 * Constructs an empty VersionedWeightedHashGraph.
+	 * 
+	 * @param isDirected
+	 *            value to specify if this graph is directed (true) or
+	 *            undirected (false)
+	 */
+	public VersionedWeightedHashGraph(boolean isDirected) {
+		this.isDirected = isDirected;
+		this.current = new Snapshot<>(isDirected, PersistentHashMap.empty(), 0);
+	}
+
+	/**
+	 * Constructs an empty, directed VersionedWeightedHashGraph.
+	 */
+	public VersionedWeightedHashGraph() {
+		this(true);
+	}
+
+	/**
+	 * Adds an edge from the specified tail element to the specified head
+	 * element if the edge does not already exist. Returns true if the edge was
+	 * added to this graph after this call. If the edge specified by the tail
+	 * and head elements already exists, then false is returned. <br/>
+	 * <br/>
+	 * In order to add an edge between two elements, it is required that the two
+	 * elements have already been added to this graph. If the specified elements
+	 * are not in this graph, then no edge is added and false is returned.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return true if the edge was added to this graph, else false
+	 */
+	@Override
+	public boolean addEdge(V tail, V head) {
+		return addEdge(tail, head, null);
+	}
+
+	/**
+	 * Adds an edge with the specified weight from the specified tail element to
+	 * the specified head element if the edge does not already exist. Returns
+	 * true if the edge was added to this graph after this call. If the edge
+	 * specified by the tail and head elements already exists, then false is
+	 * returned. <br/>
+	 * <br/>
+	 * In order to add an edge between two elements, it is required that the two
+	 * elements have already been added to this graph. If the specified elements
+	 * are not in this graph, then no edge is added and false is returned.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge
+	 * @return true if the edge was added to this graph, else false
+	 */
+	@Override
+	public synchronized boolean addEdge(V tail, V head, W weight) {
+		Snapshot<V, W> state = current;
+		PersistentHashMap<V, W> tailNeighbors = state.vertexNeighbors.get(tail);
+		if (tailNeighbors == null || !state.vertexNeighbors.containsKey(head)) {
+			return false;
+		}
+		if (tailNeighbors.containsKey(head)) {
+			return false;
+		}
+		PersistentHashMap<V, PersistentHashMap<V, W>> vertexNeighbors = state.vertexNeighbors.put(tail,
+				tailNeighbors.put(head, weight));
+		if (!isDirected) {
+			vertexNeighbors = vertexNeighbors.put(head, vertexNeighbors.get(head).put(tail, weight));
+		}
+		current = new Snapshot<>(isDirected, vertexNeighbors, state.numberOfEdges + 1);
+		return true;
+	}
+
+	/**
+	 * Adds the specified element to this graph as a vertex. Returns true if the
+	 * element was successfully added to this graph after this call. <br/>
+	 * <br/>
+	 * Duplicate elements cannot be inserted. If this call is made with an
+	 * element that is already present in this graph, false is returned.
+	 * 
+	 * @param elem
+	 *            the element to add
+	 * @return true if the element was added to this graph after this call, else
+	 *         false
+	 */
+	@Override
+	public synchronized boolean addVertex(V elem) {
+		Snapshot<V, W> state = current;
+		if (state.vertexNeighbors.containsKey(elem)) {
+			return false;
+		}
+		current = new Snapshot<>(isDirected, state.vertexNeighbors.put(elem, PersistentHashMap.empty()),
+				state.numberOfEdges);
+		return true;
+	}
+
+	/**
+	 * Removes all of the elements from this graph. This graph will be empty
+	 * after this method returns. Snapshots taken before this call are not
+	 * affected.
+	 */
+	@Override
+	public synchronized void clear() {
+		current = new Snapshot<>(isDirected, PersistentHashMap.empty(), 0);
+	}
+
+	/**
+	 * Returns true if this graph contains an edge from tail to head. Returns
+	 * false otherwise. <br/>
+	 * <br/>
+	 * If this graph is undirected, the order of the arguments does not matter,
+	 * i.e, containsEdge(tail, head) == containsEdge(head, tail).
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @param head
+	 *            the head vertex of the edge who presence in this graph is to
+	 *            be tested
+	 * @return true if this graph contains an edge from tail to head, else false
+	 */
+	@Override
+	public boolean containsEdge(V tail, V head) {
+		return current.containsEdge(tail, head);
+	}
+
+	/**
+	 * Returns true if this graph contains the specified element. Returns false
+	 * otherwise.
+	 * 
+	 * @param elem
+	 *            the element whose presence in this graph is to be tested
+	 * @return true if this graph contains the specified element, else false
+	 */
+	@Override
+	public boolean containsVertex(V elem) {
+		return current.containsVertex(elem);
+	}
+
+	/**
+	 * Performs the specified action on the head and weight of every edge
+	 * leaving the specified tail element in the current version of this graph.
+	 * Nothing is done if the element is not in this graph. Changes made while
+	 * the edges are visited are not seen.
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edges to visit
+	 * @param action
+	 *            the action to perform on the head and weight of each edge
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	@Override
+	public void forEachEdge(V tail, BiConsumer<? super V, ? super W> action) {
+		current.forEachEdge(tail, action);
+	}
+
+	/**
+	 * Returns an unmodifiable set containing all elements that are adjacent to
+	 * this element in the current version of this graph, or null if this
+	 * element is not in this graph. If this element does not have any outgoing
+	 * edges, an empty set is returned.
+	 * 
+	 * @param elem
+	 *            the element whose neighbors we want
+	 * @return a set of elements that are adjacent to this element
+	 */
+	@Override
+	public Set<V> getAdjacentElements(V elem) {
+		return current.getAdjacentElements(elem);
+	}
+
+	/**
+	 * Returns the number of edges in this graph.
+	 * 
+	 * @return the number of edges in this graph
+	 */
+	@Override
+	public int getNumberOfEdges() {
+		return current.getNumberOfEdges();
+	}
+
+	/**
+	 * Returns the number of elements (vertices) in this graph.
+	 * 
+	 * @return the number of elements in this graph
+	 */
+	@Override
+	public int getNumberOfVertices() {
+		return current.getNumberOfVertices();
+	}
+
+	/**
+	 * Returns an unmodifiable set of the elements (vertices) in the current
+	 * version of this graph.
+	 * 
+	 * @return the set of elements (vertices) in this graph
+	 */
+	@Override
+	public Set<V> getVertices() {
+		return current.getVertices();
+	}
+
+	/**
+	 * Returns the weight of the edge from tail to head if the edge exists and
+	 * has an associated weight, or null otherwise. A null return may also
+	 * indicate that the weight of the edge was set to null.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return the weight of the edge from tail to head
+	 */
+	@Override
+	public W getWeight(V tail, V head) {
+		return current.getWeight(tail, head);
+	}
+
+	/**
+	 * Returns true if this graph is directed, or false if it is undirected.
+	 * 
+	 * @return true if this graph is directed, else false
+	 */
+	@Override
+	public boolean isDirected() {
+		return isDirected;
+	}
+
+	/**
+	 * Returns true if this graph contains no elements (i.e., number of vertices
+	 * is 0).
+	 * 
+	 * @return true if this graph contains no elements, else false
+	 */
+	@Override
+	public boolean isEmpty() {
+		return current.isEmpty();
+	}
+
+	/**
+	 * Removes the edge from tail to head from this graph. Returns true if the
+	 * edge was in this graph before this call. The elements themselves are not
+	 * removed, and snapshots taken before this call are not affected. <br/>
+	 * <br/>
+	 * If this graph is undirected, the order of the arguments does not matter.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return true if the edge was removed from this graph, else false
+	 */
+	@Override
+	public synchronized boolean removeEdge(V tail, V head) {
+		Snapshot<V, W> state = current;
+		PersistentHashMap<V, W> tailNeighbors = state.vertexNeighbors.get(tail);
+		if (tailNeighbors == null || !tailNeighbors.containsKey(head)) {
+			return false;
+		}
+		PersistentHashMap<V, PersistentHashMap<V, W>> vertexNeighbors = state.vertexNeighbors.put(tail,
+				tailNeighbors.remove(head));
+		if (!isDirected) {
+			vertexNeighbors = vertexNeighbors.put(head, vertexNeighbors.get(head).remove(tail));
+		}
+		current = new Snapshot<>(isDirected, vertexNeighbors, state.numberOfEdges - 1);
+		return true;
+	}
+
+	/**
+	 * Removes the specified element from this graph, together with every edge
+	 * that starts or ends at it. Returns true if the element was in this graph
+	 * before this call. Snapshots taken before this call are not affected.
+	 * <br/>
+	 * <br/>
+	 * In an undirected graph this takes time proportional to the degree of the
+	 * element; in a directed graph, which keeps no index of incoming edges,
+	 * every other element is checked for an edge to it.
+	 * 
+	 * @param elem
+	 *            the element to remove
+	 * @return true if the element was removed from this graph, else false
+	 */
+	@Override
+	public synchronized boolean removeVertex(V elem) {
+		Snapshot<V, W> state = current;
+		PersistentHashMap<V, W> neighbors = state.vertexNeighbors.get(elem);
+		if (neighbors == null) {
+			return false;
+		}
+		PersistentHashMap<V, PersistentHashMap<V, W>> vertexNeighbors = state.vertexNeighbors.remove(elem);
+		int removed = neighbors.size();
+		Iterator<V> tails = isDirected ? vertexNeighbors.keyIterator() : neighbors.keyIterator();
+		while (tails.hasNext()) {
+			V tail = tails.next();
+			PersistentHashMap<V, W> tailNeighbors = vertexNeighbors.get(tail);
+			if (tailNeighbors != null && tailNeighbors.containsKey(elem)) {
+				vertexNeighbors = vertexNeighbors.put(tail, tailNeighbors.remove(elem));
+				if (isDirected) {
+					removed++;
+				}
+			}
+		}
+		current = new Snapshot<>(isDirected, vertexNeighbors, state.numberOfEdges - removed);
+		return true;
+	}
+
+	/**
+	 * Sets the weight of the edge from tail to head to the specified weight.
+	 * Returns the previous weight of the edge if the edge weight was previously
+	 * set, or null otherwise. A null return may also indicate that the weight
+	 * of the edge was set to null. <br/>
+	 * <br/>
+	 * If one or both of the specified elements are not in this graph or if an
+	 * edge from tail to head does not exist, then null is returned.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @param weight
+	 *            the weight of the edge to set
+	 * @return the previous weight of the edge
+	 */
+	@Override
+	public synchronized W setWeight(V tail, V head, W weight) {
+		Snapshot<V, W> state = current;
+		PersistentHashMap<V, W> tailNeighbors = state.vertexNeighbors.get(tail);
+		if (tailNeighbors == null || !tailNeighbors.containsKey(head)) {
+			return null;
+		}
+		PersistentHashMap<V, PersistentHashMap<V, W>> vertexNeighbors = state.vertexNeighbors.put(tail,
+				tailNeighbors.put(head, weight));
+		if (!isDirected) {
+			vertexNeighbors = vertexNeighbors.put(head, vertexNeighbors.get(head).put(tail, weight));
+		}
+		current = new Snapshot<>(isDirected, vertexNeighbors, state.numberOfEdges);
+		return tailNeighbors.get(head);
+	}
+
+	/**
+	 * Returns an immutable view of this graph as it is at the time of this
+	 * call. The snapshot is taken in constant time without copying, is not
+	 * affected by later changes to this graph, and may be read from any number
+	 * of threads without locking. All methods of the snapshot that would modify
+	 * it throw an UnsupportedOperationException.
+	 * 
+	 * @return an immutable snapshot of this graph
+	 */
+	public WeightedGraph<V, W> snapshot() {
+		return current;
+	}
+
+	/**
+	 * One immutable version of the state of a VersionedWeightedHashGraph.
+	 */
+	private static final class Snapshot<V, W> implements WeightedGraph<V, W> {
+
+		private final boolean isDirected;
+		private final PersistentHashMap<V, PersistentHashMap<V, W>> vertexNeighbors;
+		private final int numberOfEdges;
+
+		private Snapshot(boolean isDirected, PersistentHashMap<V, PersistentHashMap<V, W>> vertexNeighbors,
+				int numberOfEdges) {
+			this.isDirected = isDirected;
+			this.vertexNeighbors = vertexNeighbors;
+			this.numberOfEdges = numberOfEdges;
+		}
+
+		@Override
+		public boolean addEdge(V tail, V head) {
+			throw new UnsupportedOperationException("Snapshot cannot be modified");
+		}
+
+		@Override
+		public boolean addEdge(V tail, V head, W weight) {
+			throw new UnsupportedOperationException("Snapshot cannot be modified");
+		}
+
+		@Override
+		public boolean addVertex(V elem) {
+			throw new UnsupportedOperationException("Snapshot cannot be modified");
+		}
+
+		@Override
+		public void clear() {
+			throw new UnsupportedOperationException("Snapshot cannot be modified");
+		}
+
+		@Override
+		public boolean containsEdge(V tail, V head) {
+			PersistentHashMap<V, W> tailNeighbors = vertexNeighbors.get(tail);
+			return tailNeighbors != null && tailNeighbors.containsKey(head);
+		}
+
+		@Override
+		public boolean containsVertex(V elem) {
+			return vertexNeighbors.containsKey(elem);
+		}
+
+		@Override
+		public void forEachEdge(V tail, BiConsumer<? super V, ? super W> action) {
+			if (action == null) {
+				throw new NullPointerException("Action cannot be null");
+			}
+
+			PersistentHashMap<V, W> neighbors = vertexNeighbors.get(tail);
+			if (neighbors != null) {
+				neighbors.forEach(action);
+			}
+		}
+
+		@Override
+		public Set<V> getAdjacentElements(V elem) {
+			PersistentHashMap<V, W> neighbors = vertexNeighbors.get(elem);
+			return neighbors == null ? null : new KeySet<>(neighbors);
+		}
+
+		@Override
+		public int getNumberOfEdges() {
+			return numberOfEdges;
+		}
+
+		@Override
+		public int getNumberOfVertices() {
+			return vertexNeighbors.size();
+		}
+
+		@Override
+		public Set<V> getVertices() {
+			return new KeySet<>(vertexNeighbors);
+		}
+
+		@Override
+		public W getWeight(V tail, V head) {
+			PersistentHashMap<V, W> tailNeighbors = vertexNeighbors.get(tail);
+			return tailNeighbors == null ? null : tailNeighbors.get(head);
+		}
+
+		@Override
+		public boolean isDirected() {
+			return isDirected;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return vertexNeighbors.isEmpty();
+		}
+
+		@Override
+		public boolean removeEdge(V tail, V head) {
+			throw new UnsupportedOperationException("Snapshot cannot be modified");
+		}
+
+		@Override
+		public boolean removeVertex(V elem) {
+			throw new UnsupportedOperationException("Snapshot cannot be modified");
+		}
+
+		@Override
+		public W setWeight(V tail, V head, W weight) {
+			throw new UnsupportedOperationException("Snapshot cannot be modified");
+		}
+
+	}
+
+	/**
+	 * An unmodifiable view of the keys of a persistent map.
+	 */
+	private static final class KeySet<K> extends AbstractSet<K> {
+
+		private final PersistentHashMap<K, ?> map;
+
+		private KeySet(PersistentHashMap<K, ?> map) {
+			this.map = map;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return map.containsKey(o);
+		}
+
+		@Override
+		public Iterator<K> iterator() {
+			return map.keyIterator();
+		}
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+	}
+
+}
@@ -1,5 +1,8 @@
 package com.rawva.structures.graphs;
 
+import java.util.Set;
+import java.util.function.BiConsumer;
+
 /**
  * A weighted graph is a type of graph in which weights are associated with
  * edges. An edge weight is an object that indicates some value associated with
@@ -39,6 +42,36 @@ public interface WeightedGraph<V, W> extends Graph<V> {
 	 */
 	boolean addEdge(V tail, V head, W weight);
 
+	/**
+	 * Performs the specified action on the head and weight of every edge
+	 * leaving the specified tail element. Nothing is done if the element is not
+	 * in this graph. The action must not modify this graph. <br/>
+	 * <br/>
+	 * Implementations read the pairs straight from their adjacency storage, so
+	 * this is the cheapest way to visit the weighted neighbors of a vertex. The
+	 * default implementation looks up the weight of each adjacent element.
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edges to visit
+	 * @param action
+	 *            the action to perform on the head and weight of each edge
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	default void forEachEdge(V tail, BiConsumer<? super V, ? super W> action) {
+		if (action == null) {
+			throw new NullPointerException("Action cannot be null");
+		}
+
+		Set<V> heads = containsVertex(tail) ? getAdjacentElements(tail) : null;
+		if (heads == null) {
+			return;
+		}
+		for (V head : heads) {
+			action.accept(head, getWeight(tail, head));
+		}
+	}
+
 	/**
 	 * Returns the weight of the edge from tail to head if the edge exists and
 	 * has an associated weight, or null otherwise. A null return may also
@@ -1,14 +1,36 @@
 package com.rawva.structures.graphs;
 
+import java.util.AbstractSet;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * This is an implementation for a weighted graph that provides quick lookup
  * time for both elements (vertices) and edges. <br/>
  * <br/>
+ * Each vertex maps its neighbors directly to the weights of the edges leading
+ * to them, so looking up an edge or its weight is a pair of hash lookups and
+ * does not allocate. In an undirected graph, an edge between two distinct
+ * elements is recorded under both of them. <br/>
+ * <br/>
+ * Only outgoing edges are stored until the predecessors or in-degree of a
+ * vertex of a directed graph are first asked for. At that point an index of
+ * incoming edges is built with one pass over the graph, and from then on it is
+ * kept up to date as edges are added and removed, so that later lookups are a
+ * single hash lookup. Removing a vertex of a directed graph also builds the
+ * index, which lets its incoming edges be found without looking at every
+ * other vertex: removing an edge takes constant time, and removing a vertex
+ * takes time proportional to its degree. Because building the index writes
+ * to the graph, getPredecessors and getInDegree are not safe to call from
+ * several threads at once, even with no other writers, until the index
+ * exists. <br/>
+ * <br/>
  * One null element is allowed to be placed in this graph as a vertex. Edge
  * weights are allowed to be null. Duplicate elements cannot be added. Duplicate
  * edges cannot be added.
@@ -22,9 +44,14 @@ import java.util.Set;
  */
 public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 
+	private static final int DEFAULT_VERTEX_CAPACITY = 12;
+
 	private final boolean isDirected;
-	private final Map<V, Set<V>> vertexNeighbors;
-	private final Map<Edge<V>, W> edgeWeights;
+	private Map<V, Map<V, W>> vertexNeighbors;
+	private Map<V, Set<V>> vertexPredecessors;
+	private int vertexCapacity;
+	private final int expectedDegree;
+	private int numberOfEdges;
 
 	/**
 	 * Constructs an empty WeightedHashMapGraph.
@@ -36,7 +63,38 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 	public WeightedHashGraph(boolean isDirected) {
 		this.isDirected = isDirected;
 		this.vertexNeighbors = new HashMap<>();
-		this.edgeWeights = new HashMap<>();
+		this.vertexCapacity = DEFAULT_VERTEX_CAPACITY;
+		this.expectedDegree = 0;
+	}
+
+	/**
+	 * Constructs an empty WeightedHashMapGraph whose hash tables are sized to
+	 * hold the specified numbers of vertices and edges without being resized.
+	 * The expected number of neighbors of each vertex is derived from the two
+	 * counts and is used to size the neighbor map of every vertex that is
+	 * added.
+	 * 
+	 * @param isDirected
+	 *            value to specify if this graph is directed (true) or
+	 *            undirected (false)
+	 * @param expectedVertices
+	 *            the number of vertices this graph is expected to hold
+	 * @param expectedEdges
+	 *            the number of edges this graph is expected to hold
+	 * @throws IllegalArgumentException
+	 *             if one or both of the expected counts are negative
+	 */
+	public WeightedHashGraph(boolean isDirected, int expectedVertices, int expectedEdges) {
+		if (expectedVertices < 0 || expectedEdges < 0) {
+			throw new IllegalArgumentException("Expected counts cannot be negative");
+		}
+
+		this.isDirected = isDirected;
+		this.vertexNeighbors = new HashMap<>(capacityFor(expectedVertices));
+		this.vertexCapacity = Math.max(expectedVertices, DEFAULT_VERTEX_CAPACITY);
+		long storedEdges = isDirected ? expectedEdges : 2L * expectedEdges;
+		this.expectedDegree = expectedVertices == 0 ? 0
+				: (int) Math.min((storedEdges + expectedVertices - 1) / expectedVertices, Integer.MAX_VALUE);
 	}
 
 	/**
@@ -46,6 +104,36 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 		this(true);
 	}
 
+	/**
+	 * Returns the initial capacity a HashMap needs in order to hold the
+	 * specified number of entries without being resized.
+	 * 
+	 * @param expectedSize
+	 *            the number of entries the map is expected to hold
+	 * @return the initial capacity for the map
+	 */
+	private static int capacityFor(int expectedSize) {
+		return (int) Math.min((long) (expectedSize / 0.75f) + 1, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Makes sure that the vertex map of this graph can hold the specified number
+	 * of vertices without being resized, rebuilding it once if necessary.
+	 * 
+	 * @param expectedVertices
+	 *            the number of vertices the vertex map should be able to hold
+	 */
+	private void ensureVertexCapacity(int expectedVertices) {
+		vertexCapacity = Math.max(vertexCapacity, vertexNeighbors.size());
+		if (expectedVertices <= vertexCapacity) {
+			return;
+		}
+		vertexCapacity = (int) Math.max(expectedVertices, Math.min(2L * vertexCapacity, Integer.MAX_VALUE));
+		Map<V, Map<V, W>> resized = new HashMap<>(capacityFor(vertexCapacity));
+		resized.putAll(vertexNeighbors);
+		vertexNeighbors = resized;
+	}
+
 	/**
 	 * Adds an edge from the specified tail element to the specified head
 	 * element if the edge does not already exist. Returns true if the edge was
@@ -88,21 +176,129 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 	 */
 	@Override
 	public boolean addEdge(V tail, V head, W weight) {
-		if (!containsVertex(tail) || !containsVertex(head)) {
+		Map<V, W> tailNeighbors = vertexNeighbors.get(tail);
+		if (tailNeighbors == null || !containsVertex(head)) {
 			return false;
 		}
-		if (containsEdge(tail, head)) {
+		if (tailNeighbors.containsKey(head)) {
 			return false;
 		}
-		Edge<V> edge = isDirected ? new DirectedEdge<>(tail, head) : new UndirectedEdge<>(tail, head);
-		edgeWeights.put(edge, weight);
-		vertexNeighbors.get(tail).add(head);
+		tailNeighbors.put(head, weight);
 		if (!isDirected) {
-			vertexNeighbors.get(head).add(tail);
+			vertexNeighbors.get(head).put(tail, weight);
+		} else if (vertexPredecessors != null) {
+			vertexPredecessors.get(head).add(tail);
 		}
+		numberOfEdges++;
 		return true;
 	}
 
+	/**
+	 * Adds many edges to this graph at once. The edge at position i goes from
+	 * tails[i] to heads[i] and has the weight weights[i], or a null weight if
+	 * the weights array is null. Returns the number of edges that were added.
+	 * <br/>
+	 * <br/>
+	 * This is equivalent to calling addEdge once for each position, in order,
+	 * but is considerably faster for large inputs: every edge is checked and
+	 * inserted with as few hash lookups as possible, and the hash tables of
+	 * this graph are sized for the new vertices and their edges before any
+	 * edge is inserted. As with addEdge, an edge that already exists (including
+	 * one that appears earlier in the same input) is not added again, and its
+	 * weight is not changed. <br/>
+	 * <br/>
+	 * If addMissingVertices is true, every tail and head that is not yet in
+	 * this graph is added as a vertex first. Otherwise, edges between elements
+	 * that are not in this graph are skipped.
+	 * 
+	 * @param tails
+	 *            the tail vertices of the edges
+	 * @param heads
+	 *            the head vertices of the edges
+	 * @param weights
+	 *            the weights of the edges, or null to give every edge a null
+	 *            weight
+	 * @param addMissingVertices
+	 *            value to specify if elements that are not in this graph should
+	 *            be added as vertices (true) or if their edges should be skipped
+	 *            (false)
+	 * @return the number of edges that were added to this graph
+	 * @throws NullPointerException
+	 *             if the tails or heads array is null
+	 * @throws IllegalArgumentException
+	 *             if the arrays do not all have the same length
+	 */
+	public int addEdges(V[] tails, V[] heads, W[] weights, boolean addMissingVertices) {
+		if (tails == null || heads == null) {
+			throw new NullPointerException("Input arrays cannot be null");
+		}
+		if (heads.length != tails.length || (weights != null && weights.length != tails.length)) {
+			throw new IllegalArgumentException("Input arrays must have the same length");
+		}
+
+		if (addMissingVertices) {
+			addMissingVertices(tails, heads);
+		}
+		int added = 0;
+		for (int i = 0; i < tails.length; i++) {
+			Map<V, W> tailNeighbors = vertexNeighbors.get(tails[i]);
+			if (tailNeighbors == null || tailNeighbors.containsKey(heads[i])) {
+				continue;
+			}
+			Map<V, W> headNeighbors = null;
+			if (!isDirected || !addMissingVertices) {
+				headNeighbors = vertexNeighbors.get(heads[i]);
+				if (headNeighbors == null) {
+					continue;
+				}
+			}
+			W weight = weights == null ? null : weights[i];
+			tailNeighbors.put(heads[i], weight);
+			if (!isDirected) {
+				headNeighbors.put(tails[i], weight);
+			} else if (vertexPredecessors != null) {
+				vertexPredecessors.get(heads[i]).add(tails[i]);
+			}
+			added++;
+		}
+		numberOfEdges += added;
+		return added;
+	}
+
+	/**
+	 * Adds every element of the specified arrays that is not yet in this graph
+	 * as a vertex. The neighbor map of each new vertex is created large enough
+	 * to hold all of its edges among the specified edges, and the vertex map of
+	 * this graph is grown at most once.
+	 * 
+	 * @param tails
+	 *            the tail vertices of the edges to be added
+	 * @param heads
+	 *            the head vertices of the edges to be added
+	 */
+	private void addMissingVertices(V[] tails, V[] heads) {
+		Map<V, int[]> newVertexDegrees = new HashMap<>();
+		for (int i = 0; i < tails.length; i++) {
+			if (!vertexNeighbors.containsKey(tails[i])) {
+				newVertexDegrees.computeIfAbsent(tails[i], elem -> new int[1])[0]++;
+			}
+			if (!vertexNeighbors.containsKey(heads[i])) {
+				int[] degree = newVertexDegrees.computeIfAbsent(heads[i], elem -> new int[1]);
+				if (!isDirected) {
+					degree[0]++;
+				}
+			}
+		}
+
+		ensureVertexCapacity(vertexNeighbors.size() + newVertexDegrees.size());
+		for (Map.Entry<V, int[]> entry : newVertexDegrees.entrySet()) {
+			vertexNeighbors.put(entry.getKey(), new HashMap<>(capacityFor(entry.getValue()[0])));
+			if (vertexPredecessors != null) {
+				vertexPredecessors.put(entry.getKey(), new HashSet<>());
+			}
+		}
+	}
+
 	/**
 	 * Adds the specified element to this graph as a vertex. Returns true if the
 	 * element was successfully added to this graph after this call. <br/>
@@ -120,7 +316,15 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 		if (vertexNeighbors.containsKey(elem)) {
 			return false;
 		}
-		vertexNeighbors.put(elem, new HashSet<>());
+		Map<V, W> neighbors = expectedDegree == 0 ? new HashMap<>() : new HashMap<>(capacityFor(expectedDegree));
+		vertexNeighbors.put(elem, neighbors);
+		if (vertexNeighbors.size() > vertexCapacity) {
+			// The map has doubled its table, and with it its capacity
+			vertexCapacity = (int) Math.min(2L * vertexCapacity, Integer.MAX_VALUE);
+		}
+		if (vertexPredecessors != null) {
+			vertexPredecessors.put(elem, new HashSet<>());
+		}
 		return true;
 	}
 
@@ -131,7 +335,8 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 	@Override
 	public void clear() {
 		vertexNeighbors.clear();
-		edgeWeights.clear();
+		vertexPredecessors = null;
+		numberOfEdges = 0;
 	}
 
 	/**
@@ -151,8 +356,8 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 	 */
 	@Override
 	public boolean containsEdge(V tail, V head) {
-		return isDirected ? edgeWeights.containsKey(new DirectedEdge<>(tail, head))
-				: edgeWeights.containsKey(new UndirectedEdge<>(tail, head));
+		Map<V, W> tailNeighbors = vertexNeighbors.get(tail);
+		return tailNeighbors != null && tailNeighbors.containsKey(head);
 	}
 
 	/**
@@ -168,6 +373,64 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 		return vertexNeighbors.containsKey(elem);
 	}
 
+	/**
+	 * Increases the capacity of this graph, if necessary, so that it can hold
+	 * at least the specified number of vertices without its vertex map being
+	 * resized. Calling this before adding a known number of vertices avoids
+	 * repeated rehashing.
+	 * 
+	 * @param expectedVertices
+	 *            the number of vertices this graph should be able to hold
+	 * @throws IllegalArgumentException
+	 *             if the specified number of vertices is negative
+	 */
+	public void ensureCapacity(int expectedVertices) {
+		if (expectedVertices < 0) {
+			throw new IllegalArgumentException("Expected number of vertices cannot be negative");
+		}
+
+		ensureVertexCapacity(expectedVertices);
+	}
+
+	/**
+	 * Performs the specified action on the head and weight of every edge
+	 * leaving the specified tail element. Nothing is done if the element is not
+	 * in this graph. The action must not modify this graph. <br/>
+	 * <br/>
+	 * The pairs are read from the adjacency map of the tail in one pass,
+	 * without looking up each weight or allocating an entry per edge.
+	 * 
+	 * @param tail
+	 *            the tail vertex of the edges to visit
+	 * @param action
+	 *            the action to perform on the head and weight of each edge
+	 * @throws NullPointerException
+	 *             if the specified action is null
+	 */
+	@Override
+	public void forEachEdge(V tail, BiConsumer<? super V, ? super W> action) {
+		if (action == null) {
+			throw new NullPointerException("Action cannot be null");
+		}
+
+		Map<V, W> neighbors = vertexNeighbors.get(tail);
+		if (neighbors != null) {
+			neighbors.forEach(action);
+		}
+	}
+
+	/**
+	 * Returns an immutable copy of this graph in compressed sparse row form.
+	 * The copy is not affected by later changes to this graph. It is much
+	 * smaller than this graph and is faster to iterate over, which makes it the
+	 * better choice for graphs that are built once and then only read.
+	 * 
+	 * @return an immutable copy of this graph
+	 */
+	public CsrGraph<V, W> freeze() {
+		return new CsrGraph<>(this);
+	}
+
 	/**
 	 * Returns a set containing all elements that are adjacent to this element.
 	 * If this element does not have any outgoing edges, an empty set is
@@ -179,7 +442,24 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 	 */
 	@Override
 	public Set<V> getAdjacentElements(V elem) {
-		return vertexNeighbors.get(elem);
+		Map<V, W> neighbors = vertexNeighbors.get(elem);
+		return neighbors == null ? null : neighbors.keySet();
+	}
+
+	/**
+	 * Returns the number of edges that end at the specified element, or -1 if
+	 * the element is not in this graph. In an undirected graph, this is the
+	 * number of its neighbors. <br/>
+	 * <br/>
+	 * The first call on a directed graph builds the index of incoming edges.
+	 * 
+	 * @param elem
+	 *            the element whose in-degree we want
+	 * @return the in-degree of the element, or -1 if it is not in this graph
+	 */
+	public int getInDegree(V elem) {
+		Set<V> predecessors = getPredecessors(elem);
+		return predecessors == null ? -1 : predecessors.size();
 	}
 
 	/**
@@ -189,7 +469,7 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 	 */
 	@Override
 	public int getNumberOfEdges() {
-		return edgeWeights.size();
+		return numberOfEdges;
 	}
 
 	/**
@@ -202,6 +482,73 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 		return vertexNeighbors.size();
 	}
 
+	/**
+	 * Returns the number of edges that start at the specified element, or -1 if
+	 * the element is not in this graph. In an undirected graph, this is the
+	 * number of its neighbors.
+	 * 
+	 * @param elem
+	 *            the element whose out-degree we want
+	 * @return the out-degree of the element, or -1 if it is not in this graph
+	 */
+	public int getOutDegree(V elem) {
+		Map<V, W> neighbors = vertexNeighbors.get(elem);
+		return neighbors == null ? -1 : neighbors.size();
+	}
+
+	/**
+	 * Returns an unmodifiable view of the elements that have an edge to the
+	 * specified element, or null if the element is not in this graph. In an
+	 * undirected graph, these are its neighbors. <br/>
+	 * <br/>
+	 * The first call on a directed graph builds the index of incoming edges,
+	 * which takes time linear in the size of this graph; later calls take
+	 * constant time. Until the index exists, concurrent calls are unsafe even
+	 * when the graph is only being read.
+	 * 
+	 * @param elem
+	 *            the element whose predecessors we want
+	 * @return a set of elements that have an edge to this element
+	 */
+	public Set<V> getPredecessors(V elem) {
+		if (!isDirected) {
+			Map<V, W> neighbors = vertexNeighbors.get(elem);
+			return neighbors == null ? null : Collections.unmodifiableSet(neighbors.keySet());
+		}
+		if (vertexPredecessors == null) {
+			buildPredecessors();
+		}
+		Set<V> predecessors = vertexPredecessors.get(elem);
+		return predecessors == null ? null : Collections.unmodifiableSet(predecessors);
+	}
+
+	/**
+	 * Builds the index of incoming edges of this directed graph, sizing the
+	 * set of every vertex for its in-degree.
+	 */
+	private void buildPredecessors() {
+		Map<V, int[]> inDegrees = new HashMap<>(capacityFor(vertexNeighbors.size()));
+		for (V elem : vertexNeighbors.keySet()) {
+			inDegrees.put(elem, new int[1]);
+		}
+		for (Map<V, W> neighbors : vertexNeighbors.values()) {
+			for (V head : neighbors.keySet()) {
+				inDegrees.get(head)[0]++;
+			}
+		}
+
+		Map<V, Set<V>> predecessors = new HashMap<>(capacityFor(vertexCapacity));
+		for (Map.Entry<V, int[]> entry : inDegrees.entrySet()) {
+			predecessors.put(entry.getKey(), new HashSet<>(capacityFor(entry.getValue()[0])));
+		}
+		for (Map.Entry<V, Map<V, W>> entry : vertexNeighbors.entrySet()) {
+			for (V head : entry.getValue().keySet()) {
+				predecessors.get(head).add(entry.getKey());
+			}
+		}
+		vertexPredecessors = predecessors;
+	}
+
 	/**
 	 * Returns the set of elements (vertices) in this graph.
 	 * 
@@ -209,7 +556,7 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 	 */
 	@Override
 	public Set<V> getVertices() {
-		return vertexNeighbors.keySet();
+		return new VertexSet();
 	}
 
 	/**
@@ -225,8 +572,18 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 	 */
 	@Override
 	public W getWeight(V tail, V head) {
-		Edge<V> edge = isDirected ? new DirectedEdge<>(tail, head) : new UndirectedEdge<>(tail, head);
-		return edgeWeights.get(edge);
+		Map<V, W> tailNeighbors = vertexNeighbors.get(tail);
+		return tailNeighbors == null ? null : tailNeighbors.get(head);
+	}
+
+	/**
+	 * Returns true if this graph is directed, or false if it is undirected.
+	 * 
+	 * @return true if this graph is directed, else false
+	 */
+	@Override
+	public boolean isDirected() {
+		return isDirected;
 	}
 
 	/**
@@ -240,6 +597,83 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 		return getNumberOfVertices() == 0;
 	}
 
+	/**
+	 * Removes the edge from tail to head from this graph. Returns true if the
+	 * edge was in this graph before this call. The elements themselves are not
+	 * removed. <br/>
+	 * <br/>
+	 * If this graph is undirected, the order of the arguments does not matter.
+	 * 
+	 * @param tail
+	 *            the tail vertex
+	 * @param head
+	 *            the head vertex
+	 * @return true if the edge was removed from this graph, else false
+	 */
+	@Override
+	public boolean removeEdge(V tail, V head) {
+		Map<V, W> tailNeighbors = vertexNeighbors.get(tail);
+		if (tailNeighbors == null || !tailNeighbors.containsKey(head)) {
+			return false;
+		}
+		tailNeighbors.remove(head);
+		if (!isDirected) {
+			vertexNeighbors.get(head).remove(tail);
+		} else if (vertexPredecessors != null) {
+			vertexPredecessors.get(head).remove(tail);
+		}
+		numberOfEdges--;
+		return true;
+	}
+
+	/**
+	 * Removes the specified element from this graph, together with every edge
+	 * that starts or ends at it. Returns true if the element was in this graph
+	 * before this call. <br/>
+	 * <br/>
+	 * The edges are found through the neighbors of the element and, in a
+	 * directed graph, through the index of incoming edges, which is built by
+	 * the first call if it does not exist yet. Sets returned by
+	 * getAdjacentElements or getPredecessors for the removed element no longer
+	 * reflect changes to this graph.
+	 * 
+	 * @param elem
+	 *            the element to remove
+	 * @return true if the element was removed from this graph, else false
+	 */
+	@Override
+	public boolean removeVertex(V elem) {
+		Map<V, W> neighbors = vertexNeighbors.get(elem);
+		if (neighbors == null) {
+			return false;
+		}
+		if (isDirected) {
+			if (vertexPredecessors == null) {
+				buildPredecessors();
+			}
+			for (V tail : vertexPredecessors.remove(elem)) {
+				if (!Objects.equals(tail, elem)) {
+					vertexNeighbors.get(tail).remove(elem);
+					numberOfEdges--;
+				}
+			}
+			for (V head : neighbors.keySet()) {
+				if (!Objects.equals(head, elem)) {
+					vertexPredecessors.get(head).remove(elem);
+				}
+			}
+		} else {
+			for (V head : neighbors.keySet()) {
+				if (!Objects.equals(head, elem)) {
+					vertexNeighbors.get(head).remove(elem);
+				}
+			}
+		}
+		numberOfEdges -= neighbors.size();
+		vertexNeighbors.remove(elem);
+		return true;
+	}
+
 	/**
 	 * Sets the weight of the edge from tail to head to the specified weight.
 	 * Returns the previous weight of the edge if the edge weight was previously
@@ -259,11 +693,61 @@ public class WeightedHashGraph<V, W> implements WeightedGraph<V, W> {
 	 */
 	@Override
 	public W setWeight(V tail, V head, W weight) {
-		if (!containsEdge(tail, head)) {
+		Map<V, W> tailNeighbors = vertexNeighbors.get(tail);
+		if (tailNeighbors == null || !tailNeighbors.containsKey(head)) {
 			return null;
 		}
-		Edge<V> edge = isDirected ? new DirectedEdge<>(tail, head) : new UndirectedEdge<>(tail, head);
-		return edgeWeights.put(edge, weight);
+		if (!isDirected) {
+			vertexNeighbors.get(head).put(tail, weight);
+		}
+		return tailNeighbors.put(head, weight);
+	}
+
+	/**
+	 * Shrinks the hash tables of this graph to the smallest size that holds its
+	 * current vertices and edges. This is useful to release memory after a
+	 * graph has been fully built, particularly if it was constructed with
+	 * capacity hints that turned out to be too large, or after many vertices
+	 * and edges have been removed. <br/>
+	 * <br/>
+	 * Sets returned by getAdjacentElements or getPredecessors before this call
+	 * no longer reflect later changes to this graph.
+	 */
+	public void trimToSize() {
+		Map<V, Map<V, W>> trimmed = new HashMap<>(capacityFor(vertexNeighbors.size()));
+		for (Map.Entry<V, Map<V, W>> entry : vertexNeighbors.entrySet()) {
+			Map<V, W> neighbors = new HashMap<>(capacityFor(entry.getValue().size()));
+			neighbors.putAll(entry.getValue());
+			trimmed.put(entry.getKey(), neighbors);
+		}
+		vertexNeighbors = trimmed;
+		vertexCapacity = vertexNeighbors.size();
+		if (vertexPredecessors != null) {
+			buildPredecessors();
+		}
+	}
+
+	/**
+	 * A view of the vertices of this graph. It always reads from the current
+	 * vertex map, which is replaced when this graph is resized.
+	 */
+	private class VertexSet extends AbstractSet<V> {
+
+		@Override
+		public boolean contains(Object o) {
+			return vertexNeighbors.containsKey(o);
+		}
+
+		@Override
+		public Iterator<V> iterator() {
+			return vertexNeighbors.keySet().iterator();
+		}
+
+		@Override
+		public int size() {
+			return vertexNeighbors.size();
+		}
+
 	}
 
 }
@@ -0,0 +1,288 @@
+package com.rawva.structures.graphs.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A buffered reader of the values written by a BinaryOutput. Bytes are read
+ * from a channel into a ByteBuffer, which is refilled each time it runs out.
+ * <br/>
+ * <br/>
+ * A BinaryInput is not safe for use by several threads.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+public final class BinaryInput implements Closeable {
+
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer;
+
+	/**
+	 * Constructs a BinaryInput that reads from the specified channel through a
+	 * buffer of the specified size.
+	 * 
+	 * @param channel
+	 *            the channel to read from
+	 * @param bufferSize
+	 *            the size of the buffer in bytes
+	 * @throws NullPointerException
+	 *             if the specified channel is null
+	 * @throws IllegalArgumentException
+	 *             if the buffer size is less than 16 bytes
+	 */
+	public BinaryInput(ReadableByteChannel channel, int bufferSize) {
+		if (channel == null) {
+			throw new NullPointerException("Channel cannot be null");
+		}
+		if (bufferSize < 16) {
+			throw new IllegalArgumentException("Buffer size must be at least 16 bytes: " + bufferSize);
+		}
+
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.flip();
+	}
+
+	/**
+	 * Constructs a BinaryInput that reads from the specified channel through a
+	 * 64KB buffer.
+	 * 
+	 * @param channel
+	 *            the channel to read from
+	 * @throws NullPointerException
+	 *             if the specified channel is null
+	 */
+	public BinaryInput(ReadableByteChannel channel) {
+		this(channel, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Closes the channel.
+	 * 
+	 * @throws IOException
+	 *             if the channel cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Returns true if all bytes of the channel have been read.
+	 * 
+	 * @return true if there are no more bytes to read, else false
+	 * @throws IOException
+	 *             if the channel cannot be read
+	 */
+	public boolean isAtEnd() throws IOException {
+		return !buffer.hasRemaining() && !fill(1);
+	}
+
+	/**
+	 * Reads from the channel until the buffer holds at least the specified
+	 * number of bytes or the channel has no more bytes.
+	 * 
+	 * @param bytes
+	 *            the number of bytes needed, at most 16
+	 * @return true if the buffer holds the bytes, or false if the channel
+	 *         ended first
+	 * @throws IOException
+	 *             if the channel cannot be read
+	 */
+	private boolean fill(int bytes) throws IOException {
+		buffer.compact();
+		try {
+			while (buffer.position() < bytes) {
+				if (channel.read(buffer) < 0) {
+					return false;
+				}
+			}
+			return true;
+		} finally {
+			buffer.flip();
+		}
+	}
+
+	/**
+	 * Reads a byte.
+	 * 
+	 * @return the byte that was read
+	 * @throws EOFException
+	 *             if the channel has no more bytes
+	 * @throws IOException
+	 *             if the channel cannot be read
+	 */
+	public byte readByte() throws IOException {
+		require(1);
+		return buffer.get();
+	}
+
+	/**
+	 * Reads bytes into the specified range of the specified array.
+	 * 
+	 * @param bytes
+	 *            the array to read into
+	 * @param offset
+	 *            the index of the first byte to read
+	 * @param length
+	 *            the number of bytes to read
+	 * @throws EOFException
+	 *             if the channel ends before all bytes are read
+	 * @throws IOException
+	 *             if the channel cannot be read
+	 * @throws IndexOutOfBoundsException
+	 *             if the range is out of the bounds of the array
+	 */
+	public void readBytes(byte[] bytes, int offset, int length) throws IOException {
+		if (offset < 0 || length < 0 || offset > bytes.length - length) {
+			throw new IndexOutOfBoundsException("Range out of bounds: " + offset + ", " + length);
+		}
+
+		while (length > 0) {
+			if (!buffer.hasRemaining()) {
+				require(1);
+			}
+			int chunk = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, chunk);
+			offset += chunk;
+			length -= chunk;
+		}
+	}
+
+	/**
+	 * Reads a double written as eight bytes.
+	 * 
+	 * @return the double that was read
+	 * @throws EOFException
+	 *             if the channel has no more bytes
+	 * @throws IOException
+	 *             if the channel cannot be read
+	 */
+	public double readDouble() throws IOException {
+		require(8);
+		return buffer.getDouble();
+	}
+
+	/**
+	 * Reads an int written as four bytes.
+	 * 
+	 * @return the int that was read
+	 * @throws EOFException
+	 *             if the channel has no more bytes
+	 * @throws IOException
+	 *             if the channel cannot be read
+	 */
+	public int readInt() throws IOException {
+		require(4);
+		return buffer.getInt();
+	}
+
+	/**
+	 * Reads a long written as eight bytes.
+	 * 
+	 * @return the long that was read
+	 * @throws EOFException
+	 *             if the channel has no more bytes
+	 * @throws IOException
+	 *             if the channel cannot be read
+	 */
+	public long readLong() throws IOException {
+		require(8);
+		return buffer.getLong();
+	}
+
+	/**
+	 * Reads an int written as a varint.
+	 * 
+	 * @return the int that was read
+	 * @throws EOFException
+	 *             if the channel has no more bytes
+	 * @throws IOException
+	 *             if the channel cannot be read or the varint is malformed
+	 */
+	public int readVarInt() throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = readByte();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	/**
+	 * Reads an int written as a varint in zigzag encoding.
+	 * 
+	 * @return the int that was read
+	 * @throws EOFException
+	 *             if the channel has no more bytes
+	 * @throws IOException
+	 *             if the channel cannot be read or the varint is malformed
+	 */
+	public int readVarIntSigned() throws IOException {
+		int value = readVarInt();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Reads a long written as a varint.
+	 * 
+	 * @return the long that was read
+	 * @throws EOFException
+	 *             if the channel has no more bytes
+	 * @throws IOException
+	 *             if the channel cannot be read or the varint is malformed
+	 */
+	public long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 70; shift += 7) {
+			byte b = readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	/**
+	 * Reads a long written as a varint in zigzag encoding.
+	 * 
+	 * @return the long that was read
+	 * @throws EOFException
+	 *             if the channel has no more bytes
+	 * @throws IOException
+	 *             if the channel cannot be read or the varint is malformed
+	 */
+	public long readVarLongSigned() throws IOException {
+		long value = readVarLong();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Makes sure that the buffer holds at least the specified number of bytes,
+	 * reading from the channel if necessary.
+	 * 
+	 * @param bytes
+	 *            the number of bytes needed, at most 16
+	 * @throws EOFException
+	 *             if the channel ends first
+	 * @throws IOException
+	 *             if the channel cannot be read
+	 */
+	private void require(int bytes) throws IOException {
+		if (buffer.remaining() < bytes && !fill(bytes)) {
+			throw new EOFException("Unexpected end of input");
+		}
+	}
+
+}
@@ -0,0 +1,262 @@
+package com.rawva.structures.graphs.io;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A buffered writer of primitive values to a channel. Values are collected in
+ * a ByteBuffer, which is written to the channel each time it fills up. <br/>
+ * <br/>
+ * Fixed-size values are written in little-endian order. Variable-length ints
+ * and longs (varints) are written seven bits per byte, least significant
+ * group first, with the high bit of each byte set if more bytes follow, so
+ * that small non-negative values take a single byte. <br/>
+ * <br/>
+ * A BinaryOutput is not safe for use by several threads.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+public final class BinaryOutput implements Closeable, Flushable {
+
+	private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+
+	/**
+	 * Constructs a BinaryOutput that writes to the specified channel through a
+	 * buffer of the specified size.
+	 * 
+	 * @param channel
+	 *            the channel to write to
+	 * @param bufferSize
+	 *            the size of the buffer in bytes
+	 * @throws NullPointerException
+	 *             if the specified channel is null
+	 * @throws IllegalArgumentException
+	 *             if the buffer size is less than 16 bytes
+	 */
+	public BinaryOutput(WritableByteChannel channel, int bufferSize) {
+		if (channel == null) {
+			throw new NullPointerException("Channel cannot be null");
+		}
+		if (bufferSize < 16) {
+			throw new IllegalArgumentException("Buffer size must be at least 16 bytes: " + bufferSize);
+		}
+
+		this.channel = channel;
+		this.buffer = ByteBuffer.allocate(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Constructs a BinaryOutput that writes to the specified channel through a
+	 * 64KB buffer.
+	 * 
+	 * @param channel
+	 *            the channel to write to
+	 * @throws NullPointerException
+	 *             if the specified channel is null
+	 */
+	public BinaryOutput(WritableByteChannel channel) {
+		this(channel, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Writes the buffered bytes to the channel and closes the channel.
+	 * 
+	 * @throws IOException
+	 *             if the bytes cannot be written or the channel cannot be
+	 *             closed
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Writes all buffered bytes to the channel.
+	 * 
+	 * @throws IOException
+	 *             if the bytes cannot be written
+	 */
+	@Override
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Makes room for the specified number of bytes in the buffer, writing it to
+	 * the channel if necessary.
+	 * 
+	 * @param bytes
+	 *            the number of bytes that will be put in the buffer, at most
+	 *            16
+	 * @throws IOException
+	 *             if the buffered bytes cannot be written
+	 */
+	private void reserve(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	/**
+	 * Writes the low eight bits of the specified int as one byte.
+	 * 
+	 * @param value
+	 *            the byte to write
+	 * @throws IOException
+	 *             if the buffered bytes cannot be written
+	 */
+	public void writeByte(int value) throws IOException {
+		reserve(1);
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Writes the specified range of the specified array.
+	 * 
+	 * @param bytes
+	 *            the array holding the bytes to write
+	 * @param offset
+	 *            the index of the first byte to write
+	 * @param length
+	 *            the number of bytes to write
+	 * @throws IOException
+	 *             if the bytes cannot be written
+	 * @throws IndexOutOfBoundsException
+	 *             if the range is out of the bounds of the array
+	 */
+	public void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+		if (offset < 0 || length < 0 || offset > bytes.length - length) {
+			throw new IndexOutOfBoundsException("Range out of bounds: " + offset + ", " + length);
+		}
+
+		while (length > 0) {
+			if (!buffer.hasRemaining()) {
+				flush();
+			}
+			int chunk = Math.min(length, buffer.remaining());
+			buffer.put(bytes, offset, chunk);
+			offset += chunk;
+			length -= chunk;
+		}
+	}
+
+	/**
+	 * Writes the specified double as eight bytes.
+	 * 
+	 * @param value
+	 *            the double to write
+	 * @throws IOException
+	 *             if the buffered bytes cannot be written
+	 */
+	public void writeDouble(double value) throws IOException {
+		reserve(8);
+		buffer.putDouble(value);
+	}
+
+	/**
+	 * Writes the specified int as four bytes.
+	 * 
+	 * @param value
+	 *            the int to write
+	 * @throws IOException
+	 *             if the buffered bytes cannot be written
+	 */
+	public void writeInt(int value) throws IOException {
+		reserve(4);
+		buffer.putInt(value);
+	}
+
+	/**
+	 * Writes the specified long as eight bytes.
+	 * 
+	 * @param value
+	 *            the long to write
+	 * @throws IOException
+	 *             if the buffered bytes cannot be written
+	 */
+	public void writeLong(long value) throws IOException {
+		reserve(8);
+		buffer.putLong(value);
+	}
+
+	/**
+	 * Writes the specified int as a varint of one to five bytes. The int is
+	 * treated as unsigned, so negative values take five bytes; see
+	 * writeVarIntSigned(int).
+	 * 
+	 * @param value
+	 *            the int to write
+	 * @throws IOException
+	 *             if the buffered bytes cannot be written
+	 */
+	public void writeVarInt(int value) throws IOException {
+		reserve(5);
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Writes the specified int as a varint in zigzag encoding, which maps
+	 * values close to zero, negative or not, to short varints.
+	 * 
+	 * @param value
+	 *            the int to write
+	 * @throws IOException
+	 *             if the buffered bytes cannot be written
+	 */
+	public void writeVarIntSigned(int value) throws IOException {
+		writeVarInt((value << 1) ^ (value >> 31));
+	}
+
+	/**
+	 * Writes the specified long as a varint of one to ten bytes. The long is
+	 * treated as unsigned, so negative values take ten bytes; see
+	 * writeVarLongSigned(long).
+	 * 
+	 * @param value
+	 *            the long to write
+	 * @throws IOException
+	 *             if the buffered bytes cannot be written
+	 */
+	public void writeVarLong(long value) throws IOException {
+		reserve(10);
+		while ((value & ~0x7FL) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Writes the specified long as a varint in zigzag encoding, which maps
+	 * values close to zero, negative or not, to short varints.
+	 * 
+	 * @param value
+	 *            the long to write
+	 * @throws IOException
+	 *             if the buffered bytes cannot be written
+	 */
+	public void writeVarLongSigned(long value) throws IOException {
+		writeVarLong((value << 1) ^ (value >> 63));
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.rawva.structures.graphs.io;
+
+import java.io.IOException;
+
+/**
+ * A codec writes values of one type to a BinaryOutput and reads them back
+ * from a BinaryInput. GraphSerializer uses one codec for the elements
+ * (vertices) of a graph and another for its edge weights. <br/>
+ * <br/>
+ * Codecs for common types are provided by {@link Codecs}.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <T>
+ *            the type of values written and read by this codec
+ */
+public interface Codec<T> {
+
+	/**
+	 * Reads a value written by write() from the specified input.
+	 * 
+	 * @param input
+	 *            the input to read from
+	 * @return the value that was read
+	 * @throws IOException
+	 *             if the value cannot be read
+	 */
+	T read(BinaryInput input) throws IOException;
+
+	/**
+	 * Writes the specified value to the specified output.
+	 * 
+	 * @param output
+	 *            the output to write to
+	 * @param value
+	 *            the value to write
+	 * @throws IOException
+	 *             if the value cannot be written
+	 * @throws NullPointerException
+	 *             if the value is null and this codec does not permit null
+	 *             values
+	 */
+	void write(BinaryOutput output, T value) throws IOException;
+
+}
@@ -0,0 +1,182 @@
+package com.rawva.structures.graphs.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class consists of static methods that return codecs for common types.
+ * <br/>
+ * <br/>
+ * Unless stated otherwise, the returned codecs do not permit null values;
+ * nullable() adds support for them to any codec.
+ * 
+ * @author Raymond Tang
+ * 
+ */
+public final class Codecs {
+
+	private static final Codec<Double> DOUBLES = new Codec<Double>() {
+
+		@Override
+		public Double read(BinaryInput input) throws IOException {
+			return input.readDouble();
+		}
+
+		@Override
+		public void write(BinaryOutput output, Double value) throws IOException {
+			output.writeDouble(value);
+		}
+
+	};
+
+	private static final Codec<Integer> INTEGERS = new Codec<Integer>() {
+
+		@Override
+		public Integer read(BinaryInput input) throws IOException {
+			return input.readVarIntSigned();
+		}
+
+		@Override
+		public void write(BinaryOutput output, Integer value) throws IOException {
+			output.writeVarIntSigned(value);
+		}
+
+	};
+
+	private static final Codec<Long> LONGS = new Codec<Long>() {
+
+		@Override
+		public Long read(BinaryInput input) throws IOException {
+			return input.readVarLongSigned();
+		}
+
+		@Override
+		public void write(BinaryOutput output, Long value) throws IOException {
+			output.writeVarLongSigned(value);
+		}
+
+	};
+
+	private static final Codec<Object> NULLS = new Codec<Object>() {
+
+		@Override
+		public Object read(BinaryInput input) {
+			return null;
+		}
+
+		@Override
+		public void write(BinaryOutput output, Object value) {
+		}
+
+	};
+
+	private static final Codec<String> STRINGS = new Codec<String>() {
+
+		@Override
+		public String read(BinaryInput input) throws IOException {
+			int length = input.readVarInt();
+			if (length < 0) {
+				throw new IOException("Invalid string length: " + length);
+			}
+			byte[] bytes = new byte[length];
+			input.readBytes(bytes, 0, length);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public void write(BinaryOutput output, String value) throws IOException {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			output.writeVarInt(bytes.length);
+			output.writeBytes(bytes, 0, bytes.length);
+		}
+
+	};
+
+	private Codecs() {
+	}
+
+	/**
+	 * Returns a codec that writes doubles as eight bytes.
+	 * 
+	 * @return a codec for doubles
+	 */
+	public static Codec<Double> doubles() {
+		return DOUBLES;
+	}
+
+	/**
+	 * Returns a codec that writes ints as zigzag varints, so that ints close
+	 * to zero take a single byte.
+	 * 
+	 * @return a codec for ints
+	 */
+	public static Codec<Integer> integers() {
+		return INTEGERS;
+	}
+
+	/**
+	 * Returns a codec that writes longs as zigzag varints, so that longs close
+	 * to zero take a single byte.
+	 * 
+	 * @return a codec for longs
+	 */
+	public static Codec<Long> longs() {
+		return LONGS;
+	}
+
+	/**
+	 * Returns a codec that permits null values and otherwise writes values
+	 * with the specified codec. Each value is preceded by a byte that tells
+	 * whether it is null.
+	 * 
+	 * @param codec
+	 *            the codec for values that are not null
+	 * @return a codec that permits null values
+	 * @throws NullPointerException
+	 *             if the specified codec is null
+	 */
+	public static <T> Codec<T> nullable(Codec<T> codec) {
+		if (codec == null) {
+			throw new NullPointerException("Codec cannot be null");
+		}
+
+		return new Codec<T>() {
+
+			@Override
+			public T read(BinaryInput input) throws IOException {
+				return input.readByte() == 0 ? null : codec.read(input);
+			}
+
+			@Override
+			public void write(BinaryOutput output, T value) throws IOException {
+				output.writeByte(value == null ? 0 : 1);
+				if (value != null) {
+					codec.write(output, value);
+				}
+			}
+
+		};
+	}
+
+	/**
+	 * Returns a codec that writes nothing and reads every value as null. It is
+	 * meant for the weights of graphs whose edges have no weights.
+	 * 
+	 * @return a codec that only reads null values
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Codec<T> nulls() {
+		return (Codec<T>) NULLS;
+	}
+
+	/**
+	 * Returns a codec that writes strings as their length in UTF-8 bytes,
+	 * followed by the bytes.
+	 * 
+	 * @return a codec for strings
+	 */
+	public static Codec<String> strings() {
+		return STRINGS;
+	}
+
+}
@@ -0,0 +1,407 @@
+package com.rawva.structures.graphs.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.rawva.structures.graphs.ConcurrentWeightedHashGraph;
+import com.rawva.structures.graphs.WeightedGraph;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+/**
+ * Loads edge lists from text files into graphs, overlapping reading, parsing
+ * and insertion. <br/>
+ * <br/>
+ * Each line of an edge list holds the tail, the head and optionally the
+ * weight of one edge, separated by commas, tabs or spaces, so both CSV and TSV
+ * files are accepted. Blank lines and lines starting with '#' or '%' are
+ * skipped. Elements (vertices) and weights are parsed from their text by the
+ * functions given to the constructor; an edge without a weight is given a
+ * null weight. Vertices are added to the graph as they are first met. <br/>
+ * <br/>
+ * A load runs as a pipeline: one thread reads the file in large chunks cut at
+ * line ends, a pool of parser threads turns each chunk into a batch of edges,
+ * and the calling thread inserts the batches in file order. A bounded queue
+ * between the stages keeps at most a few chunks in memory however large the
+ * file is. A WeightedHashGraph receives each batch through addEdges. A
+ * ConcurrentWeightedHashGraph is filled by the parser threads themselves, in
+ * no particular order, so that insertion is parallel too. Other graphs
+ * receive edges one at a time. <br/>
+ * <br/>
+ * An EdgeListLoader holds no state besides its configuration, and may be
+ * shared between threads if its parsing functions may.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graphs
+ * @param <W>
+ *            the type of edge weights in the graphs
+ */
+public final class EdgeListLoader<V, W> {
+
+	private static final int DEFAULT_CHUNK_SIZE = 1 << 22;
+
+	private final Function<String, ? extends V> vertexParser;
+	private final Function<String, ? extends W> weightParser;
+	private final int numberOfParsers;
+	private final int chunkSize;
+
+	/**
+	 * Constructs an EdgeListLoader that parses elements and weights with the
+	 * specified functions, using one parser thread per available processor.
+	 * 
+	 * @param vertexParser
+	 *            the function that parses an element (vertex) from its text
+	 * @param weightParser
+	 *            the function that parses an edge weight from its text
+	 * @throws NullPointerException
+	 *             if one or both of the functions are null
+	 */
+	public EdgeListLoader(Function<String, ? extends V> vertexParser, Function<String, ? extends W> weightParser) {
+		this(vertexParser, weightParser, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs an EdgeListLoader that parses elements and weights with the
+	 * specified functions, using the specified number of parser threads.
+	 * 
+	 * @param vertexParser
+	 *            the function that parses an element (vertex) from its text
+	 * @param weightParser
+	 *            the function that parses an edge weight from its text
+	 * @param numberOfParsers
+	 *            the number of parser threads
+	 * @throws NullPointerException
+	 *             if one or both of the functions are null
+	 * @throws IllegalArgumentException
+	 *             if the number of parser threads is less than 1
+	 */
+	public EdgeListLoader(Function<String, ? extends V> vertexParser, Function<String, ? extends W> weightParser,
+			int numberOfParsers) {
+		this(vertexParser, weightParser, numberOfParsers, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Constructs an EdgeListLoader that reads chunks of the specified size.
+	 * Small chunks let tests cover lines that cross chunk boundaries.
+	 */
+	EdgeListLoader(Function<String, ? extends V> vertexParser, Function<String, ? extends W> weightParser,
+			int numberOfParsers, int chunkSize) {
+		if (vertexParser == null) {
+			throw new NullPointerException("Vertex parser cannot be null");
+		}
+		if (weightParser == null) {
+			throw new NullPointerException("Weight parser cannot be null");
+		}
+		if (numberOfParsers < 1) {
+			throw new IllegalArgumentException("Number of parsers must be positive: " + numberOfParsers);
+		}
+
+		this.vertexParser = vertexParser;
+		this.weightParser = weightParser;
+		this.numberOfParsers = numberOfParsers;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Returns true if the specified byte separates the fields of a line.
+	 */
+	private static boolean isSeparator(byte b) {
+		return b == ',' || b == '\t' || b == ' ' || b == '\r';
+	}
+
+	/**
+	 * Adds the edges listed in the specified file to the specified graph.
+	 * Returns the number of edges that were added; edges already in the graph,
+	 * including ones listed earlier in the file, are not counted. <br/>
+	 * <br/>
+	 * If the load fails, every parser thread has stopped by the time the
+	 * exception is thrown, but the edges inserted before the failure are left
+	 * in the graph.
+	 * 
+	 * @param path
+	 *            the file to read
+	 * @param graph
+	 *            the graph to add the edges to
+	 * @return the number of edges that were added to the graph
+	 * @throws IOException
+	 *             if the file cannot be read or holds a malformed line
+	 * @throws NullPointerException
+	 *             if the specified path or graph is null
+	 */
+	public long load(Path path, WeightedGraph<V, W> graph) throws IOException {
+		if (path == null) {
+			throw new NullPointerException("Path cannot be null");
+		}
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+
+		boolean insertWhileParsing = graph instanceof ConcurrentWeightedHashGraph;
+		BlockingQueue<Future<EdgeBatch<V, W>>> batches = new ArrayBlockingQueue<>(2 * numberOfParsers);
+		ExecutorService parsers = Executors.newFixedThreadPool(numberOfParsers, runnable -> {
+			Thread thread = new Thread(runnable, "edge-list-parser");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Thread reader = new Thread(() -> readChunks(path, batches, parsers, insertWhileParsing ? graph : null),
+				"edge-list-reader");
+		reader.setDaemon(true);
+		reader.start();
+
+		try {
+			long added = 0;
+			while (true) {
+				EdgeBatch<V, W> batch = batches.take().get();
+				if (batch == null) {
+					return added;
+				}
+				added += insertWhileParsing ? batch.added : batch.insertInto(graph);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while loading " + path);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		} finally {
+			reader.interrupt();
+			parsers.shutdownNow();
+			awaitTermination(parsers);
+		}
+	}
+
+	/**
+	 * Waits for the tasks running on the specified executor, which has been
+	 * shut down, to end. An interrupt does not cut the wait short, so parsers
+	 * that insert into a graph cannot outlive the load; it is restored once
+	 * they have ended.
+	 */
+	private static void awaitTermination(ExecutorService parsers) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				if (parsers.awaitTermination(1, TimeUnit.SECONDS)) {
+					break;
+				}
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Parses the lines in the specified range of the specified array into a
+	 * batch of edges, adding them to the specified graph if it is not null.
+	 * 
+	 * @param bytes
+	 *            the array holding the lines
+	 * @param length
+	 *            the number of bytes to parse, ending at a line end or at the
+	 *            end of the file
+	 * @param graph
+	 *            the graph to add the edges to as they are parsed, or null
+	 * @return the parsed edges
+	 * @throws IOException
+	 *             if a line is malformed
+	 */
+	private EdgeBatch<V, W> parse(byte[] bytes, int length, WeightedGraph<V, W> graph) throws IOException {
+		EdgeBatch<V, W> batch = new EdgeBatch<>();
+		String[] fields = new String[3];
+		int lineStart = 0;
+		while (lineStart < length) {
+			int lineEnd = lineStart;
+			while (lineEnd < length && bytes[lineEnd] != '\n') {
+				lineEnd++;
+			}
+
+			int numberOfFields = 0;
+			int position = lineStart;
+			while (true) {
+				while (position < lineEnd && isSeparator(bytes[position])) {
+					position++;
+				}
+				if (position == lineEnd || (numberOfFields == 0 && (bytes[position] == '#' || bytes[position] == '%'))) {
+					break;
+				}
+				int fieldStart = position;
+				while (position < lineEnd && !isSeparator(bytes[position])) {
+					position++;
+				}
+				if (numberOfFields == fields.length) {
+					throw malformedLine(bytes, lineStart, lineEnd, null);
+				}
+				fields[numberOfFields++] = new String(bytes, fieldStart, position - fieldStart, StandardCharsets.UTF_8);
+			}
+
+			if (numberOfFields == 1) {
+				throw malformedLine(bytes, lineStart, lineEnd, null);
+			}
+			if (numberOfFields > 1) {
+				V tail;
+				V head;
+				W weight;
+				try {
+					tail = vertexParser.apply(fields[0]);
+					head = vertexParser.apply(fields[1]);
+					weight = numberOfFields == 3 ? weightParser.apply(fields[2]) : null;
+				} catch (RuntimeException e) {
+					throw malformedLine(bytes, lineStart, lineEnd, e);
+				}
+				if (graph == null) {
+					batch.add(tail, head, weight);
+				} else {
+					batch.added += insert(graph, tail, head, weight) ? 1 : 0;
+				}
+			}
+			lineStart = lineEnd + 1;
+		}
+		return batch;
+	}
+
+	/**
+	 * Adds the specified edge and its elements to the specified graph. Returns
+	 * true if the edge was added.
+	 */
+	private static <V, W> boolean insert(WeightedGraph<V, W> graph, V tail, V head, W weight) {
+		graph.addVertex(tail);
+		graph.addVertex(head);
+		return graph.addEdge(tail, head, weight);
+	}
+
+	/**
+	 * Returns an IOException that reports the line in the specified range of
+	 * the specified array as malformed, with the specified cause or null.
+	 */
+	private static IOException malformedLine(byte[] bytes, int lineStart, int lineEnd, Throwable cause) {
+		return new IOException("Malformed line: "
+				+ new String(bytes, lineStart, lineEnd - lineStart, StandardCharsets.UTF_8).trim(), cause);
+	}
+
+	/**
+	 * Reads the specified file in chunks that end at line ends, and queues
+	 * the parsing of every chunk, in order. A task returning null is queued
+	 * after the last chunk, or a failed task if the file cannot be read.
+	 * 
+	 * @param path
+	 *            the file to read
+	 * @param batches
+	 *            the queue of parsed batches
+	 * @param parsers
+	 *            the executor that parses chunks
+	 * @param graph
+	 *            the graph the parsers add the edges to, or null if the
+	 *            batches are inserted by the consumer of the queue
+	 */
+	private void readChunks(Path path, BlockingQueue<Future<EdgeBatch<V, W>>> batches, ExecutorService parsers,
+			WeightedGraph<V, W> graph) {
+		try {
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				byte[] carry = new byte[0];
+				boolean atEnd = false;
+				while (!atEnd) {
+					// Starts each chunk with the unfinished line of the last one
+					byte[] chunk = Arrays.copyOf(carry, Math.max(chunkSize, 2 * carry.length));
+					ByteBuffer buffer = ByteBuffer.wrap(chunk);
+					buffer.position(carry.length);
+					while (buffer.hasRemaining() && !atEnd) {
+						atEnd = channel.read(buffer) < 0;
+					}
+					int length = buffer.position();
+					int cut = length;
+					if (!atEnd) {
+						while (cut > 0 && chunk[cut - 1] != '\n') {
+							cut--;
+						}
+					}
+					carry = Arrays.copyOfRange(chunk, cut, length);
+					if (cut > 0) {
+						int parsedLength = cut;
+						batches.put(parsers.submit(() -> parse(chunk, parsedLength, graph)));
+					}
+				}
+			}
+			batches.put(CompletableFuture.completedFuture(null));
+		} catch (InterruptedException e) {
+			// The load has ended; nobody is waiting for more batches
+		} catch (IOException | RuntimeException e) {
+			CompletableFuture<EdgeBatch<V, W>> failure = new CompletableFuture<>();
+			failure.completeExceptionally(e);
+			try {
+				batches.put(failure);
+			} catch (InterruptedException interrupted) {
+				// The load has ended; nobody is waiting for the failure
+			}
+		}
+	}
+
+	/**
+	 * The edges parsed from one chunk of a file, or the number of edges added
+	 * while parsing it.
+	 */
+	private static final class EdgeBatch<V, W> {
+
+		private Object[] tails = new Object[256];
+		private Object[] heads = new Object[256];
+		private Object[] weights = new Object[256];
+		private int size;
+		private long added;
+
+		private void add(V tail, V head, W weight) {
+			if (size == tails.length) {
+				tails = Arrays.copyOf(tails, 2 * size);
+				heads = Arrays.copyOf(heads, 2 * size);
+				weights = Arrays.copyOf(weights, 2 * size);
+			}
+			tails[size] = tail;
+			heads[size] = head;
+			weights[size++] = weight;
+		}
+
+		/**
+		 * Adds the edges of this batch and their elements to the specified
+		 * graph, in order. Returns the number of edges that were added.
+		 */
+		@SuppressWarnings("unchecked")
+		private long insertInto(WeightedGraph<V, W> graph) {
+			if (graph instanceof WeightedHashGraph) {
+				return ((WeightedHashGraph<V, W>) graph).addEdges((V[]) Arrays.copyOf(tails, size),
+						(V[]) Arrays.copyOf(heads, size), (W[]) Arrays.copyOf(weights, size), true);
+			}
+			long added = 0;
+			for (int i = 0; i < size; i++) {
+				added += insert(graph, (V) tails[i], (V) heads[i], (W) weights[i]) ? 1 : 0;
+			}
+			return added;
+		}
+
+	}
+
+}
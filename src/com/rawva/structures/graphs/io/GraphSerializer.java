@@ -0,0 +1,340 @@
+package com.rawva.structures.graphs.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.rawva.structures.graphs.WeightedGraph;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+/**
+ * Writes weighted graphs in a compact binary format and reads them back as
+ * WeightedHashGraphs. Elements (vertices) and edge weights are written by the
+ * codecs given to the constructor. <br/>
+ * <br/>
+ * The format starts with a header holding the number of vertices and edges,
+ * followed by every vertex, which is thereby assigned an id from 0 to n - 1.
+ * The edges of each vertex follow: the number of edges, then for every edge
+ * the difference between its head id and the previous one as a varint, and
+ * its weight. Sorting the heads of each vertex keeps these differences small,
+ * so most take a single byte. An undirected edge is written only once, with
+ * the vertex of the smaller id as its tail. <br/>
+ * <br/>
+ * Files may be compressed with gzip. read(Path) recognizes compressed files
+ * by their first bytes. A graph is read into a WeightedHashGraph sized for all
+ * of its vertices and edges, and its edges are inserted in batches with
+ * addEdges, so reading is not slowed down by rehashing. <br/>
+ * <br/>
+ * A GraphSerializer holds no state besides its codecs, and may be shared
+ * between threads if its codecs may.
+ * 
+ * @author Raymond Tang
+ * 
+ * @param <V>
+ *            the type of elements in the graphs
+ * @param <W>
+ *            the type of edge weights in the graphs
+ */
+public final class GraphSerializer<V, W> {
+
+	private static final int MAGIC = 0x52475346;
+	private static final int VERSION = 1;
+	private static final int DIRECTED_FLAG = 1;
+	private static final int EDGES_PER_BATCH = 8192;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final Codec<V> vertexCodec;
+	private final Codec<W> weightCodec;
+
+	/**
+	 * Constructs a GraphSerializer that writes and reads elements and edge
+	 * weights with the specified codecs.
+	 * 
+	 * @param vertexCodec
+	 *            the codec for the elements (vertices) of the graphs
+	 * @param weightCodec
+	 *            the codec for the edge weights of the graphs
+	 * @throws NullPointerException
+	 *             if one or both of the codecs are null
+	 */
+	public GraphSerializer(Codec<V> vertexCodec, Codec<W> weightCodec) {
+		if (vertexCodec == null) {
+			throw new NullPointerException("Vertex codec cannot be null");
+		}
+		if (weightCodec == null) {
+			throw new NullPointerException("Weight codec cannot be null");
+		}
+
+		this.vertexCodec = vertexCodec;
+		this.weightCodec = weightCodec;
+	}
+
+	/**
+	 * Reads the graph saved in the specified file, which may be compressed
+	 * with gzip.
+	 * 
+	 * @param path
+	 *            the file to read
+	 * @return the graph saved in the file
+	 * @throws IOException
+	 *             if the file cannot be read or does not hold a graph
+	 * @throws NullPointerException
+	 *             if the specified path is null
+	 */
+	public WeightedHashGraph<V, W> read(Path path) throws IOException {
+		if (path == null) {
+			throw new NullPointerException("Path cannot be null");
+		}
+
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			// Files compressed with gzip start with the bytes 0x1F 0x8B
+			ByteBuffer start = ByteBuffer.allocate(2);
+			if (channel.read(start, 0) == 2 && (start.get(0) & 0xFF) == 0x1F && (start.get(1) & 0xFF) == 0x8B) {
+				return read(Channels.newChannel(new GZIPInputStream(Channels.newInputStream(channel), BUFFER_SIZE)));
+			}
+			return read(channel);
+		}
+	}
+
+	/**
+	 * Reads a graph from the specified channel, which is not closed.
+	 * 
+	 * @param channel
+	 *            the channel to read from
+	 * @return the graph that was read
+	 * @throws IOException
+	 *             if the channel cannot be read or does not hold a graph
+	 * @throws NullPointerException
+	 *             if the specified channel is null
+	 */
+	@SuppressWarnings("unchecked")
+	public WeightedHashGraph<V, W> read(ReadableByteChannel channel) throws IOException {
+		BinaryInput input = new BinaryInput(channel, BUFFER_SIZE);
+		if (input.readInt() != MAGIC) {
+			throw new IOException("Not a graph");
+		}
+		int version = input.readVarInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported graph version: " + version);
+		}
+		boolean isDirected = (input.readByte() & DIRECTED_FLAG) != 0;
+		int n = input.readVarInt();
+		long numberOfEdges = input.readVarLong();
+		if (n < 0 || numberOfEdges < 0 || numberOfEdges > Integer.MAX_VALUE) {
+			throw new IOException("Corrupt graph header");
+		}
+
+		WeightedHashGraph<V, W> graph = new WeightedHashGraph<>(isDirected, n, (int) numberOfEdges);
+		Object[] vertices = new Object[n];
+		for (int i = 0; i < n; i++) {
+			vertices[i] = vertexCodec.read(input);
+			if (!graph.addVertex((V) vertices[i])) {
+				throw new IOException("Duplicate vertex: " + vertices[i]);
+			}
+		}
+
+		V[] tails = (V[]) new Object[EDGES_PER_BATCH];
+		V[] heads = (V[]) new Object[EDGES_PER_BATCH];
+		W[] weights = (W[]) new Object[EDGES_PER_BATCH];
+		int size = 0;
+		for (int i = 0; i < n; i++) {
+			int degree = input.readVarInt();
+			if (degree < 0) {
+				throw new IOException("Corrupt edges of vertex " + vertices[i]);
+			}
+			long head = isDirected ? -1 : i - 1;
+			for (int j = 0; j < degree; j++) {
+				int gap = input.readVarInt();
+				head += gap + 1L;
+				if (gap < 0 || head >= n) {
+					throw new IOException("Corrupt edges of vertex " + vertices[i]);
+				}
+				tails[size] = (V) vertices[i];
+				heads[size] = (V) vertices[(int) head];
+				weights[size] = weightCodec.read(input);
+				if (++size == EDGES_PER_BATCH) {
+					graph.addEdges(tails, heads, weights, false);
+					size = 0;
+				}
+			}
+		}
+		graph.addEdges(Arrays.copyOf(tails, size), Arrays.copyOf(heads, size), Arrays.copyOf(weights, size), false);
+		if (graph.getNumberOfEdges() != numberOfEdges) {
+			throw new IOException("Corrupt graph: expected " + numberOfEdges + " edges but read "
+					+ graph.getNumberOfEdges());
+		}
+		return graph;
+	}
+
+	/**
+	 * Writes the specified graph to the specified file, replacing the file if
+	 * it exists.
+	 * 
+	 * @param graph
+	 *            the graph to write
+	 * @param path
+	 *            the file to write
+	 * @param compress
+	 *            value to specify if the file should be compressed with gzip
+	 * @throws IOException
+	 *             if the file cannot be written
+	 * @throws NullPointerException
+	 *             if the specified graph or path is null, or if the graph
+	 *             holds a null value that a codec does not permit
+	 * @throws ConcurrentModificationException
+	 *             if the graph is changed while it is written
+	 */
+	public void write(WeightedGraph<V, W> graph, Path path, boolean compress) throws IOException {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+		if (path == null) {
+			throw new NullPointerException("Path cannot be null");
+		}
+
+		WritableByteChannel channel = compress
+				? Channels.newChannel(new GZIPOutputStream(Files.newOutputStream(path), BUFFER_SIZE))
+				: FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING);
+		try (BinaryOutput output = new BinaryOutput(channel, BUFFER_SIZE)) {
+			write(graph, output);
+		}
+	}
+
+	/**
+	 * Writes the specified graph to the specified channel, which is not
+	 * closed.
+	 * 
+	 * @param graph
+	 *            the graph to write
+	 * @param channel
+	 *            the channel to write to
+	 * @throws IOException
+	 *             if the channel cannot be written
+	 * @throws NullPointerException
+	 *             if the specified graph or channel is null, or if the graph
+	 *             holds a null value that a codec does not permit
+	 * @throws ConcurrentModificationException
+	 *             if the graph is changed while it is written
+	 */
+	public void write(WeightedGraph<V, W> graph, WritableByteChannel channel) throws IOException {
+		if (graph == null) {
+			throw new NullPointerException("Input graph cannot be null");
+		}
+
+		BinaryOutput output = new BinaryOutput(channel, BUFFER_SIZE);
+		write(graph, output);
+		output.flush();
+	}
+
+	/**
+	 * Writes the specified graph to the specified output.
+	 * 
+	 * @param graph
+	 *            the graph to write
+	 * @param output
+	 *            the output to write to
+	 * @throws IOException
+	 *             if the output cannot be written
+	 */
+	@SuppressWarnings("unchecked")
+	private void write(WeightedGraph<V, W> graph, BinaryOutput output) throws IOException {
+		int n = graph.getNumberOfVertices();
+		boolean isDirected = graph.isDirected();
+		output.writeInt(MAGIC);
+		output.writeVarInt(VERSION);
+		output.writeByte(isDirected ? DIRECTED_FLAG : 0);
+		output.writeVarInt(n);
+		output.writeVarLong(graph.getNumberOfEdges());
+
+		Object[] vertices = new Object[n];
+		Map<V, Integer> ids = new HashMap<>((int) (n / 0.75f) + 1);
+		for (V vertex : graph.getVertices()) {
+			if (ids.size() == n) {
+				throw new ConcurrentModificationException();
+			}
+			vertices[ids.size()] = vertex;
+			ids.put(vertex, ids.size());
+			vertexCodec.write(output, vertex);
+		}
+		if (ids.size() != n) {
+			throw new ConcurrentModificationException();
+		}
+
+		EdgeBuffer<W> edges = new EdgeBuffer<>(ids);
+		for (int i = 0; i < n; i++) {
+			edges.clear(isDirected ? 0 : i);
+			graph.forEachEdge((V) vertices[i], edges);
+			edges.sort();
+			output.writeVarInt(edges.size);
+			int previous = isDirected ? -1 : i - 1;
+			for (int j = 0; j < edges.size; j++) {
+				int head = (int) (edges.keys[j] >>> 32);
+				output.writeVarInt(head - previous - 1);
+				weightCodec.write(output, (W) edges.weights[(int) edges.keys[j]]);
+				previous = head;
+			}
+		}
+	}
+
+	/**
+	 * Collects the edges of one vertex whose heads have an id no less than a
+	 * minimum, and sorts them by the id of their heads.
+	 */
+	private static final class EdgeBuffer<W> implements BiConsumer<Object, W> {
+
+		private final Map<?, Integer> ids;
+		private long[] keys = new long[16];
+		private Object[] weights = new Object[16];
+		private int size;
+		private int minimumId;
+
+		private EdgeBuffer(Map<?, Integer> ids) {
+			this.ids = ids;
+		}
+
+		@Override
+		public void accept(Object head, W weight) {
+			Integer id = ids.get(head);
+			if (id == null) {
+				throw new ConcurrentModificationException();
+			}
+			if (id < minimumId) {
+				return;
+			}
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, 2 * size);
+				weights = Arrays.copyOf(weights, 2 * size);
+			}
+			// Packs the head id with the slot of the weight, so that sorting
+			// the keys sorts the edges
+			keys[size] = ((long) id << 32) | size;
+			weights[size++] = weight;
+		}
+
+		private void clear(int minimumId) {
+			Arrays.fill(weights, 0, size, null);
+			this.size = 0;
+			this.minimumId = minimumId;
+		}
+
+		private void sort() {
+			Arrays.sort(keys, 0, size);
+		}
+
+	}
+
+}
@@ -0,0 +1,155 @@
+package com.rawva.algorithms.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.rawva.algorithms.graphs.AllPairsShortestPaths.Algorithm;
+import com.rawva.structures.graphs.RandomGraphs;
+import com.rawva.structures.graphs.RandomGraphs.EdgeWeights;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class AllPairsShortestPathsTest {
+
+	/**
+	 * Returns lengths that are non-negative, or shifted by the difference of
+	 * two random potentials, which makes some of them negative but no cycle.
+	 */
+	private static EdgeWeights<Double> lengths(Random random, int n, boolean hasNegativeWeights) {
+		int[] potentials = new int[n];
+		for (int i = 0; hasNegativeWeights && i < n; i++) {
+			potentials[i] = random.nextInt(20);
+		}
+		return (r, tail, head) -> (double) r.nextInt(20) + potentials[tail] - potentials[head];
+	}
+
+	@Test
+	public void testMatchesDijkstra() {
+		Random random = new Random(1);
+		for (boolean isDirected : new boolean[] { true, false }) {
+			WeightedHashGraph<Integer, Double> graph = RandomGraphs.create(random, 150, 1500, isDirected,
+					lengths(random, 150, false));
+			ShortestPathFinder<Integer, Double> finder = new ShortestPathFinder<>(graph, Double::doubleValue);
+			for (Algorithm algorithm : Algorithm.values()) {
+				AllPairsShortestPaths<Integer, Double> paths = new AllPairsShortestPaths<>(graph,
+						Double::doubleValue, algorithm);
+				assertEquals(algorithm, paths.getAlgorithm());
+				for (int source = 0; source < 150; source++) {
+					for (int target = 0; target < 150; target++) {
+						assertEquals(finder.getDistance(source, target), paths.getDistance(source, target), 0.0);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testNegativeWeights() {
+		Random random = new Random(2);
+		WeightedHashGraph<Integer, Double> graph = RandomGraphs.create(random, 130, 2000, true,
+				lengths(random, 130, true));
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			AllPairsShortestPaths<Integer, Double> floydWarshall = new AllPairsShortestPaths<>(graph,
+					Double::doubleValue, Algorithm.FLOYD_WARSHALL, pool);
+			AllPairsShortestPaths<Integer, Double> johnson = new AllPairsShortestPaths<>(graph, Double::doubleValue,
+					Algorithm.JOHNSON, pool);
+			double[] expected = floydWarshall.getDistances();
+			double[] actual = johnson.getDistances();
+			int n = graph.getNumberOfVertices();
+			assertEquals(n * n, expected.length);
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					assertEquals(expected[i * n + j], actual[i * n + j], 1e-9);
+					assertEquals(expected[i * n + j], johnson.getDistanceAt(i, j), 1e-9);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSmallGraph() {
+		WeightedHashGraph<String, Integer> graph = new WeightedHashGraph<>(true);
+		for (String vertex : new String[] { "a", "b", "c", "d" }) {
+			graph.addVertex(vertex);
+		}
+		graph.addEdge("a", "b", 4);
+		graph.addEdge("a", "c", 1);
+		graph.addEdge("c", "b", -2);
+		graph.addEdge("b", "d", 3);
+		for (Algorithm algorithm : Algorithm.values()) {
+			AllPairsShortestPaths<String, Integer> paths = new AllPairsShortestPaths<>(graph, Integer::doubleValue,
+					algorithm);
+			assertEquals(-1.0, paths.getDistance("a", "b"), 0.0);
+			assertEquals(2.0, paths.getDistance("a", "d"), 0.0);
+			assertEquals(0.0, paths.getDistance("d", "d"), 0.0);
+			assertEquals(Double.POSITIVE_INFINITY, paths.getDistance("d", "a"), 0.0);
+		}
+	}
+
+	@Test
+	public void testNegativeCycle() {
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>(true);
+		for (int i = 0; i < 3; i++) {
+			graph.addVertex(i);
+		}
+		graph.addEdge(0, 1, 1.0);
+		graph.addEdge(1, 2, -3.0);
+		graph.addEdge(2, 0, 1.0);
+		for (Algorithm algorithm : Algorithm.values()) {
+			try {
+				new AllPairsShortestPaths<>(graph, Double::doubleValue, algorithm);
+				fail("Expected a negative cycle");
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+	}
+
+	@Test
+	public void testChooseAlgorithm() {
+		Random random = new Random(3);
+		WeightedHashGraph<Integer, Double> sparse = RandomGraphs.create(random, 200, 400, true,
+				lengths(random, 200, false));
+		WeightedHashGraph<Integer, Double> dense = RandomGraphs.create(random, 200, 20000, false,
+				lengths(random, 200, false));
+		assertEquals(Algorithm.JOHNSON, AllPairsShortestPaths.chooseAlgorithm(sparse));
+		assertEquals(Algorithm.FLOYD_WARSHALL, AllPairsShortestPaths.chooseAlgorithm(dense));
+		assertEquals(Algorithm.JOHNSON, new AllPairsShortestPaths<>(sparse, Double::doubleValue).getAlgorithm());
+	}
+
+	@Test
+	public void testEmptyGraph() {
+		AllPairsShortestPaths<Integer, Double> paths = new AllPairsShortestPaths<>(
+				new WeightedHashGraph<Integer, Double>(), Double::doubleValue);
+		assertEquals(0, paths.getDistances().length);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingTarget() {
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>();
+		graph.addVertex(1);
+		new AllPairsShortestPaths<>(graph, Double::doubleValue).getDistance(1, 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNaNLength() {
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>();
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2, Double.NaN);
+		new AllPairsShortestPaths<>(graph, Double::doubleValue);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullAlgorithm() {
+		new AllPairsShortestPaths<>(new WeightedHashGraph<Integer, Double>(), Double::doubleValue, null);
+	}
+
+}
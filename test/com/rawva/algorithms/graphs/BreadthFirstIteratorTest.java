@@ -0,0 +1,79 @@
+package com.rawva.algorithms.graphs;
+
+import static com.rawva.structures.graphs.TestGraphs.addEdge;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class BreadthFirstIteratorTest {
+
+	private static List<Integer> toList(BreadthFirstIterator<Integer> it) {
+		List<Integer> elems = new ArrayList<>();
+		while (it.hasNext()) {
+			elems.add(it.next());
+		}
+		return elems;
+	}
+
+	@Test
+	public void testLevels() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(true);
+		addEdge(graph, 1, 2);
+		addEdge(graph, 1, 3);
+		addEdge(graph, 2, 4);
+		addEdge(graph, 3, 4);
+		addEdge(graph, 4, 5);
+		addEdge(graph, 6, 1);
+		List<Integer> elems = toList(new BreadthFirstIterator<>(graph, 1));
+		assertEquals(5, elems.size());
+		assertEquals(Integer.valueOf(1), elems.get(0));
+		assertEquals(new HashSet<>(Arrays.asList(2, 3)), new HashSet<>(elems.subList(1, 3)));
+		assertEquals(Arrays.asList(4, 5), elems.subList(3, 5));
+	}
+
+	@Test
+	public void testNullElement() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(false);
+		addEdge(graph, 1, null);
+		addEdge(graph, null, 2);
+		assertEquals(Arrays.asList(1, null, 2), toList(new BreadthFirstIterator<>(graph, 1)));
+	}
+
+	@Test
+	public void testSingleElement() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>();
+		graph.addVertex(1);
+		BreadthFirstIterator<Integer> it = new BreadthFirstIterator<>(graph, 1);
+		assertEquals(Integer.valueOf(1), it.next());
+		assertFalse(it.hasNext());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testExhausted() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>();
+		graph.addVertex(1);
+		BreadthFirstIterator<Integer> it = new BreadthFirstIterator<>(graph, 1);
+		it.next();
+		it.next();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingStart() {
+		new BreadthFirstIterator<>(new WeightedHashGraph<Integer, Integer>(), 1);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullGraph() {
+		new BreadthFirstIterator<>(null, 1);
+	}
+
+}
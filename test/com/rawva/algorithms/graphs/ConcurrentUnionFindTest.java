@@ -0,0 +1,55 @@
+package com.rawva.algorithms.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ConcurrentUnionFindTest {
+
+	@Test
+	public void testUnion() {
+		ConcurrentUnionFind unionFind = new ConcurrentUnionFind(5);
+		assertEquals(5, unionFind.size());
+		assertTrue(unionFind.union(3, 4));
+		assertTrue(unionFind.union(4, 1));
+		assertFalse(unionFind.union(1, 3));
+		assertTrue(unionFind.sameSet(3, 1));
+		assertFalse(unionFind.sameSet(0, 1));
+		assertEquals(1, unionFind.find(4));
+		assertEquals(2, unionFind.find(2));
+	}
+
+	@Test
+	public void testConcurrentUnions() throws InterruptedException {
+		int n = 100000;
+		ConcurrentUnionFind unionFind = new ConcurrentUnionFind(n);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			int offset = t;
+			threads.add(new Thread(() -> {
+				// Together the threads join every i to i + 2, in different orders
+				for (int i = offset; i + 2 < n; i += 4) {
+					unionFind.union(i + 2, i);
+				}
+				for (int i = n - 3 - offset; i >= 0; i -= 4) {
+					unionFind.union(i, i + 2);
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (int i = 0; i < n; i++) {
+			assertEquals(i % 2, unionFind.find(i));
+		}
+	}
+
+}
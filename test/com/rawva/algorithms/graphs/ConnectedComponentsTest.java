@@ -0,0 +1,128 @@
+package com.rawva.algorithms.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.rawva.algorithms.graphs.ConnectedComponents.Algorithm;
+import com.rawva.structures.graphs.IntWeightedGraph;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class ConnectedComponentsTest {
+
+	private static WeightedHashGraph<String, Integer> createGraph(boolean isDirected) {
+		WeightedHashGraph<String, Integer> graph = new WeightedHashGraph<>(isDirected);
+		for (String vertex : Arrays.asList("a", "b", "c", "d", "e", "f")) {
+			graph.addVertex(vertex);
+		}
+		graph.addEdge("a", "b");
+		graph.addEdge("c", "b");
+		graph.addEdge("d", "e");
+		return graph;
+	}
+
+	private static void assertComponents(ConnectedComponents<String> components) {
+		assertEquals(3, components.getNumberOfComponents());
+		assertTrue(components.isConnected("a", "c"));
+		assertTrue(components.isConnected("e", "d"));
+		assertFalse(components.isConnected("a", "d"));
+		assertFalse(components.isConnected("a", "z"));
+		assertEquals(components.getComponent("a"), components.getComponent("b"));
+		assertEquals(3, components.getComponentSize(components.getComponent("a")));
+		assertEquals(1, components.getComponentSize(components.getComponent("f")));
+		assertEquals(-1, components.getComponent("z"));
+		assertEquals(new HashSet<>(Arrays.asList("d", "e")),
+				components.getComponents().get(components.getComponent("d")));
+	}
+
+	@Test
+	public void testUnionFind() {
+		assertComponents(new ConnectedComponents<>(createGraph(false)));
+		assertComponents(new ConnectedComponents<>(createGraph(true)));
+	}
+
+	@Test
+	public void testLabelPropagation() {
+		assertComponents(new ConnectedComponents<>(createGraph(false), Algorithm.LABEL_PROPAGATION));
+		assertComponents(new ConnectedComponents<>(createGraph(true), Algorithm.LABEL_PROPAGATION));
+	}
+
+	@Test
+	public void testLabelsAreCompact() {
+		ConnectedComponents<String> components = new ConnectedComponents<>(createGraph(false));
+		for (int label = 0; label < 3; label++) {
+			assertEquals(label, components.getComponent(components.getComponents().get(label).iterator().next()));
+		}
+	}
+
+	@Test
+	public void testIncrementalUpdates() {
+		ConnectedComponents<String> components = new ConnectedComponents<>(createGraph(false));
+		assertTrue(components.addVertex("g"));
+		assertFalse(components.addVertex("g"));
+		assertEquals(4, components.getNumberOfComponents());
+		assertTrue(components.addEdge("f", "a"));
+		assertFalse(components.addEdge("b", "f"));
+		assertEquals(3, components.getNumberOfComponents());
+		assertTrue(components.addEdge("h", "i"));
+		assertEquals(4, components.getNumberOfComponents());
+		assertTrue(components.addEdge("i", "e"));
+		assertTrue(components.isConnected("h", "d"));
+		assertEquals(3, components.getNumberOfComponents());
+
+		// Every label in range is used by exactly one component
+		HashSet<Integer> labels = new HashSet<>();
+		for (String vertex : Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i")) {
+			int label = components.getComponent(vertex);
+			assertTrue(label >= 0 && label < 3);
+			labels.add(label);
+		}
+		assertEquals(3, labels.size());
+		assertEquals(4, components.getComponentSize(components.getComponent("a")));
+		assertEquals(4, components.getComponentSize(components.getComponent("h")));
+	}
+
+	@Test
+	public void testRandomGraphs() {
+		Random random = new Random(9);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int trial = 0; trial < 5; trial++) {
+				int n = 5000;
+				IntWeightedGraph graph = new IntWeightedGraph(trial % 2 == 0);
+				for (int i = 0; i < n; i++) {
+					graph.addVertex(i);
+				}
+				ConnectedComponents<Integer> incremental = new ConnectedComponents<>(graph);
+				for (int i = 0; i < 4000 + 500 * trial; i++) {
+					int tail = random.nextInt(n);
+					int head = random.nextInt(n);
+					graph.addEdge(tail, head);
+					incremental.addEdge(tail, head);
+				}
+				ConnectedComponents<Integer> unionFind = new ConnectedComponents<>(graph, Algorithm.UNION_FIND, pool);
+				ConnectedComponents<Integer> propagation = new ConnectedComponents<>(graph,
+						Algorithm.LABEL_PROPAGATION, pool);
+				assertEquals(unionFind.getNumberOfComponents(), propagation.getNumberOfComponents());
+				assertEquals(unionFind.getNumberOfComponents(), incremental.getNumberOfComponents());
+				assertEquals(new HashSet<>(unionFind.getComponents()), new HashSet<>(propagation.getComponents()));
+				assertEquals(new HashSet<>(unionFind.getComponents()), new HashSet<>(incremental.getComponents()));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullGraph() {
+		new ConnectedComponents<String>(null);
+	}
+
+}
@@ -0,0 +1,180 @@
+package com.rawva.algorithms.graphs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.rawva.algorithms.graphs.CoreDecomposition.Algorithm;
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.RandomGraphs;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class CoreDecompositionTest {
+
+	private static int[] neighbors(CsrGraph<Integer, ?> graph, int index) {
+		int[] heads = new int[graph.getEdgeEnd(index) - graph.getEdgeStart(index)];
+		for (int i = 0; i < heads.length; i++) {
+			heads[i] = graph.getHeadIndexAt(graph.getEdgeStart(index) + i);
+		}
+		return heads;
+	}
+
+	/**
+	 * Returns the core numbers found by repeatedly removing an element of
+	 * smallest remaining degree.
+	 */
+	private static int[] peel(CsrGraph<Integer, ?> graph) {
+		int n = graph.getNumberOfVertices();
+		int[] degrees = new int[n];
+		for (int i = 0; i < n; i++) {
+			for (int j : neighbors(graph, i)) {
+				if (j != i) {
+					degrees[i]++;
+				}
+			}
+		}
+		boolean[] removed = new boolean[n];
+		int[] cores = new int[n];
+		int k = 0;
+		for (int step = 0; step < n; step++) {
+			int lowest = -1;
+			for (int i = 0; i < n; i++) {
+				if (!removed[i] && (lowest < 0 || degrees[i] < degrees[lowest])) {
+					lowest = i;
+				}
+			}
+			k = Math.max(k, degrees[lowest]);
+			cores[lowest] = k;
+			removed[lowest] = true;
+			for (int j : neighbors(graph, lowest)) {
+				if (!removed[j]) {
+					degrees[j]--;
+				}
+			}
+		}
+		return cores;
+	}
+
+	/**
+	 * Checks that the ordering is a permutation in which every element has at
+	 * most as many later neighbors as its core number.
+	 */
+	private static void assertDegeneracyOrdering(CoreDecomposition<Integer> cores) {
+		CsrGraph<Integer, ?> graph = cores.getGraph();
+		int n = graph.getNumberOfVertices();
+		int[] ordering = cores.getDegeneracyOrdering();
+		int[] positions = new int[n];
+		Arrays.fill(positions, -1);
+		for (int position = 0; position < n; position++) {
+			assertEquals(-1, positions[ordering[position]]);
+			positions[ordering[position]] = position;
+		}
+		for (int i = 0; i < n; i++) {
+			int later = 0;
+			for (int j : neighbors(graph, i)) {
+				if (positions[j] > positions[i]) {
+					later++;
+				}
+			}
+			assertTrue(later <= cores.getCoreNumbers()[i]);
+		}
+	}
+
+	@Test
+	public void testSmallGraph() {
+		// A 4-clique 0 - 3, a cycle 3 - 4 - 5 - 6 - 3, and a pendant element 7
+		WeightedHashGraph<Integer, Object> graph = new WeightedHashGraph<>(false);
+		for (int i = 0; i < 8; i++) {
+			graph.addVertex(i);
+		}
+		for (int i = 0; i < 4; i++) {
+			for (int j = 0; j < i; j++) {
+				graph.addEdge(i, j);
+			}
+		}
+		graph.addEdge(3, 4);
+		graph.addEdge(4, 5);
+		graph.addEdge(5, 6);
+		graph.addEdge(6, 3);
+		graph.addEdge(6, 7);
+		graph.addEdge(7, 7);
+		int[] expected = { 3, 3, 3, 3, 2, 2, 2, 1 };
+		for (Algorithm algorithm : Algorithm.values()) {
+			CoreDecomposition<Integer> cores = new CoreDecomposition<>(graph, algorithm);
+			assertEquals(algorithm, cores.getAlgorithm());
+			assertEquals(3, cores.getDegeneracy());
+			for (int i = 0; i < 8; i++) {
+				assertEquals(expected[i], cores.getCoreNumber(i));
+			}
+			assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3)), cores.getCore(3));
+			assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3, 4, 5, 6)), cores.getCore(2));
+			assertEquals(8, cores.getCore(0).size());
+			assertDegeneracyOrdering(cores);
+		}
+	}
+
+	@Test
+	public void testRandomGraphs() {
+		Random random = new Random(1);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int trial = 0; trial < 20; trial++) {
+				int n = 50 + random.nextInt(200);
+				CsrGraph<Integer, Object> graph = new CsrGraph<>(
+						RandomGraphs.create(random, n, (trial % 5 + 1) * n, false));
+				int[] expected = peel(graph);
+				for (Algorithm algorithm : Algorithm.values()) {
+					CoreDecomposition<Integer> cores = new CoreDecomposition<>(graph, algorithm, pool);
+					assertArrayEquals(expected, cores.getCoreNumbers());
+					assertDegeneracyOrdering(cores);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testLargeGraph() {
+		// Enough elements for the parallel rounds to be split into tasks
+		Random random = new Random(2);
+		WeightedHashGraph<Integer, Object> graph = RandomGraphs.create(random, 20000, 200000, false);
+		CoreDecomposition<Integer> bucket = new CoreDecomposition<>(graph);
+		CoreDecomposition<Integer> peeling = new CoreDecomposition<>(graph, Algorithm.PARALLEL_PEELING);
+		assertArrayEquals(bucket.getCoreNumbers(), peeling.getCoreNumbers());
+		assertEquals(bucket.getDegeneracy(), peeling.getDegeneracy());
+		assertDegeneracyOrdering(peeling);
+	}
+
+	@Test
+	public void testEmptyGraph() {
+		for (Algorithm algorithm : Algorithm.values()) {
+			CoreDecomposition<Integer> cores = new CoreDecomposition<>(new WeightedHashGraph<>(false), algorithm);
+			assertEquals(0, cores.getDegeneracy());
+			assertEquals(0, cores.getDegeneracyOrdering().length);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDirectedGraph() {
+		new CoreDecomposition<>(new WeightedHashGraph<Integer, Object>(true));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingElement() {
+		new CoreDecomposition<>(RandomGraphs.create(new Random(3), 10, 20, false)).getCoreNumber(10);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullAlgorithm() {
+		new CoreDecomposition<>(RandomGraphs.create(new Random(3), 10, 20, false), null);
+	}
+
+}
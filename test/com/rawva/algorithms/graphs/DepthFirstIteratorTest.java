@@ -0,0 +1,94 @@
+package com.rawva.algorithms.graphs;
+
+import static com.rawva.structures.graphs.TestGraphs.addEdge;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class DepthFirstIteratorTest {
+
+	private static List<Integer> toList(DepthFirstIterator<Integer> it) {
+		List<Integer> elems = new ArrayList<>();
+		while (it.hasNext()) {
+			elems.add(it.next());
+		}
+		return elems;
+	}
+
+	@Test
+	public void testPreorder() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(true);
+		addEdge(graph, 1, 2);
+		addEdge(graph, 2, 3);
+		addEdge(graph, 1, 4);
+		addEdge(graph, 4, 5);
+		List<Integer> elems = toList(new DepthFirstIterator<>(graph, 1));
+		assertEquals(5, elems.size());
+		assertEquals(Integer.valueOf(1), elems.get(0));
+		// Each branch is finished before the other one starts
+		assertTrue(elems.subList(1, 5).equals(Arrays.asList(2, 3, 4, 5))
+				|| elems.subList(1, 5).equals(Arrays.asList(4, 5, 2, 3)));
+	}
+
+	@Test
+	public void testCycle() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(true);
+		addEdge(graph, 1, 2);
+		addEdge(graph, 2, 3);
+		addEdge(graph, 3, 1);
+		assertEquals(Arrays.asList(2, 3, 1), toList(new DepthFirstIterator<>(graph, 2)));
+	}
+
+	@Test
+	public void testDeepGraph() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(true);
+		int n = 200000;
+		for (int i = 0; i < n; i++) {
+			addEdge(graph, i, i + 1);
+		}
+		DepthFirstIterator<Integer> it = new DepthFirstIterator<>(graph, 0);
+		int count = 0;
+		while (it.hasNext()) {
+			assertEquals(Integer.valueOf(count++), it.next());
+		}
+		assertEquals(n + 1, count);
+	}
+
+	@Test
+	public void testNullElement() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(true);
+		addEdge(graph, 1, null);
+		addEdge(graph, null, 2);
+		assertEquals(Arrays.asList(1, null, 2), toList(new DepthFirstIterator<>(graph, 1)));
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testExhausted() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>();
+		graph.addVertex(1);
+		DepthFirstIterator<Integer> it = new DepthFirstIterator<>(graph, 1);
+		it.next();
+		assertFalse(it.hasNext());
+		it.next();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingStart() {
+		new DepthFirstIterator<>(new WeightedHashGraph<Integer, Integer>(), 1);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullGraph() {
+		new DepthFirstIterator<>(null, 1);
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.rawva.algorithms.graphs;
+
+import static com.rawva.structures.graphs.TestGraphs.addEdge;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.IntWeightedGraph;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class GraphTraversalsTest {
+
+	private static WeightedHashGraph<Integer, Integer> createGraph() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(true);
+		addEdge(graph, 1, 2);
+		addEdge(graph, 1, 3);
+		addEdge(graph, 2, 4);
+		addEdge(graph, 3, 4);
+		addEdge(graph, 4, 5);
+		addEdge(graph, 6, 1);
+		return graph;
+	}
+
+	private static IntWeightedGraph createIntGraph() {
+		IntWeightedGraph graph = new IntWeightedGraph(true);
+		addEdge(graph, 1, 2);
+		addEdge(graph, 1, 3);
+		addEdge(graph, 2, 4);
+		addEdge(graph, 3, 4);
+		addEdge(graph, 4, 5);
+		addEdge(graph, 6, 1);
+		return graph;
+	}
+
+	private static <V> List<V> toList(Iterator<V> it) {
+		List<V> elems = new ArrayList<>();
+		while (it.hasNext()) {
+			elems.add(it.next());
+		}
+		return elems;
+	}
+
+	private static void assertBreadthFirst(List<Integer> elems) {
+		assertEquals(5, elems.size());
+		assertEquals(Integer.valueOf(1), elems.get(0));
+		assertEquals(new HashSet<>(Arrays.asList(2, 3)), new HashSet<>(elems.subList(1, 3)));
+		assertEquals(Arrays.asList(4, 5), elems.subList(3, 5));
+	}
+
+	private static void assertDepthFirst(List<Integer> elems) {
+		assertEquals(5, elems.size());
+		assertEquals(Integer.valueOf(1), elems.get(0));
+		assertTrue(elems.equals(Arrays.asList(1, 2, 4, 5, 3)) || elems.equals(Arrays.asList(1, 3, 4, 5, 2)));
+	}
+
+	@Test
+	public void testBreadthFirst() {
+		assertBreadthFirst(toList(GraphTraversals.breadthFirst(createGraph(), 1)));
+		assertBreadthFirst(toList(GraphTraversals.breadthFirst(createGraph().freeze(), 1)));
+		assertBreadthFirst(toList(GraphTraversals.breadthFirst(createIntGraph(), 1)));
+	}
+
+	@Test
+	public void testBreadthFirstSearch() {
+		List<Integer> visited = new ArrayList<>();
+		assertTrue(GraphTraversals.breadthFirstSearch(createGraph(), 1, visited::add));
+		assertBreadthFirst(visited);
+
+		visited.clear();
+		assertFalse(GraphTraversals.breadthFirstSearch(createGraph().freeze(), 1, elem -> visited.add(elem) && elem != 4));
+		assertEquals(4, visited.size());
+	}
+
+	@Test
+	public void testBreadthFirstSearchPrimitive() {
+		List<Integer> visited = new ArrayList<>();
+		assertTrue(GraphTraversals.breadthFirstSearch(createIntGraph(), 1, visited::add));
+		assertBreadthFirst(visited);
+
+		visited.clear();
+		assertFalse(GraphTraversals.breadthFirstSearch(createIntGraph(), 6, elem -> visited.add(elem) && elem != 1));
+		assertEquals(Arrays.asList(6, 1), visited);
+	}
+
+	@Test
+	public void testBreadthFirstStream() {
+		assertBreadthFirst(GraphTraversals.breadthFirstStream(createGraph(), 1).collect(Collectors.toList()));
+		assertEquals(Arrays.asList(6, 1),
+				GraphTraversals.breadthFirstStream(createIntGraph(), 6).limit(2).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testDepthFirst() {
+		assertDepthFirst(toList(GraphTraversals.depthFirst(createGraph(), 1)));
+		assertDepthFirst(toList(GraphTraversals.depthFirst(createGraph().freeze(), 1)));
+		assertDepthFirst(toList(GraphTraversals.depthFirst(createIntGraph(), 1)));
+	}
+
+	@Test
+	public void testDepthFirstSearch() {
+		List<Integer> visited = new ArrayList<>();
+		assertTrue(GraphTraversals.depthFirstSearch(createGraph().freeze(), 1, visited::add));
+		assertDepthFirst(visited);
+
+		visited.clear();
+		assertFalse(GraphTraversals.depthFirstSearch(createGraph(), 1, elem -> visited.add(elem) && elem != 5));
+		assertEquals(4, visited.size());
+	}
+
+	@Test
+	public void testDepthFirstSearchPrimitive() {
+		List<Integer> visited = new ArrayList<>();
+		assertTrue(GraphTraversals.depthFirstSearch(createIntGraph(), 1, visited::add));
+		assertDepthFirst(visited);
+
+		visited.clear();
+		assertFalse(GraphTraversals.depthFirstSearch(createIntGraph(), 4, elem -> visited.add(elem) && elem != 5));
+		assertEquals(Arrays.asList(4, 5), visited);
+	}
+
+	@Test
+	public void testDepthFirstDeepGraph() {
+		IntWeightedGraph graph = new IntWeightedGraph(true);
+		int n = 200000;
+		for (int i = 0; i < n; i++) {
+			addEdge(graph, i, i + 1);
+		}
+		int[] count = new int[1];
+		assertTrue(GraphTraversals.depthFirstSearch(graph, 0, elem -> elem == count[0]++));
+		assertEquals(n + 1, count[0]);
+		assertEquals(n + 1, GraphTraversals.depthFirstStream(new CsrGraph<>(graph), 0).count());
+	}
+
+	@Test
+	public void testUndirected() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(false);
+		addEdge(graph, 1, 2);
+		addEdge(graph, 2, 3);
+		graph.addVertex(4);
+		assertEquals(Arrays.asList(3, 2, 1), toList(GraphTraversals.depthFirst(graph.freeze(), 3)));
+		assertEquals(Arrays.asList(4), toList(GraphTraversals.breadthFirst(graph, 4)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingStart() {
+		GraphTraversals.breadthFirst(createGraph().freeze(), 7);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingStartPrimitive() {
+		GraphTraversals.depthFirstSearch(createIntGraph(), 7, elem -> true);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullGraph() {
+		GraphTraversals.depthFirst(null, 1);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullVisitor() {
+		GraphTraversals.breadthFirstSearch(createGraph(), 1, null);
+	}
+
+}
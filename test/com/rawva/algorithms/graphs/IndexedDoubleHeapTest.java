@@ -0,0 +1,68 @@
+package com.rawva.algorithms.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IndexedDoubleHeapTest {
+
+	@Test
+	public void testOffer() {
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(4);
+		assertTrue(heap.offer(2, 5.0));
+		assertTrue(heap.offer(0, 3.0));
+		assertFalse(heap.offer(2, 6.0));
+		assertTrue(heap.offer(2, 1.0));
+		assertEquals(2, heap.size());
+		assertEquals(1.0, heap.peekKey(), 0.0);
+		assertEquals(2, heap.poll());
+		assertFalse(heap.contains(2));
+		assertEquals(0, heap.poll());
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	public void testClear() {
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(3);
+		heap.offer(0, 1.0);
+		heap.offer(1, 2.0);
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(0));
+		assertTrue(heap.offer(1, 7.0));
+		assertEquals(1, heap.poll());
+	}
+
+	@Test
+	public void testRandomOrder() {
+		Random random = new Random(42);
+		int n = 1000;
+		double[] keys = new double[n];
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(n);
+		for (int i = 0; i < n; i++) {
+			keys[i] = random.nextDouble();
+			heap.offer(i, keys[i]);
+		}
+		for (int i = 0; i < n; i += 3) {
+			keys[i] /= 2;
+			heap.offer(i, keys[i]);
+		}
+		double[] sorted = keys.clone();
+		Arrays.sort(sorted);
+		for (int i = 0; i < n; i++) {
+			assertEquals(sorted[i], keys[heap.poll()], 0.0);
+		}
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testPollEmpty() {
+		new IndexedDoubleHeap(1).poll();
+	}
+
+}
@@ -0,0 +1,212 @@
+package com.rawva.algorithms.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.rawva.algorithms.graphs.MaximumFlow.Algorithm;
+import com.rawva.structures.graphs.DirectedEdge;
+import com.rawva.structures.graphs.Graph;
+import com.rawva.structures.graphs.RandomGraphs;
+import com.rawva.structures.graphs.RandomGraphs.EdgeWeights;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class MaximumFlowTest {
+
+	private static final EdgeWeights<Double> CAPACITIES = (random, tail, head) -> (double) random.nextInt(100);
+
+	private static WeightedHashGraph<String, Integer> createNetwork() {
+		// The network of Figure 26.1 in Introduction to Algorithms, with a
+		// maximum flow of 23
+		WeightedHashGraph<String, Integer> graph = new WeightedHashGraph<>(true);
+		for (String vertex : Arrays.asList("s", "v1", "v2", "v3", "v4", "t")) {
+			graph.addVertex(vertex);
+		}
+		graph.addEdge("s", "v1", 16);
+		graph.addEdge("s", "v2", 13);
+		graph.addEdge("v2", "v1", 4);
+		graph.addEdge("v1", "v3", 12);
+		graph.addEdge("v3", "v2", 9);
+		graph.addEdge("v2", "v4", 14);
+		graph.addEdge("v4", "v3", 7);
+		graph.addEdge("v3", "t", 20);
+		graph.addEdge("v4", "t", 4);
+		return graph;
+	}
+
+	/**
+	 * Returns the value of a maximum flow found with Edmonds-Karp on a
+	 * capacity matrix.
+	 */
+	private static double edmondsKarp(WeightedHashGraph<Integer, Double> graph, int source, int sink) {
+		int n = graph.getNumberOfVertices();
+		double[][] residual = new double[n][n];
+		for (int tail = 0; tail < n; tail++) {
+			for (int head : graph.getAdjacentElements(tail)) {
+				if (head != tail) {
+					residual[tail][head] = graph.getWeight(tail, head);
+				}
+			}
+		}
+
+		double flow = 0;
+		while (true) {
+			int[] parents = new int[n];
+			Arrays.fill(parents, -1);
+			parents[source] = source;
+			Queue<Integer> queue = new ArrayDeque<>();
+			queue.add(source);
+			while (!queue.isEmpty() && parents[sink] < 0) {
+				int tail = queue.remove();
+				for (int head = 0; head < n; head++) {
+					if (parents[head] < 0 && residual[tail][head] > 0) {
+						parents[head] = tail;
+						queue.add(head);
+					}
+				}
+			}
+			if (parents[sink] < 0) {
+				return flow;
+			}
+			double bottleneck = Double.POSITIVE_INFINITY;
+			for (int v = sink; v != source; v = parents[v]) {
+				bottleneck = Math.min(bottleneck, residual[parents[v]][v]);
+			}
+			for (int v = sink; v != source; v = parents[v]) {
+				residual[parents[v]][v] -= bottleneck;
+				residual[v][parents[v]] += bottleneck;
+			}
+			flow += bottleneck;
+		}
+	}
+
+	/**
+	 * Checks that the flow respects capacities, is conserved at every element
+	 * but the source and sink, and matches the capacity of the cut.
+	 */
+	private static void assertValidFlow(WeightedHashGraph<Integer, Double> graph, MaximumFlow<Integer, Double> flow,
+			int source, int sink) {
+		double[] balance = new double[graph.getNumberOfVertices()];
+		double cut = 0;
+		for (int tail : graph.getVertices()) {
+			for (int head : graph.getAdjacentElements(tail)) {
+				if (head == tail) {
+					continue;
+				}
+				double f = flow.getFlow(tail, head);
+				assertTrue(f >= 0);
+				assertTrue(f <= graph.getWeight(tail, head) + 1e-9);
+				balance[tail] -= f;
+				balance[head] += f;
+				if (flow.isOnSourceSide(tail) && !flow.isOnSourceSide(head)) {
+					cut += graph.getWeight(tail, head);
+				}
+			}
+		}
+		for (int i = 0; i < balance.length; i++) {
+			if (i != source && i != sink) {
+				assertEquals(0.0, balance[i], 1e-9);
+			}
+		}
+		assertEquals(flow.getFlowValue(), balance[sink], 1e-9);
+		assertEquals(flow.getFlowValue(), cut, 1e-9);
+		assertTrue(flow.isOnSourceSide(source));
+		assertFalse(flow.isOnSourceSide(sink));
+	}
+
+	@Test
+	public void testNetwork() {
+		WeightedHashGraph<String, Integer> graph = createNetwork();
+		for (Algorithm algorithm : Algorithm.values()) {
+			MaximumFlow<String, Integer> flow = new MaximumFlow<>(graph, Integer::doubleValue, "s", "t", algorithm);
+			assertEquals(algorithm, flow.getAlgorithm());
+			assertEquals(23.0, flow.getFlowValue(), 0.0);
+			assertEquals(new HashSet<>(Arrays.asList("s", "v1", "v2", "v4")), flow.getSourceSide());
+			Set<Graph.Edge<String>> cut = new HashSet<>(flow.getCutEdges());
+			Set<Graph.Edge<String>> expected = new HashSet<>(Arrays.asList(new DirectedEdge<>("v1", "v3"),
+					new DirectedEdge<>("v4", "v3"), new DirectedEdge<>("v4", "t")));
+			assertEquals(expected, cut);
+			assertEquals(12.0, flow.getFlow("v1", "v3"), 0.0);
+			assertEquals(0.0, flow.getFlow("v3", "v1"), 0.0);
+		}
+	}
+
+	@Test
+	public void testRandomGraphs() {
+		Random random = new Random(1);
+		for (int trial = 0; trial < 20; trial++) {
+			boolean isDirected = trial % 2 == 0;
+			int n = 30 + random.nextInt(30);
+			WeightedHashGraph<Integer, Double> graph = RandomGraphs.create(random, n, 4 * n, isDirected, CAPACITIES);
+			int source = random.nextInt(n);
+			int sink = (source + 1 + random.nextInt(n - 1)) % n;
+			double expected = edmondsKarp(graph, source, sink);
+			for (Algorithm algorithm : Algorithm.values()) {
+				MaximumFlow<Integer, Double> flow = new MaximumFlow<>(graph, Double::doubleValue, source, sink,
+						algorithm);
+				assertEquals(expected, flow.getFlowValue(), 1e-9);
+				assertValidFlow(graph, flow, source, sink);
+			}
+		}
+	}
+
+	@Test
+	public void testLargeGraph() {
+		// Enough elements for the gap heuristic and global relabels to matter
+		Random random = new Random(2);
+		WeightedHashGraph<Integer, Double> graph = RandomGraphs.create(random, 5000, 40000, true, CAPACITIES);
+		MaximumFlow<Integer, Double> dinic = new MaximumFlow<>(graph, Double::doubleValue, 0, 1, Algorithm.DINIC);
+		MaximumFlow<Integer, Double> pushRelabel = new MaximumFlow<>(graph, Double::doubleValue, 0, 1);
+		assertEquals(dinic.getFlowValue(), pushRelabel.getFlowValue(), 1e-9);
+		assertEquals(dinic.getSourceSide(), pushRelabel.getSourceSide());
+		assertValidFlow(graph, pushRelabel, 0, 1);
+	}
+
+	@Test
+	public void testUnreachableSink() {
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>(true);
+		for (int i = 0; i < 4; i++) {
+			graph.addVertex(i);
+		}
+		graph.addEdge(0, 1, 5.0);
+		graph.addEdge(2, 3, 5.0);
+		for (Algorithm algorithm : Algorithm.values()) {
+			MaximumFlow<Integer, Double> flow = new MaximumFlow<>(graph, Double::doubleValue, 0, 3, algorithm);
+			assertEquals(0.0, flow.getFlowValue(), 0.0);
+			assertTrue(flow.getCutEdges().isEmpty());
+			assertEquals(new HashSet<>(Arrays.asList(0, 1)), flow.getSourceSide());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSameSourceAndSink() {
+		new MaximumFlow<>(createNetwork(), Integer::doubleValue, "s", "s");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingSink() {
+		new MaximumFlow<>(createNetwork(), Integer::doubleValue, "s", "x");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeCapacity() {
+		WeightedHashGraph<String, Integer> graph = createNetwork();
+		graph.setWeight("v1", "v3", -1);
+		new MaximumFlow<>(graph, Integer::doubleValue, "s", "t");
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullCapacityFunction() {
+		new MaximumFlow<>(createNetwork(), null, "s", "t");
+	}
+
+}
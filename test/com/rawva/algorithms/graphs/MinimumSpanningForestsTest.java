@@ -0,0 +1,160 @@
+package com.rawva.algorithms.graphs;
+
+import static com.rawva.structures.graphs.TestGraphs.addEdge;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rawva.structures.graphs.RandomGraphs;
+import com.rawva.structures.graphs.RandomGraphs.EdgeWeights;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class MinimumSpanningForestsTest {
+
+	private static final EdgeWeights<Double> WEIGHTS = (random, tail, head) -> random.nextDouble() * 100 - 20;
+	private static final EdgeWeights<Double> TIED_WEIGHTS = (random, tail, head) -> (double) random.nextInt(5);
+
+	private static WeightedHashGraph<Integer, Double> createGraph() {
+		// Two components: a square with a diagonal, and a single edge, plus
+		// an isolated element and a loop
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>(false);
+		addEdge(graph, 0, 1, 1.0);
+		addEdge(graph, 1, 2, 2.0);
+		addEdge(graph, 2, 3, 1.0);
+		addEdge(graph, 3, 0, 4.0);
+		addEdge(graph, 0, 2, 3.0);
+		addEdge(graph, 4, 5, 7.0);
+		addEdge(graph, 6, 6, 0.0);
+		return graph;
+	}
+
+	private static double totalWeight(WeightedHashGraph<Integer, Double> forest) {
+		double total = 0;
+		for (Integer tail : forest.getVertices()) {
+			for (Integer head : forest.getAdjacentElements(tail)) {
+				if (tail < head) {
+					total += forest.getWeight(tail, head);
+				}
+			}
+		}
+		return total;
+	}
+
+	private static void assertForest(WeightedHashGraph<Integer, Double> graph,
+			WeightedHashGraph<Integer, Double> forest) {
+		assertEquals(graph.getVertices(), forest.getVertices());
+		int trees = new ConnectedComponents<>(graph).getNumberOfComponents();
+		assertEquals(graph.getNumberOfVertices() - trees, forest.getNumberOfEdges());
+		assertEquals(trees, new ConnectedComponents<>(forest).getNumberOfComponents());
+		for (Integer tail : forest.getVertices()) {
+			for (Integer head : forest.getAdjacentElements(tail)) {
+				assertEquals(graph.getWeight(tail, head), forest.getWeight(tail, head));
+			}
+		}
+	}
+
+	@Test
+	public void testSmallGraph() {
+		WeightedHashGraph<Integer, Double> graph = createGraph();
+		for (WeightedHashGraph<Integer, Double> forest : Arrays.asList(
+				MinimumSpanningForests.kruskal(graph, Double::doubleValue),
+				MinimumSpanningForests.prim(graph, Double::doubleValue),
+				MinimumSpanningForests.boruvka(graph, Double::doubleValue))) {
+			assertForest(graph, forest);
+			assertEquals(11.0, totalWeight(forest), 0.0);
+			assertTrue(forest.containsEdge(1, 2));
+			assertTrue(forest.containsEdge(4, 5));
+			assertTrue(!forest.containsEdge(6, 6));
+		}
+	}
+
+	@Test
+	public void testComparator() {
+		WeightedHashGraph<Integer, Double> graph = createGraph();
+		Comparator<Double> comparator = Comparator.reverseOrder();
+		for (WeightedHashGraph<Integer, Double> forest : Arrays.asList(
+				MinimumSpanningForests.kruskal(graph, comparator), MinimumSpanningForests.prim(graph, comparator),
+				MinimumSpanningForests.boruvka(graph, comparator))) {
+			// Reversing the order gives a maximum spanning forest
+			assertForest(graph, forest);
+			assertEquals(16.0, totalWeight(forest), 0.0);
+		}
+	}
+
+	@Test
+	public void testRandomGraphs() {
+		for (long seed = 0; seed < 8; seed++) {
+			boolean hasTies = seed % 2 == 0;
+			WeightedHashGraph<Integer, Double> graph = RandomGraphs.create(new Random(seed), 2000, 6000, false,
+					hasTies ? TIED_WEIGHTS : WEIGHTS);
+			WeightedHashGraph<Integer, Double> kruskal = MinimumSpanningForests.kruskal(graph, Double::doubleValue);
+			WeightedHashGraph<Integer, Double> prim = MinimumSpanningForests.prim(graph, Double::doubleValue);
+			WeightedHashGraph<Integer, Double> boruvka = MinimumSpanningForests.boruvka(graph, Double::doubleValue);
+			WeightedHashGraph<Integer, Double> ranked = MinimumSpanningForests.boruvka(graph,
+					Comparator.<Double> naturalOrder());
+			assertForest(graph, kruskal);
+			assertForest(graph, prim);
+			assertForest(graph, boruvka);
+			assertForest(graph, ranked);
+			assertEquals(totalWeight(kruskal), totalWeight(prim), 1e-6);
+			assertEquals(totalWeight(kruskal), totalWeight(boruvka), 1e-6);
+			assertEquals(totalWeight(kruskal), totalWeight(ranked), 1e-6);
+			if (!hasTies) {
+				assertEquals(kruskal.getVertices(), boruvka.getVertices());
+				for (Integer tail : kruskal.getVertices()) {
+					assertEquals(kruskal.getAdjacentElements(tail), boruvka.getAdjacentElements(tail));
+					assertEquals(kruskal.getAdjacentElements(tail), prim.getAdjacentElements(tail));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testLargeWeights() {
+		// Timestamps near 1.7e12 all round to a few floats, so Kruskal sorts
+		// long runs of edges by their exact weights
+		Random random = new Random(9);
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>(false);
+		for (int i = 0; i < 2000; i++) {
+			graph.addVertex(i);
+		}
+		for (int i = 0; i < 20000; i++) {
+			graph.addEdge(random.nextInt(2000), random.nextInt(2000), 1.7e12 + random.nextInt(100000));
+		}
+		WeightedHashGraph<Integer, Double> kruskal = MinimumSpanningForests.kruskal(graph, Double::doubleValue);
+		WeightedHashGraph<Integer, Double> prim = MinimumSpanningForests.prim(graph, Double::doubleValue);
+		assertForest(graph, kruskal);
+		assertEquals(totalWeight(prim), totalWeight(kruskal), 0.0);
+	}
+
+	@Test
+	public void testEmptyGraph() {
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>(false);
+		assertTrue(MinimumSpanningForests.kruskal(graph, Double::doubleValue).isEmpty());
+		assertTrue(MinimumSpanningForests.prim(graph, Double::doubleValue).isEmpty());
+		assertTrue(MinimumSpanningForests.boruvka(graph, Double::doubleValue).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDirectedGraph() {
+		MinimumSpanningForests.kruskal(new WeightedHashGraph<Integer, Double>(true), Double::doubleValue);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNaNWeight() {
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>(false);
+		addEdge(graph, 0, 1, Double.NaN);
+		MinimumSpanningForests.prim(graph, Double::doubleValue);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullGraph() {
+		MinimumSpanningForests.boruvka((WeightedHashGraph<Integer, Double>) null, Double::doubleValue);
+	}
+
+}
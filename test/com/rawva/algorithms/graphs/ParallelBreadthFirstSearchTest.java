@@ -0,0 +1,145 @@
+package com.rawva.algorithms.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.IntWeightedGraph;
+import com.rawva.structures.graphs.RandomGraphs;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class ParallelBreadthFirstSearchTest {
+
+	private static int[] sequentialDistances(CsrGraph<Integer, ?> graph, int source) {
+		int[] distances = new int[graph.getNumberOfVertices()];
+		Arrays.fill(distances, -1);
+		Deque<Integer> queue = new ArrayDeque<>();
+		distances[source] = 0;
+		queue.add(source);
+		while (!queue.isEmpty()) {
+			int tail = queue.poll();
+			for (int position = graph.getEdgeStart(tail); position < graph.getEdgeEnd(tail); position++) {
+				int head = graph.getHeadIndexAt(position);
+				if (distances[head] < 0) {
+					distances[head] = distances[tail] + 1;
+					queue.add(head);
+				}
+			}
+		}
+		return distances;
+	}
+
+	private static void assertValidTree(CsrGraph<Integer, ?> graph, BreadthFirstTree<Integer> tree, int source) {
+		int[] expected = sequentialDistances(graph, source);
+		int[] distances = tree.getDistances();
+		int[] parents = tree.getParentIndices();
+		int reached = 0;
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], distances[i]);
+			if (distances[i] > 0) {
+				assertEquals(distances[i] - 1, distances[parents[i]]);
+				assertTrue(graph.containsEdge(graph.getVertexAt(parents[i]), graph.getVertexAt(i)));
+			} else {
+				assertEquals(-1, parents[i]);
+			}
+			if (distances[i] >= 0) {
+				reached++;
+			}
+		}
+		assertEquals(reached, tree.getNumberOfReachedVertices());
+	}
+
+	@Test
+	public void testSmallGraph() {
+		WeightedHashGraph<String, Integer> graph = new WeightedHashGraph<>(true);
+		for (String vertex : Arrays.asList("a", "b", "c", "d", "e")) {
+			graph.addVertex(vertex);
+		}
+		graph.addEdge("a", "b");
+		graph.addEdge("b", "c");
+		graph.addEdge("a", "d");
+		graph.addEdge("e", "a");
+		BreadthFirstTree<String> tree = new ParallelBreadthFirstSearch<>(graph).search("a");
+		assertEquals("a", tree.getSource());
+		assertEquals(0, tree.getDistance("a"));
+		assertEquals(2, tree.getDistance("c"));
+		assertEquals(-1, tree.getDistance("e"));
+		assertEquals(-1, tree.getDistance("z"));
+		assertEquals("b", tree.getParent("c"));
+		assertNull(tree.getParent("a"));
+		assertEquals(Arrays.asList("a", "b", "c"), tree.getPathTo("c"));
+		assertNull(tree.getPathTo("e"));
+		assertEquals(4, tree.getNumberOfReachedVertices());
+	}
+
+	@Test
+	public void testRandomDirectedGraphs() {
+		Random random = new Random(3);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int trial = 0; trial < 5; trial++) {
+				CsrGraph<Integer, Double> graph = new CsrGraph<>(RandomGraphs.fill(new IntWeightedGraph(true), random,
+						20000, 150000));
+				ParallelBreadthFirstSearch<Integer> search = new ParallelBreadthFirstSearch<>(graph, pool);
+				int source = random.nextInt(20000);
+				assertValidTree(graph, search.search(source), source);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testRandomUndirectedGraphs() {
+		Random random = new Random(5);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int trial = 0; trial < 5; trial++) {
+				CsrGraph<Integer, Double> graph = new CsrGraph<>(RandomGraphs.fill(new IntWeightedGraph(false), random,
+						10000, 30000 * trial + 5000));
+				ParallelBreadthFirstSearch<Integer> search = new ParallelBreadthFirstSearch<>(graph, pool);
+				for (int source = 0; source < 3; source++) {
+					assertValidTree(graph, search.search(source), source);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testPathGraph() {
+		IntWeightedGraph graph = new IntWeightedGraph(false);
+		int n = 1000;
+		for (int i = 0; i < n; i++) {
+			graph.addVertex(i);
+		}
+		for (int i = 0; i + 1 < n; i++) {
+			graph.addEdge(i, i + 1);
+		}
+		BreadthFirstTree<Integer> tree = new ParallelBreadthFirstSearch<>(graph).search(500);
+		assertEquals(500, tree.getDistance(0));
+		assertEquals(499, tree.getDistance(999));
+		assertEquals(n, tree.getNumberOfReachedVertices());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingSource() {
+		new ParallelBreadthFirstSearch<>(new IntWeightedGraph()).search(1);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullGraph() {
+		new ParallelBreadthFirstSearch<Integer>(null);
+	}
+
+}
@@ -0,0 +1,215 @@
+package com.rawva.algorithms.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rawva.structures.graphs.RandomGraphs;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class ShortestPathCacheTest {
+
+	private static WeightedHashGraph<String, Double> createGraph() {
+		WeightedHashGraph<String, Double> graph = new WeightedHashGraph<>(true);
+		for (String vertex : Arrays.asList("a", "b", "c", "d", "e", "f")) {
+			graph.addVertex(vertex);
+		}
+		graph.addEdge("a", "b", 4.0);
+		graph.addEdge("a", "c", 1.0);
+		graph.addEdge("c", "b", 2.0);
+		graph.addEdge("b", "d", 1.0);
+		graph.addEdge("c", "d", 5.0);
+		graph.addEdge("d", "e", 3.0);
+		graph.addEdge("f", "a", 1.0);
+		return graph;
+	}
+
+	/**
+	 * Checks every cached answer from the specified sources against a finder
+	 * on a fresh snapshot of the graph.
+	 */
+	private static void assertMatchesFinder(ShortestPathCache<Integer, Double> cache, int[] sources) {
+		WeightedHashGraph<Integer, Double> graph = cache.getGraph();
+		ShortestPathFinder<Integer, Double> finder = new ShortestPathFinder<>(graph, Double::doubleValue);
+		for (int source : sources) {
+			if (!graph.containsVertex(source)) {
+				continue;
+			}
+			for (int target : graph.getVertices()) {
+				double expected = finder.getDistance(source, target);
+				assertEquals(expected, cache.getDistance(source, target), 1e-9);
+				ShortestPath<Integer> path = cache.findPath(source, target);
+				if (expected == Double.POSITIVE_INFINITY) {
+					assertNull(path);
+					continue;
+				}
+				List<Integer> vertices = path.getVertices();
+				double length = 0;
+				for (int i = 1; i < vertices.size(); i++) {
+					assertTrue(graph.containsEdge(vertices.get(i - 1), vertices.get(i)));
+					length += graph.getWeight(vertices.get(i - 1), vertices.get(i));
+				}
+				assertEquals(expected, length, 1e-9);
+				assertEquals(source, (int) path.getSource());
+				assertEquals(target, (int) path.getTarget());
+			}
+		}
+	}
+
+	@Test
+	public void testQueries() {
+		ShortestPathCache<String, Double> cache = new ShortestPathCache<>(createGraph(), Double::doubleValue, 4);
+		assertFalse(cache.isCached("a"));
+		assertEquals(Arrays.asList("a", "c", "b", "d", "e"), cache.findPath("a", "e").getVertices());
+		assertTrue(cache.isCached("a"));
+		assertEquals(7.0, cache.getDistance("a", "e"), 0.0);
+		assertEquals(0.0, cache.getDistance("a", "a"), 0.0);
+		assertNull(cache.findPath("a", "f"));
+		assertEquals(Double.POSITIVE_INFINITY, cache.getDistance("e", "a"), 0.0);
+	}
+
+	@Test
+	public void testUpdates() {
+		ShortestPathCache<String, Double> cache = new ShortestPathCache<>(createGraph(), Double::doubleValue, 4);
+		assertEquals(7.0, cache.getDistance("a", "e"), 0.0);
+
+		// Increasing a tree edge reroutes through the next best path
+		assertEquals(Double.valueOf(2.0), cache.setWeight("c", "b", 10.0));
+		assertEquals(Arrays.asList("a", "b", "d", "e"), cache.findPath("a", "e").getVertices());
+		assertEquals(8.0, cache.getDistance("a", "e"), 0.0);
+
+		// A new shortcut is picked up without recomputing the tree
+		assertTrue(cache.addEdge("c", "e", 0.5));
+		assertFalse(cache.addEdge("c", "e", 0.1));
+		assertEquals(1.5, cache.getDistance("a", "e"), 0.0);
+
+		assertTrue(cache.removeEdge("c", "e"));
+		assertFalse(cache.removeEdge("c", "e"));
+		assertEquals(8.0, cache.getDistance("a", "e"), 0.0);
+
+		assertTrue(cache.removeVertex("b"));
+		assertEquals(Arrays.asList("a", "c", "d", "e"), cache.findPath("a", "e").getVertices());
+		assertEquals(9.0, cache.getDistance("a", "e"), 0.0);
+		assertNull(cache.setWeight("a", "b", 1.0));
+		assertTrue(cache.isCached("a"));
+
+		assertTrue(cache.removeVertex("a"));
+		assertFalse(cache.isCached("a"));
+	}
+
+	@Test
+	public void testRandomUpdates() {
+		Random random = new Random(1);
+		for (boolean isDirected : new boolean[] { true, false }) {
+			int n = 60;
+			WeightedHashGraph<Integer, Double> graph = RandomGraphs.create(random, n, 200, isDirected,
+					(r, tail, head) -> (double) r.nextInt(20));
+			ShortestPathCache<Integer, Double> cache = new ShortestPathCache<>(graph, Double::doubleValue, 8);
+			int[] sources = { 0, 1, 2, 3, 4 };
+			assertMatchesFinder(cache, sources);
+
+			for (int step = 0; step < 300; step++) {
+				int tail = random.nextInt(n);
+				int head = random.nextInt(n);
+				switch (random.nextInt(4)) {
+				case 0:
+					cache.addEdge(tail, head, (double) random.nextInt(20));
+					break;
+				case 1:
+					cache.removeEdge(tail, head);
+					break;
+				default:
+					// Change the weight of an existing edge more often than not
+					if (graph.containsVertex(tail) && !graph.getAdjacentElements(tail).isEmpty()) {
+						head = graph.getAdjacentElements(tail).iterator().next();
+					}
+					cache.setWeight(tail, head, (double) random.nextInt(20));
+				}
+				if (step % 50 == 49) {
+					cache.removeVertex(random.nextInt(n));
+				}
+				if (step % 10 == 0) {
+					assertMatchesFinder(cache, sources);
+				}
+			}
+			assertMatchesFinder(cache, sources);
+		}
+	}
+
+	@Test
+	public void testEviction() {
+		ShortestPathCache<String, Double> cache = new ShortestPathCache<>(createGraph(), Double::doubleValue, 2);
+		cache.getDistance("a", "e");
+		cache.getDistance("b", "e");
+		cache.getDistance("a", "e");
+		cache.getDistance("c", "e");
+		assertTrue(cache.isCached("a"));
+		assertFalse(cache.isCached("b"));
+		assertTrue(cache.isCached("c"));
+
+		cache.invalidate("a");
+		assertFalse(cache.isCached("a"));
+		cache.invalidateAll();
+		assertFalse(cache.isCached("c"));
+	}
+
+	@Test
+	public void testDirectChangesNeedInvalidation() {
+		WeightedHashGraph<String, Double> graph = createGraph();
+		ShortestPathCache<String, Double> cache = new ShortestPathCache<>(graph, Double::doubleValue, 4);
+		assertEquals(7.0, cache.getDistance("a", "e"), 0.0);
+		graph.setWeight("d", "e", 1.0);
+		assertEquals(7.0, cache.getDistance("a", "e"), 0.0);
+		cache.invalidate("a");
+		assertEquals(5.0, cache.getDistance("a", "e"), 0.0);
+	}
+
+	@Test
+	public void testInfiniteWeight() {
+		WeightedHashGraph<String, Double> graph = new WeightedHashGraph<>(true);
+		graph.addVertex("s");
+		graph.addVertex("t");
+		graph.addVertex("u");
+		graph.addEdge("s", "t", Double.POSITIVE_INFINITY);
+		ShortestPathCache<String, Double> cache = new ShortestPathCache<>(graph, Double::doubleValue, 4);
+		assertNull(cache.findPath("s", "t"));
+		assertEquals(Double.POSITIVE_INFINITY, cache.getDistance("s", "t"), 0.0);
+
+		// An infinite edge added to a cached tree is not used either
+		assertTrue(cache.addEdge("s", "u", Double.POSITIVE_INFINITY));
+		assertNull(cache.findPath("s", "u"));
+		assertEquals(Double.valueOf(Double.POSITIVE_INFINITY), cache.setWeight("s", "t", 2.0));
+		assertEquals(Arrays.asList("s", "t"), cache.findPath("s", "t").getVertices());
+		assertEquals(Double.valueOf(2.0), cache.setWeight("s", "t", Double.POSITIVE_INFINITY));
+		assertNull(cache.findPath("s", "t"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeWeight() {
+		ShortestPathCache<String, Double> cache = new ShortestPathCache<>(createGraph(), Double::doubleValue, 4);
+		cache.setWeight("a", "b", -1.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingSource() {
+		new ShortestPathCache<>(createGraph(), Double::doubleValue, 4).getDistance("x", "a");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaximumSize() {
+		new ShortestPathCache<>(createGraph(), Double::doubleValue, 0);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullGraph() {
+		new ShortestPathCache<String, Double>(null, Double::doubleValue, 4);
+	}
+
+}
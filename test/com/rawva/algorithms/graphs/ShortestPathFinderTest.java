@@ -0,0 +1,205 @@
+package com.rawva.algorithms.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.rawva.structures.graphs.RandomGraphs;
+import com.rawva.structures.graphs.RandomGraphs.EdgeWeights;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class ShortestPathFinderTest {
+
+	private static final EdgeWeights<Double> LENGTHS = (random, tail, head) -> (double) random.nextInt(20);
+
+	private static WeightedHashGraph<String, Double> createGraph() {
+		WeightedHashGraph<String, Double> graph = new WeightedHashGraph<>(true);
+		for (String vertex : Arrays.asList("a", "b", "c", "d", "e", "f")) {
+			graph.addVertex(vertex);
+		}
+		graph.addEdge("a", "b", 4.0);
+		graph.addEdge("a", "c", 1.0);
+		graph.addEdge("c", "b", 2.0);
+		graph.addEdge("b", "d", 1.0);
+		graph.addEdge("c", "d", 5.0);
+		graph.addEdge("d", "e", 3.0);
+		graph.addEdge("f", "a", 1.0);
+		return graph;
+	}
+
+	private static double[][] floydWarshall(WeightedHashGraph<Integer, Double> graph) {
+		int n = graph.getNumberOfVertices();
+		double[][] distances = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			Arrays.fill(distances[i], Double.POSITIVE_INFINITY);
+			distances[i][i] = 0;
+			for (int j : graph.getAdjacentElements(i)) {
+				distances[i][j] = Math.min(distances[i][j], graph.getWeight(i, j));
+			}
+		}
+		for (int k = 0; k < n; k++) {
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					distances[i][j] = Math.min(distances[i][j], distances[i][k] + distances[k][j]);
+				}
+			}
+		}
+		return distances;
+	}
+
+	private static void assertValidPath(WeightedHashGraph<Integer, Double> graph, ShortestPath<Integer> path,
+			int source, int target, double distance) {
+		List<Integer> vertices = path.getVertices();
+		assertEquals(Integer.valueOf(source), path.getSource());
+		assertEquals(Integer.valueOf(target), path.getTarget());
+		double length = 0;
+		for (int i = 0; i + 1 < vertices.size(); i++) {
+			assertTrue(graph.containsEdge(vertices.get(i), vertices.get(i + 1)));
+			length += graph.getWeight(vertices.get(i), vertices.get(i + 1));
+		}
+		assertEquals(distance, length, 1e-9);
+		assertEquals(distance, path.getDistance(), 1e-9);
+	}
+
+	@Test
+	public void testFindPath() {
+		ShortestPathFinder<String, Double> finder = new ShortestPathFinder<>(createGraph(), Double::doubleValue);
+		ShortestPath<String> path = finder.findPath("a", "e");
+		assertEquals(Arrays.asList("a", "c", "b", "d", "e"), path.getVertices());
+		assertEquals(7.0, path.getDistance(), 0.0);
+		assertEquals(4, path.getNumberOfEdges());
+		assertEquals(Arrays.asList("a"), finder.findPath("a", "a").getVertices());
+		assertNull(finder.findPath("e", "a"));
+		assertNull(finder.findPathBidirectional("e", "a"));
+	}
+
+	@Test
+	public void testFindPathBidirectional() {
+		ShortestPathFinder<String, Double> finder = new ShortestPathFinder<>(createGraph(), Double::doubleValue);
+		ShortestPath<String> path = finder.findPathBidirectional("f", "e");
+		assertEquals(Arrays.asList("f", "a", "c", "b", "d", "e"), path.getVertices());
+		assertEquals(8.0, path.getDistance(), 0.0);
+		assertEquals(Arrays.asList("b"), finder.findPathBidirectional("b", "b").getVertices());
+	}
+
+	@Test
+	public void testGetDistances() {
+		ShortestPathFinder<String, Double> finder = new ShortestPathFinder<>(createGraph(), Double::doubleValue);
+		Map<String, Double> distances = finder.getDistances("a");
+		assertEquals(Arrays.asList("a", "c", "b", "d", "e"), Arrays.asList(distances.keySet().toArray()));
+		assertEquals(Double.valueOf(3.0), distances.get("b"));
+		assertEquals(Double.POSITIVE_INFINITY, finder.getDistance("a", "f"), 0.0);
+		assertEquals(4.0, finder.getDistance("a", "d"), 0.0);
+	}
+
+	@Test
+	public void testGridAStar() {
+		int size = 30;
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>(false);
+		for (int i = 0; i < size * size; i++) {
+			graph.addVertex(i);
+		}
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				int index = row * size + col;
+				if (col + 1 < size && !(col == 10 && row < 25)) {
+					graph.addEdge(index, index + 1, 1.0);
+				}
+				if (row + 1 < size) {
+					graph.addEdge(index, index + size, 1.0);
+				}
+			}
+		}
+		int target = size * size - 1;
+		ShortestPathFinder<Integer, Double> finder = new ShortestPathFinder<>(graph, Double::doubleValue);
+		double expected = finder.findPath(0, target).getDistance();
+		ShortestPath<Integer> path = finder.findPath(0, target,
+				elem -> Math.abs(elem / size - (size - 1)) + Math.abs(elem % size - (size - 1)));
+		assertValidPath(graph, path, 0, target, expected);
+		assertValidPath(graph, finder.findPathBidirectional(0, target), 0, target, expected);
+	}
+
+	@Test
+	public void testRandomGraphs() {
+		Random random = new Random(7);
+		for (int trial = 0; trial < 20; trial++) {
+			boolean isDirected = trial % 2 == 0;
+			WeightedHashGraph<Integer, Double> graph = RandomGraphs.create(random, 40, 120, isDirected, LENGTHS);
+			double[][] expected = floydWarshall(graph);
+			ShortestPathFinder<Integer, Double> finder = new ShortestPathFinder<>(graph, Double::doubleValue);
+			for (int source = 0; source < 40; source++) {
+				for (int target = 0; target < 40; target++) {
+					double distance = expected[source][target];
+					assertEquals(distance, finder.getDistance(source, target), 1e-9);
+					ShortestPath<Integer> path = finder.findPath(source, target);
+					ShortestPath<Integer> bidirectional = finder.findPathBidirectional(source, target);
+					if (distance == Double.POSITIVE_INFINITY) {
+						assertNull(path);
+						assertNull(bidirectional);
+					} else {
+						assertValidPath(graph, path, source, target, distance);
+						assertValidPath(graph, bidirectional, source, target, distance);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testConcurrentQueries() throws Exception {
+		Random random = new Random(11);
+		WeightedHashGraph<Integer, Double> graph = RandomGraphs.create(random, 200, 800, true, LENGTHS);
+		double[][] expected = floydWarshall(graph);
+		ShortestPathFinder<Integer, Double> finder = new ShortestPathFinder<>(graph, Double::doubleValue);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] futures = new Future<?>[4];
+			for (int t = 0; t < futures.length; t++) {
+				int seed = t;
+				futures[t] = executor.submit(() -> {
+					Random queries = new Random(seed);
+					for (int i = 0; i < 2000; i++) {
+						int source = queries.nextInt(200);
+						int target = queries.nextInt(200);
+						assertEquals(expected[source][target], finder.getDistance(source, target), 1e-9);
+					}
+				});
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeWeight() {
+		WeightedHashGraph<String, Double> graph = createGraph();
+		graph.setWeight("a", "b", -1.0);
+		new ShortestPathFinder<>(graph, Double::doubleValue);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingSource() {
+		new ShortestPathFinder<>(createGraph(), Double::doubleValue).findPath("z", "a");
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullGraph() {
+		new ShortestPathFinder<String, Double>(null, Double::doubleValue);
+	}
+
+}
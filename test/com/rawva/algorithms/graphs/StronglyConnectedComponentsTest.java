@@ -0,0 +1,137 @@
+package com.rawva.algorithms.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.rawva.algorithms.graphs.StronglyConnectedComponents.Algorithm;
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.IntWeightedGraph;
+import com.rawva.structures.graphs.RandomGraphs;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class StronglyConnectedComponentsTest {
+
+	private static WeightedHashGraph<String, Integer> createGraph() {
+		WeightedHashGraph<String, Integer> graph = new WeightedHashGraph<>(true);
+		for (String vertex : Arrays.asList("a", "b", "c", "d", "e", "f", "g")) {
+			graph.addVertex(vertex);
+		}
+		graph.addEdge("a", "b");
+		graph.addEdge("b", "c");
+		graph.addEdge("c", "a");
+		graph.addEdge("c", "d");
+		graph.addEdge("d", "e");
+		graph.addEdge("e", "d");
+		graph.addEdge("e", "f");
+		graph.addEdge("g", "g");
+		return graph;
+	}
+
+	private static void assertComponents(StronglyConnectedComponents<String> components) {
+		assertEquals(4, components.getNumberOfComponents());
+		assertTrue(components.isStronglyConnected("a", "c"));
+		assertTrue(components.isStronglyConnected("d", "e"));
+		assertFalse(components.isStronglyConnected("c", "d"));
+		assertFalse(components.isStronglyConnected("a", "z"));
+		assertEquals(3, components.getComponentSize(components.getComponent("b")));
+		assertEquals(1, components.getComponentSize(components.getComponent("f")));
+		assertEquals(-1, components.getComponent("z"));
+		assertEquals(new HashSet<>(Arrays.asList("d", "e")),
+				components.getComponents().get(components.getComponent("e")));
+	}
+
+	private static void assertTopologicalLabels(CsrGraph<Integer, ?> graph,
+			StronglyConnectedComponents<Integer> components) {
+		for (int tail = 0; tail < graph.getNumberOfVertices(); tail++) {
+			for (int position = graph.getEdgeStart(tail); position < graph.getEdgeEnd(tail); position++) {
+				int head = graph.getHeadIndexAt(position);
+				assertTrue(components.getComponent(graph.getVertexAt(tail)) <= components
+						.getComponent(graph.getVertexAt(head)));
+			}
+		}
+	}
+
+	@Test
+	public void testTarjan() {
+		StronglyConnectedComponents<String> components = new StronglyConnectedComponents<>(createGraph());
+		assertComponents(components);
+		assertTrue(components.getComponent("a") < components.getComponent("d"));
+		assertTrue(components.getComponent("d") < components.getComponent("f"));
+	}
+
+	@Test
+	public void testForwardBackward() {
+		assertComponents(new StronglyConnectedComponents<>(createGraph(), Algorithm.FORWARD_BACKWARD));
+	}
+
+	@Test
+	public void testDeepGraph() {
+		IntWeightedGraph graph = new IntWeightedGraph(true);
+		int n = 200000;
+		for (int i = 0; i < n; i++) {
+			graph.addVertex(i);
+		}
+		for (int i = 0; i + 1 < n; i++) {
+			graph.addEdge(i, i + 1);
+		}
+		graph.addEdge(n - 1, n / 2);
+		StronglyConnectedComponents<Integer> components = new StronglyConnectedComponents<>(graph);
+		assertEquals(n / 2 + 1, components.getNumberOfComponents());
+		assertEquals(n / 2, components.getComponentSize(components.getComponent(n - 1)));
+		assertTrue(components.isStronglyConnected(n / 2, n - 1));
+		assertEquals(n / 2 + 1,
+				new StronglyConnectedComponents<>(graph, Algorithm.FORWARD_BACKWARD).getNumberOfComponents());
+	}
+
+	@Test
+	public void testRandomGraphs() {
+		Random random = new Random(13);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int trial = 0; trial < 6; trial++) {
+				int n = 20000;
+				CsrGraph<Integer, Double> graph = new CsrGraph<>(RandomGraphs.fill(new IntWeightedGraph(true), random,
+						n, 10000 + 4000 * trial));
+				StronglyConnectedComponents<Integer> tarjan = new StronglyConnectedComponents<>(graph);
+				StronglyConnectedComponents<Integer> forwardBackward = new StronglyConnectedComponents<>(graph,
+						Algorithm.FORWARD_BACKWARD, pool);
+				assertEquals(tarjan.getNumberOfComponents(), forwardBackward.getNumberOfComponents());
+				assertEquals(new HashSet<>(tarjan.getComponents()), new HashSet<>(forwardBackward.getComponents()));
+				assertTopologicalLabels(graph, tarjan);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testUndirectedGraph() {
+		WeightedHashGraph<String, Integer> graph = new WeightedHashGraph<>(false);
+		graph.addVertex("a");
+		graph.addVertex("b");
+		graph.addVertex("c");
+		graph.addEdge("a", "b");
+		StronglyConnectedComponents<String> components = new StronglyConnectedComponents<>(graph);
+		assertEquals(2, components.getNumberOfComponents());
+		assertTrue(components.isStronglyConnected("b", "a"));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testComponentSizeOutOfRange() {
+		new StronglyConnectedComponents<>(createGraph()).getComponentSize(4);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullGraph() {
+		new StronglyConnectedComponents<String>(null);
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.rawva.algorithms.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rawva.structures.graphs.IntWeightedGraph;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class TopologicalSortTest {
+
+	private static WeightedHashGraph<String, Integer> createGraph() {
+		WeightedHashGraph<String, Integer> graph = new WeightedHashGraph<>(true);
+		for (String vertex : Arrays.asList("shirt", "tie", "jacket", "belt", "pants", "shoes", "socks")) {
+			graph.addVertex(vertex);
+		}
+		graph.addEdge("shirt", "tie");
+		graph.addEdge("tie", "jacket");
+		graph.addEdge("shirt", "belt");
+		graph.addEdge("belt", "jacket");
+		graph.addEdge("pants", "belt");
+		graph.addEdge("pants", "shoes");
+		graph.addEdge("socks", "shoes");
+		return graph;
+	}
+
+	@Test
+	public void testSort() {
+		WeightedHashGraph<String, Integer> graph = createGraph();
+		List<String> order = TopologicalSort.sort(graph);
+		assertEquals(7, order.size());
+		for (String tail : graph.getVertices()) {
+			for (String head : graph.getAdjacentElements(tail)) {
+				assertTrue(order.indexOf(tail) < order.indexOf(head));
+			}
+		}
+		assertTrue(TopologicalSort.isAcyclic(graph));
+	}
+
+	@Test
+	public void testLargeGraph() {
+		Random random = new Random(17);
+		int n = 100000;
+		IntWeightedGraph graph = new IntWeightedGraph(true);
+		for (int i = 0; i < n; i++) {
+			graph.addVertex(i);
+		}
+		for (int i = 0; i < 3 * n; i++) {
+			int tail = random.nextInt(n - 1);
+			graph.addEdge(tail, tail + 1 + random.nextInt(n - tail - 1));
+		}
+		List<Integer> order = TopologicalSort.sort(graph);
+		int[] positions = new int[n];
+		for (int i = 0; i < n; i++) {
+			positions[order.get(i)] = i;
+		}
+		for (int tail = 0; tail < n; tail++) {
+			for (int head : graph.getAdjacentElements(tail)) {
+				assertTrue(positions[tail] < positions[head]);
+			}
+		}
+	}
+
+	@Test
+	public void testCycle() {
+		WeightedHashGraph<String, Integer> graph = createGraph();
+		graph.addEdge("jacket", "shirt");
+		assertFalse(TopologicalSort.isAcyclic(graph));
+		try {
+			TopologicalSort.sort(graph);
+			assertTrue(false);
+		} catch (IllegalArgumentException e) {
+			assertEquals("Graph contains a cycle", e.getMessage());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUndirectedGraph() {
+		TopologicalSort.sort(new WeightedHashGraph<String, Integer>(false));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullGraph() {
+		TopologicalSort.sort(null);
+	}
+
+}
@@ -0,0 +1,133 @@
+package com.rawva.algorithms.graphs;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.RandomGraphs;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class TriangleCountingTest {
+
+	@Test
+	public void testCompleteGraph() {
+		WeightedHashGraph<Integer, Object> graph = new WeightedHashGraph<>(false);
+		for (int i = 0; i < 5; i++) {
+			graph.addVertex(i);
+			for (int j = 0; j < i; j++) {
+				graph.addEdge(i, j);
+			}
+		}
+		graph.addEdge(0, 0);
+		TriangleCounting<Integer> triangles = new TriangleCounting<>(graph);
+		assertEquals(10, triangles.getNumberOfTriangles());
+		for (int i = 0; i < 5; i++) {
+			assertEquals(6, triangles.getNumberOfTriangles(i));
+			assertEquals(1.0, triangles.getClusteringCoefficient(i), 0.0);
+		}
+		assertEquals(1.0, triangles.getGlobalClusteringCoefficient(), 0.0);
+		assertEquals(1.0, triangles.getAverageClusteringCoefficient(), 0.0);
+	}
+
+	@Test
+	public void testSmallGraph() {
+		// Two triangles sharing the edge 1 - 2, and a pendant element 4
+		WeightedHashGraph<Integer, Object> graph = new WeightedHashGraph<>(false);
+		for (int i = 0; i < 5; i++) {
+			graph.addVertex(i);
+		}
+		graph.addEdge(0, 1);
+		graph.addEdge(0, 2);
+		graph.addEdge(1, 2);
+		graph.addEdge(1, 3);
+		graph.addEdge(2, 3);
+		graph.addEdge(3, 4);
+		TriangleCounting<Integer> triangles = new TriangleCounting<>(graph);
+		assertEquals(2, triangles.getNumberOfTriangles());
+		assertEquals(1, triangles.getNumberOfTriangles(0));
+		assertEquals(2, triangles.getNumberOfTriangles(1));
+		assertEquals(0, triangles.getNumberOfTriangles(4));
+		assertEquals(1.0, triangles.getClusteringCoefficient(0), 0.0);
+		assertEquals(2.0 / 3, triangles.getClusteringCoefficient(1), 1e-12);
+		assertEquals(1.0 / 3, triangles.getClusteringCoefficient(3), 1e-12);
+		assertEquals(0.0, triangles.getClusteringCoefficient(4), 0.0);
+		// 6 triangle corners among 1 + 3 + 3 + 3 + 0 paths of two edges
+		assertEquals(0.6, triangles.getGlobalClusteringCoefficient(), 1e-12);
+		assertEquals((1 + 2.0 / 3 + 2.0 / 3 + 1.0 / 3) / 5, triangles.getAverageClusteringCoefficient(), 1e-12);
+	}
+
+	@Test
+	public void testRandomGraphs() {
+		Random random = new Random(1);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int trial = 0; trial < 5; trial++) {
+				int n = 300;
+				WeightedHashGraph<Integer, Object> graph = RandomGraphs.create(random, n, 3000 * (trial + 1), false);
+				// A hub makes forward adjacencies of very different lengths
+				for (int i = 1; i < n; i += 2) {
+					graph.addEdge(0, i);
+				}
+				TriangleCounting<Integer> triangles = new TriangleCounting<>(graph, pool);
+				CsrGraph<Integer, ?> snapshot = triangles.getGraph();
+				long[] counts = triangles.getTriangleCounts();
+				double[] coefficients = triangles.getClusteringCoefficients();
+
+				long total = 0;
+				for (int i = 0; i < n; i++) {
+					Integer[] neighbors = graph.getAdjacentElements(i).toArray(new Integer[0]);
+					long expected = 0;
+					int degree = 0;
+					for (int a = 0; a < neighbors.length; a++) {
+						if (neighbors[a] == i) {
+							continue;
+						}
+						degree++;
+						for (int b = a + 1; b < neighbors.length; b++) {
+							if (neighbors[b] != i && graph.containsEdge(neighbors[a], neighbors[b])) {
+								expected++;
+							}
+						}
+					}
+					int index = snapshot.getVertexIndex(i);
+					assertEquals(expected, counts[index]);
+					assertEquals(expected, triangles.getNumberOfTriangles(i));
+					double coefficient = degree < 2 ? 0 : 2.0 * expected / degree / (degree - 1);
+					assertEquals(coefficient, coefficients[index], 1e-12);
+					total += expected;
+				}
+				assertEquals(total / 3, triangles.getNumberOfTriangles());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testEmptyGraph() {
+		TriangleCounting<Integer> triangles = new TriangleCounting<>(new WeightedHashGraph<Integer, Object>(false));
+		assertEquals(0, triangles.getNumberOfTriangles());
+		assertEquals(0.0, triangles.getAverageClusteringCoefficient(), 0.0);
+		assertEquals(0.0, triangles.getGlobalClusteringCoefficient(), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDirectedGraph() {
+		new TriangleCounting<>(new WeightedHashGraph<Integer, Object>(true));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingElement() {
+		new TriangleCounting<>(new WeightedHashGraph<Integer, Object>(false)).getNumberOfTriangles(1);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullGraph() {
+		new TriangleCounting<Integer>(null);
+	}
+
+}
@@ -0,0 +1,201 @@
+package com.rawva.algorithms.graphs;
+
+import static com.rawva.structures.graphs.TestGraphs.addEdge;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.Graph;
+import com.rawva.structures.graphs.RandomGraphs;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class VertexCentricEngineTest {
+
+	/**
+	 * Computes PageRank by plain power iteration over the graph's vertex sets.
+	 */
+	private static double[] referencePageRank(CsrGraph<Integer, ?> graph, double damping, boolean[] isSource,
+			int iterations) {
+		int n = graph.getNumberOfVertices();
+		double[] jump = new double[n];
+		int targets = 0;
+		for (int i = 0; i < n; i++) {
+			targets += isSource == null || isSource[i] ? 1 : 0;
+		}
+		for (int i = 0; i < n; i++) {
+			jump[i] = isSource == null || isSource[i] ? 1.0 / targets : 0;
+		}
+		double[] ranks = jump.clone();
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			double[] next = new double[n];
+			double dangling = 0;
+			for (int i = 0; i < n; i++) {
+				int degree = graph.getEdgeEnd(i) - graph.getEdgeStart(i);
+				if (degree == 0) {
+					dangling += ranks[i];
+				}
+				for (int position = graph.getEdgeStart(i); position < graph.getEdgeEnd(i); position++) {
+					next[graph.getHeadIndexAt(position)] += damping * ranks[i] / degree;
+				}
+			}
+			for (int i = 0; i < n; i++) {
+				next[i] += (1 - damping) * jump[i] + damping * dangling * jump[i];
+			}
+			ranks = next;
+		}
+		return ranks;
+	}
+
+	@Test
+	public void testPageRank() {
+		WeightedHashGraph<Integer, Object> graph = new WeightedHashGraph<>(true);
+		addEdge(graph, 0, 1);
+		addEdge(graph, 1, 2);
+		addEdge(graph, 2, 0);
+		addEdge(graph, 3, 2);
+		VertexCentricEngine<Integer> engine = new VertexCentricEngine<>(graph);
+		VertexValues<Integer> ranks = engine.run(engine.pageRank(0.85), 200, 1e-12);
+		assertTrue(ranks.hasConverged());
+		assertEquals(0.15 / 4, ranks.getValue(3), 1e-9);
+		assertTrue(ranks.getValue(2) > ranks.getValue(0));
+		assertTrue(Double.isNaN(ranks.getValue(42)));
+		double sum = 0;
+		for (double rank : ranks.getValues().values()) {
+			sum += rank;
+		}
+		assertEquals(1.0, sum, 1e-9);
+	}
+
+	@Test
+	public void testPageRankMatchesReference() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (boolean isDirected : new boolean[] { true, false }) {
+				WeightedHashGraph<Integer, Object> graph = RandomGraphs.create(new Random(7), 5000, 15000, isDirected);
+				VertexCentricEngine<Integer> engine = new VertexCentricEngine<>(graph, pool);
+				VertexValues<Integer> ranks = engine.run(engine.pageRank(0.85), 30, 0);
+				assertFalse(ranks.hasConverged());
+				assertEquals(30, ranks.getNumberOfSupersteps());
+				double[] expected = referencePageRank(engine.getGraph(), 0.85, null, 30);
+				double[] actual = ranks.getValueArray();
+				for (int i = 0; i < expected.length; i++) {
+					assertEquals(expected[i], actual[i], 1e-12);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testPersonalizedPageRank() {
+		WeightedHashGraph<Integer, Object> graph = RandomGraphs.create(new Random(3), 2000, 5000, true);
+		addEdge(graph, 2000, 2001);
+		VertexCentricEngine<Integer> engine = new VertexCentricEngine<>(graph);
+		VertexValues<Integer> ranks = engine.run(engine.personalizedPageRank(0.85, Arrays.asList(0, 1)), 40, 0);
+		boolean[] isSource = new boolean[engine.getGraph().getNumberOfVertices()];
+		isSource[engine.getGraph().getVertexIndex(0)] = true;
+		isSource[engine.getGraph().getVertexIndex(1)] = true;
+		double[] expected = referencePageRank(engine.getGraph(), 0.85, isSource, 40);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], ranks.getValueArray()[i], 1e-12);
+		}
+		// Walks never reach the separate edge
+		assertEquals(0.0, ranks.getValue(2001), 0.0);
+		assertTrue(ranks.getValue(0) > 0.15 / 2);
+	}
+
+	@Test
+	public void testCustomProgram() {
+		// Propagating the smallest index labels the connected components
+		WeightedHashGraph<Integer, Object> graph = new WeightedHashGraph<>(false);
+		addEdge(graph, 0, 1);
+		addEdge(graph, 1, 2);
+		addEdge(graph, 3, 4);
+		graph.addVertex(5);
+		VertexCentricEngine<Integer> engine = new VertexCentricEngine<>(graph);
+		VertexValues<Integer> labels = engine.run(new VertexProgram() {
+
+			@Override
+			public double apply(int vertex, double gathered, double value) {
+				return Math.min(gathered, value);
+			}
+
+			@Override
+			public double combine(double message1, double message2) {
+				return Math.min(message1, message2);
+			}
+
+			@Override
+			public double gather(int vertex, double value, int outDegree) {
+				return value;
+			}
+
+			@Override
+			public double getIdentity() {
+				return Double.POSITIVE_INFINITY;
+			}
+
+			@Override
+			public double getInitialValue(int vertex) {
+				return vertex;
+			}
+
+		}, 100, 0);
+		assertTrue(labels.hasConverged());
+		assertEquals(labels.getValue(0), labels.getValue(2), 0.0);
+		assertEquals(labels.getValue(3), labels.getValue(4), 0.0);
+		assertTrue(labels.getValue(0) != labels.getValue(3));
+		assertEquals(engine.getGraph().getVertexIndex(5), labels.getValue(5), 0.0);
+	}
+
+	@Test
+	public void testZeroSupersteps() {
+		WeightedHashGraph<Integer, Object> graph = RandomGraphs.create(new Random(1), 10, 20, true);
+		VertexCentricEngine<Integer> engine = new VertexCentricEngine<>(graph);
+		VertexValues<Integer> ranks = engine.run(engine.pageRank(0.85), 0, 1);
+		assertEquals(0, ranks.getNumberOfSupersteps());
+		assertFalse(ranks.hasConverged());
+		assertEquals(0.1, ranks.getValue(0), 0.0);
+	}
+
+	@Test
+	public void testEmptyGraph() {
+		VertexCentricEngine<Integer> engine = new VertexCentricEngine<>(new WeightedHashGraph<Integer, Object>());
+		VertexValues<Integer> ranks = engine.run(engine.pageRank(0.85), 10, 0);
+		assertTrue(ranks.hasConverged());
+		assertTrue(ranks.getValues().isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidDampingFactor() {
+		new VertexCentricEngine<>(RandomGraphs.create(new Random(1), 10, 20, true)).pageRank(1.5);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingSource() {
+		new VertexCentricEngine<>(RandomGraphs.create(new Random(1), 10, 20, true)).personalizedPageRank(0.85,
+				Collections.singleton(42));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeTolerance() {
+		VertexCentricEngine<Integer> engine = new VertexCentricEngine<>(
+				RandomGraphs.create(new Random(1), 10, 20, true));
+		engine.run(engine.pageRank(0.85), 10, -1);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullGraph() {
+		new VertexCentricEngine<>((Graph<Integer>) null);
+	}
+
+}
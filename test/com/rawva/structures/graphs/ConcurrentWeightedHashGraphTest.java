@@ -0,0 +1,309 @@
+package com.rawva.structures.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ConcurrentWeightedHashGraphTest {
+
+	@Test
+	public void testDirectedAddEdge() {
+		ConcurrentWeightedHashGraph<Integer, String> graph = new ConcurrentWeightedHashGraph<>(true);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		assertTrue(graph.addEdge(1, 2));
+		assertFalse(graph.addEdge(1, 2, "weight"));
+		assertTrue(graph.addEdge(2, 1, "weight"));
+		assertTrue(graph.addEdge(1, 1));
+		assertFalse(graph.addEdge(1, 3));
+		assertEquals(3, graph.getNumberOfEdges());
+		assertNull(graph.getWeight(1, 2));
+		assertEquals("weight", graph.getWeight(2, 1));
+	}
+
+	@Test
+	public void testUndirectedAddEdge() {
+		ConcurrentWeightedHashGraph<Integer, String> graph = new ConcurrentWeightedHashGraph<>(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		assertTrue(graph.addEdge(1, 2, "weight"));
+		assertFalse(graph.addEdge(2, 1));
+		assertTrue(graph.containsEdge(2, 1));
+		assertEquals("weight", graph.getWeight(2, 1));
+		assertEquals(1, graph.getNumberOfEdges());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testAddNullVertex() {
+		new ConcurrentWeightedHashGraph<Integer, String>().addVertex(null);
+	}
+
+	@Test
+	public void testNullQueries() {
+		ConcurrentWeightedHashGraph<Integer, String> graph = new ConcurrentWeightedHashGraph<>();
+		graph.addVertex(1);
+		assertFalse(graph.containsVertex(null));
+		assertFalse(graph.containsEdge(1, null));
+		assertNull(graph.getWeight(null, 1));
+		assertNull(graph.getAdjacentElements(null));
+	}
+
+	@Test
+	public void testSetWeight() {
+		ConcurrentWeightedHashGraph<Integer, String> graph = new ConcurrentWeightedHashGraph<>(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2, "weight");
+		assertEquals("weight", graph.setWeight(2, 1, null));
+		assertNull(graph.getWeight(1, 2));
+		assertTrue(graph.containsEdge(1, 2));
+		assertNull(graph.setWeight(1, 2, "new weight"));
+		assertEquals("new weight", graph.getWeight(2, 1));
+		assertNull(graph.setWeight(1, 3, "not settable"));
+	}
+
+	@Test
+	public void testClear() {
+		ConcurrentWeightedHashGraph<Integer, String> graph = new ConcurrentWeightedHashGraph<>();
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2);
+		graph.clear();
+		assertTrue(graph.isEmpty());
+		assertEquals(0, graph.getNumberOfEdges());
+		assertTrue(graph.addVertex(1));
+	}
+
+	@Test
+	public void testGetAdjacentElements() {
+		ConcurrentWeightedHashGraph<Integer, String> graph = new ConcurrentWeightedHashGraph<>(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addVertex(3);
+		graph.addEdge(1, 2);
+		graph.addEdge(3, 1);
+		Set<Integer> neighbors = new HashSet<>();
+		neighbors.add(2);
+		neighbors.add(3);
+		assertEquals(neighbors, graph.getAdjacentElements(1));
+		assertNull(graph.getAdjacentElements(4));
+	}
+
+	@Test
+	public void testConcurrentAddEdge() throws Exception {
+		final int numberOfVertices = 200;
+		final int numberOfThreads = 8;
+		final ConcurrentWeightedHashGraph<Integer, Integer> graph = new ConcurrentWeightedHashGraph<>(false);
+		for (int i = 0; i < numberOfVertices; i++) {
+			graph.addVertex(i);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int t = 0; t < numberOfThreads; t++) {
+				final int offset = t;
+				results.add(executor.submit(new Callable<Integer>() {
+
+					@Override
+					public Integer call() {
+						int added = 0;
+						for (int i = 0; i < numberOfVertices; i++) {
+							for (int j = 0; j < numberOfVertices; j++) {
+								int tail = (i + offset) % numberOfVertices;
+								int head = (j * 7 + offset) % numberOfVertices;
+								if (graph.addEdge(tail, head, tail + head)) {
+									added++;
+								}
+								graph.containsEdge(head, tail);
+								graph.getAdjacentElements(tail).size();
+							}
+						}
+						return added;
+					}
+
+				}));
+			}
+			int added = 0;
+			for (Future<Integer> result : results) {
+				added += result.get();
+			}
+
+			int expectedEdges = numberOfVertices * (numberOfVertices + 1) / 2;
+			assertEquals(expectedEdges, added);
+			assertEquals(expectedEdges, graph.getNumberOfEdges());
+			for (int i = 0; i < numberOfVertices; i++) {
+				assertEquals(numberOfVertices, graph.getAdjacentElements(i).size());
+				for (int j = 0; j < numberOfVertices; j++) {
+					assertEquals(Integer.valueOf(i + j), graph.getWeight(i, j));
+				}
+			}
+		} finally {
+			executor.shutdown();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void testRemoveEdge() {
+		ConcurrentWeightedHashGraph<Integer, String> graph = new ConcurrentWeightedHashGraph<>(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2, "a");
+		assertFalse(graph.removeEdge(null, 2));
+		assertFalse(graph.removeEdge(1, 3));
+		assertTrue(graph.removeEdge(2, 1));
+		assertFalse(graph.removeEdge(1, 2));
+		assertFalse(graph.containsEdge(1, 2));
+		assertFalse(graph.containsEdge(2, 1));
+		assertEquals(0, graph.getNumberOfEdges());
+	}
+
+	@Test
+	public void testRemoveVertex() {
+		for (boolean isDirected : new boolean[] { true, false }) {
+			ConcurrentWeightedHashGraph<Integer, String> graph = new ConcurrentWeightedHashGraph<>(isDirected);
+			for (int i = 1; i <= 3; i++) {
+				graph.addVertex(i);
+			}
+			graph.addEdge(1, 2);
+			graph.addEdge(2, 3);
+			graph.addEdge(3, 2);
+			graph.addEdge(2, 2);
+			graph.addEdge(3, 1);
+			assertFalse(graph.removeVertex(null));
+			assertFalse(graph.removeVertex(4));
+			assertTrue(graph.removeVertex(2));
+			assertFalse(graph.containsVertex(2));
+			assertEquals(1, graph.getNumberOfEdges());
+			assertEquals(isDirected ? Collections.emptySet() : Collections.singleton(3),
+					graph.getAdjacentElements(1));
+			assertEquals(Collections.singleton(1), graph.getAdjacentElements(3));
+			assertNull(graph.setWeight(1, 2, "b"));
+			assertFalse(graph.addEdge(1, 2));
+		}
+	}
+
+	@Test
+	public void testConcurrentRemoveVertex() throws Exception {
+		ConcurrentWeightedHashGraph<Integer, String> graph = new ConcurrentWeightedHashGraph<>(false);
+		int n = 200;
+		for (int i = 0; i < n; i++) {
+			graph.addVertex(i);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				int offset = t;
+				futures.add(executor.submit(() -> {
+					for (int i = offset; i < n; i += 4) {
+						for (int j = 0; j < n; j += 7) {
+							graph.addEdge(i, j);
+						}
+						if (i % 10 == 0) {
+							graph.removeVertex(i);
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		int stored = 0;
+		for (Integer vertex : graph.getVertices()) {
+			for (Integer neighbor : graph.getAdjacentElements(vertex)) {
+				assertTrue(graph.containsVertex(neighbor));
+				assertTrue(graph.containsEdge(neighbor, vertex));
+				stored += neighbor.equals(vertex) ? 2 : 1;
+			}
+		}
+		assertEquals(stored / 2, graph.getNumberOfEdges());
+	}
+
+	@Test
+	public void testConcurrentRemoveEdgeWithReAddedVertex() throws Exception {
+		// Heads are removed and added again, with their edges, while other
+		// threads remove the same edges
+		ConcurrentWeightedHashGraph<Integer, String> graph = new ConcurrentWeightedHashGraph<>(false);
+		int n = 16;
+		for (int i = 0; i < n; i++) {
+			graph.addVertex(i);
+			graph.addEdge(0, i);
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				boolean isRemover = t % 2 == 0;
+				futures.add(executor.submit(() -> {
+					for (int round = 0; round < 20000; round++) {
+						int head = 1 + round % (n - 1);
+						if (isRemover) {
+							graph.removeEdge(0, head);
+						} else {
+							graph.removeVertex(head);
+							graph.addVertex(head);
+							graph.addEdge(0, head);
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		int stored = 0;
+		for (Integer vertex : graph.getVertices()) {
+			for (Integer neighbor : graph.getAdjacentElements(vertex)) {
+				assertTrue(graph.containsEdge(neighbor, vertex));
+				assertTrue(graph.getAdjacentElements(neighbor).contains(vertex));
+				stored += neighbor.equals(vertex) ? 2 : 1;
+			}
+		}
+		assertEquals(stored / 2, graph.getNumberOfEdges());
+	}
+
+	@Test
+	public void testForEachEdge() {
+		ConcurrentWeightedHashGraph<Integer, String> graph = new ConcurrentWeightedHashGraph<>(true);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addVertex(3);
+		graph.addEdge(1, 2, "a");
+		graph.addEdge(1, 3);
+		Map<Integer, String> edges = new HashMap<>();
+		graph.forEachEdge(1, edges::put);
+		Map<Integer, String> expected = new HashMap<>();
+		expected.put(2, "a");
+		expected.put(3, null);
+		assertEquals(expected, edges);
+		graph.forEachEdge(2, (head, weight) -> fail());
+		graph.forEachEdge(null, (head, weight) -> fail());
+	}
+
+}
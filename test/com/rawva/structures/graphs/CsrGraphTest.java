@@ -0,0 +1,191 @@
+package com.rawva.structures.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class CsrGraphTest {
+
+	private WeightedHashGraph<Integer, String> createGraph(boolean isDirected) {
+		WeightedHashGraph<Integer, String> graph = new WeightedHashGraph<>(isDirected);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addVertex(3);
+		graph.addVertex(null);
+		graph.addEdge(1, 2, "a");
+		graph.addEdge(1, 3, "b");
+		graph.addEdge(3, 2, "c");
+		graph.addEdge(null, 1, "d");
+		return graph;
+	}
+
+	@Test
+	public void testDirectedFreeze() {
+		CsrGraph<Integer, String> graph = createGraph(true).freeze();
+		assertTrue(graph.isDirected());
+		assertEquals(4, graph.getNumberOfVertices());
+		assertEquals(4, graph.getNumberOfEdges());
+		assertEquals(4, graph.getNumberOfStoredEdges());
+		assertTrue(graph.containsEdge(1, 2));
+		assertFalse(graph.containsEdge(2, 1));
+		assertTrue(graph.containsEdge(null, 1));
+		assertFalse(graph.containsEdge(1, null));
+		assertEquals("c", graph.getWeight(3, 2));
+		assertNull(graph.getWeight(2, 3));
+		assertNull(graph.getWeight(5, 6));
+	}
+
+	@Test
+	public void testUndirectedFreeze() {
+		CsrGraph<Integer, String> graph = createGraph(false).freeze();
+		assertFalse(graph.isDirected());
+		assertEquals(4, graph.getNumberOfEdges());
+		assertEquals(8, graph.getNumberOfStoredEdges());
+		assertTrue(graph.containsEdge(2, 1));
+		assertTrue(graph.containsEdge(1, null));
+		assertEquals("d", graph.getWeight(1, null));
+		assertEquals("c", graph.getWeight(2, 3));
+	}
+
+	@Test
+	public void testFreezeIsNotAffectedByLaterChanges() {
+		WeightedHashGraph<Integer, String> source = createGraph(true);
+		CsrGraph<Integer, String> graph = source.freeze();
+		source.addVertex(4);
+		source.addEdge(2, 4, "e");
+		source.setWeight(1, 2, "z");
+		assertFalse(graph.containsVertex(4));
+		assertFalse(graph.containsEdge(2, 4));
+		assertEquals("a", graph.getWeight(1, 2));
+	}
+
+	@Test
+	public void testGetAdjacentElements() {
+		CsrGraph<Integer, String> graph = createGraph(true).freeze();
+		Set<Integer> neighbors = new HashSet<>();
+		neighbors.add(2);
+		neighbors.add(3);
+		assertEquals(neighbors, graph.getAdjacentElements(1));
+		assertTrue(graph.getAdjacentElements(2).isEmpty());
+		assertNull(graph.getAdjacentElements(5));
+	}
+
+	@Test
+	public void testGetVertices() {
+		CsrGraph<Integer, String> graph = createGraph(true).freeze();
+		Set<Integer> vertices = new HashSet<>();
+		vertices.add(1);
+		vertices.add(2);
+		vertices.add(3);
+		vertices.add(null);
+		assertEquals(vertices, graph.getVertices());
+	}
+
+	@Test
+	public void testVertexIndices() {
+		CsrGraph<Integer, String> graph = createGraph(true).freeze();
+		for (int i = 0; i < graph.getNumberOfVertices(); i++) {
+			assertEquals(i, graph.getVertexIndex(graph.getVertexAt(i)));
+		}
+		assertEquals(-1, graph.getVertexIndex(5));
+	}
+
+	@Test
+	public void testEdgesAreSortedByHeadIndex() {
+		CsrGraph<Integer, String> graph = createGraph(false).freeze();
+		for (int i = 0; i < graph.getNumberOfVertices(); i++) {
+			for (int position = graph.getEdgeStart(i) + 1; position < graph.getEdgeEnd(i); position++) {
+				assertTrue(graph.getHeadIndexAt(position - 1) < graph.getHeadIndexAt(position));
+			}
+		}
+		int index3 = graph.getVertexIndex(3);
+		int position = graph.getEdgeStart(graph.getVertexIndex(1));
+		while (graph.getHeadIndexAt(position) != index3) {
+			position++;
+		}
+		assertEquals("b", graph.getWeightAt(position));
+	}
+
+	@Test
+	public void testTranspose() {
+		CsrGraph<Integer, String> graph = createGraph(true).freeze();
+		CsrGraph<Integer, String> transpose = graph.transpose();
+		assertTrue(transpose.isDirected());
+		assertEquals(4, transpose.getNumberOfEdges());
+		assertTrue(transpose.containsEdge(2, 1));
+		assertFalse(transpose.containsEdge(1, 2));
+		assertEquals("c", transpose.getWeight(2, 3));
+		assertEquals("d", transpose.getWeight(1, null));
+		assertEquals(graph.getVertexIndex(3), transpose.getVertexIndex(3));
+		for (int i = 0; i < transpose.getNumberOfVertices(); i++) {
+			for (int position = transpose.getEdgeStart(i) + 1; position < transpose.getEdgeEnd(i); position++) {
+				assertTrue(transpose.getHeadIndexAt(position - 1) < transpose.getHeadIndexAt(position));
+			}
+		}
+
+		CsrGraph<Integer, String> undirected = createGraph(false).freeze();
+		assertTrue(undirected == undirected.transpose());
+	}
+
+	@Test
+	public void testCopyOfUnweightedGraph() {
+		CsrGraph<Integer, String> graph = new CsrGraph<Integer, String>((Graph<Integer>) createGraph(true));
+		assertTrue(graph.containsEdge(1, 3));
+		assertNull(graph.getWeight(1, 3));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testAddVertexIsUnsupported() {
+		createGraph(true).freeze().addVertex(4);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSetWeightIsUnsupported() {
+		createGraph(true).freeze().setWeight(1, 2, "z");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testAdjacentElementsAreUnmodifiable() {
+		createGraph(true).freeze().getAdjacentElements(1).add(1);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testRemoveEdgeIsUnsupported() {
+		createGraph(true).freeze().removeEdge(1, 2);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testRemoveVertexIsUnsupported() {
+		createGraph(true).freeze().removeVertex(1);
+	}
+
+	@Test
+	public void testForEachEdge() {
+		CsrGraph<Integer, String> graph = createGraph(false).freeze();
+		List<Integer> heads = new ArrayList<>();
+		List<String> weights = new ArrayList<>();
+		graph.forEachEdge(1, (head, weight) -> {
+			heads.add(head);
+			weights.add(weight);
+		});
+		int index = graph.getVertexIndex(1);
+		assertEquals(graph.getEdgeEnd(index) - graph.getEdgeStart(index), heads.size());
+		for (int i = 0; i < heads.size(); i++) {
+			int position = graph.getEdgeStart(index) + i;
+			assertEquals(graph.getVertexAt(graph.getHeadIndexAt(position)), heads.get(i));
+			assertEquals(graph.getWeightAt(position), weights.get(i));
+			assertEquals(graph.getWeight(1, heads.get(i)), weights.get(i));
+		}
+		graph.forEachEdge(5, (head, weight) -> fail());
+	}
+
+}
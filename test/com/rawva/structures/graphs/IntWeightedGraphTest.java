@@ -0,0 +1,329 @@
+package com.rawva.structures.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class IntWeightedGraphTest {
+
+	@Test
+	public void testDirectedAddEdge() {
+		IntWeightedGraph graph = new IntWeightedGraph(true);
+		graph.addVertex(1);
+		graph.addVertex(-5);
+		assertTrue(graph.addEdge(1, -5, 2.5));
+		assertFalse(graph.addEdge(1, -5, 3.5));
+		assertTrue(graph.addEdge(-5, 1));
+		assertTrue(graph.addEdge(1, 1));
+		assertFalse(graph.addEdge(1, 2));
+		assertFalse(graph.addEdge(2, 1));
+		assertEquals(3, graph.getNumberOfEdges());
+	}
+
+	@Test
+	public void testUndirectedAddEdge() {
+		IntWeightedGraph graph = new IntWeightedGraph(false);
+		graph.addVertex(1);
+		graph.addVertex(-5);
+		assertTrue(graph.addEdge(1, -5, 2.5));
+		assertFalse(graph.addEdge(-5, 1, 3.5));
+		assertTrue(graph.addEdge(1, 1));
+		assertEquals(2, graph.getNumberOfEdges());
+		assertTrue(graph.containsEdge(-5, 1));
+		assertEquals(2.5, graph.getWeight(-5, 1), 0.0);
+	}
+
+	@Test
+	public void testAddVertex() {
+		IntWeightedGraph graph = new IntWeightedGraph();
+		assertTrue(graph.addVertex(1));
+		assertFalse(graph.addVertex(1));
+		assertTrue(graph.addVertex(Integer.MIN_VALUE));
+		assertTrue(graph.addVertex(Integer.valueOf(7)));
+		assertEquals(3, graph.getNumberOfVertices());
+		assertEquals(0, graph.getVertexIndex(1));
+		assertEquals(2, graph.getVertexIndex(7));
+		assertEquals(Integer.MIN_VALUE, graph.getVertexAt(1));
+		assertEquals(-1, graph.getVertexIndex(8));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testAddNullVertex() {
+		new IntWeightedGraph().addVertex((Integer) null);
+	}
+
+	@Test
+	public void testManyVerticesAndEdges() {
+		IntWeightedGraph graph = new IntWeightedGraph();
+		for (int i = 0; i < 1000; i++) {
+			graph.addVertex(i * 31);
+		}
+		for (int i = 0; i < 1000; i++) {
+			for (int j = 1; j <= 10; j++) {
+				assertTrue(graph.addEdge(i * 31, ((i + j) % 1000) * 31, i + j));
+			}
+		}
+		assertEquals(10000, graph.getNumberOfEdges());
+		for (int i = 0; i < 1000; i++) {
+			for (int j = 1; j <= 10; j++) {
+				assertEquals(i + j, graph.getWeight(i * 31, ((i + j) % 1000) * 31), 0.0);
+			}
+			assertFalse(graph.containsEdge(i * 31, ((i + 11) % 1000) * 31));
+		}
+	}
+
+	@Test
+	public void testClear() {
+		IntWeightedGraph graph = new IntWeightedGraph();
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2);
+		graph.clear();
+		assertTrue(graph.isEmpty());
+		assertEquals(0, graph.getNumberOfEdges());
+		assertFalse(graph.containsVertex(1));
+		assertTrue(graph.addVertex(2));
+		assertTrue(graph.addVertex(1));
+		assertTrue(graph.addEdge(1, 2));
+	}
+
+	@Test
+	public void testForEachNeighbor() {
+		IntWeightedGraph graph = new IntWeightedGraph();
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addVertex(3);
+		graph.addEdge(1, 2, 0.5);
+		graph.addEdge(1, 3, 1.5);
+		Map<Integer, Double> expected = new HashMap<>();
+		expected.put(2, 0.5);
+		expected.put(3, 1.5);
+		Map<Integer, Double> actual = new HashMap<>();
+		graph.forEachNeighbor(1, actual::put);
+		assertEquals(expected, actual);
+		actual.clear();
+		graph.forEachNeighbor(4, actual::put);
+		assertTrue(actual.isEmpty());
+	}
+
+	@Test
+	public void testGetAdjacentElements() {
+		IntWeightedGraph graph = new IntWeightedGraph(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addVertex(3);
+		graph.addEdge(1, 2);
+		graph.addEdge(3, 1);
+		Set<Integer> neighbors = new HashSet<>();
+		neighbors.add(2);
+		neighbors.add(3);
+		assertEquals(neighbors, graph.getAdjacentElements(1));
+		assertTrue(graph.getAdjacentElements(1).contains(3));
+		assertFalse(graph.getAdjacentElements(2).contains(3));
+		assertNull(graph.getAdjacentElements(4));
+		assertNull(graph.getAdjacentElements(null));
+	}
+
+	@Test
+	public void testGetVertices() {
+		IntWeightedGraph graph = new IntWeightedGraph();
+		graph.addVertex(3);
+		graph.addVertex(1);
+		Set<Integer> vertices = new HashSet<>();
+		vertices.add(1);
+		vertices.add(3);
+		assertEquals(vertices, graph.getVertices());
+	}
+
+	@Test
+	public void testBoxedWeights() {
+		IntWeightedGraph graph = new IntWeightedGraph();
+		graph.addVertex(1);
+		graph.addVertex(2);
+		assertTrue(graph.addEdge(Integer.valueOf(1), Integer.valueOf(2), Double.valueOf(4.0)));
+		assertEquals(Double.valueOf(4.0), graph.getWeight(Integer.valueOf(1), Integer.valueOf(2)));
+		assertNull(graph.getWeight(Integer.valueOf(2), Integer.valueOf(1)));
+		assertNull(graph.getWeight(null, Integer.valueOf(1)));
+		assertEquals(Double.valueOf(4.0), graph.setWeight(Integer.valueOf(1), Integer.valueOf(2), Double.valueOf(5.0)));
+		assertNull(graph.setWeight(Integer.valueOf(2), Integer.valueOf(1), Double.valueOf(5.0)));
+	}
+
+	@Test
+	public void testSetWeight() {
+		IntWeightedGraph graph = new IntWeightedGraph(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2, 3.0);
+		assertEquals(3.0, graph.setWeight(2, 1, 4.0), 0.0);
+		assertEquals(4.0, graph.getWeight(1, 2), 0.0);
+		assertTrue(Double.isNaN(graph.setWeight(1, 3, 4.0)));
+		assertTrue(Double.isNaN(graph.getWeight(1, 3)));
+	}
+
+	@Test
+	public void testRemoveEdge() {
+		IntWeightedGraph graph = new IntWeightedGraph(false);
+		for (int i = 1; i <= 4; i++) {
+			graph.addVertex(i);
+		}
+		graph.addEdge(1, 2, 0.5);
+		graph.addEdge(1, 3, 1.5);
+		graph.addEdge(1, 4, 2.5);
+		graph.addEdge(1, 1, 3.5);
+		assertFalse(graph.removeEdge(2, 3));
+		assertFalse(graph.removeEdge(null, (Integer) 2));
+		assertTrue(graph.removeEdge(2, 1));
+		assertFalse(graph.containsEdge(1, 2));
+		assertTrue(graph.removeEdge(1, 1));
+		assertEquals(2, graph.getNumberOfEdges());
+		assertEquals(2, graph.getOutDegreeAt(graph.getVertexIndex(1)));
+		assertEquals(new HashSet<>(Arrays.asList(3, 4)), graph.getAdjacentElements(1));
+		assertEquals(2.5, graph.getWeight(4, 1), 0.0);
+		assertEquals(1.5, graph.getWeight(1, 3), 0.0);
+		assertTrue(graph.addEdge(1, 2, 5.0));
+		assertEquals(5.0, graph.getWeight(2, 1), 0.0);
+	}
+
+	@Test
+	public void testRemoveVertex() {
+		IntWeightedGraph graph = new IntWeightedGraph(true);
+		for (int i = 1; i <= 4; i++) {
+			graph.addVertex(i);
+		}
+		graph.addEdge(1, 2);
+		graph.addEdge(4, 2);
+		graph.addEdge(2, 4, 2.0);
+		graph.addEdge(4, 4, 3.0);
+		graph.addEdge(3, 4, 4.0);
+		assertFalse(graph.removeVertex(5));
+		assertTrue(graph.removeVertex(2));
+		assertFalse(graph.removeVertex((Integer) null));
+		assertEquals(3, graph.getNumberOfVertices());
+		assertEquals(2, graph.getNumberOfEdges());
+
+		// The last vertex takes over the index of the removed one
+		assertEquals(1, graph.getVertexIndex(4));
+		assertEquals(4, graph.getVertexAt(1));
+		assertEquals(Arrays.asList(1, 4, 3), new ArrayList<>(graph.getVertices()));
+		assertEquals(Collections.singleton(4), graph.getAdjacentElements(4));
+		assertEquals(3.0, graph.getWeight(4, 4), 0.0);
+		assertEquals(4.0, graph.getWeight(3, 4), 0.0);
+		assertEquals(1, graph.getNeighborIndexAt(graph.getVertexIndex(3), 0));
+		assertTrue(graph.getAdjacentElements(1).isEmpty());
+	}
+
+	@Test
+	public void testRandomRemovals() {
+		for (boolean isDirected : new boolean[] { true, false }) {
+			Random random = new Random(isDirected ? 1 : 2);
+			IntWeightedGraph graph = new IntWeightedGraph(isDirected);
+			WeightedHashGraph<Integer, Double> expected = new WeightedHashGraph<>(isDirected);
+			for (int step = 0; step < 20000; step++) {
+				int tail = random.nextInt(60);
+				int head = random.nextInt(60);
+				int operation = random.nextInt(10);
+				if (operation < 2) {
+					assertEquals(expected.addVertex(tail), graph.addVertex(tail));
+				} else if (operation < 6) {
+					assertEquals(expected.addEdge(tail, head, (double) step), graph.addEdge(tail, head, step));
+				} else if (operation < 9) {
+					assertEquals(expected.removeEdge(tail, head), graph.removeEdge(tail, head));
+				} else {
+					assertEquals(expected.removeVertex(tail), graph.removeVertex(tail));
+				}
+				if (step % 5000 == 4999) {
+					graph.trimToSize();
+				}
+			}
+			assertEquals(expected.getNumberOfVertices(), graph.getNumberOfVertices());
+			assertEquals(expected.getNumberOfEdges(), graph.getNumberOfEdges());
+			for (int i = 0; i < graph.getNumberOfVertices(); i++) {
+				assertEquals(i, graph.getVertexIndex(graph.getVertexAt(i)));
+			}
+			for (Integer tail : expected.getVertices()) {
+				assertEquals(expected.getAdjacentElements(tail), graph.getAdjacentElements(tail));
+				for (Integer head : expected.getAdjacentElements(tail)) {
+					assertEquals(expected.getWeight(tail, head), graph.getWeight(tail, head));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testNeighborViewsAfterRemoveVertex() {
+		// Removing 1 moves 3 into its index
+		IntWeightedGraph graph = new IntWeightedGraph(false);
+		for (int i = 0; i < 4; i++) {
+			graph.addVertex(i);
+		}
+		graph.addEdge(0, 1);
+		graph.addEdge(3, 2);
+		Set<Integer> neighbors1 = graph.getAdjacentElements(1);
+		Set<Integer> neighbors3 = graph.getAdjacentElements(3);
+		assertTrue(graph.removeVertex(1));
+		assertEquals(Collections.singleton(2), neighbors3);
+		assertEquals("[2]", neighbors3.toString());
+		assertTrue(neighbors1.isEmpty());
+		assertFalse(neighbors1.contains(0));
+		assertFalse(neighbors1.iterator().hasNext());
+
+		graph.trimToSize();
+		assertEquals(0, neighbors1.size());
+		assertEquals(Collections.singleton(2), neighbors3);
+		graph.addVertex(1);
+		graph.addEdge(1, 3);
+		assertEquals(Collections.singleton(3), neighbors1);
+		assertEquals(new HashSet<>(Arrays.asList(1, 2)), neighbors3);
+	}
+
+	@Test
+	public void testTrimToSize() {
+		IntWeightedGraph graph = new IntWeightedGraph(false);
+		for (int i = 0; i < 100; i++) {
+			graph.addVertex(i);
+			graph.addEdge(i, 0, i);
+		}
+		for (int i = 50; i < 100; i++) {
+			graph.removeVertex(i);
+		}
+		graph.trimToSize();
+		assertEquals(50, graph.getNumberOfVertices());
+		assertEquals(50, graph.getNumberOfEdges());
+		assertEquals(49.0, graph.getWeight(0, 49), 0.0);
+		assertTrue(graph.addVertex(100));
+		assertTrue(graph.addEdge(100, 0));
+		assertEquals(51, graph.getAdjacentElements(0).size());
+	}
+
+	@Test
+	public void testForEachEdge() {
+		IntWeightedGraph graph = new IntWeightedGraph(true);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addVertex(3);
+		graph.addEdge(1, 2, 0.5);
+		graph.addEdge(1, 3, 1.5);
+		Map<Integer, Double> edges = new HashMap<>();
+		graph.forEachEdge(1, edges::put);
+		Map<Integer, Double> expected = new HashMap<>();
+		expected.put(2, 0.5);
+		expected.put(3, 1.5);
+		assertEquals(expected, edges);
+		graph.forEachEdge((Integer) null, (head, weight) -> fail());
+		graph.forEachEdge(4, (head, weight) -> fail());
+	}
+
+}
@@ -0,0 +1,178 @@
+package com.rawva.structures.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedGraphTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private WeightedHashGraph<Integer, Double> createGraph(boolean isDirected) {
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>(isDirected);
+		graph.addVertex(30);
+		graph.addVertex(-5);
+		graph.addVertex(10);
+		graph.addVertex(20);
+		graph.addEdge(30, -5, 1.5);
+		graph.addEdge(30, 10, 2.5);
+		graph.addEdge(10, -5, 3.5);
+		graph.addEdge(20, 20);
+		return graph;
+	}
+
+	private MappedGraph writeAndOpen(WeightedGraph<Integer, Double> graph) throws IOException {
+		Path path = folder.newFile().toPath();
+		MappedGraph.write(graph, weight -> weight == null ? -1 : weight, path);
+		return MappedGraph.open(path);
+	}
+
+	@Test
+	public void testDirectedGraph() throws IOException {
+		MappedGraph graph = writeAndOpen(createGraph(true));
+		assertTrue(graph.isDirected());
+		assertFalse(graph.isEmpty());
+		assertEquals(4, graph.getNumberOfVertices());
+		assertEquals(4, graph.getNumberOfEdges());
+		assertEquals(4, graph.getNumberOfStoredEdges());
+		assertEquals(Arrays.asList(-5, 10, 20, 30), Arrays.asList(graph.getVertices().toArray()));
+		assertEquals(0, graph.getVertexIndex(-5));
+		assertEquals(-1, graph.getVertexIndex(0));
+		assertEquals(30, graph.getVertexAt(3));
+		assertTrue(graph.containsEdge(30, -5));
+		assertFalse(graph.containsEdge(-5, 30));
+		assertTrue(graph.containsEdge(20, 20));
+		assertFalse(graph.containsEdge(null, (Integer) 20));
+		assertEquals(2.5, graph.getWeight(30, 10), 0.0);
+		assertEquals(Double.valueOf(3.5), graph.getWeight((Integer) 10, (Integer) (-5)));
+		assertEquals(-1.0, graph.getWeight(20, 20), 0.0);
+		assertTrue(Double.isNaN(graph.getWeight(10, 30)));
+		assertNull(graph.getWeight((Integer) 10, (Integer) 30));
+		assertEquals(new HashSet<>(Arrays.asList(-5, 10)), graph.getAdjacentElements(30));
+		assertTrue(graph.getAdjacentElements(-5).isEmpty());
+		assertNull(graph.getAdjacentElements(7));
+	}
+
+	@Test
+	public void testUndirectedGraph() throws IOException {
+		MappedGraph graph = writeAndOpen(createGraph(false));
+		assertFalse(graph.isDirected());
+		assertEquals(4, graph.getNumberOfEdges());
+		assertEquals(7, graph.getNumberOfStoredEdges());
+		assertTrue(graph.containsEdge(-5, 30));
+		assertEquals(1.5, graph.getWeight(-5, 30), 0.0);
+		assertEquals(new HashSet<>(Arrays.asList(10, 30)), graph.getAdjacentElements(-5));
+
+		int index = graph.getVertexIndex(-5);
+		assertEquals(2, graph.getEdgeEnd(index) - graph.getEdgeStart(index));
+		assertEquals(graph.getVertexIndex(10), graph.getHeadIndexAt(graph.getEdgeStart(index)));
+		assertEquals(3.5, graph.getWeightAt(graph.getEdgeStart(index)), 0.0);
+	}
+
+	@Test
+	public void testForEachEdge() throws IOException {
+		MappedGraph graph = writeAndOpen(createGraph(true));
+		Map<Integer, Double> edges = new HashMap<>();
+		graph.forEachEdge(30, edges::put);
+		Map<Integer, Double> expected = new HashMap<>();
+		expected.put(-5, 1.5);
+		expected.put(10, 2.5);
+		assertEquals(expected, edges);
+		edges.clear();
+		graph.forEachNeighbor(30, edges::put);
+		assertEquals(expected, edges);
+		graph.forEachEdge(-5, (head, weight) -> fail());
+		graph.forEachNeighbor(7, (head, weight) -> fail());
+	}
+
+	@Test
+	public void testRandomGraphAcrossSegments() throws IOException {
+		for (boolean isDirected : new boolean[] { true, false }) {
+			Random random = new Random(isDirected ? 5 : 6);
+			WeightedHashGraph<Integer, Double> expected = RandomGraphs.fill(new WeightedHashGraph<>(isDirected),
+					random, random.ints(301).toArray(), 3000, (r, tail, head) -> r.nextDouble());
+			Path path = folder.newFile().toPath();
+			MappedGraph.write(expected, Double::doubleValue, path);
+
+			// Segments of 64 bytes make every section span many of them
+			MappedGraph graph = MappedGraph.open(path, 6);
+			assertEquals(expected.getNumberOfVertices(), graph.getNumberOfVertices());
+			assertEquals(expected.getNumberOfEdges(), graph.getNumberOfEdges());
+			assertEquals(expected.getVertices(), graph.getVertices());
+			for (Integer tail : expected.getVertices()) {
+				assertEquals(expected.getAdjacentElements(tail), graph.getAdjacentElements(tail));
+				int index = graph.getVertexIndex(tail);
+				for (long position = graph.getEdgeStart(index) + 1; position < graph.getEdgeEnd(index); position++) {
+					assertTrue(graph.getHeadIndexAt(position - 1) < graph.getHeadIndexAt(position));
+				}
+				for (Integer head : expected.getAdjacentElements(tail)) {
+					assertEquals(expected.getWeight(tail, head), graph.getWeight(tail, head));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testEmptyGraph() throws IOException {
+		MappedGraph graph = writeAndOpen(new WeightedHashGraph<Integer, Double>());
+		assertTrue(graph.isEmpty());
+		assertEquals(0, graph.getNumberOfEdges());
+		assertTrue(graph.getVertices().isEmpty());
+		assertFalse(graph.containsVertex(0));
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotAGraphFile() throws IOException {
+		Path path = folder.newFile().toPath();
+		Files.write(path, new byte[64]);
+		MappedGraph.open(path);
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedFile() throws IOException {
+		Path path = folder.newFile().toPath();
+		MappedGraph.write(createGraph(true), weight -> 0, path);
+		byte[] bytes = Files.readAllBytes(path);
+		Files.write(path, Arrays.copyOf(bytes, bytes.length - 8));
+		MappedGraph.open(path);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testAddEdgeIsUnsupported() throws IOException {
+		writeAndOpen(createGraph(true)).addEdge(10, 20);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testRemoveVertexIsUnsupported() throws IOException {
+		writeAndOpen(createGraph(true)).removeVertex(10);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testEdgePositionOutOfRange() throws IOException {
+		writeAndOpen(createGraph(true)).getHeadIndexAt(4);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullVertex() throws IOException {
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>();
+		graph.addVertex(null);
+		MappedGraph.write(graph, weight -> 0, folder.newFile().toPath());
+	}
+
+}
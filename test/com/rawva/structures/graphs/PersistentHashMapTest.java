@@ -0,0 +1,183 @@
+package com.rawva.structures.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class PersistentHashMapTest {
+
+	/**
+	 * A key whose hash code is chosen by the test, to force collisions.
+	 */
+	private static final class Key {
+
+		private final int id;
+		private final int hash;
+
+		private Key(int id, int hash) {
+			this.id = id;
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && ((Key) obj).id == id;
+		}
+
+	}
+
+	@Test
+	public void testPutAndGet() {
+		PersistentHashMap<Integer, String> map = PersistentHashMap.empty();
+		for (int i = 0; i < 5000; i++) {
+			map = map.put(i * 7919, "v" + i);
+		}
+		assertEquals(5000, map.size());
+		for (int i = 0; i < 5000; i++) {
+			assertEquals("v" + i, map.get(i * 7919));
+		}
+		assertFalse(map.containsKey(1));
+		assertNull(map.get(1));
+	}
+
+	@Test
+	public void testOldVersionsAreUnchanged() {
+		PersistentHashMap<Integer, String> empty = PersistentHashMap.empty();
+		PersistentHashMap<Integer, String> map1 = empty.put(1, "a");
+		PersistentHashMap<Integer, String> map2 = map1.put(1, "b").put(2, "c");
+		assertTrue(empty.isEmpty());
+		assertEquals(1, map1.size());
+		assertEquals("a", map1.get(1));
+		assertFalse(map1.containsKey(2));
+		assertEquals(2, map2.size());
+		assertEquals("b", map2.get(1));
+	}
+
+	@Test
+	public void testPutSameValueReturnsSameMap() {
+		String value = "a";
+		PersistentHashMap<Integer, String> map = PersistentHashMap.<Integer, String> empty().put(1, value);
+		assertSame(map, map.put(1, value));
+	}
+
+	@Test
+	public void testNullKeysAndValues() {
+		PersistentHashMap<Integer, String> map = PersistentHashMap.<Integer, String> empty().put(null, null).put(0,
+				"zero");
+		assertEquals(2, map.size());
+		assertTrue(map.containsKey(null));
+		assertNull(map.get(null));
+		assertEquals("zero", map.get(0));
+	}
+
+	@Test
+	public void testCollisions() {
+		PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+		for (int i = 0; i < 100; i++) {
+			map = map.put(new Key(i, i % 3), i);
+		}
+		map = map.put(new Key(5, 2), 500);
+		assertEquals(100, map.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(Integer.valueOf(i == 5 ? 500 : i), map.get(new Key(i, i % 3)));
+		}
+		assertFalse(map.containsKey(new Key(100, 1)));
+	}
+
+	@Test
+	public void testKeyIterator() {
+		PersistentHashMap<Integer, String> map = PersistentHashMap.empty();
+		Set<Integer> expected = new HashSet<>();
+		for (int i = -500; i < 500; i++) {
+			map = map.put(i * 31, "");
+			expected.add(i * 31);
+		}
+		Set<Integer> actual = new HashSet<>();
+		for (Iterator<Integer> iterator = map.keyIterator(); iterator.hasNext();) {
+			assertTrue(actual.add(iterator.next()));
+		}
+		assertEquals(expected, actual);
+		assertFalse(PersistentHashMap.empty().keyIterator().hasNext());
+	}
+
+	@Test
+	public void testRemove() {
+		PersistentHashMap<Integer, String> map = PersistentHashMap.empty();
+		for (int i = 0; i < 2000; i++) {
+			map = map.put(i * 7919, "v" + i);
+		}
+		PersistentHashMap<Integer, String> full = map;
+		assertSame(map, map.remove(1));
+		for (int i = 0; i < 2000; i += 2) {
+			map = map.remove(i * 7919);
+		}
+		assertEquals(1000, map.size());
+		assertEquals(2000, full.size());
+		for (int i = 0; i < 2000; i++) {
+			assertEquals(i % 2 == 1, map.containsKey(i * 7919));
+			assertEquals("v" + i, full.get(i * 7919));
+		}
+		int count = 0;
+		for (Iterator<Integer> iterator = map.keyIterator(); iterator.hasNext(); iterator.next()) {
+			count++;
+		}
+		assertEquals(1000, count);
+		for (int i = 1; i < 2000; i += 2) {
+			map = map.remove(i * 7919);
+		}
+		assertTrue(map.isEmpty());
+		assertFalse(map.keyIterator().hasNext());
+		assertEquals("x", map.put(null, "x").get(null));
+		assertTrue(map.put(null, "x").remove(null).isEmpty());
+	}
+
+	@Test
+	public void testRemoveCollisions() {
+		PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+		for (int i = 0; i < 30; i++) {
+			map = map.put(new Key(i, i % 3), i);
+		}
+		for (int i = 0; i < 30; i++) {
+			if (i % 4 != 0) {
+				map = map.remove(new Key(i, i % 3));
+			}
+		}
+		assertSame(map, map.remove(new Key(100, 1)));
+		assertEquals(8, map.size());
+		for (int i = 0; i < 30; i++) {
+			assertEquals(i % 4 == 0 ? Integer.valueOf(i) : null, map.get(new Key(i, i % 3)));
+		}
+	}
+
+	@Test
+	public void testForEach() {
+		PersistentHashMap<Key, Integer> map = PersistentHashMap.empty();
+		for (int i = 0; i < 500; i++) {
+			map = map.put(new Key(i, i % 50), i);
+		}
+		Map<Key, Integer> entries = new HashMap<>();
+		map.forEach(entries::put);
+		assertEquals(500, entries.size());
+		for (int i = 0; i < 500; i++) {
+			assertEquals(Integer.valueOf(i), entries.get(new Key(i, i % 50)));
+		}
+		PersistentHashMap.<Key, Integer> empty().forEach((key, value) -> fail());
+	}
+
+}
@@ -0,0 +1,88 @@
+package com.rawva.structures.graphs;
+
+import java.util.Random;
+
+/**
+ * Builds random graphs for tests: the elements 0 to n - 1, or the elements
+ * of a given array, then m edges between elements drawn uniformly at random.
+ * Loops and repeated edges are possible, and a repeated edge is only added
+ * once.
+ */
+public final class RandomGraphs {
+
+	private RandomGraphs() {
+	}
+
+	/**
+	 * Draws the weight of an edge from the tail element to the head element.
+	 */
+	@FunctionalInterface
+	public interface EdgeWeights<W> {
+
+		W weigh(Random random, int tail, int head);
+
+	}
+
+	/**
+	 * Returns a new random graph whose edges have no weights.
+	 */
+	public static WeightedHashGraph<Integer, Object> create(Random random, int n, int m, boolean isDirected) {
+		return fill(new WeightedHashGraph<>(isDirected), random, n, m);
+	}
+
+	/**
+	 * Returns a new random graph whose edges are weighted by the specified
+	 * function, which is called after the two ends of each edge are drawn.
+	 */
+	public static <W> WeightedHashGraph<Integer, W> create(Random random, int n, int m, boolean isDirected,
+			EdgeWeights<? extends W> weights) {
+		return fill(new WeightedHashGraph<>(isDirected), random, n, m, weights);
+	}
+
+	/**
+	 * Adds random elements and edges without weights to the specified graph,
+	 * and returns it.
+	 */
+	public static <G extends Graph<Integer>> G fill(G graph, Random random, int n, int m) {
+		for (int i = 0; i < n; i++) {
+			graph.addVertex(i);
+		}
+		for (int i = 0; i < m; i++) {
+			graph.addEdge(random.nextInt(n), random.nextInt(n));
+		}
+		return graph;
+	}
+
+	/**
+	 * Adds random elements and edges weighted by the specified function to
+	 * the specified graph, and returns it.
+	 */
+	public static <W, G extends WeightedGraph<Integer, W>> G fill(G graph, Random random, int n, int m,
+			EdgeWeights<? extends W> weights) {
+		int[] elements = new int[n];
+		for (int i = 0; i < n; i++) {
+			elements[i] = i;
+		}
+		return fill(graph, random, elements, m, weights);
+	}
+
+	/**
+	 * Adds the specified elements, then random edges between them weighted by
+	 * the specified function, to the specified graph, and returns it. An
+	 * element that appears more than once in the array is added once but is
+	 * drawn more often.
+	 */
+	public static <W, G extends WeightedGraph<Integer, W>> G fill(G graph, Random random, int[] elements, int m,
+			EdgeWeights<? extends W> weights) {
+		for (int elem : elements) {
+			graph.addVertex(elem);
+		}
+		for (int i = 0; i < m; i++) {
+			int tail = elements[random.nextInt(elements.length)];
+			int head = elements[random.nextInt(elements.length)];
+			graph.addEdge(tail, head, weights.weigh(random, tail, head));
+		}
+		return graph;
+	}
+
+}
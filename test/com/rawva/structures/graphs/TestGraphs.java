@@ -0,0 +1,32 @@
+package com.rawva.structures.graphs;
+
+/**
+ * Builds small graphs for tests edge by edge, adding the ends of every edge
+ * as vertices first.
+ */
+public final class TestGraphs {
+
+	private TestGraphs() {
+	}
+
+	/**
+	 * Adds the tail and head to the specified graph if they are not in it,
+	 * then an edge between them.
+	 */
+	public static <V> void addEdge(Graph<V> graph, V tail, V head) {
+		graph.addVertex(tail);
+		graph.addVertex(head);
+		graph.addEdge(tail, head);
+	}
+
+	/**
+	 * Adds the tail and head to the specified graph if they are not in it,
+	 * then an edge of the specified weight between them.
+	 */
+	public static <V, W> void addEdge(WeightedGraph<V, W> graph, V tail, V head, W weight) {
+		graph.addVertex(tail);
+		graph.addVertex(head);
+		graph.addEdge(tail, head, weight);
+	}
+
+}
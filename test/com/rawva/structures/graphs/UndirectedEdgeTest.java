@@ -76,4 +76,11 @@ public class UndirectedEdgeTest {
 		assertEquals(null, edge.getHead());
 	}
 
+	@Test
+	public void testEqualEdgesHaveEqualHashCodes() {
+		assertEquals(new UndirectedEdge<>(1, 2).hashCode(), new UndirectedEdge<>(2, 1).hashCode());
+		assertEquals(new UndirectedEdge<>(null, 2).hashCode(), new UndirectedEdge<>(2, null).hashCode());
+		assertEquals(new UndirectedEdge<>(3, 3).hashCode(), new UndirectedEdge<>(3, 3).hashCode());
+	}
+
 }
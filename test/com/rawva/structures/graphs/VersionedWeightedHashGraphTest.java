@@ -0,0 +1,188 @@
+package com.rawva.structures.graphs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class VersionedWeightedHashGraphTest {
+
+	@Test
+	public void testDirectedAddEdge() {
+		VersionedWeightedHashGraph<Integer, String> graph = new VersionedWeightedHashGraph<>(true);
+		graph.addVertex(1);
+		graph.addVertex(null);
+		assertTrue(graph.addEdge(1, null));
+		assertFalse(graph.addEdge(1, null));
+		assertTrue(graph.addEdge(null, 1, "weight"));
+		assertTrue(graph.addEdge(null, null));
+		assertFalse(graph.addEdge(1, 2));
+		assertEquals(3, graph.getNumberOfEdges());
+		assertEquals("weight", graph.getWeight(null, 1));
+		assertFalse(graph.containsEdge(2, 1));
+	}
+
+	@Test
+	public void testUndirectedAddEdge() {
+		VersionedWeightedHashGraph<Integer, String> graph = new VersionedWeightedHashGraph<>(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		assertTrue(graph.addEdge(1, 2, "weight"));
+		assertFalse(graph.addEdge(2, 1));
+		assertTrue(graph.addEdge(1, 1));
+		assertEquals(2, graph.getNumberOfEdges());
+		assertEquals("weight", graph.getWeight(2, 1));
+	}
+
+	@Test
+	public void testAddVertex() {
+		VersionedWeightedHashGraph<Integer, String> graph = new VersionedWeightedHashGraph<>();
+		assertTrue(graph.addVertex(1));
+		assertTrue(graph.addVertex(null));
+		assertFalse(graph.addVertex(null));
+		assertFalse(graph.addVertex(1));
+		assertEquals(2, graph.getNumberOfVertices());
+	}
+
+	@Test
+	public void testSetWeight() {
+		VersionedWeightedHashGraph<Integer, String> graph = new VersionedWeightedHashGraph<>(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2, "weight");
+		assertEquals("weight", graph.setWeight(2, 1, "new weight"));
+		assertEquals("new weight", graph.getWeight(1, 2));
+		assertNull(graph.setWeight(1, 3, "not settable"));
+	}
+
+	@Test
+	public void testSnapshotIsNotAffectedByLaterChanges() {
+		VersionedWeightedHashGraph<Integer, String> graph = new VersionedWeightedHashGraph<>(true);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2, "weight");
+		WeightedGraph<Integer, String> snapshot = graph.snapshot();
+		Set<Integer> neighbors = graph.getAdjacentElements(1);
+
+		graph.addVertex(3);
+		graph.addEdge(1, 3);
+		graph.setWeight(1, 2, "new weight");
+		graph.clear();
+
+		assertTrue(graph.isEmpty());
+		assertEquals(2, snapshot.getNumberOfVertices());
+		assertEquals(1, snapshot.getNumberOfEdges());
+		assertFalse(snapshot.containsVertex(3));
+		assertEquals("weight", snapshot.getWeight(1, 2));
+		Set<Integer> expected = new HashSet<>();
+		expected.add(2);
+		assertEquals(expected, snapshot.getAdjacentElements(1));
+		assertEquals(expected, neighbors);
+		assertTrue(snapshot.isDirected());
+	}
+
+	@Test
+	public void testGetVertices() {
+		VersionedWeightedHashGraph<Integer, String> graph = new VersionedWeightedHashGraph<>();
+		Set<Integer> expected = new HashSet<>();
+		for (int i = 0; i < 100; i++) {
+			graph.addVertex(i);
+			expected.add(i);
+		}
+		assertEquals(expected, graph.getVertices());
+		assertEquals(expected, graph.snapshot().getVertices());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSnapshotCannotBeModified() {
+		new VersionedWeightedHashGraph<Integer, String>().snapshot().addVertex(1);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testAdjacentElementsAreUnmodifiable() {
+		VersionedWeightedHashGraph<Integer, String> graph = new VersionedWeightedHashGraph<>();
+		graph.addVertex(1);
+		graph.getAdjacentElements(1).add(1);
+	}
+
+	@Test
+	public void testRemoveEdge() {
+		VersionedWeightedHashGraph<Integer, String> graph = new VersionedWeightedHashGraph<>(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2, "a");
+		WeightedGraph<Integer, String> snapshot = graph.snapshot();
+		assertFalse(graph.removeEdge(1, 3));
+		assertTrue(graph.removeEdge(2, 1));
+		assertFalse(graph.removeEdge(1, 2));
+		assertFalse(graph.containsEdge(1, 2));
+		assertEquals(0, graph.getNumberOfEdges());
+		assertTrue(snapshot.containsEdge(2, 1));
+		assertEquals(1, snapshot.getNumberOfEdges());
+	}
+
+	@Test
+	public void testRemoveVertex() {
+		for (boolean isDirected : new boolean[] { true, false }) {
+			VersionedWeightedHashGraph<Integer, String> graph = new VersionedWeightedHashGraph<>(isDirected);
+			for (int i = 1; i <= 3; i++) {
+				graph.addVertex(i);
+			}
+			graph.addEdge(1, 2);
+			graph.addEdge(2, 3);
+			graph.addEdge(3, 2);
+			graph.addEdge(2, 2);
+			graph.addEdge(3, 1);
+			WeightedGraph<Integer, String> snapshot = graph.snapshot();
+			assertFalse(graph.removeVertex(4));
+			assertTrue(graph.removeVertex(2));
+			assertFalse(graph.containsVertex(2));
+			assertEquals(2, graph.getNumberOfVertices());
+			assertEquals(1, graph.getNumberOfEdges());
+			assertFalse(graph.getAdjacentElements(1).contains(2));
+			assertEquals(Collections.singleton(1), graph.getAdjacentElements(3));
+			assertTrue(snapshot.containsEdge(1, 2));
+			assertEquals(isDirected ? 5 : 4, snapshot.getNumberOfEdges());
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSnapshotRemoveVertexIsUnsupported() {
+		VersionedWeightedHashGraph<Integer, String> graph = new VersionedWeightedHashGraph<>();
+		graph.addVertex(1);
+		graph.snapshot().removeVertex(1);
+	}
+
+	@Test
+	public void testForEachEdge() {
+		VersionedWeightedHashGraph<Integer, String> graph = new VersionedWeightedHashGraph<>(false);
+		for (int i = 0; i < 100; i++) {
+			graph.addVertex(i);
+			graph.addEdge(0, i, i % 2 == 0 ? null : "w" + i);
+		}
+		WeightedGraph<Integer, String> snapshot = graph.snapshot();
+		graph.removeEdge(0, 1);
+		Map<Integer, String> edges = new HashMap<>();
+		snapshot.forEachEdge(0, edges::put);
+		assertEquals(100, edges.size());
+		for (int i = 0; i < 100; i++) {
+			assertTrue(edges.containsKey(i));
+			assertEquals(snapshot.getWeight(0, i), edges.get(i));
+		}
+		edges.clear();
+		graph.forEachEdge(0, edges::put);
+		assertEquals(99, edges.size());
+		assertFalse(edges.containsKey(1));
+		graph.forEachEdge(100, (head, weight) -> fail());
+	}
+
+}
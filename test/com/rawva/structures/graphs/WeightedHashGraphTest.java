@@ -2,9 +2,15 @@ package com.rawva.structures.graphs;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Test;
@@ -274,4 +280,326 @@ public class WeightedHashGraphTest {
 		assertEquals(null, graph.setWeight(5, 6, "not settable"));
 	}
 
+	@Test
+	public void testUndirectedSetWeightIsVisibleFromBothEndpoints() {
+		WeightedHashGraph<Integer, String> graph = new WeightedHashGraph<>(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		assertTrue(graph.addEdge(1, 2, "weight"));
+		assertEquals("weight", graph.setWeight(2, 1, "new weight"));
+		assertEquals("new weight", graph.getWeight(1, 2));
+		assertEquals("new weight", graph.getWeight(2, 1));
+	}
+
+	@Test
+	public void testUndirectedSelfLoopCountsAsOneEdge() {
+		WeightedHashGraph<Integer, String> graph = new WeightedHashGraph<>(false);
+		graph.addVertex(1);
+		assertTrue(graph.addEdge(1, 1, "loop"));
+		assertEquals(1, graph.getNumberOfEdges());
+		assertEquals("loop", graph.getWeight(1, 1));
+	}
+
+	@Test
+	public void testDirectedAddEdges() {
+		WeightedHashGraph<Integer, String> graph = new WeightedHashGraph<>(true);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2, "existing");
+		Integer[] tails = { 1, 2, 2, 3, 1 };
+		Integer[] heads = { 2, 1, 1, 1, 3 };
+		String[] weights = { "a", "b", "c", "d", "e" };
+		assertEquals(1, graph.addEdges(tails, heads, weights, false));
+		assertEquals("existing", graph.getWeight(1, 2));
+		assertEquals("b", graph.getWeight(2, 1));
+		assertFalse(graph.containsVertex(3));
+		assertEquals(2, graph.getNumberOfEdges());
+
+		assertEquals(2, graph.addEdges(tails, heads, weights, true));
+		assertTrue(graph.containsVertex(3));
+		assertEquals("d", graph.getWeight(3, 1));
+		assertEquals("e", graph.getWeight(1, 3));
+		assertEquals(4, graph.getNumberOfEdges());
+		assertEquals(3, graph.getNumberOfVertices());
+	}
+
+	@Test
+	public void testUndirectedAddEdges() {
+		WeightedHashGraph<Integer, String> graph = new WeightedHashGraph<>(false);
+		Integer[] tails = { 1, 2, 3, null };
+		Integer[] heads = { 2, 1, 3, 1 };
+		assertEquals(3, graph.addEdges(tails, heads, null, true));
+		assertEquals(4, graph.getNumberOfVertices());
+		assertEquals(3, graph.getNumberOfEdges());
+		assertTrue(graph.containsEdge(2, 1));
+		assertTrue(graph.containsEdge(1, null));
+		assertTrue(graph.containsEdge(3, 3));
+		assertEquals(null, graph.getWeight(1, 2));
+	}
+
+	@Test
+	public void testAddEdgesKeepsVertexViewLive() {
+		WeightedHashGraph<Integer, String> graph = new WeightedHashGraph<>();
+		Set<Integer> vertices = graph.getVertices();
+		Integer[] tails = new Integer[100];
+		Integer[] heads = new Integer[100];
+		for (int i = 0; i < 100; i++) {
+			tails[i] = i;
+			heads[i] = i + 1;
+		}
+		assertEquals(100, graph.addEdges(tails, heads, null, true));
+		assertEquals(101, vertices.size());
+		assertTrue(vertices.contains(100));
+	}
+
+	@Test
+	public void testAddEdgesAfterAddVertex() {
+		// The vertex map grew by itself before addEdges sizes it again
+		WeightedHashGraph<Integer, String> graph = new WeightedHashGraph<>();
+		for (int i = 0; i < 100000; i++) {
+			graph.addVertex(i);
+		}
+		Set<Integer> vertices = graph.getVertices();
+		assertEquals(2, graph.addEdges(new Integer[] { 0, 5 }, new Integer[] { 100000, 100001 }, null, true));
+		assertEquals(100002, graph.getNumberOfVertices());
+		assertEquals(100002, vertices.size());
+		assertEquals(2, graph.getNumberOfEdges());
+		assertEquals(Collections.singleton(100000), graph.getAdjacentElements(0));
+		assertEquals(Collections.singleton(100001), graph.getAdjacentElements(5));
+		assertTrue(graph.getAdjacentElements(100001).isEmpty());
+		assertTrue(graph.getAdjacentElements(99999).isEmpty());
+		assertTrue(graph.addVertex(100002));
+		assertEquals(100003, vertices.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddEdgesWithDifferentLengths() {
+		new WeightedHashGraph<Integer, String>().addEdges(new Integer[] { 1 }, new Integer[0], null, true);
+	}
+
+	@Test
+	public void testCapacityConstructor() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(false, 100, 300);
+		for (int i = 0; i < 100; i++) {
+			assertTrue(graph.addVertex(i));
+		}
+		for (int i = 0; i < 100; i++) {
+			assertTrue(graph.addEdge(i, (i + 1) % 100, i));
+		}
+		assertEquals(100, graph.getNumberOfEdges());
+		assertEquals(Integer.valueOf(5), graph.getWeight(6, 5));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCapacityConstructorWithNegativeCount() {
+		new WeightedHashGraph<Integer, Integer>(true, -1, 0);
+	}
+
+	@Test
+	public void testEnsureCapacity() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>();
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2, 3);
+		graph.ensureCapacity(1000);
+		assertEquals(2, graph.getNumberOfVertices());
+		assertEquals(Integer.valueOf(3), graph.getWeight(1, 2));
+		for (int i = 3; i < 1000; i++) {
+			assertTrue(graph.addVertex(i));
+		}
+		assertEquals(999, graph.getNumberOfVertices());
+	}
+
+	@Test
+	public void testTrimToSize() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(false, 1000, 10000);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2, 3);
+		graph.trimToSize();
+		assertEquals(2, graph.getNumberOfVertices());
+		assertEquals(1, graph.getNumberOfEdges());
+		assertEquals(Integer.valueOf(3), graph.getWeight(2, 1));
+		assertTrue(graph.addVertex(3));
+		assertTrue(graph.addEdge(3, 1));
+		assertTrue(graph.getAdjacentElements(1).contains(3));
+	}
+
+	@Test
+	public void testDirectedGetPredecessors() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(true);
+		for (int i = 1; i <= 4; i++) {
+			graph.addVertex(i);
+		}
+		graph.addEdge(1, 2);
+		graph.addEdge(3, 2);
+		graph.addEdge(2, 2);
+		assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), graph.getPredecessors(2));
+		assertTrue(graph.getPredecessors(1).isEmpty());
+		assertNull(graph.getPredecessors(5));
+
+		// The index follows later changes
+		Set<Integer> predecessors = graph.getPredecessors(4);
+		graph.addEdge(1, 4);
+		graph.addEdges(new Integer[] { 2, 5 }, new Integer[] { 4, 4 }, null, true);
+		assertEquals(new HashSet<>(Arrays.asList(1, 2, 5)), predecessors);
+		assertTrue(graph.getPredecessors(5).isEmpty());
+		graph.addVertex(6);
+		graph.addEdge(6, 1);
+		assertEquals(Collections.singleton(6), graph.getPredecessors(1));
+		graph.trimToSize();
+		assertEquals(new HashSet<>(Arrays.asList(1, 2, 5)), graph.getPredecessors(4));
+		graph.clear();
+		assertNull(graph.getPredecessors(4));
+		graph.addVertex(4);
+		assertTrue(graph.getPredecessors(4).isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testGetPredecessorsIsUnmodifiable() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(true);
+		graph.addVertex(1);
+		graph.getPredecessors(1).add(2);
+	}
+
+	@Test
+	public void testUndirectedGetPredecessors() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2);
+		assertEquals(Collections.singleton(1), graph.getPredecessors(2));
+		assertEquals(graph.getAdjacentElements(1), graph.getPredecessors(1));
+		assertNull(graph.getPredecessors(3));
+	}
+
+	@Test
+	public void testDegrees() {
+		WeightedHashGraph<Integer, Integer> directed = new WeightedHashGraph<>(true);
+		WeightedHashGraph<Integer, Integer> undirected = new WeightedHashGraph<>(false);
+		for (WeightedHashGraph<Integer, Integer> graph : Arrays.asList(directed, undirected)) {
+			for (int i = 1; i <= 3; i++) {
+				graph.addVertex(i);
+			}
+			graph.addEdge(1, 2);
+			graph.addEdge(1, 3);
+			graph.addEdge(3, 2);
+			assertEquals(-1, graph.getInDegree(4));
+			assertEquals(-1, graph.getOutDegree(4));
+		}
+		assertEquals(2, directed.getOutDegree(1));
+		assertEquals(0, directed.getInDegree(1));
+		assertEquals(0, directed.getOutDegree(2));
+		assertEquals(2, directed.getInDegree(2));
+		assertEquals(2, undirected.getOutDegree(3));
+		assertEquals(2, undirected.getInDegree(3));
+		assertEquals(2, undirected.getInDegree(1));
+	}
+
+	@Test
+	public void testDirectedRemoveEdge() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(true);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2, 3);
+		graph.addEdge(2, 1, 4);
+		assertEquals(Collections.singleton(1), graph.getPredecessors(2));
+		assertFalse(graph.removeEdge(1, 3));
+		assertTrue(graph.removeEdge(1, 2));
+		assertFalse(graph.removeEdge(1, 2));
+		assertFalse(graph.containsEdge(1, 2));
+		assertTrue(graph.containsEdge(2, 1));
+		assertTrue(graph.getPredecessors(2).isEmpty());
+		assertEquals(1, graph.getNumberOfEdges());
+		assertEquals(2, graph.getNumberOfVertices());
+	}
+
+	@Test
+	public void testUndirectedRemoveEdge() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addEdge(1, 2, 3);
+		graph.addEdge(2, 2, 4);
+		assertTrue(graph.removeEdge(2, 1));
+		assertFalse(graph.containsEdge(1, 2));
+		assertFalse(graph.removeEdge(1, 2));
+		assertTrue(graph.removeEdge(2, 2));
+		assertEquals(0, graph.getNumberOfEdges());
+		assertTrue(graph.getAdjacentElements(2).isEmpty());
+	}
+
+	@Test
+	public void testDirectedRemoveVertex() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(true);
+		for (int i = 1; i <= 4; i++) {
+			graph.addVertex(i);
+		}
+		graph.addEdge(1, 2);
+		graph.addEdge(2, 3);
+		graph.addEdge(3, 2);
+		graph.addEdge(2, 2);
+		graph.addEdge(4, 1);
+		assertFalse(graph.removeVertex(5));
+		assertTrue(graph.removeVertex(2));
+		assertFalse(graph.removeVertex(2));
+		assertFalse(graph.containsVertex(2));
+		assertEquals(3, graph.getNumberOfVertices());
+		assertEquals(1, graph.getNumberOfEdges());
+		assertTrue(graph.getAdjacentElements(1).isEmpty());
+		assertTrue(graph.getAdjacentElements(3).isEmpty());
+		assertTrue(graph.getPredecessors(3).isEmpty());
+		assertEquals(Collections.singleton(4), graph.getPredecessors(1));
+		assertTrue(graph.addVertex(2));
+		assertTrue(graph.addEdge(2, 1));
+		assertEquals(new HashSet<>(Arrays.asList(2, 4)), graph.getPredecessors(1));
+	}
+
+	@Test
+	public void testUndirectedRemoveVertex() {
+		WeightedHashGraph<Integer, Integer> graph = new WeightedHashGraph<>(false);
+		graph.addVertex(null);
+		for (int i = 1; i <= 3; i++) {
+			graph.addVertex(i);
+		}
+		graph.addEdge(null, 1);
+		graph.addEdge(null, null);
+		graph.addEdge(2, 1);
+		graph.addEdge(3, 2);
+		assertTrue(graph.removeVertex(null));
+		assertEquals(2, graph.getNumberOfEdges());
+		assertEquals(Collections.singleton(2), graph.getAdjacentElements(1));
+		assertTrue(graph.removeVertex(2));
+		assertEquals(0, graph.getNumberOfEdges());
+		assertTrue(graph.getAdjacentElements(1).isEmpty());
+		assertTrue(graph.getAdjacentElements(3).isEmpty());
+	}
+
+	@Test
+	public void testForEachEdge() {
+		WeightedHashGraph<Integer, String> graph = new WeightedHashGraph<>(false);
+		graph.addVertex(1);
+		graph.addVertex(2);
+		graph.addVertex(null);
+		graph.addEdge(1, 2, "a");
+		graph.addEdge(1, null, "b");
+		graph.addEdge(1, 1);
+		Map<Integer, String> edges = new HashMap<>();
+		graph.forEachEdge(1, edges::put);
+		Map<Integer, String> expected = new HashMap<>();
+		expected.put(2, "a");
+		expected.put(null, "b");
+		expected.put(1, null);
+		assertEquals(expected, edges);
+		edges.clear();
+		graph.forEachEdge(null, edges::put);
+		assertEquals(Collections.singletonMap(1, "b"), edges);
+		graph.forEachEdge(3, (head, weight) -> fail());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testForEachEdgeNullAction() {
+		new WeightedHashGraph<Integer, String>().forEachEdge(1, null);
+	}
+
 }
@@ -0,0 +1,122 @@
+package com.rawva.structures.graphs.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BinaryInputTest {
+
+	private static BinaryInput inputOf(ByteArrayOutputStream bytes, int bufferSize) {
+		return new BinaryInput(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), bufferSize);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		Random random = new Random(1);
+		byte[] block = new byte[100];
+		random.nextBytes(block);
+		try (BinaryOutput output = new BinaryOutput(Channels.newChannel(bytes), 16)) {
+			for (int i = 0; i < 1000; i++) {
+				output.writeByte(i);
+				output.writeInt(i * 31);
+				output.writeLong(i * 1000000007L);
+				output.writeDouble(i / 7.0);
+				output.writeVarInt(i * i);
+				output.writeVarIntSigned(-i);
+				output.writeVarLong((long) i << 40);
+				output.writeVarLongSigned(-((long) i << 40));
+				output.writeBytes(block, i % 50, 50);
+			}
+		}
+
+		// Small buffers make values straddle refills
+		BinaryInput input = inputOf(bytes, 16);
+		byte[] read = new byte[50];
+		for (int i = 0; i < 1000; i++) {
+			assertEquals((byte) i, input.readByte());
+			assertEquals(i * 31, input.readInt());
+			assertEquals(i * 1000000007L, input.readLong());
+			assertEquals(i / 7.0, input.readDouble(), 0.0);
+			assertEquals(i * i, input.readVarInt());
+			assertEquals(-i, input.readVarIntSigned());
+			assertEquals((long) i << 40, input.readVarLong());
+			assertEquals(-((long) i << 40), input.readVarLongSigned());
+			assertFalse(input.isAtEnd());
+			input.readBytes(read, 0, 50);
+			for (int j = 0; j < 50; j++) {
+				assertEquals(block[i % 50 + j], read[j]);
+			}
+		}
+		assertTrue(input.isAtEnd());
+	}
+
+	@Test
+	public void testVarIntLengths() throws IOException {
+		int[] values = { 0, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE };
+		int[] lengths = { 1, 1, 2, 2, 3, 5, 5, 5 };
+		for (int i = 0; i < values.length; i++) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			BinaryOutput output = new BinaryOutput(Channels.newChannel(bytes));
+			output.writeVarInt(values[i]);
+			output.flush();
+			assertEquals(lengths[i], bytes.size());
+			assertEquals(values[i], inputOf(bytes, 16).readVarInt());
+		}
+
+		long[] longValues = { Long.MAX_VALUE, Long.MIN_VALUE, -1 };
+		for (long value : longValues) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			BinaryOutput output = new BinaryOutput(Channels.newChannel(bytes));
+			output.writeVarLong(value);
+			output.writeVarLongSigned(value);
+			output.flush();
+			BinaryInput input = inputOf(bytes, 16);
+			assertEquals(value, input.readVarLong());
+			assertEquals(value, input.readVarLongSigned());
+		}
+	}
+
+	@Test
+	public void testLargeBytes() throws IOException {
+		byte[] block = new byte[100000];
+		new Random(2).nextBytes(block);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryOutput output = new BinaryOutput(Channels.newChannel(bytes), 1024);
+		output.writeBytes(block, 0, block.length);
+		output.flush();
+		byte[] read = new byte[block.length];
+		inputOf(bytes, 1000).readBytes(read, 0, read.length);
+		assertArrayEquals(block, read);
+	}
+
+	@Test(expected = EOFException.class)
+	public void testUnexpectedEnd() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		bytes.write(new byte[] { 1, 2, 3 });
+		inputOf(bytes, 16).readInt();
+	}
+
+	@Test(expected = IOException.class)
+	public void testMalformedVarInt() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		bytes.write(new byte[] { -1, -1, -1, -1, -1, -1 });
+		inputOf(bytes, 16).readVarInt();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBufferTooSmall() {
+		new BinaryOutput(Channels.newChannel(new ByteArrayOutputStream()), 8);
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.rawva.structures.graphs.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CodecsTest {
+
+	private static <T> void assertRoundTrip(Codec<T> codec, List<T> values) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryOutput output = new BinaryOutput(Channels.newChannel(bytes));
+		for (T value : values) {
+			codec.write(output, value);
+		}
+		output.flush();
+		BinaryInput input = new BinaryInput(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+		for (T value : values) {
+			assertEquals(value, codec.read(input));
+		}
+		assertTrue(input.isAtEnd());
+	}
+
+	@Test
+	public void testDoubles() throws IOException {
+		assertRoundTrip(Codecs.doubles(), Arrays.asList(0.0, -1.5, Double.NaN, Double.MAX_VALUE));
+	}
+
+	@Test
+	public void testIntegers() throws IOException {
+		assertRoundTrip(Codecs.integers(), Arrays.asList(0, -1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void testLongs() throws IOException {
+		assertRoundTrip(Codecs.longs(), Arrays.asList(0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testStrings() throws IOException {
+		assertRoundTrip(Codecs.strings(), Arrays.asList("", "graph", "\u00e9\u4e2d\ud83d\ude00"));
+	}
+
+	@Test
+	public void testNullable() throws IOException {
+		assertRoundTrip(Codecs.nullable(Codecs.strings()), Arrays.asList("a", null, "", null));
+	}
+
+	@Test
+	public void testNulls() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryOutput output = new BinaryOutput(Channels.newChannel(bytes));
+		Codecs.nulls().write(output, "ignored");
+		output.flush();
+		assertEquals(0, bytes.size());
+		assertNull(Codecs.nulls().read(null));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullValue() throws IOException {
+		Codecs.integers().write(new BinaryOutput(Channels.newChannel(new ByteArrayOutputStream())), null);
+	}
+
+}
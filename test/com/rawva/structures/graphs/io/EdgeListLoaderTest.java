@@ -0,0 +1,188 @@
+package com.rawva.structures.graphs.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.rawva.structures.graphs.ConcurrentWeightedHashGraph;
+import com.rawva.structures.graphs.IntWeightedGraph;
+import com.rawva.structures.graphs.WeightedGraph;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class EdgeListLoaderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path writeFile(String text) throws IOException {
+		Path path = folder.newFile().toPath();
+		Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+		return path;
+	}
+
+	/**
+	 * Writes a random edge list and adds its edges, in order, to the specified
+	 * graph.
+	 */
+	private Path writeRandomEdgeList(long seed, int n, int m, WeightedGraph<Integer, Double> expected)
+			throws IOException {
+		Random random = new Random(seed);
+		StringBuilder text = new StringBuilder("# tail head weight\n");
+		for (int i = 0; i < m; i++) {
+			int tail = random.nextInt(n);
+			int head = random.nextInt(n);
+			double weight = random.nextInt(1000) / 10.0;
+			String separator = i % 3 == 0 ? "," : i % 3 == 1 ? "\t" : "  ";
+			text.append(tail).append(separator).append(head).append(separator).append(weight);
+			text.append(i % 5 == 0 ? "\r\n" : "\n");
+			expected.addVertex(tail);
+			expected.addVertex(head);
+			expected.addEdge(tail, head, weight);
+		}
+		return writeFile(text.toString());
+	}
+
+	private static void assertSameGraph(WeightedGraph<Integer, Double> expected,
+			WeightedGraph<Integer, Double> actual) {
+		assertEquals(expected.getNumberOfVertices(), actual.getNumberOfVertices());
+		assertEquals(expected.getNumberOfEdges(), actual.getNumberOfEdges());
+		for (Integer tail : expected.getVertices()) {
+			assertEquals(expected.getAdjacentElements(tail), actual.getAdjacentElements(tail));
+			for (Integer head : expected.getAdjacentElements(tail)) {
+				assertEquals(expected.getWeight(tail, head), actual.getWeight(tail, head));
+			}
+		}
+	}
+
+	@Test
+	public void testLoadIntoWeightedHashGraph() throws IOException {
+		for (boolean isDirected : new boolean[] { true, false }) {
+			WeightedHashGraph<Integer, Double> expected = new WeightedHashGraph<>(isDirected);
+			Path path = writeRandomEdgeList(isDirected ? 1 : 2, 500, 20000, expected);
+
+			// Small chunks cut most lines and keep every parser busy
+			EdgeListLoader<Integer, Double> loader = new EdgeListLoader<>(Integer::valueOf, Double::valueOf, 4, 100);
+			WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>(isDirected);
+			assertEquals(expected.getNumberOfEdges(), loader.load(path, graph));
+			assertSameGraph(expected, graph);
+		}
+	}
+
+	@Test
+	public void testLoadIntoConcurrentGraph() throws IOException {
+		// Every edge is listed once, so the order of insertion does not matter
+		StringBuilder text = new StringBuilder();
+		WeightedHashGraph<Integer, Double> expected = new WeightedHashGraph<>(true);
+		for (int tail = 0; tail < 100; tail++) {
+			expected.addVertex(tail);
+			for (int head = 0; head < 100; head += 3) {
+				expected.addVertex(head);
+				expected.addEdge(tail, head, (double) tail);
+				text.append(tail).append(' ').append(head).append(' ').append(tail).append('\n');
+			}
+		}
+		EdgeListLoader<Integer, Double> loader = new EdgeListLoader<>(Integer::valueOf, Double::valueOf, 4, 64);
+		ConcurrentWeightedHashGraph<Integer, Double> graph = new ConcurrentWeightedHashGraph<>(true);
+		assertEquals(expected.getNumberOfEdges(), loader.load(writeFile(text.toString()), graph));
+		assertSameGraph(expected, graph);
+	}
+
+	@Test
+	public void testLoadIntoOtherGraph() throws IOException {
+		IntWeightedGraph expected = new IntWeightedGraph(false);
+		Path path = writeRandomEdgeList(3, 200, 3000, expected);
+		IntWeightedGraph graph = new IntWeightedGraph(false);
+		new EdgeListLoader<>(Integer::valueOf, Double::valueOf, 2, 1000).load(path, graph);
+		assertSameGraph(expected, graph);
+	}
+
+	@Test
+	public void testUnweightedLinesAndComments() throws IOException {
+		Path path = writeFile("% comment\n\na b\n\tb,c\n# another comment\nc a 2\nlast vertex");
+		WeightedHashGraph<String, Integer> graph = new WeightedHashGraph<>(true);
+		EdgeListLoader<String, Integer> loader = new EdgeListLoader<>(s -> s, Integer::valueOf);
+		assertEquals(4, loader.load(path, graph));
+		assertTrue(graph.containsEdge("a", "b"));
+		assertNull(graph.getWeight("a", "b"));
+		assertTrue(graph.containsEdge("b", "c"));
+		assertEquals(Integer.valueOf(2), graph.getWeight("c", "a"));
+		assertTrue(graph.containsEdge("last", "vertex"));
+		assertFalse(graph.containsVertex("%"));
+	}
+
+	@Test
+	public void testLineLongerThanChunk() throws IOException {
+		StringBuilder tail = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			tail.append('x');
+		}
+		Path path = writeFile("a b\n" + tail + " " + tail + "y\nb c\n");
+		WeightedHashGraph<String, String> graph = new WeightedHashGraph<>(true);
+		new EdgeListLoader<>(s -> s, s -> s, 2, 32).load(path, graph);
+		assertEquals(3, graph.getNumberOfEdges());
+		assertTrue(graph.containsEdge(tail.toString(), tail + "y"));
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException {
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>();
+		assertEquals(0, new EdgeListLoader<>(Integer::valueOf, Double::valueOf).load(writeFile(""), graph));
+		assertTrue(graph.isEmpty());
+	}
+
+	@Test(expected = IOException.class)
+	public void testMalformedNumber() throws IOException {
+		Path path = writeFile("1 2\n3 x\n");
+		new EdgeListLoader<>(Integer::valueOf, Double::valueOf).load(path, new WeightedHashGraph<>());
+	}
+
+	@Test
+	public void testFailedLoadIntoConcurrentGraph() throws IOException, InterruptedException {
+		// The first chunk fails while the other parsers are still inserting
+		StringBuilder text = new StringBuilder("1 x\n");
+		for (int i = 0; i < 100000; i++) {
+			text.append(i).append(' ').append(i + 1).append('\n');
+		}
+		Path path = writeFile(text.toString());
+		ConcurrentWeightedHashGraph<Integer, Double> graph = new ConcurrentWeightedHashGraph<>(true);
+		try {
+			new EdgeListLoader<>(Integer::valueOf, Double::valueOf, 4, 4096).load(path, graph);
+			fail();
+		} catch (IOException e) {
+			// Expected
+		}
+		int numberOfEdges = graph.getNumberOfEdges();
+		Thread.sleep(100);
+		assertEquals(numberOfEdges, graph.getNumberOfEdges());
+	}
+
+	@Test(expected = IOException.class)
+	public void testTooManyFields() throws IOException {
+		Path path = writeFile("1 2 3 4\n");
+		new EdgeListLoader<>(Integer::valueOf, Double::valueOf).load(path, new WeightedHashGraph<>());
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingFile() throws IOException {
+		new EdgeListLoader<>(Integer::valueOf, Double::valueOf).load(folder.getRoot().toPath().resolve("missing"),
+				new WeightedHashGraph<>());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidNumberOfParsers() {
+		new EdgeListLoader<>(Integer::valueOf, Double::valueOf, 0);
+	}
+
+}
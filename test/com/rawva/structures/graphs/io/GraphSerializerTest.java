@@ -0,0 +1,147 @@
+package com.rawva.structures.graphs.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.rawva.structures.graphs.CsrGraph;
+import com.rawva.structures.graphs.RandomGraphs;
+import com.rawva.structures.graphs.RandomGraphs.EdgeWeights;
+import com.rawva.structures.graphs.WeightedGraph;
+import com.rawva.structures.graphs.WeightedHashGraph;
+
+public class GraphSerializerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	// About one weight in ten is null
+	private static final EdgeWeights<Double> NULLABLE_WEIGHTS = (random, tail, head) -> random.nextInt(10) == 0 ? null
+			: random.nextDouble();
+
+	private static <V, W> void assertSameGraph(WeightedGraph<V, W> expected, WeightedGraph<V, W> actual) {
+		assertEquals(expected.isDirected(), actual.isDirected());
+		assertEquals(expected.getNumberOfVertices(), actual.getNumberOfVertices());
+		assertEquals(expected.getNumberOfEdges(), actual.getNumberOfEdges());
+		assertEquals(expected.getVertices(), actual.getVertices());
+		for (V tail : expected.getVertices()) {
+			assertEquals(expected.getAdjacentElements(tail), actual.getAdjacentElements(tail));
+			for (V head : expected.getAdjacentElements(tail)) {
+				assertEquals(expected.getWeight(tail, head), actual.getWeight(tail, head));
+			}
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		GraphSerializer<Integer, Double> serializer = new GraphSerializer<>(Codecs.integers(),
+				Codecs.nullable(Codecs.doubles()));
+		for (boolean isDirected : new boolean[] { true, false }) {
+			for (boolean compress : new boolean[] { true, false }) {
+				// Elements spread over negative and positive ids
+				Random random = new Random(isDirected ? 1 : 2);
+				WeightedHashGraph<Integer, Double> graph = RandomGraphs.fill(new WeightedHashGraph<>(isDirected),
+						random, random.ints(3000, -15000, 15000).toArray(), 20000, NULLABLE_WEIGHTS);
+				Path path = folder.newFile().toPath();
+				serializer.write(graph, path, compress);
+				assertSameGraph(graph, serializer.read(path));
+			}
+		}
+	}
+
+	@Test
+	public void testCompressionShrinksFile() throws IOException {
+		GraphSerializer<Integer, Double> serializer = new GraphSerializer<>(Codecs.integers(),
+				Codecs.nullable(Codecs.doubles()));
+		WeightedHashGraph<Integer, Double> graph = new WeightedHashGraph<>(true);
+		for (int i = 0; i < 1000; i++) {
+			graph.addVertex(i);
+			graph.addEdge(i, i / 2, 1.0);
+		}
+		Path plain = folder.newFile().toPath();
+		Path compressed = folder.newFile().toPath();
+		serializer.write(graph, plain, false);
+		serializer.write(graph, compressed, true);
+		assertTrue(Files.size(compressed) < Files.size(plain));
+		assertSameGraph(graph, serializer.read(compressed));
+	}
+
+	@Test
+	public void testDeltaEncodingIsCompact() throws IOException {
+		// A path 0 - 1 - ... - 999 takes one byte per head and per weight
+		WeightedHashGraph<Integer, Object> graph = new WeightedHashGraph<>(false);
+		graph.addVertex(0);
+		for (int i = 1; i < 1000; i++) {
+			graph.addVertex(i);
+			graph.addEdge(i - 1, i);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		GraphSerializer<Integer, Object> serializer = new GraphSerializer<>(Codecs.integers(), Codecs.nulls());
+		serializer.write(graph, Channels.newChannel(bytes));
+		assertTrue(bytes.size() < 5000);
+		WeightedHashGraph<Integer, Object> read = serializer
+				.read(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+		assertSameGraph(graph, read);
+	}
+
+	@Test
+	public void testOtherGraphTypes() throws IOException {
+		WeightedHashGraph<String, String> graph = new WeightedHashGraph<>(false);
+		for (String vertex : Arrays.asList("a", "b", "c", "d")) {
+			graph.addVertex(vertex);
+		}
+		graph.addEdge("a", "b", "ab");
+		graph.addEdge("c", "c", "cc");
+		graph.addEdge("d", "a", "da");
+		CsrGraph<String, String> frozen = graph.freeze();
+		GraphSerializer<String, String> serializer = new GraphSerializer<>(Codecs.strings(), Codecs.strings());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		serializer.write(frozen, Channels.newChannel(bytes));
+		assertSameGraph(graph, serializer.read(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()))));
+	}
+
+	@Test
+	public void testEmptyGraph() throws IOException {
+		GraphSerializer<Integer, Double> serializer = new GraphSerializer<>(Codecs.integers(), Codecs.doubles());
+		Path path = folder.newFile().toPath();
+		serializer.write(new WeightedHashGraph<Integer, Double>(), path, true);
+		assertTrue(serializer.read(path).isEmpty());
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotAGraph() throws IOException {
+		Path path = folder.newFile().toPath();
+		Files.write(path, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		new GraphSerializer<>(Codecs.integers(), Codecs.doubles()).read(path);
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedGraph() throws IOException {
+		GraphSerializer<Integer, Double> serializer = new GraphSerializer<>(Codecs.integers(),
+				Codecs.nullable(Codecs.doubles()));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		Random random = new Random(3);
+		serializer.write(RandomGraphs.fill(new WeightedHashGraph<>(true), random, 100, 500, NULLABLE_WEIGHTS),
+				Channels.newChannel(bytes));
+		byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 10);
+		serializer.read(Channels.newChannel(new ByteArrayInputStream(truncated)));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullCodec() {
+		new GraphSerializer<>(Codecs.integers(), null);
+	}
+
+}